@@ -0,0 +1,80 @@
+package com.subsidios.rentajoven.api.controller;
+
+import com.subsidios.rentajoven.shared.audit.AuditService;
+import com.subsidios.rentajoven.shared.audit.DiarioAuditoria;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Administración de la auditoría.
+ *
+ * Endpoints:
+ * - GET /api/admin/auditoria/diario - Verifica la cadena de hashes del diario
+ * - GET /api/admin/auditoria/diario/estado - Si el diario escribe (503 si no; sirve de readiness)
+ */
+@RestController
+@RequestMapping("/api/admin/auditoria")
+public class AdminAuditoriaController {
+
+    @Autowired
+    private AuditService auditService;
+
+    /**
+     * Estado de escritura del diario sin recorrerlo. Con el diario caído las
+     * decisiones fallan, así que responde 503.
+     */
+    @GetMapping("/diario/estado")
+    public ResponseEntity<Map<String, Object>> estadoDiario() {
+        Map<String, Object> response = new LinkedHashMap<>();
+        Boolean operativo = auditService.diarioOperativo();
+        response.put("habilitado", operativo != null);
+        if (operativo == null) {
+            return ResponseEntity.ok(response);
+        }
+        response.put("operativo", operativo);
+        if (!operativo) {
+            response.put("falla", auditService.fallaDiario());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Recorre el diario completo; una cadena rota responde 409 con el
+     * primer registro inválido.
+     */
+    @GetMapping("/diario")
+    public ResponseEntity<Map<String, Object>> verificarDiario() {
+        Map<String, Object> response = new LinkedHashMap<>();
+        try {
+            long inicio = System.currentTimeMillis();
+            DiarioAuditoria.Verificacion verificacion = auditService.verificarDiario();
+            if (verificacion == null) {
+                response.put("habilitado", false);
+                return ResponseEntity.ok(response);
+            }
+            response.put("valido", verificacion.isValido());
+            response.put("registros", verificacion.getRegistros());
+            response.put("ultimoHash", verificacion.getUltimoHash());
+            response.put("mensaje", verificacion.getMensaje());
+            if (!verificacion.isValido()) {
+                response.put("posicionFalla", verificacion.getPosicionFalla());
+            }
+            response.put("tiempoMs", System.currentTimeMillis() - inicio);
+            return verificacion.isValido()
+                ? ResponseEntity.ok(response)
+                : ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        } catch (IOException e) {
+            response.put("error", e.getMessage());
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.subsidios.rentajoven.api.controller;
+
+import com.subsidios.rentajoven.application.service.PrecalculoElegibilidad;
+import com.subsidios.rentajoven.infrastructure.dataset.DatosReferenciaActivos;
+import com.subsidios.rentajoven.infrastructure.dataset.VersionDatos;
+import com.subsidios.rentajoven.infrastructure.external.CSVDataLoader;
+import com.subsidios.rentajoven.infrastructure.external.EstadisticasFiltroSNIES;
+import com.subsidios.rentajoven.infrastructure.external.IngestorDeltas;
+import com.subsidios.rentajoven.infrastructure.external.ResultadoCompactacion;
+import com.subsidios.rentajoven.infrastructure.external.ResultadoDeltas;
+import com.subsidios.rentajoven.infrastructure.external.SNIESSimulator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Administración de los datos de referencia (SISBEN, SNIES, MEN).
+ *
+ * Endpoints:
+ * - GET  /api/admin/datos/version  - Versión publicada actualmente
+ * - POST /api/admin/datos/recargar - Recarga y publica una versión nueva
+ * - POST /api/admin/datos/deltas   - Aplica los archivos delta pendientes
+ * - POST /api/admin/datos/compactar - Incorpora las capas delta a bases nuevas
+ * - GET  /api/admin/datos/filtro-snies - Consultas SNIES evitadas y falsos positivos
+ * - GET  /api/admin/datos/elegibilidad - Estado del índice de elegibilidad precalculado
+ */
+@RestController
+@RequestMapping("/api/admin/datos")
+public class AdminDatosController {
+
+    @Autowired
+    private DatosReferenciaActivos datosActivos;
+
+    @Autowired
+    private CSVDataLoader csvDataLoader;
+
+    @Autowired
+    private IngestorDeltas ingestorDeltas;
+
+    @Autowired
+    private SNIESSimulator sniesSimulator;
+
+    @Autowired
+    private PrecalculoElegibilidad precalculo;
+
+    @GetMapping("/version")
+    public ResponseEntity<Map<String, Object>> version() {
+        return ResponseEntity.ok(describir(datosActivos.actual()));
+    }
+
+    /**
+     * Recarga síncrona: responde cuando la nueva versión ya está publicada.
+     * Las solicitudes en curso terminan con la versión anterior.
+     */
+    @PostMapping("/recargar")
+    public ResponseEntity<Map<String, Object>> recargar() {
+        long inicio = System.currentTimeMillis();
+        try {
+            Map<String, Object> response = describir(csvDataLoader.recargar("admin"));
+            response.put("tiempo_ms", System.currentTimeMillis() - inicio);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> response = describir(datosActivos.actual());
+            response.put("error", e.getMessage());
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+
+    @PostMapping("/deltas")
+    public ResponseEntity<ResultadoDeltas> aplicarDeltas() {
+        return ResponseEntity.ok(ingestorDeltas.aplicarPendientes());
+    }
+
+    @PostMapping("/compactar")
+    public ResponseEntity<List<ResultadoCompactacion>> compactar() {
+        return ResponseEntity.ok(ingestorDeltas.compactar());
+    }
+
+    @GetMapping("/filtro-snies")
+    public ResponseEntity<EstadisticasFiltroSNIES> filtroSnies() {
+        return ResponseEntity.ok(sniesSimulator.getEstadisticasFiltro());
+    }
+
+    @GetMapping("/elegibilidad")
+    public ResponseEntity<Map<String, Object>> elegibilidad() {
+        return ResponseEntity.ok(precalculo.estadisticas());
+    }
+
+    private Map<String, Object> describir(VersionDatos version) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("version", version.getId());
+        response.put("origen", version.getOrigen());
+        response.put("publicada_en", version.getPublicadaEn().toString());
+        response.put("sisben_registros", version.getSisben().tamanio());
+        response.put("snies_registros", version.getSnies().tamanio());
+        response.put("men_registros", version.getMen().tamanio());
+        response.put("deltas", version.getDeltas());
+        response.put("capas_delta", ingestorDeltas.capasDelta(version));
+        return response;
+    }
+}
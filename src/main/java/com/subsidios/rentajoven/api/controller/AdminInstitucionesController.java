@@ -0,0 +1,75 @@
+package com.subsidios.rentajoven.api.controller;
+
+import com.subsidios.rentajoven.application.contract.ReglasActivas;
+import com.subsidios.rentajoven.infrastructure.dataset.InstitucionesActivas;
+import com.subsidios.rentajoven.infrastructure.index.NombreInstitucion;
+import com.subsidios.rentajoven.infrastructure.index.RegistroInstituciones;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Administración del registro de instituciones reconocidas.
+ *
+ * Endpoints:
+ * - GET  /api/admin/instituciones          - Registro vigente; con ?nombre= indica si se reconoce
+ * - POST /api/admin/instituciones/recargar - Lee y publica de nuevo las fuentes configuradas
+ */
+@RestController
+@RequestMapping("/api/admin/instituciones")
+public class AdminInstitucionesController {
+
+    @Autowired
+    private InstitucionesActivas instituciones;
+
+    @Autowired
+    private ReglasActivas reglasActivas;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> vigente(@RequestParam(required = false) String nombre) {
+        Map<String, Object> response = describir(instituciones.actual());
+        if (nombre != null) {
+            Map<String, Object> consulta = new LinkedHashMap<>();
+            consulta.put("nombre", nombre);
+            consulta.put("normalizado", NombreInstitucion.normalizar(nombre));
+            consulta.put("registrada", instituciones.actual().contiene(nombre));
+            Map<String, Boolean> reconocidaPorPrograma = new LinkedHashMap<>();
+            reglasActivas.programas().forEach((programa, reglas) ->
+                reconocidaPorPrograma.put(programa, reglas.institucionReconocida(nombre)));
+            consulta.put("reconocida", reconocidaPorPrograma);
+            response.put("consulta", consulta);
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Una fuente inválida responde 400 y deja vigente el registro anterior.
+     */
+    @PostMapping("/recargar")
+    public ResponseEntity<Map<String, Object>> recargar() {
+        try {
+            return ResponseEntity.ok(describir(instituciones.recargar()));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            Map<String, Object> response = describir(instituciones.actual());
+            response.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    private Map<String, Object> describir(RegistroInstituciones registro) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("origen", registro.getOrigen());
+        response.put("huella", Long.toHexString(registro.getHuella()));
+        response.put("cargado", registro.getCargado().toString());
+        response.put("instituciones", registro.tamanio());
+        response.put("nombres_indexados", registro.claves());
+        return response;
+    }
+}
@@ -0,0 +1,122 @@
+package com.subsidios.rentajoven.api.controller;
+
+import com.subsidios.rentajoven.application.contract.ReglaCompilada;
+import com.subsidios.rentajoven.application.contract.ReglasActivas;
+import com.subsidios.rentajoven.application.contract.ReglasElegibilidad;
+import com.subsidios.rentajoven.application.shadow.EstadisticasSombra;
+import com.subsidios.rentajoven.application.shadow.EvaluacionSombra;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Administración de las reglas de elegibilidad.
+ *
+ * Endpoints:
+ * - GET  /api/admin/reglas          - Reglas vigentes y su cadena de evaluación
+ * - GET  /api/admin/reglas/programas - Reglas de cada programa configurado
+ * - POST /api/admin/reglas/recargar - Lee, compila y publica los archivos de reglas
+ * - POST /api/admin/reglas/sombra   - Evalúa en sombra las reglas del cuerpo (mismo JSON que el archivo)
+ * - GET  /api/admin/reglas/sombra   - Discrepancias con las reglas vigentes, por motivo
+ * - DELETE /api/admin/reglas/sombra - Detiene la evaluación en sombra
+ */
+@RestController
+@RequestMapping("/api/admin/reglas")
+public class AdminReglasController {
+
+    @Autowired
+    private ReglasActivas reglasActivas;
+
+    @Autowired
+    private EvaluacionSombra sombra;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> vigentes() {
+        return ResponseEntity.ok(describir(reglasActivas.actual()));
+    }
+
+    @GetMapping("/programas")
+    public ResponseEntity<List<Map<String, Object>>> programas() {
+        List<Map<String, Object>> programas = new ArrayList<>();
+        reglasActivas.programas().values().forEach(reglas -> programas.add(describir(reglas)));
+        return ResponseEntity.ok(programas);
+    }
+
+    /**
+     * Un archivo inválido responde 400 y deja vigentes las reglas anteriores.
+     * Las decisiones en curso terminan con las reglas con que empezaron.
+     */
+    @PostMapping("/recargar")
+    public ResponseEntity<Map<String, Object>> recargar() {
+        try {
+            return ResponseEntity.ok(describir(reglasActivas.recargar()));
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> response = describir(reglasActivas.actual());
+            response.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    /**
+     * Las reglas candidatas no se publican: solo se comparan contra las
+     * decisiones en vivo a partir de este momento.
+     */
+    @PostMapping("/sombra")
+    public ResponseEntity<?> activarSombra(@RequestBody String definicion) {
+        try {
+            ReglasElegibilidad candidata = reglasActivas.compilar(definicion.getBytes(StandardCharsets.UTF_8), "sombra");
+            return ResponseEntity.ok(sombra.activar(candidata));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/sombra")
+    public ResponseEntity<EstadisticasSombra> estadisticasSombra(
+            @RequestParam(defaultValue = "20") int recientes) {
+        return ResponseEntity.ok(sombra.estadisticas(recientes));
+    }
+
+    @DeleteMapping("/sombra")
+    public ResponseEntity<EstadisticasSombra> desactivarSombra() {
+        return ResponseEntity.ok(sombra.desactivar());
+    }
+
+    private Map<String, Object> describir(ReglasElegibilidad reglas) {
+        List<Map<String, Object>> cadena = new ArrayList<>();
+        for (ReglaCompilada regla : reglas.cadena()) {
+            Map<String, Object> eslabon = new LinkedHashMap<>();
+            eslabon.put("id", regla.getId());
+            eslabon.put("tipo", regla.getTipo());
+            eslabon.put("ambito", regla.getAmbito());
+            eslabon.put("costo", regla.getCosto());
+            cadena.add(eslabon);
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("programa", reglas.getPrograma());
+        response.put("version", reglas.getVersion());
+        response.put("origen", reglas.getOrigen());
+        response.put("huella", Long.toHexString(reglas.getHuella()));
+        response.put("cargadas", reglas.getCargadas().toString());
+        response.put("cadena", cadena);
+        response.put("edad_minima", reglas.getEdadMinima());
+        response.put("edad_maxima", reglas.getEdadMaxima());
+        response.put("niveles_elegibles", reglas.nivelesElegibles());
+        response.put("intensidad_minima", reglas.getIntensidadMinima());
+        response.put("instituciones_excluidas", reglas.institucionesExcluidas());
+        response.put("exigir_registro_instituciones", reglas.isExigirRegistro());
+        return response;
+    }
+}
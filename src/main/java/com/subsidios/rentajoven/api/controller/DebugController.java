@@ -1,19 +1,20 @@
 package com.subsidios.rentajoven.api.controller;
 
+import com.subsidios.rentajoven.domain.model.MENResponse;
+import com.subsidios.rentajoven.domain.model.SISBENResponse;
 import com.subsidios.rentajoven.infrastructure.external.MENSimulator;
 import com.subsidios.rentajoven.infrastructure.external.SISBENSimulator;
 import com.subsidios.rentajoven.infrastructure.external.SNIESSimulator;
+import com.subsidios.rentajoven.infrastructure.index.IndiceCedulas;
+import com.subsidios.rentajoven.infrastructure.index.IndiceMatriculas;
+import com.subsidios.rentajoven.infrastructure.index.PaginaClaves;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ClassPathResource;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -21,11 +22,18 @@ import java.util.Map;
 
 /**
  * Controlador de debugging - Solo para desarrollo.
+ *
+ * Todas las consultas se resuelven contra los datos ya cargados en memoria
+ * (índices ordenados de los simuladores), sin releer CSVs ni simular latencia,
+ * para poder usarlo durante pruebas de carga sin afectar el flujo de decisión.
  */
 @RestController
 @RequestMapping("/api/debug")
 public class DebugController {
 
+    // Tope de resultados por página para que una consulta no monopolice CPU/memoria
+    private static final int LIMITE_MAXIMO = 1000;
+
     @Autowired
     private SISBENSimulator sisbenSimulator;
 
@@ -49,71 +57,37 @@ public class DebugController {
     }
 
     /**
-     * Ver primeras N matrículas del CSV.
+     * Ver N matrículas cargadas (orden lexicográfico).
      */
     @GetMapping("/matriculas-sample")
     public ResponseEntity<List<String>> getMatriculasSample(
-            @RequestParam(defaultValue = "20") int limit) {
-
-        List<String> matriculas = new ArrayList<>();
-
-        try {
-            ClassPathResource resource = new ClassPathResource("data/men_simulator.csv");
-            BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8));
-
-            String line = reader.readLine(); // Skip header
-            int count = 0;
-
-            while ((line = reader.readLine()) != null && count < limit) {
-                String[] campos = line.split(",");
-                if (campos.length > 0) {
-                    matriculas.add(campos[0].trim());
-                    count++;
-                }
-            }
-
-            reader.close();
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "0") int offset) {
 
-        } catch (Exception e) {
-            System.err.println("Error leyendo matrículas: " + e.getMessage());
-        }
+        PaginaClaves pagina = menSimulator.getIndiceMatriculas()
+                .pagina(normalizarOffset(offset), normalizarLimite(limit));
 
-        return ResponseEntity.ok(matriculas);
+        return ResponseEntity.ok(pagina.getClaves());
     }
 
     /**
-     * Ver primeras N cédulas del CSV SISBEN.
+     * Ver N cédulas cargadas en SISBEN (orden numérico; las no canónicas al final).
      */
     @GetMapping("/cedulas-sample")
     public ResponseEntity<Map<String, Object>> getCedulasSample(
-            @RequestParam(defaultValue = "20") int limit) {
-
-        List<Map<String, String>> cedulas = new ArrayList<>();
-
-        try {
-            ClassPathResource resource = new ClassPathResource("data/sisben_simulator.csv");
-            BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8));
-
-            String line = reader.readLine(); // Skip header
-            int count = 0;
-
-            while ((line = reader.readLine()) != null && count < limit) {
-                String[] campos = line.split(",");
-                if (campos.length >= 3) {
-                    Map<String, String> item = new HashMap<>();
-                    item.put("cedula", campos[1].trim());
-                    item.put("nivel", campos[2].trim());
-                    cedulas.add(item);
-                    count++;
-                }
-            }
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "0") int offset) {
 
-            reader.close();
+        PaginaClaves pagina = sisbenSimulator.getIndiceCedulas()
+                .pagina(normalizarOffset(offset), normalizarLimite(limit));
 
-        } catch (Exception e) {
-            System.err.println("Error leyendo cédulas: " + e.getMessage());
+        List<Map<String, String>> cedulas = new ArrayList<>();
+        for (String cedula : pagina.getClaves()) {
+            SISBENResponse sisben = sisbenSimulator.obtenerRegistro(cedula);
+            Map<String, String> item = new HashMap<>();
+            item.put("cedula", cedula);
+            item.put("nivel", sisben != null ? sisben.getNivel().name() : null);
+            cedulas.add(item);
         }
 
         Map<String, Object> response = new HashMap<>();
@@ -123,6 +97,51 @@ public class DebugController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Buscar cédulas SISBEN por prefijo o por rango numérico [desde, hasta].
+     */
+    @GetMapping("/cedulas")
+    public ResponseEntity<PaginaClaves> buscarCedulas(
+            @RequestParam(required = false) String prefijo,
+            @RequestParam(required = false) Long desde,
+            @RequestParam(required = false) Long hasta,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        IndiceCedulas indice = sisbenSimulator.getIndiceCedulas();
+        int off = normalizarOffset(offset);
+        int lim = normalizarLimite(limit);
+
+        if (desde != null || hasta != null) {
+            return ResponseEntity.ok(indice.buscarRango(
+                    desde != null ? desde : 0L,
+                    hasta != null ? hasta : Long.MAX_VALUE,
+                    off, lim));
+        }
+        return ResponseEntity.ok(indice.buscarPrefijo(prefijo, off, lim));
+    }
+
+    /**
+     * Buscar matrículas MEN por prefijo o por rango lexicográfico [desde, hasta].
+     */
+    @GetMapping("/matriculas")
+    public ResponseEntity<PaginaClaves> buscarMatriculas(
+            @RequestParam(required = false) String prefijo,
+            @RequestParam(required = false) String desde,
+            @RequestParam(required = false) String hasta,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        IndiceMatriculas indice = menSimulator.getIndiceMatriculas();
+        int off = normalizarOffset(offset);
+        int lim = normalizarLimite(limit);
+
+        if (desde != null || hasta != null) {
+            return ResponseEntity.ok(indice.buscarRango(desde, hasta, off, lim));
+        }
+        return ResponseEntity.ok(indice.buscarPrefijo(prefijo, off, lim));
+    }
+
     /**
      * Buscar matrícula por ID exacto.
      */
@@ -133,12 +152,12 @@ public class DebugController {
         Map<String, Object> response = new HashMap<>();
 
         try {
-            var resultado = menSimulator.consultar(matriculaId);
+            MENResponse resultado = menSimulator.obtenerRegistro(matriculaId);
 
             response.put("matriculaId", matriculaId);
-            response.put("encontrada", resultado.isEncontrada());
+            response.put("encontrada", resultado != null);
 
-            if (resultado.isEncontrada()) {
+            if (resultado != null) {
                 response.put("cedula", resultado.getCedula());
                 response.put("institucion", resultado.getInstitucion());
                 response.put("programa", resultado.getPrograma());
@@ -164,12 +183,12 @@ public class DebugController {
         Map<String, Object> response = new HashMap<>();
 
         try {
-            var resultado = sisbenSimulator.consultar(cedula);
+            SISBENResponse resultado = sisbenSimulator.obtenerRegistro(cedula);
 
             response.put("cedula", cedula);
-            response.put("encontrada", resultado.isEncontrado());
+            response.put("encontrada", resultado != null);
 
-            if (resultado.isEncontrado()) {
+            if (resultado != null) {
                 response.put("nivel", resultado.getNivel().name());
                 response.put("puntaje", resultado.getPuntaje());
                 response.put("departamento", resultado.getDepartamento());
@@ -185,66 +204,52 @@ public class DebugController {
     }
 
     /**
-     * Buscar registros del dataset_maestro que tengan TODO:
+     * Buscar registros que tengan TODO:
      * - Cédula en SISBEN
      * - Matrícula en MEN
      * - Sin título en SNIES
-     * - Edad 14-28
+     *
+     * Recorre las matrículas en orden a partir de {@code offset}; la respuesta
+     * trae como máximo {@code limit} registros.
      */
     @GetMapping("/buscar-registros-completos")
     public ResponseEntity<List<Map<String, Object>>> buscarRegistrosCompletos(
-            @RequestParam(defaultValue = "10") int limit) {
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "0") int offset) {
 
         List<Map<String, Object>> registros = new ArrayList<>();
+        int lim = normalizarLimite(limit);
 
         try {
-            // Leer primeras N matrículas del MEN
-            ClassPathResource menResource = new ClassPathResource("data/men_simulator.csv");
-            BufferedReader menReader = new BufferedReader(
-                    new InputStreamReader(menResource.getInputStream(), StandardCharsets.UTF_8));
-
-            String line = menReader.readLine(); // Skip header
-            int count = 0;
+            IndiceMatriculas indice = menSimulator.getIndiceMatriculas();
+            int posicion = normalizarOffset(offset);
 
-            while ((line = menReader.readLine()) != null && count < limit) {
-                String[] campos = line.split(",");
+            while (registros.size() < lim && posicion < indice.tamanio()) {
+                PaginaClaves pagina = indice.pagina(posicion, LIMITE_MAXIMO);
+                posicion += pagina.getClaves().size();
 
-                if (campos.length >= 7) {
-                    String matriculaId = campos[0].trim();
-                    String cedula = campos[1].trim();
-                    String estado = campos[4].trim();
+                for (String matriculaId : pagina.getClaves()) {
+                    MENResponse men = menSimulator.obtenerRegistro(matriculaId);
 
                     // Solo matrículas VIGENTES
-                    if (!"VIGENTE".equalsIgnoreCase(estado)) {
+                    if (men == null || !"VIGENTE".equalsIgnoreCase(men.getEstado())) {
                         continue;
                     }
 
-                    // Verificar en SISBEN
-                    var sisben = sisbenSimulator.consultar(cedula);
-                    if (!sisben.isEncontrado()) {
-                        continue;
-                    }
-
-                    // Solo niveles elegibles (A, B, C)
-                    if (!sisben.getNivel().isElegible()) {
+                    // Verificar en SISBEN, solo niveles elegibles (A, B, C)
+                    SISBENResponse sisben = sisbenSimulator.obtenerRegistro(men.getCedula());
+                    if (sisben == null || !sisben.getNivel().isElegible()) {
                         continue;
                     }
 
                     // Verificar en SNIES (debe NO tener título)
-                    var snies = sniesSimulator.consultar(cedula);
-                    if (snies.isTieneTitulo()) {
-                        continue;
-                    }
-
-                    // Verificar matrícula en MEN
-                    var men = menSimulator.consultar(matriculaId);
-                    if (!men.isEncontrada()) {
+                    if (sniesSimulator.obtenerRegistro(men.getCedula()) != null) {
                         continue;
                     }
 
                     // ✅ REGISTRO COMPLETO Y ELEGIBLE
                     Map<String, Object> registro = new HashMap<>();
-                    registro.put("cedula", cedula);
+                    registro.put("cedula", men.getCedula());
                     registro.put("matriculaId", matriculaId);
                     registro.put("sisben_nivel", sisben.getNivel().name());
                     registro.put("sisben_puntaje", sisben.getPuntaje());
@@ -256,12 +261,12 @@ public class DebugController {
                     registro.put("deberia_aprobar", true);
 
                     registros.add(registro);
-                    count++;
+                    if (registros.size() >= lim) {
+                        break;
+                    }
                 }
             }
 
-            menReader.close();
-
             return ResponseEntity.ok(registros);
 
         } catch (Exception e) {
@@ -269,4 +274,12 @@ public class DebugController {
             return ResponseEntity.status(500).body(new ArrayList<>());
         }
     }
-}
\ No newline at end of file
+
+    private int normalizarLimite(int limit) {
+        return Math.max(0, Math.min(limit, LIMITE_MAXIMO));
+    }
+
+    private int normalizarOffset(int offset) {
+        return Math.max(0, offset);
+    }
+}
@@ -1,17 +1,31 @@
 package com.subsidios.rentajoven.api.controller;
 
 import com.subsidios.rentajoven.application.service.SolicitudService;
+import com.subsidios.rentajoven.domain.enums.EstadoSolicitud;
 import com.subsidios.rentajoven.domain.model.DecisionResult;
+import com.subsidios.rentajoven.domain.model.FiltroSolicitudes;
+import com.subsidios.rentajoven.domain.model.PaginaSolicitudes;
 import com.subsidios.rentajoven.domain.model.Solicitud;
 import com.subsidios.rentajoven.shared.audit.AuditLog;
 import com.subsidios.rentajoven.shared.metrics.MetricsCollector;
 import com.subsidios.rentajoven.shared.metrics.MetricsSummary;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,8 +34,12 @@ import java.util.Optional;
  * 
  * Endpoints disponibles:
  * - POST /api/renta-joven/verificar - Procesa nueva solicitud
+ * - POST /api/renta-joven/verificar-programas - Evalúa la solicitud en varios programas
  * - GET /api/renta-joven/solicitud/{id} - Consulta solicitud
  * - GET /api/renta-joven/solicitud/{id}/audit - Obtiene trazabilidad
+ * - GET /api/renta-joven/solicitudes/aprobadas - Aprobadas, paginadas por id
+ * - GET /api/renta-joven/solicitudes/rechazadas - Rechazadas, paginadas por id
+ * - GET /api/renta-joven/solicitudes/exportar - Exportación CSV en streaming
  * - GET /api/renta-joven/metrics/summary - Métricas del sistema
  * 
  * @author Cesar Amaya Gomez
@@ -32,6 +50,9 @@ import java.util.Optional;
 @CrossOrigin(origins = "*")
 public class RentaJovenController {
     
+    private static final String ENCABEZADO_CSV = "id,cedula,matricula_id,programa,estado,aprobada,fecha_solicitud,"
+            + "fecha_procesamiento,tiempo_procesamiento_ms,version_datos,razones_rechazo\n";
+    
     @Autowired
     private SolicitudService solicitudService;
     
@@ -79,6 +100,41 @@ public class RentaJovenController {
         }
     }
     
+    /**
+     * Evalúa a la persona en varios programas de subsidio a la vez, con una
+     * sola consulta a cada fuente.
+     * 
+     * POST /api/renta-joven/verificar-programas
+     * 
+     * Body: el de /verificar más "programas": ["renta-joven", "jovenes-en-accion"]
+     * (omitido = todos los programas configurados)
+     * 
+     * @return un resultado por programa, cada uno con su propia solicitud
+     */
+    @PostMapping("/verificar-programas")
+    public ResponseEntity<?> verificarProgramas(@Valid @RequestBody VerificarSolicitudRequest request) {
+        try {
+            return ResponseEntity.ok(solicitudService.procesarSolicitudProgramas(
+                request.getCedula(),
+                request.getMatriculaId(),
+                request.getEdad(),
+                request.getProgramas()
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(DecisionResult.builder()
+                    .aprobada(false)
+                    .mensaje(e.getMessage())
+                    .build());
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(DecisionResult.builder()
+                        .aprobada(false)
+                        .mensaje("Error al procesar la solicitud: " + e.getMessage())
+                        .build());
+        }
+    }
+    
     /**
      * Obtener información de una solicitud específica.
      * 
@@ -170,33 +226,138 @@ public class RentaJovenController {
     }
     
     /**
-     * Obtener todas las solicitudes aprobadas.
+     * Obtener las solicitudes aprobadas, por páginas.
      * 
-     * GET /api/renta-joven/solicitudes/aprobadas
+     * GET /api/renta-joven/solicitudes/aprobadas?despues=0&limite=100
      * 
-     * @return Lista de solicitudes aprobadas
+     * Filtros opcionales: estado, desde y hasta (fechas de solicitud,
+     * yyyy-MM-dd, ambas incluidas) y cedula. La página siguiente se pide con
+     * despues = el campo "siguiente" de la respuesta.
+     * 
+     * @return Página de solicitudes aprobadas
      */
     @GetMapping("/solicitudes/aprobadas")
-    public ResponseEntity<List<Solicitud>> obtenerSolicitudesAprobadas() {
+    public ResponseEntity<PaginaSolicitudes> obtenerSolicitudesAprobadas(
+            @RequestParam(defaultValue = "0") long despues,
+            @RequestParam(defaultValue = "100") int limite,
+            @RequestParam(required = false) EstadoSolicitud estado,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) String cedula) {
         
-        List<Solicitud> solicitudes = solicitudService.obtenerSolicitudesAprobadas();
+        FiltroSolicitudes filtro = filtro(true, estado, desde, hasta, cedula);
         
-        return ResponseEntity.ok(solicitudes);
+        return ResponseEntity.ok(solicitudService.listarSolicitudes(filtro, despues, limite));
     }
     
     /**
-     * Obtener todas las solicitudes rechazadas.
+     * Obtener las solicitudes rechazadas, por páginas.
+     * 
+     * GET /api/renta-joven/solicitudes/rechazadas?despues=0&limite=100
      * 
-     * GET /api/renta-joven/solicitudes/rechazadas
+     * Mismos filtros y paginación que /solicitudes/aprobadas.
      * 
-     * @return Lista de solicitudes rechazadas
+     * @return Página de solicitudes rechazadas
      */
     @GetMapping("/solicitudes/rechazadas")
-    public ResponseEntity<List<Solicitud>> obtenerSolicitudesRechazadas() {
+    public ResponseEntity<PaginaSolicitudes> obtenerSolicitudesRechazadas(
+            @RequestParam(defaultValue = "0") long despues,
+            @RequestParam(defaultValue = "100") int limite,
+            @RequestParam(required = false) EstadoSolicitud estado,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) String cedula) {
         
-        List<Solicitud> solicitudes = solicitudService.obtenerSolicitudesRechazadas();
+        FiltroSolicitudes filtro = filtro(false, estado, desde, hasta, cedula);
         
-        return ResponseEntity.ok(solicitudes);
+        return ResponseEntity.ok(solicitudService.listarSolicitudes(filtro, despues, limite));
+    }
+    
+    /**
+     * Exportar solicitudes en CSV. Las filas se escriben a medida que se leen
+     * de la base, sin armar la lista completa en memoria.
+     * 
+     * GET /api/renta-joven/solicitudes/exportar?aprobada=false&desde=2025-01-01
+     * 
+     * Filtros opcionales: aprobada, estado, desde, hasta y cedula.
+     * 
+     * @return CSV con una fila por solicitud, en orden de id
+     */
+    @GetMapping("/solicitudes/exportar")
+    public ResponseEntity<StreamingResponseBody> exportarSolicitudes(
+            @RequestParam(required = false) Boolean aprobada,
+            @RequestParam(required = false) EstadoSolicitud estado,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) String cedula) {
+        
+        FiltroSolicitudes filtro = filtro(aprobada, estado, desde, hasta, cedula);
+        
+        StreamingResponseBody cuerpo = salida -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8), 64 * 1024);
+            writer.write(ENCABEZADO_CSV);
+            try {
+                solicitudService.exportarSolicitudes(filtro, solicitud -> escribirCSV(writer, solicitud));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.flush();
+        };
+        
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"solicitudes.csv\"")
+                .body(cuerpo);
+    }
+    
+    private static FiltroSolicitudes filtro(Boolean aprobada, EstadoSolicitud estado,
+                                            LocalDate desde, LocalDate hasta, String cedula) {
+        return FiltroSolicitudes.builder()
+                .aprobada(aprobada)
+                .estado(estado)
+                .desde(desde != null ? desde.atStartOfDay() : null)
+                .hasta(hasta != null ? hasta.plusDays(1).atStartOfDay() : null)
+                .cedula(cedula)
+                .build();
+    }
+    
+    private static void escribirCSV(Writer writer, Solicitud s) {
+        try {
+            writer.write(String.valueOf(s.getId()));
+            writer.write(',');
+            writer.write(campoCSV(s.getCedula()));
+            writer.write(',');
+            writer.write(campoCSV(s.getMatriculaId()));
+            writer.write(',');
+            writer.write(campoCSV(s.getPrograma()));
+            writer.write(',');
+            writer.write(s.getEstado().name());
+            writer.write(',');
+            writer.write(s.getAprobada() != null ? s.getAprobada().toString() : "");
+            writer.write(',');
+            writer.write(s.getFechaSolicitud().toString());
+            writer.write(',');
+            writer.write(s.getFechaProcesamiento() != null ? s.getFechaProcesamiento().toString() : "");
+            writer.write(',');
+            writer.write(s.getTiempoProcesamientoMs() != null ? s.getTiempoProcesamientoMs().toString() : "");
+            writer.write(',');
+            writer.write(campoCSV(s.getVersionDatos()));
+            writer.write(',');
+            writer.write(campoCSV(s.getRazonesRechazo()));
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static String campoCSV(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
     }
     
     /**
@@ -1,18 +1,26 @@
 package com.subsidios.rentajoven.api.controller;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.subsidios.rentajoven.shared.metrics.MetricsCollector;
-import com.subsidios.rentajoven.shared.metrics.MetricsSummary;
+import com.subsidios.rentajoven.application.service.AnaliticaDecisiones;
+import com.subsidios.rentajoven.domain.enums.MotivoRechazo;
+import com.subsidios.rentajoven.domain.model.FiltroAnalitica;
+import com.subsidios.rentajoven.domain.model.ResultadoAnalitica;
+import com.subsidios.rentajoven.shared.metrics.ReporteAcademico;
 
 /**
  * Controlador para generar reportes académicos.
@@ -22,62 +30,78 @@ import com.subsidios.rentajoven.shared.metrics.MetricsSummary;
 public class ReporteController {
     
     @Autowired
-    private MetricsCollector metricsCollector;
+    private ReporteAcademico reporteAcademico;
+    
+    @Autowired
+    private AnaliticaDecisiones analitica;
     
     /**
      * Genera un reporte completo formateado para el artículo académico.
      * 
      * GET /api/reporte/academico
+     * 
+     * Responde desde la caché con ETag; con If-None-Match igual responde 304
+     * sin cuerpo. Tras decisiones nuevas el reporte se recalcula en segundo
+     * plano (a lo sumo una vez por reporte.academico.intervalo.ms).
      */
     @GetMapping("/academico")
-    public ResponseEntity<Map<String, Object>> generarReporteAcademico() {
-        
-        MetricsSummary metrics = metricsCollector.generarResumen();
-        
-        Map<String, Object> reporte = new HashMap<>();
-        
-        // Metadatos
-        reporte.put("fechaGeneracion", LocalDateTime.now().format(
-            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
-        ));
-        reporte.put("sistema", "Renta Joven - Motor de Decisión Automatizado");
-        reporte.put("version", "1.0.0");
-        
-        // Métricas de volumen
-        Map<String, Object> volumen = new HashMap<>();
-        volumen.put("totalSolicitudes", metrics.getTotalSolicitudes());
-        volumen.put("aprobadas", metrics.getSolicitudesAprobadas());
-        volumen.put("rechazadas", metrics.getSolicitudesRechazadas());
-        volumen.put("tasaAprobacionPorcentaje", String.format("%.2f%%", metrics.getTasaAprobacion() * 100));
-        volumen.put("tasaRechazoPorcentaje", String.format("%.2f%%", metrics.getTasaRechazo() * 100));
-        reporte.put("volumen", volumen);
-        
-        // Métricas de rendimiento
-        Map<String, Object> rendimiento = new HashMap<>();
-        rendimiento.put("tiempoPromedioSegundos", String.format("%.3f", metrics.getTiempoPromedioSegundos()));
-        rendimiento.put("tiempoMinimoMs", metrics.getTiempoMinimoMs());
-        rendimiento.put("tiempoMaximoMs", metrics.getTiempoMaximoMs());
-        rendimiento.put("tiempoSISBENMs", String.format("%.2f", metrics.getTiempoPromedioSISBEN()));
-        rendimiento.put("tiempoSNIESMs", String.format("%.2f", metrics.getTiempoPromedioSNIES()));
-        rendimiento.put("tiempoMENMs", String.format("%.2f", metrics.getTiempoPromedioMEN()));
-        reporte.put("rendimiento", rendimiento);
-        
-        // Comparativa con sistema tradicional
-        Map<String, Object> comparativa = new HashMap<>();
-        comparativa.put("sistemaTradicionalDias", metrics.getTiempoSistemaTradicionalDias());
-        comparativa.put("sistemaAutomatizadoSegundos", String.format("%.3f", metrics.getTiempoPromedioSegundos()));
-        comparativa.put("mejoraEnTiempoPorcentaje", String.format("%.4f%%", metrics.getMejoraPorcentual()));
-        comparativa.put("ahorroDiasPorSolicitud", String.format("%.2f", metrics.getAhorroDiasPorSolicitud()));
-        reporte.put("comparativaConSistemaTradicional", comparativa);
+    public ResponseEntity<Map<String, Object>> generarReporteAcademico(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String siNoCoincide) {
         
-        // Razones de rechazo
-        Map<String, Object> rechazos = new HashMap<>();
-        rechazos.put("porSISBEN", metrics.getRechazosPorSISBEN());
-        rechazos.put("porTituloProfesional", metrics.getRechazosPorTitulo());
-        rechazos.put("porMatricula", metrics.getRechazosPorMatricula());
-        rechazos.put("distribucionPorcentual", metrics.getDistribucionRechazos());
-        reporte.put("razonesDeRechazo", rechazos);
+        ReporteAcademico.Reporte reporte = reporteAcademico.obtener();
+        if (siNoCoincide != null && coincide(siNoCoincide, reporte.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(reporte.getEtag())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(reporte.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .body(reporte.getContenido());
+    }
+    
+    /**
+     * Conteos de decisiones con cualquier combinación de filtros, resueltos
+     * desde el índice analítico en memoria (no consulta la base).
+     * 
+     * GET /api/reporte/analitica?aprobada=false&motivo=INTENSIDAD_HORARIA_INSUFICIENTE
+     *     &departamento=Atlántico&desde=2025-03-24&hasta=2025-03-30
+     * 
+     * motivo se puede repetir (rechazadas por alguno de ellos); desde y hasta
+     * son días de la decisión, ambos incluidos.
+     */
+    @GetMapping("/analitica")
+    public ResponseEntity<ResultadoAnalitica> consultarAnalitica(
+            @RequestParam(required = false) Boolean aprobada,
+            @RequestParam(required = false) List<MotivoRechazo> motivo,
+            @RequestParam(required = false) String departamento,
+            @RequestParam(required = false) String municipio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
         
-        return ResponseEntity.ok(reporte);
+        FiltroAnalitica filtro = FiltroAnalitica.builder()
+                .aprobada(aprobada)
+                .motivos(motivo)
+                .departamento(departamento)
+                .municipio(municipio)
+                .desde(desde)
+                .hasta(hasta)
+                .build();
+        return ResponseEntity.ok(analitica.consultar(filtro));
+    }
+    
+    // If-None-Match puede traer varias etiquetas, débiles (W/) o "*"
+    private static boolean coincide(String siNoCoincide, String etag) {
+        for (String etiqueta : siNoCoincide.split(",")) {
+            String valor = etiqueta.trim();
+            if (valor.startsWith("W/")) {
+                valor = valor.substring(2);
+            }
+            if (valor.equals("*") || valor.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
     }
-}
\ No newline at end of file
+}
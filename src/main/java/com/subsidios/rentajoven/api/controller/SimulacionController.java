@@ -0,0 +1,33 @@
+package com.subsidios.rentajoven.api.controller;
+
+import com.subsidios.rentajoven.application.simulation.EscenarioSimulacion;
+import com.subsidios.rentajoven.application.simulation.ResultadoSimulacion;
+import com.subsidios.rentajoven.application.simulation.SimuladorPoliticas;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Simulación de variantes de las reglas sobre toda la población.
+ *
+ * Endpoints:
+ * - POST /api/simulacion/escenario - Evalúa un escenario; los campos omitidos
+ *   toman el valor de las reglas vigentes (cuerpo vacío = reglas actuales)
+ *
+ * Ejemplo: {"edadMaxima": 30, "intensidadMinima": 15}
+ */
+@RestController
+@RequestMapping("/api/simulacion")
+public class SimulacionController {
+
+    @Autowired
+    private SimuladorPoliticas simulador;
+
+    @PostMapping("/escenario")
+    public ResponseEntity<ResultadoSimulacion> simular(@RequestBody(required = false) EscenarioSimulacion escenario) {
+        return ResponseEntity.ok(simulador.simular(escenario));
+    }
+}
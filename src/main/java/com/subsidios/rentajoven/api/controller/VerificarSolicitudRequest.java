@@ -9,6 +9,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 /**
  * Request para verificar elegibilidad de subsidio.
  */
@@ -28,4 +30,7 @@ public class VerificarSolicitudRequest {
     @Min(value = 10, message = "La edad debe ser mayor a 10 años")
     @Max(value = 35, message = "La edad debe ser menor a 35 años")
     private Integer edad;
+    
+    // Solo para /verificar-programas: programas a evaluar (vacío = todos)
+    private List<String> programas;
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.subsidios.rentajoven.application.contract;
+
+/**
+ * Dónde se resuelve una regla: con los datos de la solicitud o consultando
+ * una fuente externa.
+ */
+public enum AmbitoRegla {
+    LOCAL,
+    REMOTA
+}
@@ -0,0 +1,29 @@
+package com.subsidios.rentajoven.application.contract;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Una regla declarada: tipo, ámbito, costo estimado y sus parámetros.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DefinicionRegla {
+    private String id;
+    private TipoRegla tipo;
+    private AmbitoRegla ambito;
+
+    /**
+     * Costo estimado en ms; el motor evalúa primero las locales y luego por costo
+     */
+    private Integer costo;
+
+    private Boolean habilitada;
+    private Map<String, Object> parametros;
+}
@@ -0,0 +1,37 @@
+package com.subsidios.rentajoven.application.contract;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Conjunto de reglas tal como se declara en configuración
+ * (reglas/renta-joven.json o el archivo de reglas.archivo).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DefinicionReglas {
+    /**
+     * Identificador del programa de subsidio (ej. renta-joven)
+     */
+    private String programa;
+
+    /**
+     * Nombre para mostrar en los mensajes
+     */
+    private String nombre;
+
+    private String version;
+
+    /**
+     * Año contra el que se calcula la edad de cada cohorte (null = año en curso)
+     */
+    private Integer anioReferencia;
+
+    private List<DefinicionRegla> reglas;
+}
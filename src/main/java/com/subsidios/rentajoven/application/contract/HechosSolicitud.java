@@ -0,0 +1,96 @@
+package com.subsidios.rentajoven.application.contract;
+
+import com.subsidios.rentajoven.domain.model.MENResponse;
+import com.subsidios.rentajoven.domain.model.SISBENResponse;
+import com.subsidios.rentajoven.domain.model.SNIESResponse;
+import com.subsidios.rentajoven.infrastructure.dataset.VersionDatos;
+
+/**
+ * Datos con los que se decide una solicitud: lo declarado y las respuestas
+ * de las fuentes ya consultadas, que se reutilizan entre programas y en la
+ * evaluación en sombra.
+ *
+ * Las reglas resueltas desde el índice precalculado no consultan las
+ * fuentes; {@link #completar()} lee esos registros de la misma versión de
+ * datos, fuera de la ruta de la decisión.
+ */
+public final class HechosSolicitud {
+
+    private final VersionDatos datos;
+    private final String cedula;
+    private final String matriculaId;
+    private final Integer edad;
+
+    // Se escriben desde la evaluación (posiblemente en hilos de reglas remotas,
+    // que terminan antes de que la decisión siga) y se reutilizan en los
+    // programas siguientes; otros hilos reciben una copia
+    SISBENResponse sisben;
+    SNIESResponse snies;
+    MENResponse men;
+
+    public HechosSolicitud(VersionDatos datos, String cedula, String matriculaId, Integer edad) {
+        this.datos = datos;
+        this.cedula = cedula;
+        this.matriculaId = matriculaId;
+        this.edad = edad;
+    }
+
+    /**
+     * Copia con las respuestas consultadas hasta ahora, para entregarla a
+     * otro hilo mientras esta instancia se sigue llenando.
+     */
+    public HechosSolicitud copia() {
+        HechosSolicitud copia = new HechosSolicitud(datos, cedula, matriculaId, edad);
+        copia.sisben = sisben;
+        copia.snies = snies;
+        copia.men = men;
+        return copia;
+    }
+
+    /**
+     * Completa las respuestas que la evaluación en vivo no consultó.
+     */
+    public HechosSolicitud completar() {
+        if (sisben == null) {
+            SISBENResponse registro = datos.getSisben().buscar(cedula);
+            sisben = registro != null ? registro : SISBENResponse.builder().encontrado(false).build();
+        }
+        if (snies == null) {
+            SNIESResponse registro = datos.getSnies().buscar(cedula);
+            snies = registro != null ? registro : SNIESResponse.builder().tieneTitulo(false).build();
+        }
+        if (men == null) {
+            MENResponse registro = datos.getMen().buscar(matriculaId);
+            men = registro != null ? registro : MENResponse.builder().encontrada(false).build();
+        }
+        return this;
+    }
+
+    public VersionDatos getDatos() {
+        return datos;
+    }
+
+    public String getCedula() {
+        return cedula;
+    }
+
+    public String getMatriculaId() {
+        return matriculaId;
+    }
+
+    public Integer getEdad() {
+        return edad;
+    }
+
+    public SISBENResponse getSisben() {
+        return sisben;
+    }
+
+    public SNIESResponse getSnies() {
+        return snies;
+    }
+
+    public MENResponse getMen() {
+        return men;
+    }
+}
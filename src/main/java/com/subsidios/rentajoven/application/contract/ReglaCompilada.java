@@ -0,0 +1,49 @@
+package com.subsidios.rentajoven.application.contract;
+
+/**
+ * Eslabón de la cadena de evaluación de un {@link ReglasElegibilidad}.
+ */
+public final class ReglaCompilada {
+
+    private final String id;
+    private final TipoRegla tipo;
+    private final AmbitoRegla ambito;
+    private final int costo;
+    private final int posicion;
+
+    ReglaCompilada(String id, TipoRegla tipo, AmbitoRegla ambito, int costo, int posicion) {
+        this.id = id;
+        this.tipo = tipo;
+        this.ambito = ambito;
+        this.costo = costo;
+        this.posicion = posicion;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public TipoRegla getTipo() {
+        return tipo;
+    }
+
+    public AmbitoRegla getAmbito() {
+        return ambito;
+    }
+
+    public int getCosto() {
+        return costo;
+    }
+
+    /**
+     * Posición en el orden declarado, que es el de los resultados y razones.
+     */
+    public int getPosicion() {
+        return posicion;
+    }
+
+    @Override
+    public String toString() {
+        return id + "(" + tipo + ", " + ambito + ", " + costo + ")";
+    }
+}
@@ -0,0 +1,197 @@
+package com.subsidios.rentajoven.application.contract;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.subsidios.rentajoven.infrastructure.dataset.InstitucionesActivas;
+import com.subsidios.rentajoven.infrastructure.index.RegistroInstituciones;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Punto único de publicación de las reglas de elegibilidad.
+ *
+ * Igual que con los datos de referencia, leer las reglas vigentes es una
+ * lectura volátil y el cambio es atómico: una decisión fija el conjunto al
+ * empezar y lo usa hasta el final, aunque entre tanto se publique otro. Un
+ * archivo inválido no se publica; las reglas anteriores siguen vigentes.
+ *
+ * Además del programa principal (reglas.archivo) puede haber otros programas
+ * de subsidio (reglas.programas.adicionales), cada uno con su conjunto de
+ * reglas; todos se recargan y publican juntos.
+ *
+ * Las reglas se publican con el registro de instituciones vigente. Si se
+ * publica otro registro y algún programa lo exige, se vuelven a publicar
+ * todos los programas con el registro nuevo.
+ */
+@Component
+public class ReglasActivas {
+
+    static final String RECURSO_POR_DEFECTO = "reglas/renta-joven.json";
+    private static final String PREFIJO_CLASSPATH = "classpath:";
+
+    private static final ObjectMapper LECTOR = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
+
+    @Value("${reglas.archivo:}")
+    private String archivo;
+
+    @Value("${reglas.programas.adicionales:}")
+    private String[] adicionales;
+
+    @Autowired
+    private InstitucionesActivas instituciones;
+
+    private volatile ReglasElegibilidad actual;
+    private volatile Map<String, ReglasElegibilidad> programas = Map.of();
+
+    private final List<Consumer<ReglasElegibilidad>> suscriptores = new CopyOnWriteArrayList<>();
+
+    @PostConstruct
+    public void cargar() {
+        recargar();
+        instituciones.suscribir(this::cambioDeRegistro);
+    }
+
+    /**
+     * Reglas del programa principal.
+     */
+    public ReglasElegibilidad actual() {
+        return actual;
+    }
+
+    /**
+     * Reglas de todos los programas configurados, por identificador de programa.
+     */
+    public Map<String, ReglasElegibilidad> programas() {
+        return programas;
+    }
+
+    /**
+     * Registra un aviso que se invoca tras cada publicación; solo debe
+     * programar trabajo, no hacerlo.
+     */
+    public void suscribir(Consumer<ReglasElegibilidad> suscriptor) {
+        suscriptores.add(suscriptor);
+    }
+
+    /**
+     * Lee, compila y publica los archivos de reglas configurados.
+     *
+     * @throws IllegalArgumentException si algún archivo no se puede leer o es inválido
+     */
+    public synchronized ReglasElegibilidad recargar() {
+        RegistroInstituciones registro = instituciones.actual();
+        ReglasElegibilidad principal = leerConfigurado().conRegistro(registro);
+        Map<String, ReglasElegibilidad> todos = new LinkedHashMap<>();
+        todos.put(principal.getPrograma(), principal);
+        for (String ruta : adicionales) {
+            if (ruta.isBlank()) {
+                continue;
+            }
+            ReglasElegibilidad programa = leerRuta(ruta.trim()).conRegistro(registro);
+            if (todos.putIfAbsent(programa.getPrograma(), programa) != null) {
+                throw new IllegalArgumentException("Programa repetido en " + ruta + ": " + programa.getPrograma());
+            }
+        }
+        programas = Collections.unmodifiableMap(todos);
+        return publicar(principal);
+    }
+
+    /**
+     * Publica nuevas reglas para el programa principal.
+     */
+    public synchronized ReglasElegibilidad publicar(ReglasElegibilidad nuevas) {
+        if (nuevas.getRegistro() != instituciones.actual()) {
+            nuevas = nuevas.conRegistro(instituciones.actual());
+        }
+        Map<String, ReglasElegibilidad> todos = new LinkedHashMap<>(programas);
+        todos.remove(actual != null ? actual.getPrograma() : null);
+        Map<String, ReglasElegibilidad> conPrincipal = new LinkedHashMap<>();
+        conPrincipal.put(nuevas.getPrograma(), nuevas);
+        conPrincipal.putAll(todos);
+        programas = Collections.unmodifiableMap(conPrincipal);
+        actual = nuevas;
+        System.out.println(String.format("📐 Reglas %s publicadas (%s): cadena %s",
+            nuevas.getVersion(), nuevas.getOrigen(), List.of(nuevas.cadena())));
+        ReglasElegibilidad publicadas = nuevas;
+        suscriptores.forEach(s -> s.accept(publicadas));
+        return nuevas;
+    }
+
+    /**
+     * Compila una definición con el registro de instituciones vigente, sin
+     * publicarla (p. ej. reglas candidatas para evaluar en sombra).
+     */
+    public ReglasElegibilidad compilar(byte[] contenido, String origen) {
+        return leer(contenido, origen).conRegistro(instituciones.actual());
+    }
+
+    private synchronized void cambioDeRegistro(RegistroInstituciones registro) {
+        if (programas.values().stream().noneMatch(ReglasElegibilidad::isExigirRegistro)) {
+            return;
+        }
+        Map<String, ReglasElegibilidad> todos = new LinkedHashMap<>();
+        programas.forEach((programa, reglas) -> todos.put(programa, reglas.conRegistro(registro)));
+        programas = Collections.unmodifiableMap(todos);
+        publicar(todos.get(actual.getPrograma()));
+    }
+
+    /**
+     * Reglas del recurso incluido en la aplicación.
+     */
+    public static ReglasElegibilidad porDefecto() {
+        return leerRuta(PREFIJO_CLASSPATH + RECURSO_POR_DEFECTO);
+    }
+
+    public static ReglasElegibilidad leer(byte[] contenido, String origen) {
+        DefinicionReglas definicion;
+        try {
+            definicion = LECTOR.readValue(contenido, DefinicionReglas.class);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Archivo de reglas inválido (" + origen + "): " + e.getMessage(), e);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(contenido);
+        return ReglasElegibilidad.compilar(definicion, origen, crc.getValue());
+    }
+
+    private ReglasElegibilidad leerConfigurado() {
+        return archivo == null || archivo.isBlank() ? porDefecto() : leerRuta(archivo);
+    }
+
+    /**
+     * @param ruta archivo, o recurso si empieza por classpath:
+     */
+    private static ReglasElegibilidad leerRuta(String ruta) {
+        if (ruta.startsWith(PREFIJO_CLASSPATH)) {
+            String recurso = ruta.substring(PREFIJO_CLASSPATH.length());
+            try (InputStream entrada = new ClassPathResource(recurso).getInputStream()) {
+                return leer(entrada.readAllBytes(), ruta);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("No se pudo leer el recurso de reglas " + ruta + ": " + e.getMessage(), e);
+            }
+        }
+        Path archivo = Paths.get(ruta);
+        try {
+            return leer(Files.readAllBytes(archivo), archivo.toAbsolutePath().toString());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("No se pudo leer el archivo de reglas " + archivo + ": " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,650 @@
+package com.subsidios.rentajoven.application.contract;
+
+import com.subsidios.rentajoven.domain.enums.CodigoValidacion;
+import com.subsidios.rentajoven.domain.enums.MotivoRechazo;
+import com.subsidios.rentajoven.domain.enums.NivelSISBEN;
+import com.subsidios.rentajoven.domain.model.EventoValidacion;
+import com.subsidios.rentajoven.domain.model.MENResponse;
+import com.subsidios.rentajoven.domain.model.SISBENResponse;
+import com.subsidios.rentajoven.domain.model.ValidacionIndividual;
+import com.subsidios.rentajoven.infrastructure.index.IndiceElegibilidad;
+import com.subsidios.rentajoven.infrastructure.index.RegistroInstituciones;
+
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Conjunto de reglas de elegibilidad compilado desde su {@link DefinicionReglas}.
+ *
+ * Es inmutable: los parámetros quedan en arreglos y tipos primitivos, así que
+ * evaluar una regla no reserva memoria. Lo comparten la evaluación en vivo, el
+ * índice precalculado y la simulación, para que todos decidan igual con la
+ * misma versión de las reglas. Un cambio de política es un conjunto nuevo que
+ * se publica en {@link ReglasActivas}.
+ *
+ * Las reglas locales (edad y coherencia cédula-edad) tienen además un camino
+ * sin reservas: las cohortes quedan en una tabla de tramos ordenados que se
+ * busca en binario, y los resultados para cada edad se construyen al
+ * compilar y se reutilizan en todas las solicitudes.
+ */
+public final class ReglasElegibilidad implements IndiceElegibilidad.Reglas {
+
+    private final String programa;
+    private final String nombre;
+    private final String version;
+    private final String origen;
+    private final long huella;
+    private final LocalDateTime cargadas;
+
+    private final ReglaCompilada[] declaradas;
+    private final ReglaCompilada[] cadena;
+    private final int[] posicionPorTipo;
+    private final int remotas;
+
+    private final int edadMinima;
+    private final int edadMaxima;
+    private final int margenCoherencia;
+    private final long[] tramoDesde;
+    private final long[] tramoHasta;
+    private final int[] tramoCohorte;
+    private final int[] cohorteEdad;
+    private final boolean[] nivelElegible;
+    private final String[] estadosVigentes;
+    private final int intensidadMinima;
+    private final List<String> institucionesExcluidas;
+    private final RegistroInstituciones excluidas;
+    private final boolean exigirRegistro;
+    private final RegistroInstituciones registro;
+    private final Compilador compilador;
+
+    // Resultados reutilizables de las reglas locales, por edad (0..EDAD_MAXIMA_TABLA)
+    private final ValidacionIndividual[] resultadoEdad;
+    private final ValidacionIndividual resultadoSinEdad;
+    // [cohorte, o cohorteEdad.length si la cédula no cae en ninguna][edad]
+    private final ValidacionIndividual[][] resultadoCoherencia;
+
+    static final int EDAD_MAXIMA_TABLA = 120;
+
+    private static final ValidacionIndividual CEDULA_NO_NUMERICA = error("Cédula no numérica");
+    private static final ValidacionIndividual EDAD_NO_DECLARADA = error("Edad no declarada");
+
+    private ReglasElegibilidad(Compilador c, String programa, String nombre, String version, String origen,
+                               long huella, RegistroInstituciones registro) {
+        this.compilador = c;
+        this.programa = programa;
+        this.nombre = nombre;
+        this.version = version;
+        this.origen = origen;
+        this.huella = huella;
+        this.cargadas = LocalDateTime.now();
+        this.declaradas = c.declaradas.toArray(new ReglaCompilada[0]);
+        this.cadena = c.declaradas.stream()
+            .sorted(Comparator.comparing(ReglaCompilada::getAmbito)
+                .thenComparingInt(ReglaCompilada::getCosto)
+                .thenComparingInt(ReglaCompilada::getPosicion))
+            .toArray(ReglaCompilada[]::new);
+        this.posicionPorTipo = new int[TipoRegla.values().length];
+        Arrays.fill(posicionPorTipo, -1);
+        int contadorRemotas = 0;
+        for (ReglaCompilada regla : declaradas) {
+            posicionPorTipo[regla.getTipo().ordinal()] = regla.getPosicion();
+            if (regla.getAmbito() == AmbitoRegla.REMOTA) {
+                contadorRemotas++;
+            }
+        }
+        this.remotas = contadorRemotas;
+        this.edadMinima = c.edadMinima;
+        this.edadMaxima = c.edadMaxima;
+        this.margenCoherencia = c.margenCoherencia;
+        this.tramoDesde = c.tramoDesde;
+        this.tramoHasta = c.tramoHasta;
+        this.tramoCohorte = c.tramoCohorte;
+        this.cohorteEdad = c.cohorteEdad;
+        this.nivelElegible = c.nivelElegible;
+        this.estadosVigentes = c.estadosVigentes;
+        this.intensidadMinima = c.intensidadMinima;
+        this.institucionesExcluidas = c.institucionesExcluidas;
+        this.excluidas = c.excluidas;
+        this.exigirRegistro = c.exigirRegistro;
+        this.registro = registro;
+
+        this.resultadoEdad = new ValidacionIndividual[EDAD_MAXIMA_TABLA + 1];
+        for (int edad = 0; edad <= EDAD_MAXIMA_TABLA; edad++) {
+            resultadoEdad[edad] = crearResultadoEdad(edad);
+        }
+        this.resultadoSinEdad = resultado(eventoEdad(CodigoValidacion.EDAD_FUERA_RANGO, 0),
+            MotivoRechazo.EDAD_FUERA_RANGO);
+        this.resultadoCoherencia = new ValidacionIndividual[cohorteEdad.length + 1][EDAD_MAXIMA_TABLA + 1];
+        for (int cohorte = 0; cohorte <= cohorteEdad.length; cohorte++) {
+            int estimada = cohorte < cohorteEdad.length ? cohorteEdad[cohorte] : -1;
+            for (int edad = 0; edad <= EDAD_MAXIMA_TABLA; edad++) {
+                resultadoCoherencia[cohorte][edad] = crearResultadoCoherencia(edad, estimada);
+            }
+        }
+    }
+
+    /**
+     * Valida y compila una definición. Las reglas deshabilitadas se omiten; un
+     * tipo ausente no se evalúa y sus parámetros quedan permisivos.
+     *
+     * @throws IllegalArgumentException si la definición está incompleta o es inválida
+     */
+    public static ReglasElegibilidad compilar(DefinicionReglas definicion, String origen, long huella) {
+        if (definicion == null || definicion.getReglas() == null || definicion.getReglas().isEmpty()) {
+            throw new IllegalArgumentException("El conjunto de reglas no declara ninguna regla");
+        }
+        if (definicion.getPrograma() == null || definicion.getPrograma().isBlank()) {
+            throw new IllegalArgumentException("El conjunto de reglas no declara el programa");
+        }
+        int anio = definicion.getAnioReferencia() != null ? definicion.getAnioReferencia() : Year.now().getValue();
+        Compilador compilador = new Compilador(anio);
+        for (DefinicionRegla regla : definicion.getReglas()) {
+            if (regla.getHabilitada() == null || regla.getHabilitada()) {
+                compilador.agregar(regla);
+            }
+        }
+        String version = definicion.getVersion() != null ? definicion.getVersion() : "sin-version";
+        String nombre = definicion.getNombre() != null ? definicion.getNombre() : definicion.getPrograma();
+        return new ReglasElegibilidad(compilador, definicion.getPrograma(), nombre, version, origen, huella,
+            RegistroInstituciones.VACIO);
+    }
+
+    /**
+     * Las mismas reglas, validando contra otro registro de instituciones
+     * reconocidas. Es un conjunto nuevo: quien lo publique invalida lo
+     * precalculado con el anterior.
+     */
+    public ReglasElegibilidad conRegistro(RegistroInstituciones nuevo) {
+        return new ReglasElegibilidad(compilador, programa, nombre, version, origen, huella, nuevo);
+    }
+
+    // ===================================================================
+    // EVALUACIÓN
+    // ===================================================================
+
+    public boolean edadEnRango(int edad) {
+        return edad >= edadMinima && edad <= edadMaxima;
+    }
+
+    /**
+     * Edad estimada según el rango de cédula de la cohorte de nacimiento.
+     *
+     * @return la edad, o -1 si la cédula no cae en ninguna cohorte conocida
+     */
+    public int edadEstimada(long cedula) {
+        int cohorte = cohorte(cedula);
+        return cohorte >= 0 ? cohorteEdad[cohorte] : -1;
+    }
+
+    /**
+     * @return la cohorte (en orden declarado) de la cédula, o -1 si no cae en ninguna
+     */
+    private int cohorte(long cedula) {
+        int i = Arrays.binarySearch(tramoDesde, cedula);
+        if (i < 0) {
+            i = -i - 2;
+        }
+        return i >= 0 && cedula <= tramoHasta[i] ? tramoCohorte[i] : -1;
+    }
+
+    public boolean coherente(int edad, int edadEstimada) {
+        return edadEstimada == -1 || Math.abs(edadEstimada - edad) <= margenCoherencia;
+    }
+
+    @Override
+    public boolean nivelElegible(NivelSISBEN nivel) {
+        return nivelElegible[nivel.ordinal()];
+    }
+
+    @Override
+    public boolean matriculaVigente(String estado) {
+        for (String vigente : estadosVigentes) {
+            if (vigente.equalsIgnoreCase(estado)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean intensidadSuficiente(int intensidad) {
+        return intensidad >= intensidadMinima;
+    }
+
+    /**
+     * La institución no está excluida y, si las reglas lo exigen, está en el
+     * registro de instituciones reconocidas. Los nombres se comparan en su
+     * forma normalizada, sin reservar memoria.
+     */
+    @Override
+    public boolean institucionReconocida(String institucion) {
+        return !excluidas.contiene(institucion) && (!exigirRegistro || registro.contiene(institucion));
+    }
+
+    /**
+     * Evalúa todas las reglas declaradas sobre hechos ya {@link HechosSolicitud#completar completos},
+     * con la misma semántica que el motor pero sin mensajes ni auditoría.
+     *
+     * @return los motivos de rechazo como máscara de {@link MotivoRechazo#bit()}; 0 = aprobada
+     */
+    public int motivos(HechosSolicitud hechos) {
+        int motivos = 0;
+        Integer edad = hechos.getEdad();
+        for (ReglaCompilada regla : declaradas) {
+            switch (regla.getTipo()) {
+                case EDAD:
+                    if (edad == null || !edadEnRango(edad)) {
+                        motivos |= MotivoRechazo.EDAD_FUERA_RANGO.bit();
+                    }
+                    break;
+                case COHERENCIA_CEDULA_EDAD:
+                    long cedula = cedulaNumerica(hechos.getCedula());
+                    if (cedula < 0 || edad == null) {
+                        motivos |= MotivoRechazo.ERROR_SISTEMA.bit();
+                    } else if (!coherente(edad, edadEstimada(cedula))) {
+                        motivos |= MotivoRechazo.COHERENCIA_CEDULA_EDAD.bit();
+                    }
+                    break;
+                case NIVEL_SISBEN:
+                    SISBENResponse sisben = hechos.getSisben();
+                    if (!sisben.isEncontrado()) {
+                        motivos |= MotivoRechazo.SISBEN_NO_ENCONTRADO.bit();
+                    } else if (!nivelElegible(sisben.getNivel())) {
+                        motivos |= MotivoRechazo.NIVEL_SISBEN_NO_ELEGIBLE.bit();
+                    }
+                    break;
+                case AUSENCIA_TITULO:
+                    if (hechos.getSnies().isTieneTitulo()) {
+                        motivos |= MotivoRechazo.TIENE_TITULO_PROFESIONAL.bit();
+                    }
+                    break;
+                case MATRICULA:
+                    MENResponse men = hechos.getMen();
+                    if (!men.isEncontrada()) {
+                        motivos |= MotivoRechazo.MATRICULA_NO_ENCONTRADA.bit();
+                    } else if (!matriculaVigente(men.getEstado())) {
+                        motivos |= MotivoRechazo.MATRICULA_NO_VIGENTE.bit();
+                    } else if (men.getIntensidadHoraria() == null || !intensidadSuficiente(men.getIntensidadHoraria())) {
+                        motivos |= MotivoRechazo.INTENSIDAD_HORARIA_INSUFICIENTE.bit();
+                    } else if (!institucionReconocida(men.getInstitucion())) {
+                        motivos |= MotivoRechazo.INSTITUCION_NO_RECONOCIDA.bit();
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        return motivos;
+    }
+
+    // ===================================================================
+    // RESULTADOS DE LAS REGLAS LOCALES
+    // ===================================================================
+    // Los objetos devueltos se comparten entre solicitudes: no se modifican.
+
+    /**
+     * Resultado de la regla de edad; para edades entre 0 y 120 es siempre
+     * el mismo objeto.
+     */
+    public ValidacionIndividual validacionEdad(Integer edad) {
+        if (edad == null) {
+            return resultadoSinEdad;
+        }
+        int e = edad;
+        return e >= 0 && e <= EDAD_MAXIMA_TABLA ? resultadoEdad[e] : crearResultadoEdad(e);
+    }
+
+    /**
+     * Resultado de la regla de coherencia cédula-edad; para edades entre 0 y
+     * 120 es siempre el mismo objeto por cohorte. Una cédula no numérica o
+     * una edad sin declarar son error del sistema.
+     */
+    public ValidacionIndividual validacionCoherencia(String cedula, Integer edad) {
+        long numero = cedulaNumerica(cedula);
+        if (numero < 0) {
+            return CEDULA_NO_NUMERICA;
+        }
+        if (edad == null) {
+            return EDAD_NO_DECLARADA;
+        }
+        int e = edad;
+        int cohorte = cohorte(numero);
+        if (e < 0 || e > EDAD_MAXIMA_TABLA) {
+            return crearResultadoCoherencia(e, cohorte >= 0 ? cohorteEdad[cohorte] : -1);
+        }
+        return resultadoCoherencia[cohorte >= 0 ? cohorte : cohorteEdad.length][e];
+    }
+
+    /**
+     * Parsea la cédula sin excepciones ni reservas.
+     *
+     * @return el número, o -1 si no son solo dígitos (máximo 18)
+     */
+    static long cedulaNumerica(String cedula) {
+        if (cedula == null || cedula.isEmpty() || cedula.length() > 18) {
+            return -1;
+        }
+        long numero = 0;
+        for (int i = 0; i < cedula.length(); i++) {
+            char c = cedula.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            numero = numero * 10 + (c - '0');
+        }
+        return numero;
+    }
+
+    private ValidacionIndividual crearResultadoEdad(int edad) {
+        boolean exitosa = edadEnRango(edad);
+        return resultado(eventoEdad(exitosa ? CodigoValidacion.EDAD_EN_RANGO : CodigoValidacion.EDAD_FUERA_RANGO, edad),
+            exitosa ? null : MotivoRechazo.EDAD_FUERA_RANGO);
+    }
+
+    private EventoValidacion eventoEdad(CodigoValidacion codigo, int edad) {
+        return EventoValidacion.builder()
+                .codigo(codigo)
+                .valor1(edad)
+                .valor2(edadMinima)
+                .valor3(edadMaxima)
+                .build();
+    }
+
+    private ValidacionIndividual crearResultadoCoherencia(int edad, int estimada) {
+        boolean coherente = coherente(edad, estimada);
+        return resultado(EventoValidacion.builder()
+                .codigo(coherente ? CodigoValidacion.CEDULA_COHERENTE : CodigoValidacion.CEDULA_INCOHERENTE)
+                .valor1(edad)
+                .valor2(estimada)
+                .build(),
+            coherente ? null : MotivoRechazo.COHERENCIA_CEDULA_EDAD);
+    }
+
+    private static ValidacionIndividual resultado(EventoValidacion evento, MotivoRechazo motivo) {
+        return ValidacionIndividual.builder()
+                .exitosa(motivo == null)
+                .tiempoMs(0L)
+                .evento(evento)
+                .motivoRechazo(motivo)
+                .build();
+    }
+
+    private static ValidacionIndividual error(String causa) {
+        return resultado(EventoValidacion.builder()
+                .codigo(CodigoValidacion.ERROR_VALIDACION)
+                .texto(causa)
+                .build(), MotivoRechazo.ERROR_SISTEMA);
+    }
+
+    // ===================================================================
+    // CADENA Y PARÁMETROS
+    // ===================================================================
+
+    /**
+     * Reglas en orden de evaluación: primero las locales y después por costo.
+     */
+    public ReglaCompilada[] cadena() {
+        return cadena;
+    }
+
+    /**
+     * Reglas en el orden en que se declararon.
+     */
+    public ReglaCompilada[] declaradas() {
+        return declaradas;
+    }
+
+    /**
+     * @return la posición declarada de la regla de ese tipo, o -1 si no se evalúa
+     */
+    public int posicion(TipoRegla tipo) {
+        return posicionPorTipo[tipo.ordinal()];
+    }
+
+    public int remotas() {
+        return remotas;
+    }
+
+    public int getEdadMinima() {
+        return edadMinima;
+    }
+
+    public int getEdadMaxima() {
+        return edadMaxima;
+    }
+
+    public int getMargenCoherencia() {
+        return margenCoherencia;
+    }
+
+    public int getIntensidadMinima() {
+        return intensidadMinima;
+    }
+
+    public Set<NivelSISBEN> nivelesElegibles() {
+        Set<NivelSISBEN> niveles = EnumSet.noneOf(NivelSISBEN.class);
+        for (NivelSISBEN nivel : NivelSISBEN.values()) {
+            if (nivelElegible[nivel.ordinal()]) {
+                niveles.add(nivel);
+            }
+        }
+        return niveles;
+    }
+
+    public List<String> institucionesExcluidas() {
+        return institucionesExcluidas;
+    }
+
+    public boolean isExigirRegistro() {
+        return exigirRegistro;
+    }
+
+    public RegistroInstituciones getRegistro() {
+        return registro;
+    }
+
+    public String getPrograma() {
+        return programa;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public String getOrigen() {
+        return origen;
+    }
+
+    public long getHuella() {
+        return huella;
+    }
+
+    public LocalDateTime getCargadas() {
+        return cargadas;
+    }
+
+    /**
+     * Traduce las reglas declaradas a parámetros primitivos.
+     */
+    private static final class Compilador {
+        final int anioReferencia;
+        final List<ReglaCompilada> declaradas = new ArrayList<>();
+        final Set<TipoRegla> tipos = EnumSet.noneOf(TipoRegla.class);
+
+        int edadMinima = 0;
+        int edadMaxima = Integer.MAX_VALUE;
+        int margenCoherencia = Integer.MAX_VALUE;
+        long[] cohorteDesde = new long[0];
+        long[] cohorteHasta = new long[0];
+        int[] cohorteEdad = new int[0];
+        long[] tramoDesde = new long[0];
+        long[] tramoHasta = new long[0];
+        int[] tramoCohorte = new int[0];
+        boolean[] nivelElegible = new boolean[NivelSISBEN.values().length];
+        String[] estadosVigentes = new String[0];
+        int intensidadMinima = 0;
+        List<String> institucionesExcluidas = List.of();
+        RegistroInstituciones excluidas = RegistroInstituciones.VACIO;
+        boolean exigirRegistro = false;
+
+        Compilador(int anioReferencia) {
+            this.anioReferencia = anioReferencia;
+            Arrays.fill(nivelElegible, true);
+        }
+
+        void agregar(DefinicionRegla regla) {
+            TipoRegla tipo = regla.getTipo();
+            String id = regla.getId() != null ? regla.getId() : String.valueOf(tipo);
+            if (tipo == null) {
+                throw new IllegalArgumentException("Regla " + id + ": falta el tipo");
+            }
+            if (!tipos.add(tipo)) {
+                throw new IllegalArgumentException("Regla " + id + ": el tipo " + tipo + " ya fue declarado");
+            }
+            if (regla.getAmbito() == null) {
+                throw new IllegalArgumentException("Regla " + id + ": falta el ámbito (LOCAL o REMOTA)");
+            }
+            int costo = regla.getCosto() != null ? regla.getCosto() : 0;
+            if (costo < 0) {
+                throw new IllegalArgumentException("Regla " + id + ": el costo no puede ser negativo");
+            }
+            Map<String, Object> parametros = regla.getParametros() != null ? regla.getParametros() : Map.of();
+
+            switch (tipo) {
+                case EDAD:
+                    edadMinima = entero(id, parametros, "minima");
+                    edadMaxima = entero(id, parametros, "maxima");
+                    if (edadMinima > edadMaxima) {
+                        throw new IllegalArgumentException("Regla " + id + ": minima mayor que maxima");
+                    }
+                    break;
+                case COHERENCIA_CEDULA_EDAD:
+                    margenCoherencia = entero(id, parametros, "margenAnios");
+                    compilarCohortes(id, lista(id, parametros, "cohortes"));
+                    break;
+                case NIVEL_SISBEN:
+                    Arrays.fill(nivelElegible, false);
+                    for (Object nivel : lista(id, parametros, "niveles")) {
+                        try {
+                            nivelElegible[NivelSISBEN.valueOf(String.valueOf(nivel)).ordinal()] = true;
+                        } catch (IllegalArgumentException e) {
+                            throw new IllegalArgumentException("Regla " + id + ": nivel SISBEN desconocido " + nivel);
+                        }
+                    }
+                    break;
+                case AUSENCIA_TITULO:
+                    break;
+                case MATRICULA:
+                    estadosVigentes = lista(id, parametros, "estadosVigentes").stream()
+                        .map(String::valueOf).toArray(String[]::new);
+                    intensidadMinima = entero(id, parametros, "intensidadMinima");
+                    if (parametros.containsKey("institucionesExcluidas")) {
+                        institucionesExcluidas = lista(id, parametros, "institucionesExcluidas").stream()
+                            .map(String::valueOf).toList();
+                        RegistroInstituciones.Constructor lista = new RegistroInstituciones.Constructor(false);
+                        institucionesExcluidas.forEach(lista::agregar);
+                        excluidas = lista.construir(id, 0);
+                    }
+                    exigirRegistro = Boolean.TRUE.equals(parametros.get("exigirRegistro"));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Regla " + id + ": tipo no soportado " + tipo);
+            }
+            declaradas.add(new ReglaCompilada(id, tipo, regla.getAmbito(), costo, declaradas.size()));
+        }
+
+        private void compilarCohortes(String id, List<?> cohortes) {
+            int n = cohortes.size();
+            cohorteDesde = new long[n];
+            cohorteHasta = new long[n];
+            cohorteEdad = new int[n];
+            for (int i = 0; i < n; i++) {
+                if (!(cohortes.get(i) instanceof Map<?, ?> cohorte)) {
+                    throw new IllegalArgumentException("Regla " + id + ": cohorte " + i + " inválida");
+                }
+                cohorteDesde[i] = largo(id, cohorte, "desde");
+                cohorteHasta[i] = largo(id, cohorte, "hasta");
+                cohorteEdad[i] = anioReferencia - (int) largo(id, cohorte, "anioNacimiento");
+                if (cohorteDesde[i] > cohorteHasta[i]) {
+                    throw new IllegalArgumentException("Regla " + id + ": cohorte " + i + " con desde mayor que hasta");
+                }
+            }
+            compilarTramos();
+        }
+
+        /**
+         * Parte las cohortes en tramos disjuntos y ordenados por cédula. Donde
+         * dos cohortes se solapan gana la declarada primero, como en una
+         * búsqueda lineal.
+         */
+        private void compilarTramos() {
+            int n = cohorteDesde.length;
+            long[] cortes = new long[2 * n];
+            for (int i = 0; i < n; i++) {
+                cortes[2 * i] = cohorteDesde[i];
+                cortes[2 * i + 1] = cohorteHasta[i] == Long.MAX_VALUE ? Long.MAX_VALUE : cohorteHasta[i] + 1;
+            }
+            cortes = Arrays.stream(cortes).sorted().distinct().toArray();
+
+            List<long[]> tramos = new ArrayList<>();
+            for (int k = 0; k < cortes.length; k++) {
+                long desde = cortes[k];
+                long hasta = k + 1 < cortes.length ? cortes[k + 1] - 1 : desde;
+                int cohorte = -1;
+                for (int i = 0; i < n && cohorte < 0; i++) {
+                    if (desde >= cohorteDesde[i] && desde <= cohorteHasta[i]) {
+                        cohorte = i;
+                    }
+                }
+                if (cohorte < 0) {
+                    continue;
+                }
+                long[] ultimo = tramos.isEmpty() ? null : tramos.get(tramos.size() - 1);
+                if (ultimo != null && ultimo[2] == cohorte && ultimo[1] + 1 == desde) {
+                    ultimo[1] = hasta;
+                } else {
+                    tramos.add(new long[] { desde, hasta, cohorte });
+                }
+            }
+            tramoDesde = new long[tramos.size()];
+            tramoHasta = new long[tramos.size()];
+            tramoCohorte = new int[tramos.size()];
+            for (int t = 0; t < tramos.size(); t++) {
+                tramoDesde[t] = tramos.get(t)[0];
+                tramoHasta[t] = tramos.get(t)[1];
+                tramoCohorte[t] = (int) tramos.get(t)[2];
+            }
+        }
+
+        private static int entero(String id, Map<String, Object> parametros, String nombre) {
+            return Math.toIntExact(largo(id, parametros, nombre));
+        }
+
+        private static long largo(String id, Map<?, ?> parametros, String nombre) {
+            Object valor = parametros.get(nombre);
+            if (!(valor instanceof Number numero)) {
+                throw new IllegalArgumentException("Regla " + id + ": falta el parámetro numérico '" + nombre + "'");
+            }
+            return numero.longValue();
+        }
+
+        private static List<?> lista(String id, Map<String, Object> parametros, String nombre) {
+            Object valor = parametros.get(nombre);
+            if (!(valor instanceof List<?> lista)) {
+                throw new IllegalArgumentException("Regla " + id + ": falta la lista '" + nombre + "'");
+            }
+            return lista;
+        }
+    }
+}
@@ -1,31 +1,60 @@
 package com.subsidios.rentajoven.application.contract;
 
+import com.subsidios.rentajoven.domain.enums.CodigoValidacion;
 import com.subsidios.rentajoven.domain.enums.MotivoRechazo;
 import com.subsidios.rentajoven.domain.enums.NivelSISBEN;
 import com.subsidios.rentajoven.domain.enums.TipoValidacion;
 import com.subsidios.rentajoven.domain.model.*;
+import com.subsidios.rentajoven.application.service.PrecalculoElegibilidad;
+import com.subsidios.rentajoven.application.shadow.EvaluacionSombra;
+import com.subsidios.rentajoven.infrastructure.dataset.DatosReferenciaActivos;
+import com.subsidios.rentajoven.infrastructure.dataset.VersionDatos;
 import com.subsidios.rentajoven.infrastructure.external.MENSimulator;
 import com.subsidios.rentajoven.infrastructure.external.SISBENSimulator;
 import com.subsidios.rentajoven.infrastructure.external.SNIESSimulator;
+import com.subsidios.rentajoven.infrastructure.index.IndiceElegibilidad;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenMEN;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSISBEN;
 import com.subsidios.rentajoven.shared.audit.AuditService;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Motor de Decisión Automatizado para el programa Renta Joven - VERSIÓN 2.0
  * 
- * REGLAS DE ELEGIBILIDAD COMPLETAS:
- * 1. Edad entre 14 y 28 años
+ * REGLAS DE ELEGIBILIDAD (declaradas en reglas/renta-joven.json):
+ * 1. Edad dentro del rango configurado
  * 2. Coherencia entre cédula y edad (detección de fraude)
- * 3. Estar en SISBEN nivel A, B o C
+ * 3. Estar en SISBEN en un nivel elegible
  * 4. NO tener título profesional registrado en SNIES
- * 5. Tener matrícula VIGENTE en el MEN
- * 6. Intensidad horaria >= 20 horas semanales
- * 7. Institución reconocida por el MEN (no fraudulenta)
+ * 5. Tener matrícula VIGENTE en el MEN, con la intensidad horaria mínima
+ *    y en una institución reconocida (no fraudulenta)
+ * 
+ * Las reglas se evalúan en el orden de la cadena compilada (locales primero,
+ * luego por costo declarado); los resultados y razones se reportan en el
+ * orden declarado. Con reglas.remotas.paralelas=true las reglas remotas que
+ * no se resuelven desde el índice precalculado se consultan en paralelo, en
+ * un pool acotado por reglas.remotas.hilos; los eventos de auditoría se
+ * registran siempre en el hilo de la solicitud, dentro de su transacción.
+ * 
+ * Una misma solicitud puede evaluarse contra varios programas (un conjunto
+ * de reglas por programa) consultando cada fuente una sola vez.
  * 
  * @author Cesar Amaya Gomez
  * @version 2.0
@@ -45,112 +74,175 @@ public class RentaJovenDecisionEngine {
     @Autowired
     private AuditService auditService;
     
-    // Lista de instituciones fraudulentas conocidas
-    private static final List<String> INSTITUCIONES_FRAUDULENTAS = Arrays.asList(
-        "Instituto Digital Global",
-        "Universidad Virtual del Caribe Online",
-        "Centro Educativo Los Pinos",
-        "Academia Superior de Gestión"
-    );
-    
-    // Rangos de cédula por cohorte de nacimiento (según a.py)
-    private static final int CEDULA_MIN_2006_2010 = 1120000000;
-    private static final int CEDULA_MAX_2010 = 1150000000;
-    private static final int CEDULA_MIN_2001_2005 = 1100000000;
-    private static final int CEDULA_MAX_2005 = 1119999999;
-    private static final int CEDULA_MIN_1996_2000 = 1080000000;
-    private static final int CEDULA_MAX_2000 = 1099999999;
+    @Autowired
+    private DatosReferenciaActivos datosActivos;
+    
+    @Autowired
+    private ReglasActivas reglasActivas;
+    
+    @Autowired
+    private PrecalculoElegibilidad precalculo;
+    
+    @Autowired
+    private EvaluacionSombra sombra;
+    
+    @Value("${reglas.remotas.paralelas:false}")
+    private boolean remotasParalelas;
+    
+    @Value("${reglas.remotas.hilos:8}")
+    private int hilosRemotas;
+    
+    private ExecutorService ejecutorRemotas;
+    
+    /**
+     * Pool acotado para las reglas remotas: si todos los hilos están
+     * ocupados, la regla se evalúa en el hilo de la solicitud.
+     */
+    @PostConstruct
+    public void iniciarEjecutorRemotas() {
+        ThreadPoolExecutor ejecutor = new ThreadPoolExecutor(hilosRemotas, hilosRemotas, 60, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), tarea -> {
+                Thread hilo = new Thread(tarea, "regla-remota");
+                hilo.setDaemon(true);
+                return hilo;
+            }, new ThreadPoolExecutor.CallerRunsPolicy());
+        ejecutor.allowCoreThreadTimeOut(true);
+        ejecutorRemotas = ejecutor;
+    }
     
     /**
-     * Evalúa la elegibilidad de un beneficiario con TODAS las validaciones.
+     * Precarga en el diccionario de auditoría los textos que registran las
+     * decisiones (programas, versiones de reglas, instituciones, programas
+     * académicos, estados y tipos de título), para que las solicitudes no
+     * tengan que insertarlos.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void precargarTextosAuditoria() {
+        Set<String> textos = new HashSet<>();
+        for (ReglasElegibilidad reglas : reglasActivas.programas().values()) {
+            textos.add(reglas.getPrograma());
+            textos.add(reglas.getVersion());
+            textos.addAll(reglas.getRegistro().nombres());
+        }
+        VersionDatos datos = datosActivos.actual();
+        datos.getMen().recorrer((matriculaId, r) -> {
+            textos.add(r.getInstitucion());
+            textos.add(r.getPrograma());
+            textos.add(r.getEstado());
+        });
+        datos.getSnies().recorrer((cedula, r) -> {
+            textos.add(r.getInstitucion());
+            textos.add(r.getPrograma());
+            textos.add(r.getTipoTitulo());
+        });
+        auditService.precargarTextos(textos);
+    }
+    
+    /**
+     * Evalúa la elegibilidad de un beneficiario con TODAS las validaciones
+     * del programa principal.
      */
     public DecisionResult evaluar(Beneficiario beneficiario, Long solicitudId) {
+        // Todas las consultas de esta decisión usan la misma versión de los datos
+        // y de las reglas, aunque durante la evaluación se publique otra
+        VersionDatos datos = datosActivos.actual();
+        ReglasElegibilidad reglas = reglasActivas.actual();
+        HechosSolicitud hechos = new HechosSolicitud(datos, beneficiario.getCedula(), beneficiario.getMatriculaId(),
+            beneficiario.getEdad());
         
-        long tiempoInicio = System.currentTimeMillis();
-        List<MotivoRechazo> motivosRechazo = new ArrayList<>();
+        // Las reglas de SISBEN, título y matrícula se responden desde el índice
+        // precalculado si el par cédula/matrícula está en él; si no, se consultan las fuentes
+        int precalculado = precalculo.consultar(datos, reglas, beneficiario.getCedula(), beneficiario.getMatriculaId());
         
-        // ===================================================================
-        // VALIDACIÓN 1: EDAD (14-28 años)
-        // ===================================================================
-        ValidacionIndividual validacionEdad = validarEdad(beneficiario.getEdad(), solicitudId);
-        if (!validacionEdad.getExitosa()) {
-            motivosRechazo.add(validacionEdad.getMotivoRechazo());
-        }
+        DecisionResult resultado = decidir(beneficiario, solicitudId, datos, reglas, hechos, precalculado);
+        enviarASombra(solicitudId, hechos, resultado);
+        return resultado;
+    }
+    
+    /**
+     * Evalúa a una persona en varios programas en una sola pasada: cada
+     * fuente se consulta a lo sumo una vez y su respuesta se reutiliza en
+     * todos los programas que la necesitan.
+     *
+     * @param solicitudes id de solicitud por programa, en el orden de la respuesta
+     * @throws IllegalArgumentException si algún programa no está configurado
+     */
+    public List<DecisionResult> evaluarProgramas(Beneficiario beneficiario, Map<String, Long> solicitudes) {
+        VersionDatos datos = datosActivos.actual();
+        ReglasElegibilidad principal = reglasActivas.actual();
+        Map<String, ReglasElegibilidad> programas = reglasActivas.programas();
+        HechosSolicitud hechos = new HechosSolicitud(datos, beneficiario.getCedula(), beneficiario.getMatriculaId(),
+            beneficiario.getEdad());
         
-        // ===================================================================
-        // VALIDACIÓN 2: COHERENCIA CÉDULA-EDAD (anti-fraude)
-        // ===================================================================
-        ValidacionIndividual validacionCoherencia = validarCoherenciaCedulaEdad(
-            beneficiario.getCedula(), 
-            beneficiario.getEdad(), 
-            solicitudId
-        );
-        if (!validacionCoherencia.getExitosa()) {
-            motivosRechazo.add(validacionCoherencia.getMotivoRechazo());
+        // El índice vale solo para las reglas del programa principal. Si el par está
+        // en él, sus registros son locales en esta versión: los demás programas los
+        // leen de ahí en lugar de consultar las fuentes
+        boolean incluyePrincipal = programas.get(principal.getPrograma()) == principal
+            && solicitudes.containsKey(principal.getPrograma());
+        int precalculado = incluyePrincipal
+            ? precalculo.consultar(datos, principal, beneficiario.getCedula(), beneficiario.getMatriculaId())
+            : 0;
+        if (precalculado != 0 && solicitudes.size() > 1) {
+            hechos.completar();
         }
         
-        // ===================================================================
-        // VALIDACIÓN 3: NIVEL SISBEN (A, B, C)
-        // ===================================================================
-        ValidacionIndividual validacionSISBEN = validarNivelSISBEN(
-            beneficiario.getCedula(), 
-            solicitudId
-        );
-        if (!validacionSISBEN.getExitosa()) {
-            motivosRechazo.add(validacionSISBEN.getMotivoRechazo());
+        List<DecisionResult> resultados = new ArrayList<>(solicitudes.size());
+        for (Map.Entry<String, Long> solicitud : solicitudes.entrySet()) {
+            ReglasElegibilidad reglas = programas.get(solicitud.getKey());
+            if (reglas == null) {
+                throw new IllegalArgumentException("Programa no configurado: " + solicitud.getKey());
+            }
+            DecisionResult resultado = decidir(beneficiario, solicitud.getValue(), datos, reglas, hechos,
+                reglas == principal ? precalculado : 0);
+            if (reglas == principal) {
+                enviarASombra(solicitud.getValue(), hechos, resultado);
+            }
+            resultados.add(resultado);
         }
+        return resultados;
+    }
+    
+    /**
+     * Decide una solicitud con un conjunto de reglas. Las respuestas de las
+     * fuentes quedan en {@code hechos} para los programas siguientes.
+     *
+     * @param precalculado código del índice para el par, o 0 para evaluar en vivo
+     */
+    private DecisionResult decidir(Beneficiario beneficiario, Long solicitudId, VersionDatos datos,
+                                   ReglasElegibilidad reglas, HechosSolicitud hechos, int precalculado) {
         
-        // ===================================================================
-        // VALIDACIÓN 4: AUSENCIA DE TÍTULO PROFESIONAL
-        // ===================================================================
-        ValidacionIndividual validacionTitulo = validarAusenciaTituloProfesional(
-            beneficiario.getCedula(), 
-            solicitudId
-        );
-        if (!validacionTitulo.getExitosa()) {
-            motivosRechazo.add(validacionTitulo.getMotivoRechazo());
-        }
+        long tiempoInicio = System.currentTimeMillis();
+        List<MotivoRechazo> motivosRechazo = new ArrayList<>();
         
-        // ===================================================================
-        // VALIDACIÓN 5: MATRÍCULA VIGENTE
-        // ===================================================================
-        ValidacionIndividual validacionMatricula = validarMatriculaCompleta(
-            beneficiario.getMatriculaId(), 
-            solicitudId
-        );
-        if (!validacionMatricula.getExitosa()) {
-            motivosRechazo.add(validacionMatricula.getMotivoRechazo());
-        }
+        ValidacionIndividual[] validaciones = ejecutarCadena(reglas, datos, beneficiario, precalculado, hechos, solicitudId);
         
         // ===================================================================
         // DECISIÓN FINAL: TODAS las validaciones deben ser exitosas
         // ===================================================================
-        boolean aprobada = validacionEdad.getExitosa()
-                        && validacionCoherencia.getExitosa()
-                        && validacionSISBEN.getExitosa() 
-                        && validacionTitulo.getExitosa() 
-                        && validacionMatricula.getExitosa();
+        boolean aprobada = true;
+        int mascaraMotivos = 0;
+        for (ValidacionIndividual validacion : validaciones) {
+            if (!validacion.getExitosa()) {
+                aprobada = false;
+                motivosRechazo.add(validacion.getMotivoRechazo());
+                mascaraMotivos |= validacion.getMotivoRechazo().bit();
+            }
+        }
         
         long tiempoFin = System.currentTimeMillis();
         long tiempoTotal = tiempoFin - tiempoInicio;
         
-        // Construir razones detalladas
-        List<String> razones = construirRazones(
-            validacionEdad,
-            validacionCoherencia,
-            validacionSISBEN, 
-            validacionTitulo, 
-            validacionMatricula, 
-            aprobada
-        );
-        
-        // Registrar decisión final en auditoría
+        // Registrar decisión final en auditoría (la versión de datos queda en la solicitud)
         auditService.registrar(
             solicitudId,
             TipoValidacion.DECISION_FINAL,
             aprobada,
-            aprobada ? "SOLICITUD APROBADA" : "SOLICITUD RECHAZADA",
-            aprobada ? String.join("; ", razones) : "Motivos: " + motivosRechazo.toString(),
+            EventoValidacion.builder()
+                .codigo(aprobada ? CodigoValidacion.SOLICITUD_APROBADA : CodigoValidacion.SOLICITUD_RECHAZADA)
+                .valor1(mascaraMotivos)
+                .programa(reglas.getPrograma())
+                .texto(reglas.getVersion())
+                .build(),
             tiempoTotal
         );
         
@@ -159,386 +251,399 @@ public class RentaJovenDecisionEngine {
         // ===================================================================
         return DecisionResult.builder()
                 .solicitudId(solicitudId)
+                .programa(reglas.getPrograma())
                 .aprobada(aprobada)
                 .mensaje(aprobada 
-                    ? "✅ Solicitud aprobada - Cumple todos los requisitos del programa Renta Joven" 
+                    ? "✅ Solicitud aprobada - Cumple todos los requisitos del programa " + reglas.getNombre()
                     : "❌ Solicitud rechazada - No cumple con " + motivosRechazo.size() + " requisito(s)")
-                .razones(razones)
+                .razones(ValidacionIndividual.mensajes(validaciones))
+                .motivosRechazo(motivosRechazo)
                 .tiempoTotalMs(tiempoTotal)
+                .versionDatos(datos.getId())
+                .versionReglas(reglas.getVersion())
                 .validaciones(DetalleValidaciones.builder()
-                    .sisben(validacionSISBEN)
-                    .tituloProfesional(validacionTitulo)
-                    .matricula(validacionMatricula)
+                    .sisben(resultado(validaciones, reglas, TipoRegla.NIVEL_SISBEN))
+                    .tituloProfesional(resultado(validaciones, reglas, TipoRegla.AUSENCIA_TITULO))
+                    .matricula(resultado(validaciones, reglas, TipoRegla.MATRICULA))
                     .build())
                 .build();
     }
     
     // ===================================================================
-    // VALIDACIONES INDIVIDUALES
+    // CADENA DE REGLAS
     // ===================================================================
     
     /**
-     * VALIDACIÓN 1: Edad debe estar entre 14 y 28 años.
+     * Recorre la cadena compilada y deja cada resultado en la posición
+     * declarada de su regla. Los eventos se registran al final, en el orden
+     * de la cadena y en este hilo, aunque las reglas remotas corran en el pool.
      */
-    private ValidacionIndividual validarEdad(Integer edad, Long solicitudId) {
-        long inicio = System.currentTimeMillis();
+    private ValidacionIndividual[] ejecutarCadena(ReglasElegibilidad reglas, VersionDatos datos,
+                                                  Beneficiario beneficiario, int precalculado, HechosSolicitud hechos,
+                                                  Long solicitudId) {
+        ReglaCompilada[] cadena = reglas.cadena();
+        ValidacionIndividual[] resultados = new ValidacionIndividual[cadena.length];
         
-        boolean exitosa = edad != null && edad >= 14 && edad <= 28;
-        
-        String mensaje = exitosa
-            ? String.format("✓ Edad %d años - Dentro del rango permitido (14-28)", edad)
-            : String.format("✗ Edad %d años - Fuera del rango permitido (14-28)", edad != null ? edad : 0);
-        
-        String detalle = String.format(
-            "Validación de edad. Edad declarada: %d. Rango permitido: 14-28 años. Resultado: %s",
-            edad != null ? edad : 0,
-            exitosa ? "VÁLIDO" : "INVÁLIDO"
-        );
+        // Desde el índice las reglas remotas no consultan las fuentes: no vale la pena repartirlas
+        boolean paralelo = remotasParalelas && precalculado == 0 && reglas.remotas() > 1;
+        List<Future<?>> pendientes = paralelo ? new ArrayList<>(reglas.remotas()) : null;
         
-        long fin = System.currentTimeMillis();
+        for (ReglaCompilada regla : cadena) {
+            if (paralelo && regla.getAmbito() == AmbitoRegla.REMOTA) {
+                pendientes.add(ejecutorRemotas.submit(() -> resultados[regla.getPosicion()] =
+                    ejecutar(regla, reglas, datos, beneficiario, precalculado, hechos)));
+            } else {
+                resultados[regla.getPosicion()] = ejecutar(regla, reglas, datos, beneficiario, precalculado, hechos);
+            }
+        }
         
-        auditService.registrar(
-            solicitudId,
-            TipoValidacion.SISBEN, // Temporalmente
-            exitosa,
-            mensaje,
-            detalle,
-            fin - inicio
-        );
+        if (paralelo) {
+            for (Future<?> pendiente : pendientes) {
+                try {
+                    pendiente.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Evaluación interrumpida", e);
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Error evaluando regla remota", e.getCause());
+                }
+            }
+        }
         
-        return ValidacionIndividual.builder()
-                .exitosa(exitosa)
-                .mensaje(mensaje)
-                .tiempoMs(fin - inicio)
-                .detalle(detalle)
-                .motivoRechazo(exitosa ? null : MotivoRechazo.EDAD_FUERA_RANGO)
-                .build();
+        for (ReglaCompilada regla : cadena) {
+            ValidacionIndividual validacion = resultados[regla.getPosicion()];
+            auditService.registrar(solicitudId, tipoAuditoria(regla.getTipo()), validacion.getExitosa(),
+                validacion.getEvento(), validacion.getTiempoMs());
+        }
+        return resultados;
+    }
+    
+    private static TipoValidacion tipoAuditoria(TipoRegla tipo) {
+        switch (tipo) {
+            case AUSENCIA_TITULO:
+                return TipoValidacion.TITULO_PROFESIONAL;
+            case MATRICULA:
+                return TipoValidacion.MATRICULA;
+            default:
+                return TipoValidacion.SISBEN; // Edad y coherencia: temporalmente
+        }
+    }
+    
+    private ValidacionIndividual ejecutar(ReglaCompilada regla, ReglasElegibilidad reglas, VersionDatos datos,
+                                          Beneficiario beneficiario, int precalculado, HechosSolicitud hechos) {
+        switch (regla.getTipo()) {
+            case EDAD:
+                return validarEdad(reglas, beneficiario.getEdad());
+            case COHERENCIA_CEDULA_EDAD:
+                return validarCoherenciaCedulaEdad(reglas, beneficiario.getCedula(), beneficiario.getEdad());
+            case NIVEL_SISBEN:
+                return precalculado != 0
+                    ? nivelSISBENPrecalculado(datos, beneficiario.getCedula(), precalculado)
+                    : validarNivelSISBEN(reglas, datos, beneficiario.getCedula(), hechos);
+            case AUSENCIA_TITULO:
+                return precalculado != 0
+                    ? ausenciaTituloPrecalculada(datos, beneficiario.getCedula(), precalculado)
+                    : validarAusenciaTituloProfesional(datos, beneficiario.getCedula(), hechos);
+            case MATRICULA:
+                return precalculado != 0
+                    ? matriculaPrecalculada(reglas, datos, beneficiario.getMatriculaId(), precalculado)
+                    : validarMatriculaCompleta(reglas, datos, beneficiario.getMatriculaId(), hechos);
+            default:
+                throw new IllegalStateException("Regla sin validación: " + regla);
+        }
     }
     
     /**
-     * VALIDACIÓN 2: Coherencia entre cédula y edad (anti-fraude).
+     * Con la sombra activa, las respuestas ya consultadas se reevalúan con las
+     * reglas candidatas sin repetir las consultas. La sombra recibe una copia:
+     * los programas siguientes de la misma persona siguen llenando los hechos
+     * originales mientras el hilo de sombra completa los suyos.
      */
-    private ValidacionIndividual validarCoherenciaCedulaEdad(String cedula, Integer edad, Long solicitudId) {
-        long inicio = System.currentTimeMillis();
-        
-        try {
-            long cedulaNum = Long.parseLong(cedula);
-            int añoActual = 2025;
-            int edadEstimada = -1;
-            
-            // Estimar edad según rango de cédula
-            if (cedulaNum >= CEDULA_MIN_2006_2010 && cedulaNum <= CEDULA_MAX_2010) {
-                edadEstimada = añoActual - 2008; // ~17 años (promedio 2006-2010)
-            } else if (cedulaNum >= CEDULA_MIN_2001_2005 && cedulaNum <= CEDULA_MAX_2005) {
-                edadEstimada = añoActual - 2003; // ~22 años
-            } else if (cedulaNum >= CEDULA_MIN_1996_2000 && cedulaNum <= CEDULA_MAX_2000) {
-                edadEstimada = añoActual - 1998; // ~27 años
-            }
-            
-            // Permitir margen de error de ±4 años
-            boolean coherente = edadEstimada == -1 || Math.abs(edadEstimada - edad) <= 4;
-            
-            String mensaje = coherente
-                ? String.format("✓ Cédula y edad son coherentes (edad: %d, estimada: %d)", edad, edadEstimada)
-                : String.format("✗ ALERTA FRAUDE: Cédula no coherente con edad (edad: %d, estimada: %d, diferencia: %d)", 
-                    edad, edadEstimada, Math.abs(edadEstimada - edad));
-            
-            String detalle = String.format(
-                "Cédula: %s, Edad declarada: %d, Edad estimada por cédula: %d, Diferencia: %d años",
-                cedula, edad, edadEstimada, edadEstimada != -1 ? Math.abs(edadEstimada - edad) : 0
-            );
-            
-            long fin = System.currentTimeMillis();
-            
-            auditService.registrar(
-                solicitudId,
-                TipoValidacion.SISBEN,
-                coherente,
-                mensaje,
-                detalle,
-                fin - inicio
-            );
-            
-            return ValidacionIndividual.builder()
-                    .exitosa(coherente)
-                    .mensaje(mensaje)
-                    .tiempoMs(fin - inicio)
-                    .detalle(detalle)
-                    .motivoRechazo(coherente ? null : MotivoRechazo.COHERENCIA_CEDULA_EDAD)
-                    .build();
-                    
-        } catch (Exception e) {
-            long fin = System.currentTimeMillis();
-            return ValidacionIndividual.builder()
-                    .exitosa(false)
-                    .mensaje("✗ Error validando coherencia cédula-edad")
-                    .tiempoMs(fin - inicio)
-                    .detalle(e.getMessage())
-                    .motivoRechazo(MotivoRechazo.ERROR_SISTEMA)
-                    .build();
+    private void enviarASombra(Long solicitudId, HechosSolicitud hechos, DecisionResult resultado) {
+        if (!sombra.activa()) {
+            return;
         }
+        sombra.enviar(solicitudId, hechos.copia(), MotivoRechazo.mascara(resultado.getMotivosRechazo()));
+    }
+    
+    private static ValidacionIndividual resultado(ValidacionIndividual[] validaciones, ReglasElegibilidad reglas,
+                                                  TipoRegla tipo) {
+        int posicion = reglas.posicion(tipo);
+        return posicion >= 0 ? validaciones[posicion] : null;
+    }
+    
+    // ===================================================================
+    // VALIDACIONES INDIVIDUALES
+    // ===================================================================
+    // Cada validación produce un evento estructurado (código y valores);
+    // los mensajes se arman solo si alguien los lee.
+    
+    /**
+     * VALIDACIÓN 1: Edad dentro del rango de las reglas.
+     */
+    private ValidacionIndividual validarEdad(ReglasElegibilidad reglas, Integer edad) {
+        // Resultado precompilado en las reglas: no reserva memoria para edades comunes
+        return reglas.validacionEdad(edad);
     }
     
     /**
-     * VALIDACIÓN 3: Nivel SISBEN debe ser A, B o C.
+     * VALIDACIÓN 2: Coherencia entre cédula y edad (anti-fraude).
      */
-    private ValidacionIndividual validarNivelSISBEN(String cedula, Long solicitudId) {
+    private ValidacionIndividual validarCoherenciaCedulaEdad(ReglasElegibilidad reglas, String cedula, Integer edad) {
+        // Cohorte por búsqueda binaria sobre la tabla de tramos y resultado precompilado
+        return reglas.validacionCoherencia(cedula, edad);
+    }
+    
+    /**
+     * VALIDACIÓN 3: Nivel SISBEN elegible según las reglas.
+     */
+    private ValidacionIndividual validarNivelSISBEN(ReglasElegibilidad reglas, VersionDatos datos, String cedula,
+                                                    HechosSolicitud hechos) {
         long inicio = System.currentTimeMillis();
         
         try {
-            SISBENResponse response = sisbenSimulator.consultar(cedula);
+            SISBENResponse response = consultarSISBEN(datos, cedula, hechos);
             
             long fin = System.currentTimeMillis();
             long tiempo = fin - inicio;
             
             if (!response.isEncontrado()) {
-                auditService.registrar(
-                    solicitudId,
-                    TipoValidacion.SISBEN,
-                    false,
-                    "No encontrado en SISBEN",
-                    "Cédula " + cedula + " no encontrada en base SISBEN",
-                    tiempo
-                );
-                
-                return ValidacionIndividual.builder()
-                        .exitosa(false)
-                        .mensaje("✗ No se encontró registro en SISBEN")
-                        .tiempoMs(tiempo)
-                        .detalle("Cédula no encontrada en base de datos SISBEN")
-                        .motivoRechazo(MotivoRechazo.SISBEN_NO_ENCONTRADO)
-                        .build();
+                return validacion(SISBEN_NO_ENCONTRADO, MotivoRechazo.SISBEN_NO_ENCONTRADO, tiempo);
             }
             
-            boolean elegible = response.getNivel().isElegible();
-            
-            String mensaje = elegible 
-                ? String.format("✓ Nivel %s (%s) - Elegible", 
-                    response.getNivel().name(), response.getNivel().getDescripcion())
-                : String.format("✗ Nivel %s (%s) - No elegible", 
-                    response.getNivel().name(), response.getNivel().getDescripcion());
+            boolean elegible = reglas.nivelElegible(response.getNivel());
             
-            String detalle = String.format(
-                "SISBEN consultado. Cédula: %s, Nivel: %s, Puntaje: %.2f, Ubicación: %s - %s",
-                cedula, response.getNivel().name(), response.getPuntaje(),
-                response.getDepartamento(), response.getMunicipio()
-            );
-            
-            auditService.registrar(
-                solicitudId,
-                TipoValidacion.SISBEN,
-                elegible,
-                mensaje,
-                detalle,
-                tiempo
-            );
-            
-            return ValidacionIndividual.builder()
-                    .exitosa(elegible)
-                    .mensaje(mensaje)
-                    .tiempoMs(tiempo)
-                    .detalle(detalle)
-                    .motivoRechazo(elegible ? null : MotivoRechazo.NIVEL_SISBEN_NO_ELEGIBLE)
-                    .build();
+            return validacion(eventoSISBEN(elegible, response.getNivel(), response.getPuntaje()),
+                elegible ? null : MotivoRechazo.NIVEL_SISBEN_NO_ELEGIBLE, tiempo);
                     
         } catch (Exception e) {
             long fin = System.currentTimeMillis();
-            return crearValidacionError(solicitudId, TipoValidacion.SISBEN, e, fin - inicio);
+            return crearValidacionError(e, fin - inicio);
         }
     }
     
     /**
      * VALIDACIÓN 4: NO debe tener título profesional.
      */
-    private ValidacionIndividual validarAusenciaTituloProfesional(String cedula, Long solicitudId) {
+    private ValidacionIndividual validarAusenciaTituloProfesional(VersionDatos datos, String cedula,
+                                                                  HechosSolicitud hechos) {
         long inicio = System.currentTimeMillis();
         
         try {
-            SNIESResponse response = sniesSimulator.consultar(cedula);
+            SNIESResponse response = consultarSNIES(datos, cedula, hechos);
             
             long fin = System.currentTimeMillis();
             long tiempo = fin - inicio;
             
             boolean exitosa = !response.isTieneTitulo();
             
-            String mensaje = exitosa
-                ? "✓ No tiene título profesional registrado - Elegible"
-                : String.format("✗ Tiene título profesional: %s (%s) - No elegible",
-                    response.getPrograma(), response.getTipoTitulo());
-            
-            String detalle = response.isTieneTitulo()
-                ? String.format("SNIES: Título registrado. Programa: %s, Institución: %s, Tipo: %s",
-                    response.getPrograma(), response.getInstitucion(), response.getTipoTitulo())
-                : "SNIES: No se encontró título profesional registrado";
-            
-            auditService.registrar(
-                solicitudId,
-                TipoValidacion.TITULO_PROFESIONAL,
-                exitosa,
-                mensaje,
-                detalle,
-                tiempo
-            );
-            
-            return ValidacionIndividual.builder()
-                    .exitosa(exitosa)
-                    .mensaje(mensaje)
-                    .tiempoMs(tiempo)
-                    .detalle(detalle)
-                    .motivoRechazo(exitosa ? null : MotivoRechazo.TIENE_TITULO_PROFESIONAL)
-                    .build();
+            return validacion(exitosa ? SIN_TITULO : eventoTitulo(response),
+                exitosa ? null : MotivoRechazo.TIENE_TITULO_PROFESIONAL, tiempo);
                     
         } catch (Exception e) {
             long fin = System.currentTimeMillis();
-            return crearValidacionError(solicitudId, TipoValidacion.TITULO_PROFESIONAL, e, fin - inicio);
+            return crearValidacionError(e, fin - inicio);
         }
     }
     
     /**
-     * VALIDACIÓN 5: Matrícula VIGENTE + Intensidad >= 20h + Institución reconocida.
+     * VALIDACIÓN 5: Matrícula VIGENTE + Intensidad mínima + Institución reconocida.
      */
-    private ValidacionIndividual validarMatriculaCompleta(String matriculaId, Long solicitudId) {
+    private ValidacionIndividual validarMatriculaCompleta(ReglasElegibilidad reglas, VersionDatos datos,
+                                                          String matriculaId, HechosSolicitud hechos) {
         long inicio = System.currentTimeMillis();
         
         try {
-            MENResponse response = menSimulator.consultar(matriculaId);
+            MENResponse response = consultarMEN(datos, matriculaId, hechos);
             
             long fin = System.currentTimeMillis();
             long tiempo = fin - inicio;
             
             // 5.1 - Verificar que existe
             if (!response.isEncontrada()) {
-                auditService.registrar(
-                    solicitudId,
-                    TipoValidacion.MATRICULA,
-                    false,
-                    "Matrícula no encontrada",
-                    "ID: " + matriculaId,
-                    tiempo
-                );
-                
-                return ValidacionIndividual.builder()
-                        .exitosa(false)
-                        .mensaje("✗ Matrícula no encontrada en el sistema MEN")
-                        .tiempoMs(tiempo)
-                        .detalle("ID matrícula: " + matriculaId)
-                        .motivoRechazo(MotivoRechazo.MATRICULA_NO_ENCONTRADA)
-                        .build();
+                return validacion(MATRICULA_NO_ENCONTRADA, MotivoRechazo.MATRICULA_NO_ENCONTRADA, tiempo);
             }
             
-            // 5.2 - Verificar que está VIGENTE
-            boolean vigente = "VIGENTE".equalsIgnoreCase(response.getEstado());
-            if (!vigente) {
-                String mensaje = String.format("✗ Matrícula NO vigente (estado: %s)", response.getEstado());
-                auditService.registrar(solicitudId, TipoValidacion.MATRICULA, false, mensaje, "", tiempo);
-                
-                return ValidacionIndividual.builder()
-                        .exitosa(false)
-                        .mensaje(mensaje)
-                        .tiempoMs(tiempo)
-                        .detalle("Estado actual: " + response.getEstado())
-                        .motivoRechazo(MotivoRechazo.MATRICULA_NO_VIGENTE)
-                        .build();
+            // 5.2 - Vigente, 5.3 - intensidad mínima, 5.4 - institución reconocida
+            MotivoRechazo motivo;
+            if (!reglas.matriculaVigente(response.getEstado())) {
+                motivo = MotivoRechazo.MATRICULA_NO_VIGENTE;
+            } else if (!reglas.intensidadSuficiente(response.getIntensidadHoraria())) {
+                motivo = MotivoRechazo.INTENSIDAD_HORARIA_INSUFICIENTE;
+            } else if (!reglas.institucionReconocida(response.getInstitucion())) {
+                motivo = MotivoRechazo.INSTITUCION_NO_RECONOCIDA;
+            } else {
+                motivo = null;
             }
             
-            // 5.3 - Verificar intensidad horaria >= 20
-            boolean intensidadSuficiente = response.getIntensidadHoraria() >= 20;
-            if (!intensidadSuficiente) {
-                String mensaje = String.format("✗ Intensidad horaria insuficiente: %dh (mínimo 20h)", 
-                    response.getIntensidadHoraria());
-                auditService.registrar(solicitudId, TipoValidacion.MATRICULA, false, mensaje, "", tiempo);
-                
-                return ValidacionIndividual.builder()
-                        .exitosa(false)
-                        .mensaje(mensaje)
-                        .tiempoMs(tiempo)
-                        .detalle("Intensidad actual: " + response.getIntensidadHoraria() + " horas/semana")
-                        .motivoRechazo(MotivoRechazo.INTENSIDAD_HORARIA_INSUFICIENTE)
-                        .build();
-            }
-            
-            // 5.4 - Verificar institución reconocida (no fraudulenta)
-            boolean institucionReconocida = !INSTITUCIONES_FRAUDULENTAS.contains(response.getInstitucion());
-            if (!institucionReconocida) {
-                String mensaje = String.format("✗ Institución NO reconocida: %s", response.getInstitucion());
-                auditService.registrar(solicitudId, TipoValidacion.MATRICULA, false, mensaje, "", tiempo);
-                
-                return ValidacionIndividual.builder()
-                        .exitosa(false)
-                        .mensaje(mensaje)
-                        .tiempoMs(tiempo)
-                        .detalle("Institución en lista negra")
-                        .motivoRechazo(MotivoRechazo.INSTITUCION_NO_RECONOCIDA)
-                        .build();
-            }
-            
-            // ✅ TODO BIEN
-            String mensaje = String.format("✓ Matrícula VIGENTE - %s (%dh/semana) - Elegible",
-                response.getInstitucion(), response.getIntensidadHoraria());
-            
-            String detalle = String.format(
-                "MEN: Matrícula %s. Institución: %s, Programa: %s, Estado: %s, Intensidad: %dh",
-                matriculaId, response.getInstitucion(), response.getPrograma(),
-                response.getEstado(), response.getIntensidadHoraria()
-            );
-            
-            auditService.registrar(solicitudId, TipoValidacion.MATRICULA, true, mensaje, detalle, tiempo);
-            
-            return ValidacionIndividual.builder()
-                    .exitosa(true)
-                    .mensaje(mensaje)
-                    .tiempoMs(tiempo)
-                    .detalle(detalle)
-                    .motivoRechazo(null)
-                    .build();
+            return validacion(eventoMatricula(motivo, response.getInstitucion(), response.getPrograma(),
+                    response.getEstado(), response.getIntensidadHoraria(), reglas),
+                motivo, tiempo);
                     
         } catch (Exception e) {
             long fin = System.currentTimeMillis();
-            return crearValidacionError(solicitudId, TipoValidacion.MATRICULA, e, fin - inicio);
+            return crearValidacionError(e, fin - inicio);
         }
     }
     
+    // ===================================================================
+    // CONSULTAS COMPARTIDAS ENTRE PROGRAMAS
+    // ===================================================================
+    // Cada fuente se consulta una vez por persona; los programas siguientes
+    // reutilizan la respuesta guardada en los hechos.
+    
+    private SISBENResponse consultarSISBEN(VersionDatos datos, String cedula, HechosSolicitud hechos) {
+        if (hechos.sisben == null) {
+            hechos.sisben = sisbenSimulator.consultar(datos, cedula);
+        }
+        return hechos.sisben;
+    }
+    
+    private SNIESResponse consultarSNIES(VersionDatos datos, String cedula, HechosSolicitud hechos) {
+        if (hechos.snies == null) {
+            hechos.snies = sniesSimulator.consultar(datos, cedula);
+        }
+        return hechos.snies;
+    }
+    
+    private MENResponse consultarMEN(VersionDatos datos, String matriculaId, HechosSolicitud hechos) {
+        if (hechos.men == null) {
+            hechos.men = menSimulator.consultar(datos, matriculaId);
+        }
+        return hechos.men;
+    }
+    
+    // ===================================================================
+    // VALIDACIONES DESDE EL ÍNDICE PRECALCULADO
+    // ===================================================================
+    // El resultado viene del índice; los registros locales solo se leen
+    // para completar el evento, sin la latencia de las fuentes.
+    
     /**
-     * Construye la lista de razones detalladas.
+     * VALIDACIÓN 3 precalculada.
      */
-    private List<String> construirRazones(
-            ValidacionIndividual edad,
-            ValidacionIndividual coherencia,
-            ValidacionIndividual sisben,
-            ValidacionIndividual titulo,
-            ValidacionIndividual matricula,
-            boolean aprobada) {
+    private ValidacionIndividual nivelSISBENPrecalculado(VersionDatos datos, String cedula, int codigo) {
+        MotivoRechazo motivo = IndiceElegibilidad.motivoSISBEN(codigo);
         
-        List<String> razones = new ArrayList<>();
+        if (motivo == MotivoRechazo.SISBEN_NO_ENCONTRADO) {
+            return validacion(SISBEN_NO_ENCONTRADO, motivo, 0);
+        }
         
-        razones.add(edad.getMensaje());
-        razones.add(coherencia.getMensaje());
-        razones.add(sisben.getMensaje());
-        razones.add(titulo.getMensaje());
-        razones.add(matricula.getMensaje());
+        AlmacenSISBEN sisben = datos.getSisben();
+        int pos = sisben.posicion(cedula);
         
-        return razones;
+        return validacion(eventoSISBEN(motivo == null, sisben.nivel(pos), sisben.puntaje(pos)), motivo, 0);
     }
     
     /**
-     * Crea una validación de error genérica.
+     * VALIDACIÓN 4 precalculada.
      */
-    private ValidacionIndividual crearValidacionError(
-            Long solicitudId, 
-            TipoValidacion tipo, 
-            Exception e, 
-            long tiempo) {
+    private ValidacionIndividual ausenciaTituloPrecalculada(VersionDatos datos, String cedula, int codigo) {
+        MotivoRechazo motivo = IndiceElegibilidad.motivoTitulo(codigo);
         
-        String mensaje = "Error en validación: " + e.getMessage();
+        return validacion(motivo == null ? SIN_TITULO : eventoTitulo(datos.getSnies().buscar(cedula)), motivo, 0);
+    }
+    
+    /**
+     * VALIDACIÓN 5 precalculada.
+     */
+    private ValidacionIndividual matriculaPrecalculada(ReglasElegibilidad reglas, VersionDatos datos, String matriculaId,
+                                                       int codigo) {
+        MotivoRechazo motivo = IndiceElegibilidad.motivoMatricula(codigo);
+        AlmacenMEN men = datos.getMen();
+        int pos = men.posicion(matriculaId);
         
-        auditService.registrar(solicitudId, tipo, false, mensaje, e.toString(), tiempo);
+        return validacion(eventoMatricula(motivo, men.institucion(pos), men.programa(pos), men.estado(pos),
+                men.intensidad(pos), reglas),
+            motivo, 0);
+    }
+    
+    // ===================================================================
+    // EVENTOS
+    // ===================================================================
+    
+    private static final EventoValidacion SISBEN_NO_ENCONTRADO = EventoValidacion.builder()
+            .codigo(CodigoValidacion.SISBEN_NO_ENCONTRADO)
+            .build();
+    
+    private static final EventoValidacion SIN_TITULO = EventoValidacion.builder()
+            .codigo(CodigoValidacion.SIN_TITULO)
+            .build();
+    
+    private static final EventoValidacion MATRICULA_NO_ENCONTRADA = EventoValidacion.builder()
+            .codigo(CodigoValidacion.MATRICULA_NO_ENCONTRADA)
+            .build();
+    
+    private static EventoValidacion eventoSISBEN(boolean elegible, NivelSISBEN nivel, double puntaje) {
+        return EventoValidacion.builder()
+                .codigo(elegible ? CodigoValidacion.SISBEN_ELEGIBLE : CodigoValidacion.SISBEN_NO_ELEGIBLE)
+                .valor1(nivel.ordinal())
+                .valor2(Math.round(puntaje * 100))
+                .build();
+    }
+    
+    private static EventoValidacion eventoTitulo(SNIESResponse titulo) {
+        return EventoValidacion.builder()
+                .codigo(CodigoValidacion.CON_TITULO)
+                .programa(titulo.getPrograma())
+                .institucion(titulo.getInstitucion())
+                .texto(titulo.getTipoTitulo())
+                .build();
+    }
+    
+    /**
+     * @param motivo primer requisito de matrícula que no se cumple, o null si todos se cumplen
+     */
+    private static EventoValidacion eventoMatricula(MotivoRechazo motivo, String institucion, String programa,
+                                                    String estado, int intensidad, ReglasElegibilidad reglas) {
+        CodigoValidacion codigo;
+        if (motivo == null) {
+            codigo = CodigoValidacion.MATRICULA_VIGENTE;
+        } else if (motivo == MotivoRechazo.MATRICULA_NO_VIGENTE) {
+            codigo = CodigoValidacion.MATRICULA_NO_VIGENTE;
+        } else if (motivo == MotivoRechazo.INTENSIDAD_HORARIA_INSUFICIENTE) {
+            codigo = CodigoValidacion.INTENSIDAD_INSUFICIENTE;
+        } else {
+            codigo = CodigoValidacion.INSTITUCION_NO_RECONOCIDA;
+        }
+        return EventoValidacion.builder()
+                .codigo(codigo)
+                .valor1(intensidad)
+                .valor2(reglas.getIntensidadMinima())
+                .institucion(institucion)
+                .programa(programa)
+                .texto(estado)
+                .build();
+    }
+    
+    /**
+     * Validación con su evento; el mensaje se arma al leerlo y el evento se
+     * registra en auditoría al terminar la cadena.
+     */
+    private static ValidacionIndividual validacion(EventoValidacion evento, MotivoRechazo motivo, long tiempo) {
+        return ValidacionIndividual.builder()
+                .exitosa(motivo == null)
+                .tiempoMs(tiempo)
+                .evento(evento)
+                .motivoRechazo(motivo)
+                .build();
+    }
+    
+    /**
+     * Crea una validación de error genérica.
+     */
+    private static ValidacionIndividual crearValidacionError(Exception e, long tiempo) {
+        
+        EventoValidacion evento = EventoValidacion.builder()
+                .codigo(CodigoValidacion.ERROR_VALIDACION)
+                .texto(e.toString())
+                .build();
         
         return ValidacionIndividual.builder()
                 .exitosa(false)
-                .mensaje(mensaje)
                 .tiempoMs(tiempo)
-                .detalle(e.toString())
+                .evento(evento)
                 .motivoRechazo(MotivoRechazo.ERROR_SISTEMA)
                 .build();
     }
-}
\ No newline at end of file
+}
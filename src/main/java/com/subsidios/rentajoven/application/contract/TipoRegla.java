@@ -0,0 +1,13 @@
+package com.subsidios.rentajoven.application.contract;
+
+/**
+ * Reglas que sabe ejecutar el motor de decisión. Cada tipo aparece a lo sumo
+ * una vez en un conjunto de reglas.
+ */
+public enum TipoRegla {
+    EDAD,
+    COHERENCIA_CEDULA_EDAD,
+    NIVEL_SISBEN,
+    AUSENCIA_TITULO,
+    MATRICULA
+}
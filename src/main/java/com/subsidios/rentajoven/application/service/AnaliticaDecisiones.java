@@ -0,0 +1,164 @@
+package com.subsidios.rentajoven.application.service;
+
+import com.subsidios.rentajoven.domain.model.FiltroAnalitica;
+import com.subsidios.rentajoven.domain.model.ResultadoAnalitica;
+import com.subsidios.rentajoven.domain.model.SISBENResponse;
+import com.subsidios.rentajoven.domain.model.Solicitud;
+import com.subsidios.rentajoven.infrastructure.dataset.DatosReferenciaActivos;
+import com.subsidios.rentajoven.infrastructure.index.IndiceAnalitico;
+import com.subsidios.rentajoven.infrastructure.persistence.SolicitudRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Mantiene el {@link IndiceAnalitico} de las solicitudes decididas.
+ *
+ * Al arrancar se recorren en un hilo de fondo las solicitudes ya decididas;
+ * mientras tanto las consultas responden con lo indexado hasta el momento
+ * ({@code cargaCompleta = false}). Cada decisión nueva se agrega al confirmar
+ * su transacción.
+ *
+ * El departamento y el municipio salen del registro SISBEN de la cédula en
+ * la versión de datos vigente al indexar; el día es el de la decisión.
+ *
+ * El índice es de mejor esfuerzo: lo que no se puede indexar (un id que no
+ * cabe en int) se omite y se informa, sin afectar la decisión.
+ */
+@Service
+public class AnaliticaDecisiones {
+
+    @Autowired
+    private SolicitudRepository solicitudRepository;
+
+    @Autowired
+    private DatosReferenciaActivos datosActivos;
+
+    @Autowired
+    private PlatformTransactionManager transacciones;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${analitica.habilitada:true}")
+    private boolean habilitada;
+
+    private final IndiceAnalitico indice = new IndiceAnalitico();
+    private volatile boolean cargaCompleta;
+    private final AtomicLong omitidas = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        if (!habilitada) {
+            return;
+        }
+        Thread hilo = new Thread(this::cargar, "carga-analitica");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /**
+     * Indexa la solicitud cuando se confirme la transacción en curso (o de
+     * inmediato si no hay una). Las pendientes se ignoran. Nada de lo que
+     * falle al indexar llega a la transacción de la decisión.
+     */
+    public void registrar(Solicitud solicitud) {
+        if (!habilitada || solicitud.getAprobada() == null) {
+            return;
+        }
+        // Los datos se toman ahora: la entidad puede cambiar antes del commit
+        long id = solicitud.getId();
+        boolean aprobada = solicitud.getAprobada();
+        int motivos = solicitud.getMotivosRechazo() != null ? solicitud.getMotivosRechazo() : 0;
+        String cedula = solicitud.getCedula();
+        LocalDate dia = dia(solicitud);
+        Runnable agregar = () -> {
+            try {
+                indexar(id, aprobada, motivos, cedula, dia);
+            } catch (RuntimeException e) {
+                System.err.println("⚠️  Solicitud " + id + " sin indexar en la analítica: " + e.getMessage());
+            }
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    agregar.run();
+                }
+            });
+        } else {
+            agregar.run();
+        }
+    }
+
+    public ResultadoAnalitica consultar(FiltroAnalitica filtro) {
+        long inicio = System.nanoTime();
+        ResultadoAnalitica resultado = indice.consultar(filtro);
+        resultado.setCargaCompleta(cargaCompleta);
+        resultado.setTiempoMs((System.nanoTime() - inicio) / 1e6);
+        return resultado;
+    }
+
+    public long bytesEstimados() {
+        return indice.bytesEstimados();
+    }
+
+    private void cargar() {
+        long inicio = System.currentTimeMillis();
+        try {
+            TransactionTemplate lectura = new TransactionTemplate(transacciones);
+            lectura.setReadOnly(true);
+            lectura.executeWithoutResult(estado -> {
+                try (Stream<Solicitud> cursor = solicitudRepository.recorrer(null, null, null, null, null)) {
+                    for (Solicitud solicitud : (Iterable<Solicitud>) cursor::iterator) {
+                        if (solicitud.getAprobada() != null) {
+                            indexar(solicitud.getId(), solicitud.getAprobada(),
+                                solicitud.getMotivosRechazo() != null ? solicitud.getMotivosRechazo() : 0,
+                                solicitud.getCedula(), dia(solicitud));
+                        }
+                        entityManager.detach(solicitud);
+                    }
+                }
+            });
+            cargaCompleta = true;
+            if (indice.tamanio() > 0) {
+                System.out.println(String.format("📊 Índice analítico: %,d decisiones en %,d ms (%,d KB)",
+                    indice.tamanio(), System.currentTimeMillis() - inicio, indice.bytesEstimados() / 1024));
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️  Carga del índice analítico falló: " + e.getMessage());
+        }
+    }
+
+    // El índice guarda ids int: uno mayor se omite en lugar de fallar
+    private void indexar(long id, boolean aprobada, int motivos, String cedula, LocalDate dia) {
+        if (id < 0 || id > Integer.MAX_VALUE) {
+            if (omitidas.getAndIncrement() == 0) {
+                System.err.println("⚠️  Índice analítico: la solicitud " + id + " no cabe en el índice (id > int); se omite");
+            }
+            return;
+        }
+        SISBENResponse sisben = datosActivos.actual().getSisben().buscar(cedula);
+        indice.agregar((int) id, aprobada, motivos,
+            sisben != null ? sisben.getDepartamento() : null, sisben != null ? sisben.getMunicipio() : null, dia);
+    }
+
+    private static LocalDate dia(Solicitud solicitud) {
+        return solicitud.getFechaProcesamiento() != null
+            ? solicitud.getFechaProcesamiento().toLocalDate()
+            : solicitud.getFechaSolicitud().toLocalDate();
+    }
+}
@@ -0,0 +1,138 @@
+package com.subsidios.rentajoven.application.service;
+
+import com.subsidios.rentajoven.application.contract.ReglasActivas;
+import com.subsidios.rentajoven.application.contract.ReglasElegibilidad;
+import com.subsidios.rentajoven.infrastructure.dataset.DatosReferenciaActivos;
+import com.subsidios.rentajoven.infrastructure.dataset.VersionDatos;
+import com.subsidios.rentajoven.infrastructure.index.IndiceElegibilidad;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mantiene el {@link IndiceElegibilidad} alineado con los datos publicados.
+ *
+ * Cada publicación programa una actualización en un hilo de fondo: si solo
+ * cambiaron capas delta se recalculan los pares afectados; si cambió alguna
+ * base (recarga completa o compactación) o las reglas, se rehace el join
+ * completo. Mientras el índice no corresponde a la versión de datos y reglas
+ * fijada por una decisión, esta se resuelve en vivo.
+ */
+@Service
+public class PrecalculoElegibilidad {
+
+    @Autowired
+    private DatosReferenciaActivos datosActivos;
+
+    @Autowired
+    private ReglasActivas reglasActivas;
+
+    @Value("${elegibilidad.precalculo.habilitado:true}")
+    private boolean habilitado;
+
+    private volatile IndiceElegibilidad indice;
+
+    private final AtomicBoolean programado = new AtomicBoolean();
+    private final ExecutorService ejecutor = Executors.newSingleThreadExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "precalculo-elegibilidad");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private volatile long construcciones;
+    private volatile long actualizaciones;
+    private volatile long ultimoMs;
+
+    @PostConstruct
+    public void iniciar() {
+        if (habilitado) {
+            datosActivos.suscribir(version -> programar());
+            reglasActivas.suscribir(reglas -> programar());
+            programar();
+        }
+    }
+
+    /**
+     * @return el código precalculado del par con esos datos y reglas, o 0 si
+     *         falta en el índice o el índice aún no corresponde a ellos
+     */
+    public int consultar(VersionDatos datos, ReglasElegibilidad reglas, String cedula, String matriculaId) {
+        IndiceElegibilidad actual = indice;
+        int codigo = actual != null && actual.getSecuencia() == datos.getSecuencia() && actual.getReglas() == reglas
+            ? actual.consultar(cedula, matriculaId)
+            : 0;
+        (codigo != 0 ? aciertos : fallos).increment();
+        return codigo;
+    }
+
+    public Map<String, Object> estadisticas() {
+        IndiceElegibilidad actual = indice;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("habilitado", habilitado);
+        stats.put("version", actual != null ? actual.getSecuencia() : null);
+        stats.put("reglas", actual != null && actual.getReglas() instanceof ReglasElegibilidad r ? r.getVersion() : null);
+        stats.put("pares", actual != null ? actual.tamanio() : 0);
+        stats.put("pares_recalculados", actual != null ? actual.recalculados() : 0);
+        stats.put("bytes", actual != null ? actual.bytesEstimados() : 0);
+        stats.put("joins_completos", construcciones);
+        stats.put("actualizaciones_incrementales", actualizaciones);
+        stats.put("ultima_actualizacion_ms", ultimoMs);
+        stats.put("aciertos", aciertos.sum());
+        stats.put("consultas_en_vivo", fallos.sum());
+        return stats;
+    }
+
+    private void programar() {
+        if (programado.compareAndSet(false, true)) {
+            ejecutor.submit(() -> {
+                programado.set(false);
+                try {
+                    actualizar();
+                } catch (Exception e) {
+                    System.err.println("⚠️  Precálculo de elegibilidad falló: " + e.getMessage());
+                }
+            });
+        }
+    }
+
+    private void actualizar() {
+        VersionDatos version = datosActivos.actual();
+        ReglasElegibilidad reglas = reglasActivas.actual();
+        IndiceElegibilidad anterior = indice;
+        if (anterior != null && anterior.getSecuencia() == version.getSecuencia() && anterior.getReglas() == reglas) {
+            return;
+        }
+
+        long inicio = System.currentTimeMillis();
+        IndiceElegibilidad nuevo = anterior == null || anterior.getReglas() != reglas ? null
+            : anterior.actualizar(version.getSecuencia(), version.getSisben(), version.getSnies(), version.getMen());
+        boolean incremental = nuevo != null;
+        if (!incremental) {
+            nuevo = IndiceElegibilidad.construir(version.getSecuencia(), version.getSisben(), version.getSnies(),
+                version.getMen(), reglas, ForkJoinPool.commonPool());
+        }
+        indice = nuevo;
+        ultimoMs = System.currentTimeMillis() - inicio;
+
+        if (incremental) {
+            actualizaciones++;
+        } else {
+            construcciones++;
+            if (nuevo.tamanio() > 0) {
+                System.out.println(String.format("🧮 Índice de elegibilidad %s / reglas %s: %,d pares en %,d ms (join completo)",
+                    version.getId(), reglas.getVersion(), nuevo.tamanio(), ultimoMs));
+            }
+        }
+    }
+}
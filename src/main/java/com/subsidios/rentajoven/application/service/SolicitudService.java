@@ -1,20 +1,35 @@
 package com.subsidios.rentajoven.application.service;
 
+import com.subsidios.rentajoven.application.contract.ReglasActivas;
 import com.subsidios.rentajoven.application.contract.RentaJovenDecisionEngine;
 import com.subsidios.rentajoven.domain.enums.EstadoSolicitud;
+import com.subsidios.rentajoven.domain.enums.MotivoRechazo;
 import com.subsidios.rentajoven.domain.model.Beneficiario;
 import com.subsidios.rentajoven.domain.model.DecisionResult;
+import com.subsidios.rentajoven.domain.model.FiltroSolicitudes;
+import com.subsidios.rentajoven.domain.model.PaginaSolicitudes;
 import com.subsidios.rentajoven.domain.model.Solicitud;
 import com.subsidios.rentajoven.infrastructure.persistence.SolicitudRepository;
 import com.subsidios.rentajoven.shared.audit.AuditLog;
 import com.subsidios.rentajoven.shared.audit.AuditService;
+import com.subsidios.rentajoven.shared.metrics.ReporteAcademico;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Servicio de aplicación para gestionar solicitudes de subsidio.
@@ -32,6 +47,21 @@ public class SolicitudService {
     @Autowired
     private AuditService auditService;
 
+    @Autowired
+    private ReglasActivas reglasActivas;
+
+    @Autowired
+    private AnaliticaDecisiones analitica;
+
+    @Autowired
+    private ReporteAcademico reporteAcademico;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${solicitudes.pagina.maximo:1000}")
+    private int maximoPorPagina;
+
     /**
      * Procesa una nueva solicitud de subsidio.
      * 
@@ -68,18 +98,79 @@ public class SolicitudService {
         solicitud.setEstado(resultado.getAprobada()
                 ? EstadoSolicitud.APROBADA
                 : EstadoSolicitud.RECHAZADA);
-        solicitud.setRazonesRechazo(resultado.getAprobada()
-                ? null
-                : String.join("; ", resultado.getRazones()));
+        solicitud.setMotivosRechazo(MotivoRechazo.mascara(resultado.getMotivosRechazo()));
         solicitud.setFechaProcesamiento(LocalDateTime.now());
         solicitud.setTiempoProcesamientoMs(resultado.getTiempoTotalMs());
+        solicitud.setVersionDatos(resultado.getVersionDatos());
+        solicitud.setPrograma(resultado.getPrograma());
 
         // 5. Guardar resultado final
         solicitudRepository.save(solicitud);
+        analitica.registrar(solicitud);
+        reporteAcademico.registrarDecision();
 
         return resultado;
     }
 
+    /**
+     * Procesa una solicitud por cada programa indicado, consultando las
+     * fuentes una sola vez para todos.
+     *
+     * @param programas programas a evaluar (vacío o null = todos los configurados)
+     * @return un resultado por programa, en el mismo orden
+     * @throws IllegalArgumentException si algún programa no está configurado
+     */
+    @Transactional
+    public List<DecisionResult> procesarSolicitudProgramas(String cedula, String matriculaId, Integer edad,
+                                                           List<String> programas) {
+        Set<String> configurados = reglasActivas.programas().keySet();
+        List<String> aEvaluar = programas == null || programas.isEmpty()
+            ? new ArrayList<>(configurados)
+            : new ArrayList<>(new LinkedHashSet<>(programas));
+        for (String programa : aEvaluar) {
+            if (!configurados.contains(programa)) {
+                throw new IllegalArgumentException("Programa no configurado: " + programa
+                    + " (disponibles: " + configurados + ")");
+            }
+        }
+
+        Map<String, Solicitud> solicitudes = new LinkedHashMap<>();
+        Map<String, Long> ids = new LinkedHashMap<>();
+        for (String programa : aEvaluar) {
+            Solicitud solicitud = solicitudRepository.save(Solicitud.builder()
+                    .cedula(cedula)
+                    .matriculaId(matriculaId)
+                    .programa(programa)
+                    .estado(EstadoSolicitud.PENDIENTE)
+                    .fechaSolicitud(LocalDateTime.now())
+                    .build());
+            solicitudes.put(programa, solicitud);
+            ids.put(programa, solicitud.getId());
+        }
+
+        Beneficiario beneficiario = Beneficiario.builder()
+                .cedula(cedula)
+                .matriculaId(matriculaId)
+                .edad(edad)
+                .build();
+        List<DecisionResult> resultados = decisionEngine.evaluarProgramas(beneficiario, ids);
+
+        for (DecisionResult resultado : resultados) {
+            Solicitud solicitud = solicitudes.get(resultado.getPrograma());
+            solicitud.setAprobada(resultado.getAprobada());
+            solicitud.setEstado(resultado.getAprobada() ? EstadoSolicitud.APROBADA : EstadoSolicitud.RECHAZADA);
+            solicitud.setMotivosRechazo(MotivoRechazo.mascara(resultado.getMotivosRechazo()));
+            solicitud.setFechaProcesamiento(LocalDateTime.now());
+            solicitud.setTiempoProcesamientoMs(resultado.getTiempoTotalMs());
+            solicitud.setVersionDatos(resultado.getVersionDatos());
+        }
+        solicitudRepository.saveAll(solicitudes.values());
+        solicitudes.values().forEach(analitica::registrar);
+        reporteAcademico.registrarDecision();
+
+        return resultados;
+    }
+
     /**
      * Obtiene una solicitud por su ID.
      */
@@ -102,16 +193,41 @@ public class SolicitudService {
     }
 
     /**
-     * Obtiene todas las solicitudes aprobadas.
+     * Página de solicitudes con id mayor que {@code despues}, en orden de id.
+     * El costo no depende de qué tan adelante esté la página.
      */
-    public List<Solicitud> obtenerSolicitudesAprobadas() {
-        return solicitudRepository.findByAprobadaTrue();
+    @Transactional(readOnly = true)
+    public PaginaSolicitudes listarSolicitudes(FiltroSolicitudes filtro, long despues, int limite) {
+        int tamanio = Math.max(1, Math.min(limite, maximoPorPagina));
+        // Se pide una de más para saber si hay página siguiente
+        List<Solicitud> filas = solicitudRepository.buscarDespuesDe(despues, filtro, tamanio + 1);
+        boolean hayMas = filas.size() > tamanio;
+        List<Solicitud> pagina = hayMas ? new ArrayList<>(filas.subList(0, tamanio)) : filas;
+        return PaginaSolicitudes.builder()
+            .solicitudes(pagina)
+            .siguiente(hayMas ? pagina.get(tamanio - 1).getId() : null)
+            .limite(tamanio)
+            .build();
     }
 
     /**
-     * Obtiene todas las solicitudes rechazadas.
+     * Entrega al destino cada solicitud que cumple el filtro, a medida que se
+     * lee del cursor. Cada fila se suelta del contexto de persistencia tras
+     * entregarla, así que la memoria no crece con el número de filas.
+     *
+     * @return filas entregadas
      */
-    public List<Solicitud> obtenerSolicitudesRechazadas() {
-        return solicitudRepository.findByAprobadaFalse();
+    @Transactional(readOnly = true)
+    public long exportarSolicitudes(FiltroSolicitudes filtro, Consumer<Solicitud> destino) {
+        long filas = 0;
+        try (Stream<Solicitud> cursor = solicitudRepository.recorrer(filtro.getAprobada(), filtro.getEstado(),
+                filtro.getDesde(), filtro.getHasta(), filtro.getCedula())) {
+            for (Solicitud solicitud : (Iterable<Solicitud>) cursor::iterator) {
+                destino.accept(solicitud);
+                entityManager.detach(solicitud);
+                filas++;
+            }
+        }
+        return filas;
     }
 }
\ No newline at end of file
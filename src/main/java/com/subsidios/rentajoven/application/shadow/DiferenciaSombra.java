@@ -0,0 +1,29 @@
+package com.subsidios.rentajoven.application.shadow;
+
+import com.subsidios.rentajoven.domain.enums.MotivoRechazo;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Solicitud en la que las reglas candidatas no coinciden con la decisión en vivo.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DiferenciaSombra {
+    private Long solicitudId;
+    private String cedula;
+    private String matriculaId;
+    private String versionDatos;
+    private Boolean aprobadaVivo;
+    private Boolean aprobadaCandidata;
+    private List<MotivoRechazo> motivosVivo;
+    private List<MotivoRechazo> motivosCandidata;
+    private LocalDateTime momento;
+}
@@ -0,0 +1,52 @@
+package com.subsidios.rentajoven.application.shadow;
+
+import com.subsidios.rentajoven.domain.enums.MotivoRechazo;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Comparación acumulada entre las reglas vigentes y las candidatas desde que
+ * se activó la evaluación en sombra.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticasSombra {
+    private boolean activa;
+    private String versionCandidata;
+    private LocalDateTime desde;
+
+    private long enviadas;
+    private long evaluadas;
+    /**
+     * Solicitudes no comparadas porque la cola de la sombra estaba llena
+     */
+    private long descartadas;
+    /**
+     * Solicitudes no comparadas porque la decisión en vivo tuvo un error de sistema
+     */
+    private long omitidas;
+    private long coincidencias;
+    private long diferencias;
+    private long aprobadasQueSeRechazarian;
+    private long rechazadasQueSeAprobarian;
+
+    /**
+     * Por motivo: solicitudes que lo tienen en vivo pero no con las candidatas
+     */
+    private Map<MotivoRechazo, Long> soloEnVivo;
+    /**
+     * Por motivo: solicitudes que lo tienen con las candidatas pero no en vivo
+     */
+    private Map<MotivoRechazo, Long> soloEnCandidata;
+
+    private int capacidadDiferencias;
+    private List<DiferenciaSombra> recientes;
+}
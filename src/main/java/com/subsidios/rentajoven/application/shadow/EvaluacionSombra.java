@@ -0,0 +1,229 @@
+package com.subsidios.rentajoven.application.shadow;
+
+import com.subsidios.rentajoven.application.contract.HechosSolicitud;
+import com.subsidios.rentajoven.application.contract.ReglasElegibilidad;
+import com.subsidios.rentajoven.domain.enums.MotivoRechazo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Evaluación en sombra de un conjunto de reglas candidato sobre el tráfico real.
+ *
+ * Cada decisión en vivo entrega sus hechos y sus motivos; un hilo de fondo los
+ * evalúa con las reglas candidatas y guarda las discrepancias en un almacén
+ * acotado (las más recientes). La decisión en vivo nunca espera: si la cola
+ * está llena la comparación se descarta y se cuenta.
+ */
+@Service
+public class EvaluacionSombra {
+
+    private static final MotivoRechazo[] MOTIVOS = MotivoRechazo.values();
+
+    @Value("${sombra.diferencias.capacidad:1000}")
+    private int capacidadDiferencias;
+
+    @Value("${sombra.cola.capacidad:10000}")
+    private int capacidadCola;
+
+    private volatile Sesion sesion;
+
+    private ThreadPoolExecutor ejecutor;
+
+    public boolean activa() {
+        return sesion != null;
+    }
+
+    /**
+     * Empieza a comparar contra las reglas dadas, con estadísticas desde cero.
+     */
+    public synchronized EstadisticasSombra activar(ReglasElegibilidad candidata) {
+        if (ejecutor == null) {
+            ejecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadCola),
+                tarea -> {
+                    Thread hilo = new Thread(tarea, "evaluacion-sombra");
+                    hilo.setDaemon(true);
+                    return hilo;
+                },
+                (tarea, ejecutor) -> ((Comparacion) tarea).sesion.descartadas.increment());
+        }
+        sesion = new Sesion(candidata, capacidadDiferencias);
+        System.out.println("👥 Evaluación en sombra activada con reglas " + candidata.getVersion());
+        return estadisticas(0);
+    }
+
+    /**
+     * @return las estadísticas finales de la sesión que se cierra
+     */
+    public synchronized EstadisticasSombra desactivar() {
+        EstadisticasSombra finales = estadisticas(capacidadDiferencias);
+        sesion = null;
+        return finales;
+    }
+
+    /**
+     * Programa la comparación de una decisión ya tomada. No bloquea.
+     *
+     * @param motivosVivo motivos de la decisión en vivo como máscara de bits
+     */
+    public void enviar(Long solicitudId, HechosSolicitud hechos, int motivosVivo) {
+        Sesion actual = sesion;
+        if (actual == null) {
+            return;
+        }
+        actual.enviadas.increment();
+        ejecutor.execute(new Comparacion(actual, solicitudId, hechos, motivosVivo));
+    }
+
+    public EstadisticasSombra estadisticas(int recientes) {
+        Sesion actual = sesion;
+        if (actual == null) {
+            return EstadisticasSombra.builder().activa(false).build();
+        }
+        Map<MotivoRechazo, Long> soloEnVivo = new EnumMap<>(MotivoRechazo.class);
+        Map<MotivoRechazo, Long> soloEnCandidata = new EnumMap<>(MotivoRechazo.class);
+        for (MotivoRechazo motivo : MOTIVOS) {
+            long vivo = actual.soloEnVivo.get(motivo.ordinal());
+            long candidata = actual.soloEnCandidata.get(motivo.ordinal());
+            if (vivo > 0) {
+                soloEnVivo.put(motivo, vivo);
+            }
+            if (candidata > 0) {
+                soloEnCandidata.put(motivo, candidata);
+            }
+        }
+        return EstadisticasSombra.builder()
+                .activa(true)
+                .versionCandidata(actual.candidata.getVersion())
+                .desde(actual.desde)
+                .enviadas(actual.enviadas.sum())
+                .evaluadas(actual.evaluadas.sum())
+                .descartadas(actual.descartadas.sum())
+                .omitidas(actual.omitidas.sum())
+                .coincidencias(actual.coincidencias.sum())
+                .diferencias(actual.diferencias.sum())
+                .aprobadasQueSeRechazarian(actual.aprobadasQueSeRechazarian.sum())
+                .rechazadasQueSeAprobarian(actual.rechazadasQueSeAprobarian.sum())
+                .soloEnVivo(soloEnVivo)
+                .soloEnCandidata(soloEnCandidata)
+                .capacidadDiferencias(actual.diferenciasGuardadas.length)
+                .recientes(actual.recientes(recientes))
+                .build();
+    }
+
+    /**
+     * Contadores y discrepancias de una activación. Las comparaciones
+     * encoladas antes de reactivar terminan en la sesión con que se enviaron.
+     */
+    private static final class Sesion {
+        final ReglasElegibilidad candidata;
+        final LocalDateTime desde = LocalDateTime.now();
+        final LongAdder enviadas = new LongAdder();
+        final LongAdder evaluadas = new LongAdder();
+        final LongAdder descartadas = new LongAdder();
+        final LongAdder omitidas = new LongAdder();
+        final LongAdder coincidencias = new LongAdder();
+        final LongAdder diferencias = new LongAdder();
+        final LongAdder aprobadasQueSeRechazarian = new LongAdder();
+        final LongAdder rechazadasQueSeAprobarian = new LongAdder();
+        final AtomicLongArray soloEnVivo = new AtomicLongArray(MOTIVOS.length);
+        final AtomicLongArray soloEnCandidata = new AtomicLongArray(MOTIVOS.length);
+
+        // Anillo con las últimas discrepancias; solo escribe el hilo de la sombra
+        final DiferenciaSombra[] diferenciasGuardadas;
+        long escritas;
+
+        Sesion(ReglasElegibilidad candidata, int capacidad) {
+            this.candidata = candidata;
+            this.diferenciasGuardadas = new DiferenciaSombra[Math.max(1, capacidad)];
+        }
+
+        synchronized void guardar(DiferenciaSombra diferencia) {
+            diferenciasGuardadas[(int) (escritas++ % diferenciasGuardadas.length)] = diferencia;
+        }
+
+        /**
+         * @return hasta {@code limite} discrepancias, de la más reciente a la más antigua
+         */
+        synchronized List<DiferenciaSombra> recientes(int limite) {
+            int n = (int) Math.min(Math.min(limite, escritas), diferenciasGuardadas.length);
+            List<DiferenciaSombra> recientes = new ArrayList<>(Math.max(0, n));
+            for (int i = 1; i <= n; i++) {
+                recientes.add(diferenciasGuardadas[(int) ((escritas - i) % diferenciasGuardadas.length)]);
+            }
+            return recientes;
+        }
+    }
+
+    private static final class Comparacion implements Runnable {
+        final Sesion sesion;
+        final Long solicitudId;
+        final HechosSolicitud hechos;
+        final int motivosVivo;
+
+        Comparacion(Sesion sesion, Long solicitudId, HechosSolicitud hechos, int motivosVivo) {
+            this.sesion = sesion;
+            this.solicitudId = solicitudId;
+            this.hechos = hechos;
+            this.motivosVivo = motivosVivo;
+        }
+
+        @Override
+        public void run() {
+            // Un error de sistema en vivo no es una decisión de las reglas: no se compara
+            if ((motivosVivo & MotivoRechazo.ERROR_SISTEMA.bit()) != 0) {
+                sesion.omitidas.increment();
+                return;
+            }
+            int motivosCandidata;
+            try {
+                motivosCandidata = sesion.candidata.motivos(hechos.completar());
+            } catch (RuntimeException e) {
+                sesion.omitidas.increment();
+                return;
+            }
+            sesion.evaluadas.increment();
+            if (motivosCandidata == motivosVivo) {
+                sesion.coincidencias.increment();
+                return;
+            }
+
+            sesion.diferencias.increment();
+            if (motivosVivo == 0) {
+                sesion.aprobadasQueSeRechazarian.increment();
+            } else if (motivosCandidata == 0) {
+                sesion.rechazadasQueSeAprobarian.increment();
+            }
+            for (MotivoRechazo motivo : MOTIVOS) {
+                int bit = motivo.bit();
+                if ((motivosVivo & bit) != 0 && (motivosCandidata & bit) == 0) {
+                    sesion.soloEnVivo.incrementAndGet(motivo.ordinal());
+                } else if ((motivosCandidata & bit) != 0 && (motivosVivo & bit) == 0) {
+                    sesion.soloEnCandidata.incrementAndGet(motivo.ordinal());
+                }
+            }
+            sesion.guardar(DiferenciaSombra.builder()
+                    .solicitudId(solicitudId)
+                    .cedula(hechos.getCedula())
+                    .matriculaId(hechos.getMatriculaId())
+                    .versionDatos(hechos.getDatos().getId())
+                    .aprobadaVivo(motivosVivo == 0)
+                    .aprobadaCandidata(motivosCandidata == 0)
+                    .motivosVivo(MotivoRechazo.deMascara(motivosVivo))
+                    .motivosCandidata(MotivoRechazo.deMascara(motivosCandidata))
+                    .momento(LocalDateTime.now())
+                    .build());
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.subsidios.rentajoven.application.simulation;
+
+import com.subsidios.rentajoven.application.contract.ReglasElegibilidad;
+import com.subsidios.rentajoven.application.contract.TipoRegla;
+import com.subsidios.rentajoven.domain.enums.NivelSISBEN;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Variante de las reglas de elegibilidad a simular. Los campos en null toman
+ * el valor de las reglas vigentes.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EscenarioSimulacion {
+    private Integer edadMinima;
+    private Integer edadMaxima;
+    private Set<NivelSISBEN> nivelesElegibles;
+    private Boolean permitirTitulo;
+    private Boolean exigirMatriculaVigente;
+    private Integer intensidadMinima;
+    private List<String> institucionesExcluidas;
+
+    /**
+     * Copia con los valores faltantes tomados de las reglas dadas.
+     */
+    public EscenarioSimulacion completo(ReglasElegibilidad reglas) {
+        return EscenarioSimulacion.builder()
+                .edadMinima(edadMinima != null ? edadMinima : reglas.getEdadMinima())
+                .edadMaxima(edadMaxima != null ? edadMaxima : reglas.getEdadMaxima())
+                .nivelesElegibles(nivelesElegibles != null ? nivelesElegibles : reglas.nivelesElegibles())
+                .permitirTitulo(permitirTitulo != null ? permitirTitulo : reglas.posicion(TipoRegla.AUSENCIA_TITULO) < 0)
+                .exigirMatriculaVigente(exigirMatriculaVigente != null ? exigirMatriculaVigente
+                    : reglas.posicion(TipoRegla.MATRICULA) >= 0)
+                .intensidadMinima(intensidadMinima != null ? intensidadMinima : reglas.getIntensidadMinima())
+                .institucionesExcluidas(institucionesExcluidas != null
+                    ? institucionesExcluidas : reglas.institucionesExcluidas())
+                .build();
+    }
+}
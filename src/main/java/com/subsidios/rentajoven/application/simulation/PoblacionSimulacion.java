@@ -0,0 +1,364 @@
+package com.subsidios.rentajoven.application.simulation;
+
+import com.subsidios.rentajoven.application.contract.ReglasElegibilidad;
+import com.subsidios.rentajoven.domain.enums.MotivoRechazo;
+import com.subsidios.rentajoven.domain.enums.NivelSISBEN;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenMEN;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSISBEN;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSNIES;
+import com.subsidios.rentajoven.infrastructure.store.DiccionarioCadenas;
+import com.subsidios.rentajoven.infrastructure.store.IndiceClaves;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Población completa (una fila por matrícula MEN) con los datos que usan
+ * las reglas ya resueltos en columnas primitivas: nivel SISBEN,
+ * departamento, título, edad estimada por cohorte, estado, intensidad e
+ * institución. Se arma una vez por versión de datos y de reglas (las
+ * cohortes de edad vienen de las reglas); cada escenario es
+ * después un recorrido paralelo sobre arreglos, sin búsquedas ni latencia.
+ *
+ * La población no trae edad declarada: la regla de edad se aplica sobre la
+ * edad estimada por el rango de la cédula y no se aplica a quienes no caen
+ * en ninguna cohorte. La coherencia cédula-edad no se simula (con la edad
+ * estimada siempre se cumple).
+ */
+public final class PoblacionSimulacion {
+
+    private static final int UMBRAL_TAREA = 16_384;
+    private static final MotivoRechazo[] MOTIVOS = MotivoRechazo.values();
+    // Por departamento: población, aprobadas y un contador por motivo
+    private static final int ANCHO = 2 + MOTIVOS.length;
+    // Departamentos 0 y 1 reservados: sin registro SISBEN y sin departamento
+    private static final int SIN_SISBEN = 0;
+    private static final int SIN_DEPARTAMENTO = 1;
+
+    private final ReglasElegibilidad reglas;
+    private final int tamanio;
+    private final byte[] nivel;
+    private final int[] departamento;
+    private final byte[] edad;
+    private final boolean[] titulo;
+    private final int[] estado;
+    private final int[] institucion;
+    private final int[] intensidad;
+    private final List<String> departamentos;
+    private final List<String> estados;
+    private final List<String> instituciones;
+
+    private PoblacionSimulacion(ReglasElegibilidad reglas, int tamanio, byte[] nivel, int[] departamento, byte[] edad, boolean[] titulo,
+                                int[] estado, int[] institucion, int[] intensidad, List<String> departamentos,
+                                List<String> estados, List<String> instituciones) {
+        this.reglas = reglas;
+        this.tamanio = tamanio;
+        this.nivel = nivel;
+        this.departamento = departamento;
+        this.edad = edad;
+        this.titulo = titulo;
+        this.estado = estado;
+        this.institucion = institucion;
+        this.intensidad = intensidad;
+        this.departamentos = departamentos;
+        this.estados = estados;
+        this.instituciones = instituciones;
+    }
+
+    /**
+     * Recorre MEN una vez (secuencial, arma diccionarios) y resuelve en
+     * paralelo el cruce de cada cédula con SISBEN y SNIES.
+     */
+    public static PoblacionSimulacion construir(AlmacenSISBEN sisben, AlmacenSNIES snies, AlmacenMEN men,
+                                                ReglasElegibilidad reglas, ForkJoinPool pool) {
+        int n = men.tamanio();
+        long[] cedulas = new long[n];
+        Map<Integer, String> cedulasNoCanonicas = new HashMap<>();
+        int[] estado = new int[n];
+        int[] institucion = new int[n];
+        int[] intensidad = new int[n];
+        DiccionarioCadenas estados = new DiccionarioCadenas();
+        DiccionarioCadenas instituciones = new DiccionarioCadenas();
+
+        int[] fila = { 0 };
+        men.recorrer((matricula, r) -> {
+            int i = fila[0]++;
+            long codigo = IndiceClaves.CEDULA.codificar(r.getCedula());
+            cedulas[i] = codigo;
+            if (codigo < 0) {
+                cedulasNoCanonicas.put(i, r.getCedula());
+            }
+            // +1 para que el id NULO (-1) quede en la posición 0
+            estado[i] = estados.id(r.getEstado()) + 1;
+            institucion[i] = instituciones.id(r.getInstitucion()) + 1;
+            intensidad[i] = r.getIntensidadHoraria() != null ? r.getIntensidadHoraria() : Integer.MIN_VALUE;
+        });
+
+        byte[] nivel = new byte[n];
+        int[] departamento = new int[n];
+        byte[] edad = new byte[n];
+        boolean[] titulo = new boolean[n];
+        pool.invoke(new Cruce(0, n, sisben, snies, reglas, cedulas, cedulasNoCanonicas, nivel, departamento, edad,
+            titulo));
+
+        List<String> departamentos = new ArrayList<>();
+        departamentos.add("SIN REGISTRO SISBEN");
+        departamentos.add("SIN DEPARTAMENTO");
+        departamentos.addAll(sisben.diccionario().valores());
+
+        return new PoblacionSimulacion(reglas, n, nivel, departamento, edad, titulo, estado, institucion, intensidad,
+            departamentos, conNulo(estados), conNulo(instituciones));
+    }
+
+    public int tamanio() {
+        return tamanio;
+    }
+
+    public ReglasElegibilidad getReglas() {
+        return reglas;
+    }
+
+    public long bytesEstimados() {
+        return tamanio * (1L + 4 + 1 + 1 + 4 + 4 + 4);
+    }
+
+    /**
+     * Evalúa el escenario (ya {@link EscenarioSimulacion#completo completo})
+     * sobre toda la población.
+     */
+    public ResultadoSimulacion simular(EscenarioSimulacion escenario, ForkJoinPool pool) {
+        long[] acumulado = pool.invoke(new Evaluacion(this, parametros(escenario), 0, tamanio));
+
+        Map<MotivoRechazo, Long> motivos = new EnumMap<>(MotivoRechazo.class);
+        Map<String, ResumenDepartamento> porDepartamento = new TreeMap<>();
+        long aprobadas = 0;
+        for (int d = 0; d < departamentos.size(); d++) {
+            int base = d * ANCHO;
+            long poblacionDepto = acumulado[base];
+            if (poblacionDepto == 0) {
+                continue;
+            }
+            Map<MotivoRechazo, Long> motivosDepto = new EnumMap<>(MotivoRechazo.class);
+            for (int m = 0; m < MOTIVOS.length; m++) {
+                long cuenta = acumulado[base + 2 + m];
+                if (cuenta > 0) {
+                    motivosDepto.put(MOTIVOS[m], cuenta);
+                    motivos.merge(MOTIVOS[m], cuenta, Long::sum);
+                }
+            }
+            aprobadas += acumulado[base + 1];
+            porDepartamento.put(departamentos.get(d), ResumenDepartamento.builder()
+                    .poblacion(poblacionDepto)
+                    .aprobadas(acumulado[base + 1])
+                    .tasaAprobacion((double) acumulado[base + 1] / poblacionDepto)
+                    .motivos(motivosDepto)
+                    .build());
+        }
+
+        return ResultadoSimulacion.builder()
+                .escenario(escenario)
+                .poblacion(tamanio)
+                .aprobadas(aprobadas)
+                .rechazadas(tamanio - aprobadas)
+                .tasaAprobacion(tamanio == 0 ? 0.0 : (double) aprobadas / tamanio)
+                .sinEdadEstimada(acumulado[acumulado.length - 1])
+                .motivos(motivos)
+                .porDepartamento(porDepartamento)
+                .build();
+    }
+
+    private static List<String> conNulo(DiccionarioCadenas diccionario) {
+        List<String> valores = new ArrayList<>(diccionario.tamanio() + 1);
+        valores.add(null);
+        valores.addAll(diccionario.valores());
+        return valores;
+    }
+
+    /**
+     * Tablas por id de estado e institución para el escenario dado.
+     */
+    private Parametros parametros(EscenarioSimulacion escenario) {
+        Parametros p = new Parametros(escenario);
+        p.vigente = new boolean[estados.size()];
+        for (int id = 0; id < estados.size(); id++) {
+            p.vigente[id] = reglas.matriculaVigente(estados.get(id));
+        }
+        Set<String> excluidas = new HashSet<>(escenario.getInstitucionesExcluidas());
+        p.excluida = new boolean[instituciones.size()];
+        for (int id = 0; id < instituciones.size(); id++) {
+            p.excluida[id] = excluidas.contains(instituciones.get(id));
+        }
+        return p;
+    }
+
+    /**
+     * Escenario traducido a tablas de consulta por id.
+     */
+    private static final class Parametros {
+        final int edadMinima;
+        final int edadMaxima;
+        final boolean[] nivelElegible = new boolean[NivelSISBEN.values().length];
+        final boolean permitirTitulo;
+        final boolean exigirVigente;
+        final int intensidadMinima;
+        boolean[] vigente;
+        boolean[] excluida;
+
+        Parametros(EscenarioSimulacion e) {
+            edadMinima = e.getEdadMinima();
+            edadMaxima = e.getEdadMaxima();
+            e.getNivelesElegibles().forEach(nivel -> nivelElegible[nivel.ordinal()] = true);
+            permitirTitulo = e.getPermitirTitulo();
+            exigirVigente = e.getExigirMatriculaVigente();
+            intensidadMinima = e.getIntensidadMinima();
+        }
+    }
+
+    private static final class Cruce extends RecursiveAction {
+        private final int desde;
+        private final int hasta;
+        private final AlmacenSISBEN sisben;
+        private final AlmacenSNIES snies;
+        private final ReglasElegibilidad reglas;
+        private final long[] cedulas;
+        private final Map<Integer, String> cedulasNoCanonicas;
+        private final byte[] nivel;
+        private final int[] departamento;
+        private final byte[] edad;
+        private final boolean[] titulo;
+
+        Cruce(int desde, int hasta, AlmacenSISBEN sisben, AlmacenSNIES snies, ReglasElegibilidad reglas,
+              long[] cedulas, Map<Integer, String> cedulasNoCanonicas, byte[] nivel, int[] departamento, byte[] edad,
+              boolean[] titulo) {
+            this.desde = desde;
+            this.hasta = hasta;
+            this.sisben = sisben;
+            this.snies = snies;
+            this.reglas = reglas;
+            this.cedulas = cedulas;
+            this.cedulasNoCanonicas = cedulasNoCanonicas;
+            this.nivel = nivel;
+            this.departamento = departamento;
+            this.edad = edad;
+            this.titulo = titulo;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde > UMBRAL_TAREA) {
+                int medio = (desde + hasta) >>> 1;
+                invokeAll(
+                    new Cruce(desde, medio, sisben, snies, reglas, cedulas, cedulasNoCanonicas, nivel, departamento,
+                        edad, titulo),
+                    new Cruce(medio, hasta, sisben, snies, reglas, cedulas, cedulasNoCanonicas, nivel, departamento,
+                        edad, titulo));
+                return;
+            }
+            for (int i = desde; i < hasta; i++) {
+                String cedula = cedulas[i] >= 0
+                    ? IndiceClaves.CEDULA.decodificar(cedulas[i])
+                    : cedulasNoCanonicas.get(i);
+                int pos = cedula != null ? sisben.posicion(cedula) : -1;
+                if (pos < 0) {
+                    nivel[i] = -1;
+                    departamento[i] = SIN_SISBEN;
+                } else {
+                    nivel[i] = (byte) sisben.nivel(pos).ordinal();
+                    int depto = sisben.departamentoId(pos);
+                    departamento[i] = depto == DiccionarioCadenas.NULO ? SIN_DEPARTAMENTO : depto + 2;
+                }
+                edad[i] = (byte) (cedulas[i] >= 0 ? reglas.edadEstimada(cedulas[i]) : -1);
+                titulo[i] = cedula != null && snies.contiene(cedula);
+            }
+        }
+    }
+
+    private static final class Evaluacion extends RecursiveTask<long[]> {
+        private final PoblacionSimulacion p;
+        private final Parametros e;
+        private final int desde;
+        private final int hasta;
+
+        Evaluacion(PoblacionSimulacion p, Parametros e, int desde, int hasta) {
+            this.p = p;
+            this.e = e;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (hasta - desde > UMBRAL_TAREA) {
+                int medio = (desde + hasta) >>> 1;
+                Evaluacion izquierda = new Evaluacion(p, e, desde, medio);
+                izquierda.fork();
+                long[] derecha = new Evaluacion(p, e, medio, hasta).compute();
+                long[] resultado = izquierda.join();
+                for (int k = 0; k < resultado.length; k++) {
+                    resultado[k] += derecha[k];
+                }
+                return resultado;
+            }
+
+            long[] acumulado = new long[p.departamentos.size() * ANCHO + 1];
+            int sinEdad = acumulado.length - 1;
+            for (int i = desde; i < hasta; i++) {
+                int base = p.departamento[i] * ANCHO;
+                acumulado[base]++;
+                boolean aprobada = true;
+
+                int edad = p.edad[i];
+                if (edad < 0) {
+                    acumulado[sinEdad]++;
+                } else if (edad < e.edadMinima || edad > e.edadMaxima) {
+                    acumulado[base + 2 + MotivoRechazo.EDAD_FUERA_RANGO.ordinal()]++;
+                    aprobada = false;
+                }
+
+                int nivel = p.nivel[i];
+                if (nivel < 0) {
+                    acumulado[base + 2 + MotivoRechazo.SISBEN_NO_ENCONTRADO.ordinal()]++;
+                    aprobada = false;
+                } else if (!e.nivelElegible[nivel]) {
+                    acumulado[base + 2 + MotivoRechazo.NIVEL_SISBEN_NO_ELEGIBLE.ordinal()]++;
+                    aprobada = false;
+                }
+
+                if (p.titulo[i] && !e.permitirTitulo) {
+                    acumulado[base + 2 + MotivoRechazo.TIENE_TITULO_PROFESIONAL.ordinal()]++;
+                    aprobada = false;
+                }
+
+                // Mismo orden que la validación en vivo: cuenta solo la primera falla
+                MotivoRechazo motivoMatricula = null;
+                if (e.exigirVigente && !e.vigente[p.estado[i]]) {
+                    motivoMatricula = MotivoRechazo.MATRICULA_NO_VIGENTE;
+                } else if (p.intensidad[i] == Integer.MIN_VALUE) {
+                    motivoMatricula = MotivoRechazo.ERROR_SISTEMA;
+                } else if (p.intensidad[i] < e.intensidadMinima) {
+                    motivoMatricula = MotivoRechazo.INTENSIDAD_HORARIA_INSUFICIENTE;
+                } else if (e.excluida[p.institucion[i]]) {
+                    motivoMatricula = MotivoRechazo.INSTITUCION_NO_RECONOCIDA;
+                }
+                if (motivoMatricula != null) {
+                    acumulado[base + 2 + motivoMatricula.ordinal()]++;
+                    aprobada = false;
+                }
+
+                if (aprobada) {
+                    acumulado[base + 1]++;
+                }
+            }
+            return acumulado;
+        }
+    }
+}
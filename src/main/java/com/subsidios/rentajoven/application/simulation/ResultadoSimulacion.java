@@ -0,0 +1,33 @@
+package com.subsidios.rentajoven.application.simulation;
+
+import com.subsidios.rentajoven.domain.enums.MotivoRechazo;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Resultado de evaluar un escenario sobre toda la población cargada.
+ * Una persona rechazada cuenta una vez en cada motivo que incumple.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoSimulacion {
+    private String versionDatos;
+    private EscenarioSimulacion escenario;
+    private long poblacion;
+    private long aprobadas;
+    private long rechazadas;
+    private double tasaAprobacion;
+    /** Personas cuya cédula no cae en ninguna cohorte: no se les aplica la regla de edad. */
+    private long sinEdadEstimada;
+    private Map<MotivoRechazo, Long> motivos;
+    private Map<String, ResumenDepartamento> porDepartamento;
+    /** Tiempo de armar la tabla de población (0 si ya estaba para esta versión). */
+    private long tiempoPreparacionMs;
+    private long tiempoSimulacionMs;
+}
@@ -0,0 +1,23 @@
+package com.subsidios.rentajoven.application.simulation;
+
+import com.subsidios.rentajoven.domain.enums.MotivoRechazo;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Aprobaciones y motivos de rechazo de un departamento en una simulación.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumenDepartamento {
+    private long poblacion;
+    private long aprobadas;
+    private double tasaAprobacion;
+    private Map<MotivoRechazo, Long> motivos;
+}
@@ -0,0 +1,59 @@
+package com.subsidios.rentajoven.application.simulation;
+
+import com.subsidios.rentajoven.application.contract.ReglasActivas;
+import com.subsidios.rentajoven.application.contract.ReglasElegibilidad;
+import com.subsidios.rentajoven.infrastructure.dataset.DatosReferenciaActivos;
+import com.subsidios.rentajoven.infrastructure.dataset.VersionDatos;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Simulación "qué pasaría si" de variantes de las reglas sobre toda la
+ * población cargada. No consulta los simuladores (sin latencia) ni crea
+ * solicitudes ni registros de auditoría.
+ */
+@Service
+public class SimuladorPoliticas {
+
+    @Autowired
+    private DatosReferenciaActivos datosActivos;
+
+    @Autowired
+    private ReglasActivas reglasActivas;
+
+    private PoblacionSimulacion poblacion;
+    private long secuenciaPoblacion = -1;
+
+    public ResultadoSimulacion simular(EscenarioSimulacion escenario) {
+        VersionDatos version = datosActivos.actual();
+        ReglasElegibilidad reglas = reglasActivas.actual();
+
+        long inicio = System.currentTimeMillis();
+        PoblacionSimulacion actual = poblacionPara(version, reglas);
+        long preparacion = System.currentTimeMillis() - inicio;
+
+        inicio = System.currentTimeMillis();
+        EscenarioSimulacion completo = (escenario != null ? escenario : new EscenarioSimulacion()).completo(reglas);
+        ResultadoSimulacion resultado = actual.simular(completo, ForkJoinPool.commonPool());
+        resultado.setVersionDatos(version.getId());
+        resultado.setTiempoPreparacionMs(preparacion);
+        resultado.setTiempoSimulacionMs(System.currentTimeMillis() - inicio);
+        return resultado;
+    }
+
+    /**
+     * La tabla de población se arma una vez por versión de datos y de reglas,
+     * y se reutiliza en todos los escenarios sobre esa versión.
+     */
+    private synchronized PoblacionSimulacion poblacionPara(VersionDatos version, ReglasElegibilidad reglas) {
+        if (poblacion == null || secuenciaPoblacion != version.getSecuencia() || poblacion.getReglas() != reglas) {
+            poblacion = null; // se libera la anterior antes de armar la nueva
+            poblacion = PoblacionSimulacion.construir(version.getSisben(), version.getSnies(), version.getMen(),
+                reglas, ForkJoinPool.commonPool());
+            secuenciaPoblacion = version.getSecuencia();
+        }
+        return poblacion;
+    }
+}
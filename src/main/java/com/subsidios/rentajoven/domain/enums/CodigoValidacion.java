@@ -0,0 +1,39 @@
+package com.subsidios.rentajoven.domain.enums;
+
+/**
+ * Resultado concreto de una validación o de la decisión final. Junto con
+ * los valores de {@link com.subsidios.rentajoven.domain.model.EventoValidacion}
+ * basta para reconstruir el mensaje legible.
+ */
+public enum CodigoValidacion {
+    // Edad: valor1 = edad, valor2 = mínima, valor3 = máxima
+    EDAD_EN_RANGO,
+    EDAD_FUERA_RANGO,
+
+    // Coherencia: valor1 = edad declarada, valor2 = edad estimada por cédula
+    CEDULA_COHERENTE,
+    CEDULA_INCOHERENTE,
+
+    // SISBEN: valor1 = nivel (ordinal), valor2 = puntaje en centésimas
+    SISBEN_NO_ENCONTRADO,
+    SISBEN_ELEGIBLE,
+    SISBEN_NO_ELEGIBLE,
+
+    // SNIES: programa, institución y tipo de título (texto)
+    SIN_TITULO,
+    CON_TITULO,
+
+    // MEN: institución, programa, estado (texto), valor1 = intensidad, valor2 = mínima
+    MATRICULA_NO_ENCONTRADA,
+    MATRICULA_NO_VIGENTE,
+    INTENSIDAD_INSUFICIENTE,
+    INSTITUCION_NO_RECONOCIDA,
+    MATRICULA_VIGENTE,
+
+    // Decisión final: programa de subsidio, versión de reglas (texto), valor1 = motivos (bits)
+    SOLICITUD_APROBADA,
+    SOLICITUD_RECHAZADA,
+
+    // Error inesperado: texto = excepción
+    ERROR_VALIDACION
+}
@@ -1,27 +1,75 @@
 package com.subsidios.rentajoven.domain.enums;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Motivos específicos de rechazo de una solicitud.
+ *
+ * Cada motivo tiene un bit fijo con el que se guarda en las máscaras
+ * persistidas (solicitudes.motivos_rechazo y el evento DECISION_FINAL): no
+ * depende del orden de declaración, y el bit de un motivo retirado no se
+ * reutiliza.
+ *
+ * Las descripciones no mencionan límites (edades, niveles, horas): dependen
+ * del programa y de la versión de reglas. El detalle con los valores reales
+ * está en los eventos de auditoría de la solicitud.
  */
 public enum MotivoRechazo {
-    EDAD_FUERA_RANGO("Edad fuera del rango permitido (14-28 años)"),
-    NIVEL_SISBEN_NO_ELEGIBLE("Nivel SISBEN no elegible (solo A, B, C)"),
-    SISBEN_NO_ENCONTRADO("No se encontró registro en SISBEN"),
-    TIENE_TITULO_PROFESIONAL("Ya cuenta con título profesional"),
-    MATRICULA_NO_ENCONTRADA("No se encontró la matrícula en el sistema MEN"),
-    MATRICULA_NO_VIGENTE("La matrícula no está vigente"),
-    INTENSIDAD_HORARIA_INSUFICIENTE("Intensidad horaria menor a 20 horas semanales"),
-    INSTITUCION_NO_RECONOCIDA("Institución educativa no reconocida por el MEN"),
-    COHERENCIA_CEDULA_EDAD("Inconsistencia entre cédula y edad declarada (posible fraude)"),
-    ERROR_SISTEMA("Error en el sistema durante la validación");
+    EDAD_FUERA_RANGO(0, "Edad fuera del rango permitido por el programa"),
+    NIVEL_SISBEN_NO_ELEGIBLE(1, "Nivel SISBEN no elegible para el programa"),
+    SISBEN_NO_ENCONTRADO(2, "No se encontró registro en SISBEN"),
+    TIENE_TITULO_PROFESIONAL(3, "Ya cuenta con título profesional"),
+    MATRICULA_NO_ENCONTRADA(4, "No se encontró la matrícula en el sistema MEN"),
+    MATRICULA_NO_VIGENTE(5, "La matrícula no está vigente"),
+    INTENSIDAD_HORARIA_INSUFICIENTE(6, "Intensidad horaria semanal menor a la exigida por el programa"),
+    INSTITUCION_NO_RECONOCIDA(7, "Institución educativa no reconocida"),
+    COHERENCIA_CEDULA_EDAD(8, "Inconsistencia entre cédula y edad declarada (posible fraude)"),
+    ERROR_SISTEMA(9, "Error en el sistema durante la validación");
 
+    private final int bit;
     private final String descripcion;
 
-    MotivoRechazo(String descripcion) {
+    MotivoRechazo(int posicion, String descripcion) {
+        this.bit = 1 << posicion;
         this.descripcion = descripcion;
     }
 
     public String getDescripcion() {
         return descripcion;
     }
-}
\ No newline at end of file
+
+    /**
+     * Bit del motivo en las máscaras persistidas.
+     */
+    public int bit() {
+        return bit;
+    }
+
+    /**
+     * Codifica los motivos como máscara; inversa de {@link #deMascara(long)}.
+     */
+    public static int mascara(Collection<MotivoRechazo> motivos) {
+        int mascara = 0;
+        if (motivos != null) {
+            for (MotivoRechazo motivo : motivos) {
+                mascara |= motivo.bit;
+            }
+        }
+        return mascara;
+    }
+
+    /**
+     * Motivos presentes en la máscara, en el orden del enum.
+     */
+    public static List<MotivoRechazo> deMascara(long mascara) {
+        List<MotivoRechazo> motivos = new ArrayList<>(Long.bitCount(mascara));
+        for (MotivoRechazo motivo : values()) {
+            if ((mascara & motivo.bit) != 0) {
+                motivos.add(motivo);
+            }
+        }
+        return motivos;
+    }
+}
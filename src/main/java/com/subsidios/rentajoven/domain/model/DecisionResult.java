@@ -1,5 +1,6 @@
 package com.subsidios.rentajoven.domain.model;
 
+import com.subsidios.rentajoven.domain.enums.MotivoRechazo;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -23,6 +24,11 @@ public class DecisionResult {
      */
     private Long solicitudId;
     
+    /**
+     * Programa de subsidio evaluado
+     */
+    private String programa;
+    
     /**
      * Decisión final: true = APROBADA, false = RECHAZADA
      */
@@ -38,11 +44,26 @@ public class DecisionResult {
      */
     private List<String> razones;
     
+    /**
+     * Motivos de rechazo, en el orden de las reglas (vacío si fue aprobada)
+     */
+    private List<MotivoRechazo> motivosRechazo;
+    
     /**
      * Tiempo total de procesamiento en milisegundos
      */
     private Long tiempoTotalMs;
     
+    /**
+     * Versión de los datos de referencia (SISBEN, SNIES, MEN) usada en la decisión
+     */
+    private String versionDatos;
+    
+    /**
+     * Versión del conjunto de reglas de elegibilidad usado en la decisión
+     */
+    private String versionReglas;
+    
     /**
      * Detalle de cada validación individual realizada
      */
@@ -0,0 +1,27 @@
+package com.subsidios.rentajoven.domain.model;
+
+import com.subsidios.rentajoven.domain.enums.CodigoValidacion;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Hechos de una validación en forma estructurada: código de resultado,
+ * valores numéricos y textos de referencia. El significado de cada campo
+ * depende del código (ver {@link CodigoValidacion}); el mensaje legible se
+ * arma en {@link MensajesValidacion} solo cuando alguien lo lee.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventoValidacion {
+    private CodigoValidacion codigo;
+    private long valor1;
+    private long valor2;
+    private long valor3;
+    private String institucion;
+    private String programa;
+    private String texto;
+}
@@ -0,0 +1,27 @@
+package com.subsidios.rentajoven.domain.model;
+
+import com.subsidios.rentajoven.domain.enums.MotivoRechazo;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Filtros opcionales sobre las solicitudes decididas; null o vacío = sin
+ * filtro. Los filtros presentes se combinan con Y.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FiltroAnalitica {
+    private Boolean aprobada;
+    private List<MotivoRechazo> motivos;   // rechazadas por alguno de estos motivos
+    private String departamento;
+    private String municipio;
+    private LocalDate desde;               // día de la decisión >= desde
+    private LocalDate hasta;               // día de la decisión <= hasta
+}
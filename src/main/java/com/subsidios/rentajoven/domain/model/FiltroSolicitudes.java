@@ -0,0 +1,24 @@
+package com.subsidios.rentajoven.domain.model;
+
+import com.subsidios.rentajoven.domain.enums.EstadoSolicitud;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filtros opcionales para listar o exportar solicitudes; null = sin filtro.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FiltroSolicitudes {
+    private Boolean aprobada;
+    private EstadoSolicitud estado;
+    private LocalDateTime desde;     // fechaSolicitud >= desde
+    private LocalDateTime hasta;     // fechaSolicitud < hasta
+    private String cedula;
+}
@@ -0,0 +1,122 @@
+package com.subsidios.rentajoven.domain.model;
+
+import com.subsidios.rentajoven.domain.enums.CodigoValidacion;
+import com.subsidios.rentajoven.domain.enums.MotivoRechazo;
+import com.subsidios.rentajoven.domain.enums.NivelSISBEN;
+
+
+/**
+ * Textos legibles de los eventos de validación. Se usan al leer la
+ * auditoría o al serializar una respuesta, nunca al decidir.
+ */
+public final class MensajesValidacion {
+
+    private MensajesValidacion() {
+    }
+
+    /**
+     * Mensaje corto del resultado.
+     */
+    public static String mensaje(EventoValidacion e) {
+        switch (e.getCodigo()) {
+            case EDAD_EN_RANGO:
+                return String.format("✓ Edad %d años - Dentro del rango permitido (%d-%d)",
+                    e.getValor1(), e.getValor2(), e.getValor3());
+            case EDAD_FUERA_RANGO:
+                return String.format("✗ Edad %d años - Fuera del rango permitido (%d-%d)",
+                    e.getValor1(), e.getValor2(), e.getValor3());
+            case CEDULA_COHERENTE:
+                return String.format("✓ Cédula y edad son coherentes (edad: %d, estimada: %d)",
+                    e.getValor1(), e.getValor2());
+            case CEDULA_INCOHERENTE:
+                return String.format("✗ ALERTA FRAUDE: Cédula no coherente con edad (edad: %d, estimada: %d, diferencia: %d)",
+                    e.getValor1(), e.getValor2(), diferencia(e));
+            case SISBEN_NO_ENCONTRADO:
+                return "✗ No se encontró registro en SISBEN";
+            case SISBEN_ELEGIBLE:
+                return String.format("✓ Nivel %s (%s) - Elegible", nivel(e).name(), nivel(e).getDescripcion());
+            case SISBEN_NO_ELEGIBLE:
+                return String.format("✗ Nivel %s (%s) - No elegible", nivel(e).name(), nivel(e).getDescripcion());
+            case SIN_TITULO:
+                return "✓ No tiene título profesional registrado - Elegible";
+            case CON_TITULO:
+                return String.format("✗ Tiene título profesional: %s (%s) - No elegible", e.getPrograma(), e.getTexto());
+            case MATRICULA_NO_ENCONTRADA:
+                return "✗ Matrícula no encontrada en el sistema MEN";
+            case MATRICULA_NO_VIGENTE:
+                return String.format("✗ Matrícula NO vigente (estado: %s)", e.getTexto());
+            case INTENSIDAD_INSUFICIENTE:
+                return String.format("✗ Intensidad horaria insuficiente: %dh (mínimo %dh)", e.getValor1(), e.getValor2());
+            case INSTITUCION_NO_RECONOCIDA:
+                return String.format("✗ Institución NO reconocida: %s", e.getInstitucion());
+            case MATRICULA_VIGENTE:
+                return String.format("✓ Matrícula VIGENTE - %s (%dh/semana) - Elegible", e.getInstitucion(), e.getValor1());
+            case SOLICITUD_APROBADA:
+                return "SOLICITUD APROBADA";
+            case SOLICITUD_RECHAZADA:
+                return "SOLICITUD RECHAZADA";
+            case ERROR_VALIDACION:
+                return "Error en validación: " + e.getTexto();
+            default:
+                throw new IllegalArgumentException("Código sin mensaje: " + e.getCodigo());
+        }
+    }
+
+    /**
+     * Detalle con los valores que sustentan el resultado.
+     */
+    public static String detalle(EventoValidacion e) {
+        switch (e.getCodigo()) {
+            case EDAD_EN_RANGO:
+            case EDAD_FUERA_RANGO:
+                return String.format("Validación de edad. Edad declarada: %d. Rango permitido: %d-%d años. Resultado: %s",
+                    e.getValor1(), e.getValor2(), e.getValor3(),
+                    e.getCodigo() == CodigoValidacion.EDAD_EN_RANGO ? "VÁLIDO" : "INVÁLIDO");
+            case CEDULA_COHERENTE:
+            case CEDULA_INCOHERENTE:
+                return String.format("Edad declarada: %d, Edad estimada por cédula: %d, Diferencia: %d años",
+                    e.getValor1(), e.getValor2(), diferencia(e));
+            case SISBEN_NO_ENCONTRADO:
+                return "Cédula no encontrada en base de datos SISBEN";
+            case SISBEN_ELEGIBLE:
+            case SISBEN_NO_ELEGIBLE:
+                return String.format("SISBEN: Nivel %s, Puntaje: %.2f", nivel(e).name(), e.getValor2() / 100.0);
+            case SIN_TITULO:
+                return "SNIES: No se encontró título profesional registrado";
+            case CON_TITULO:
+                return String.format("SNIES: Título registrado. Programa: %s, Institución: %s, Tipo: %s",
+                    e.getPrograma(), e.getInstitucion(), e.getTexto());
+            case MATRICULA_NO_ENCONTRADA:
+                return "Matrícula no registrada en el MEN";
+            case MATRICULA_NO_VIGENTE:
+                return "Estado actual: " + e.getTexto();
+            case INTENSIDAD_INSUFICIENTE:
+                return "Intensidad actual: " + e.getValor1() + " horas/semana";
+            case INSTITUCION_NO_RECONOCIDA:
+                return "Institución en lista negra";
+            case MATRICULA_VIGENTE:
+                return e.getPrograma() != null
+                    ? String.format("MEN: Institución: %s, Programa: %s, Estado: %s, Intensidad: %dh",
+                        e.getInstitucion(), e.getPrograma(), e.getTexto(), e.getValor1())
+                    : String.format("MEN: Institución: %s, Estado: %s, Intensidad: %dh",
+                        e.getInstitucion(), e.getTexto(), e.getValor1());
+            case SOLICITUD_APROBADA:
+                return "Cumple todas las validaciones | Programa: " + e.getPrograma() + " | Reglas: " + e.getTexto();
+            case SOLICITUD_RECHAZADA:
+                return "Motivos: " + MotivoRechazo.deMascara(e.getValor1()) + " | Programa: " + e.getPrograma()
+                    + " | Reglas: " + e.getTexto();
+            case ERROR_VALIDACION:
+                return e.getTexto();
+            default:
+                throw new IllegalArgumentException("Código sin detalle: " + e.getCodigo());
+        }
+    }
+
+    private static NivelSISBEN nivel(EventoValidacion e) {
+        return NivelSISBEN.values()[(int) e.getValor1()];
+    }
+
+    private static long diferencia(EventoValidacion e) {
+        return e.getValor2() != -1 ? Math.abs(e.getValor2() - e.getValor1()) : 0;
+    }
+}
@@ -0,0 +1,22 @@
+package com.subsidios.rentajoven.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de solicitudes ordenadas por id. La siguiente se pide con
+ * despues=siguiente; es null cuando no hay más.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaSolicitudes {
+    private List<Solicitud> solicitudes;
+    private Long siguiente;
+    private int limite;
+}
@@ -0,0 +1,30 @@
+package com.subsidios.rentajoven.domain.model;
+
+import com.subsidios.rentajoven.domain.enums.MotivoRechazo;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Conteos de las solicitudes decididas que cumplen un {@link FiltroAnalitica},
+ * con el desglose por motivo y por departamento.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoAnalitica {
+    private long total;
+    private long aprobadas;
+    private long rechazadas;
+    private Map<MotivoRechazo, Long> porMotivo;
+    private Map<String, Long> porDepartamento;
+    
+    // Decisiones indexadas en total y si ya se cargaron las anteriores al arranque
+    private long indexadas;
+    private boolean cargaCompleta;
+    private double tiempoMs;
+}
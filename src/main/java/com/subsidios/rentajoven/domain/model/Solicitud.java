@@ -1,6 +1,7 @@
 package com.subsidios.rentajoven.domain.model;
 
 import com.subsidios.rentajoven.domain.enums.EstadoSolicitud;
+import com.subsidios.rentajoven.domain.enums.MotivoRechazo;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -8,12 +9,26 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Entidad que representa una solicitud de subsidio Renta Joven.
+ *
+ * Solo se indexa lo selectivo (cédula) y lo que cubre las métricas. Las
+ * páginas filtradas por aprobada, estado o fechas recorren la clave primaria
+ * en orden y se detienen al llenar la página; con un índice sobre esos
+ * campos la base ordenaría todo el rango antes de cortar.
  */
 @Entity
-@Table(name = "solicitudes")
+@Table(name = "solicitudes", indexes = {
+    @Index(name = "idx_solicitudes_cedula", columnList = "cedula, id"),
+    // Cubre los totales y tiempos por resultado de /metrics/summary. El tiempo va
+    // primero para que no se elija para las páginas filtradas por aprobada
+    @Index(name = "idx_solicitudes_tiempo", columnList = "tiempoProcesamientoMs, aprobada"),
+    // Cubre el conteo de rechazos por combinación de motivos
+    @Index(name = "idx_solicitudes_motivos", columnList = "motivosRechazo, aprobada")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -30,12 +45,17 @@ public class Solicitud {
     @Column(nullable = false)
     private String matriculaId;
     
+    // Programa de subsidio al que se aplica (renta-joven si no se indicó otro)
+    @Column(length = 40)
+    private String programa;
+    
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private EstadoSolicitud estado;
     
-    @Column(columnDefinition = "TEXT")
-    private String razonesRechazo;
+    // Motivos de rechazo como máscara de MotivoRechazo#bit() (0 si fue aprobada)
+    @Column
+    private Integer motivosRechazo;
     
     @Column(nullable = false)
     private LocalDateTime fechaSolicitud;
@@ -48,4 +68,31 @@ public class Solicitud {
     
     @Column
     private Boolean aprobada;
-}
\ No newline at end of file
+    
+    // Versión de los datos de referencia con la que se evaluó
+    @Column(length = 40)
+    private String versionDatos;
+    
+    /**
+     * Motivos de rechazo decodificados de la máscara, en el orden del enum.
+     */
+    @Transient
+    public List<MotivoRechazo> getMotivos() {
+        return motivosRechazo != null ? MotivoRechazo.deMascara(motivosRechazo) : List.of();
+    }
+    
+    /**
+     * Razones de rechazo legibles, separadas por "; "; null si no hay motivos.
+     * No llevan los límites del programa: los valores con que se decidió
+     * están en los eventos de auditoría de la solicitud.
+     */
+    @Transient
+    public String getRazonesRechazo() {
+        if (motivosRechazo == null || motivosRechazo == 0) {
+            return null;
+        }
+        return getMotivos().stream()
+                .map(MotivoRechazo::getDescripcion)
+                .collect(Collectors.joining("; "));
+    }
+}
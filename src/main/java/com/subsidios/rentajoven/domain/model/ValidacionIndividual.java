@@ -1,13 +1,20 @@
 package com.subsidios.rentajoven.domain.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.subsidios.rentajoven.domain.enums.MotivoRechazo;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.AbstractList;
+import java.util.List;
+
 /**
  * Resultado de una validación individual.
+ *
+ * Si se construye con un evento, el mensaje y el detalle se arman al
+ * primer acceso (p. ej. al serializar la respuesta), no al decidir.
  */
 @Data
 @Builder
@@ -19,4 +26,38 @@ public class ValidacionIndividual {
     private Long tiempoMs;
     private String detalle;
     private MotivoRechazo motivoRechazo; // Puede ser null si la validación fue exitosa
-}
\ No newline at end of file
+
+    @JsonIgnore
+    private EventoValidacion evento;
+
+    public String getMensaje() {
+        if (mensaje == null && evento != null) {
+            mensaje = MensajesValidacion.mensaje(evento);
+        }
+        return mensaje;
+    }
+
+    public String getDetalle() {
+        if (detalle == null && evento != null) {
+            detalle = MensajesValidacion.detalle(evento);
+        }
+        return detalle;
+    }
+
+    /**
+     * Mensajes de las validaciones, armados solo cuando se leen.
+     */
+    public static List<String> mensajes(ValidacionIndividual[] validaciones) {
+        return new AbstractList<String>() {
+            @Override
+            public String get(int i) {
+                return validaciones[i].getMensaje();
+            }
+
+            @Override
+            public int size() {
+                return validaciones.length;
+            }
+        };
+    }
+}
@@ -0,0 +1,94 @@
+package com.subsidios.rentajoven.infrastructure.dataset;
+
+import com.subsidios.rentajoven.infrastructure.snapshot.DatosReferencia;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenMEN;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSISBEN;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSNIES;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Punto único de publicación de los datos de referencia.
+ *
+ * Las lecturas ({@link #actual()}) son una lectura volátil, sin locks. Las
+ * publicaciones se serializan entre sí: la nueva versión (almacenes e
+ * índices) se arma completa antes del cambio de referencia, así que nunca
+ * se observa un estado vacío o mezclado entre dos cargas.
+ */
+@Component
+public class DatosReferenciaActivos {
+
+    private volatile VersionDatos actual = VersionDatos.VACIA;
+
+    private long secuencia;
+
+    private final List<Consumer<VersionDatos>> suscriptores = new CopyOnWriteArrayList<>();
+
+    public VersionDatos actual() {
+        return actual;
+    }
+
+    /**
+     * Registra un aviso que se invoca tras cada publicación, con las
+     * publicaciones bloqueadas: solo debe programar trabajo, no hacerlo.
+     */
+    public void suscribir(Consumer<VersionDatos> suscriptor) {
+        suscriptores.add(suscriptor);
+    }
+
+    /**
+     * Publica una carga completa de las tres fuentes.
+     */
+    public VersionDatos publicar(DatosReferencia datos, long huella, String origen) {
+        return publicar(datos, huella, List.of(), origen);
+    }
+
+    /**
+     * Publica una carga completa con los deltas ya aplicados encima.
+     */
+    public synchronized VersionDatos publicar(DatosReferencia datos, long huella, List<String> deltas, String origen) {
+        VersionDatos nueva = new VersionDatos(++secuencia, huella, origen, LocalDateTime.now(),
+            datos.getSisben(), datos.getSnies(), datos.getMen(), deltas, actual);
+        actual = nueva;
+        System.out.println(String.format("🔁 Datos de referencia %s publicados (%s): %d SISBEN, %d SNIES, %d MEN",
+            nueva.getId(), origen, nueva.getSisben().tamanio(), nueva.getSnies().tamanio(), nueva.getMen().tamanio()));
+        suscriptores.forEach(s -> s.accept(nueva));
+        return nueva;
+    }
+
+    /**
+     * Publica una versión derivada de la actual. La función se evalúa con las
+     * publicaciones bloqueadas, así que no se pierde ninguna concurrente; debe
+     * ser barata (el trabajo pesado se hace antes, fuera del lock).
+     *
+     * @param deltasNuevos archivos delta que se suman a los ya aplicados
+     */
+    public synchronized VersionDatos derivar(UnaryOperator<DatosReferencia> cambio,
+                                             List<String> deltasNuevos, String origen) {
+        VersionDatos v = actual;
+        List<String> deltas = new ArrayList<>(v.getDeltas());
+        deltas.addAll(deltasNuevos);
+        return publicar(cambio.apply(v.getDatos()), v.getHuella(), deltas, origen);
+    }
+
+    /**
+     * Reemplaza solo SISBEN conservando las otras fuentes de la versión actual.
+     */
+    public VersionDatos publicarSISBEN(AlmacenSISBEN sisben, String origen) {
+        return derivar(datos -> { datos.setSisben(sisben); return datos; }, List.of(), origen);
+    }
+
+    public VersionDatos publicarSNIES(AlmacenSNIES snies, String origen) {
+        return derivar(datos -> { datos.setSnies(snies); return datos; }, List.of(), origen);
+    }
+
+    public VersionDatos publicarMEN(AlmacenMEN men, String origen) {
+        return derivar(datos -> { datos.setMen(men); return datos; }, List.of(), origen);
+    }
+}
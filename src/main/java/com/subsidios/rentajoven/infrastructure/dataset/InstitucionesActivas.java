@@ -0,0 +1,222 @@
+package com.subsidios.rentajoven.infrastructure.dataset;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.subsidios.rentajoven.infrastructure.external.LectorExcelPorEventos;
+import com.subsidios.rentajoven.infrastructure.index.NombreInstitucion;
+import com.subsidios.rentajoven.infrastructure.index.RegistroInstituciones;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Punto único de publicación del registro de instituciones reconocidas.
+ *
+ * Se arma con todas las fuentes configuradas (instituciones.fuentes): listas
+ * JSON de nombres y el Excel de instituciones SNIES, del que solo se toman
+ * las activas. El Excel se lee por eventos, fila a fila, así que su tamaño no
+ * pesa en el heap. Como las reglas, se recarga sin reiniciar: si una fuente es
+ * inválida no se publica nada y el registro anterior sigue vigente.
+ */
+@Component
+public class InstitucionesActivas {
+
+    private static final String PREFIJO_CLASSPATH = "classpath:";
+    private static final String HOJA_INSTITUCIONES = "Instituciones";
+    private static final ObjectMapper LECTOR = new ObjectMapper();
+    private static final long HUELLA_ACTIVA = NombreInstitucion.huella("ACTIVA");
+
+    @Value("${instituciones.fuentes:}")
+    private String[] fuentes;
+
+    private volatile RegistroInstituciones actual = RegistroInstituciones.VACIO;
+
+    private final List<Consumer<RegistroInstituciones>> suscriptores = new CopyOnWriteArrayList<>();
+
+    @PostConstruct
+    public void cargar() {
+        recargar();
+    }
+
+    public RegistroInstituciones actual() {
+        return actual;
+    }
+
+    /**
+     * Registra un aviso que se invoca tras cada publicación; solo debe
+     * programar trabajo, no hacerlo.
+     */
+    public void suscribir(Consumer<RegistroInstituciones> suscriptor) {
+        suscriptores.add(suscriptor);
+    }
+
+    /**
+     * Lee todas las fuentes y publica el registro resultante.
+     *
+     * @throws IllegalArgumentException si alguna fuente no se puede leer o es inválida
+     */
+    public synchronized RegistroInstituciones recargar() {
+        long inicio = System.currentTimeMillis();
+        RegistroInstituciones.Constructor constructor = new RegistroInstituciones.Constructor(true);
+        CRC32 crc = new CRC32();
+        StringBuilder origen = new StringBuilder();
+        for (String fuente : fuentes) {
+            if (fuente.isBlank()) {
+                continue;
+            }
+            String ruta = fuente.trim();
+            if (ruta.toLowerCase().endsWith(".xlsx") && !ruta.startsWith(PREFIJO_CLASSPATH)) {
+                // Desde archivo no se carga entero: ni para la huella ni para leerlo
+                Path archivo = Paths.get(ruta);
+                actualizarHuella(archivo, crc);
+                leerExcel(archivo, ruta, constructor);
+            } else {
+                byte[] contenido = leerRuta(ruta);
+                crc.update(contenido);
+                if (ruta.toLowerCase().endsWith(".xlsx")) {
+                    leerExcel(contenido, ruta, constructor);
+                } else {
+                    leerJson(contenido, ruta, constructor);
+                }
+            }
+            origen.append(origen.length() > 0 ? ", " : "").append(ruta);
+        }
+        RegistroInstituciones nuevo = constructor.construir(origen.length() > 0 ? origen.toString() : "sin fuentes",
+            crc.getValue());
+        actual = nuevo;
+        System.out.println(String.format("🏫 Registro de instituciones publicado en %d ms: %d instituciones, %d nombres indexados (%s)",
+            System.currentTimeMillis() - inicio, nuevo.tamanio(), nuevo.claves(), nuevo.getOrigen()));
+        suscriptores.forEach(s -> s.accept(nuevo));
+        return nuevo;
+    }
+
+    /**
+     * Acepta un arreglo de nombres o un objeto con el arreglo en "instituciones".
+     */
+    static void leerJson(byte[] contenido, String origen, RegistroInstituciones.Constructor constructor) {
+        JsonNode raiz;
+        try {
+            raiz = LECTOR.readTree(contenido);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Lista de instituciones inválida (" + origen + "): " + e.getMessage(), e);
+        }
+        JsonNode lista = raiz != null && raiz.isObject() ? raiz.get("instituciones") : raiz;
+        if (lista == null || !lista.isArray()) {
+            throw new IllegalArgumentException("Lista de instituciones inválida (" + origen
+                + "): se espera un arreglo de nombres o un objeto con 'instituciones'");
+        }
+        for (JsonNode nombre : lista) {
+            constructor.agregar(nombre.asText());
+        }
+    }
+
+    /**
+     * Hoja "Instituciones" (o la primera): columna de nombre y, si existe,
+     * de estado; solo entran las activas.
+     */
+    static void leerExcel(byte[] contenido, String origen, RegistroInstituciones.Constructor constructor) {
+        FilasInstituciones filas = new FilasInstituciones(constructor);
+        try {
+            LectorExcelPorEventos.leer(contenido, HOJA_INSTITUCIONES, filas);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Excel de instituciones inválido (" + origen + "): " + e.getMessage(), e);
+        }
+        filas.verificar(origen);
+    }
+
+    static void leerExcel(Path archivo, String origen, RegistroInstituciones.Constructor constructor) {
+        FilasInstituciones filas = new FilasInstituciones(constructor);
+        try {
+            LectorExcelPorEventos.leer(archivo.toFile(), HOJA_INSTITUCIONES, filas);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Excel de instituciones inválido (" + origen + "): " + e.getMessage(), e);
+        }
+        filas.verificar(origen);
+    }
+
+    private static void actualizarHuella(Path archivo, CRC32 crc) {
+        byte[] bloque = new byte[64 * 1024];
+        try (InputStream entrada = Files.newInputStream(archivo)) {
+            int leidos;
+            while ((leidos = entrada.read(bloque)) > 0) {
+                crc.update(bloque, 0, leidos);
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("No se pudo leer la fuente de instituciones " + archivo + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @param ruta archivo, o recurso si empieza por classpath:
+     */
+    private static byte[] leerRuta(String ruta) {
+        try {
+            if (ruta.startsWith(PREFIJO_CLASSPATH)) {
+                try (InputStream entrada = new ClassPathResource(ruta.substring(PREFIJO_CLASSPATH.length())).getInputStream()) {
+                    return entrada.readAllBytes();
+                }
+            }
+            return Files.readAllBytes(Paths.get(ruta));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("No se pudo leer la fuente de instituciones " + ruta + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * La primera fila es el encabezado: ubica las columnas de nombre y estado.
+     */
+    private static final class FilasInstituciones implements LectorExcelPorEventos.ConsumidorFila {
+
+        private final RegistroInstituciones.Constructor constructor;
+        private boolean conEncabezado;
+        private int columnaNombre = -1;
+        private int columnaEstado = -1;
+
+        FilasInstituciones(RegistroInstituciones.Constructor constructor) {
+            this.constructor = constructor;
+        }
+
+        @Override
+        public void fila(int numero, String[] celdas, int columnas) {
+            if (!conEncabezado) {
+                conEncabezado = true;
+                for (int i = 0; i < columnas; i++) {
+                    String titulo = NombreInstitucion.normalizar(celdas[i]);
+                    if (columnaNombre < 0 && titulo.startsWith("NOMBRE")) {
+                        columnaNombre = i;
+                    } else if (columnaEstado < 0 && titulo.equals("ESTADO")) {
+                        columnaEstado = i;
+                    }
+                }
+                return;
+            }
+            if (columnaNombre < 0 || columnaNombre >= columnas) {
+                return;
+            }
+            if (columnaEstado >= 0 && (columnaEstado >= columnas
+                    || NombreInstitucion.huella(celdas[columnaEstado]) != HUELLA_ACTIVA)) {
+                return;
+            }
+            if (!celdas[columnaNombre].isBlank()) {
+                constructor.agregar(celdas[columnaNombre]);
+            }
+        }
+
+        void verificar(String origen) {
+            if (columnaNombre < 0) {
+                throw new IllegalArgumentException("Excel de instituciones sin columna de nombre (" + origen + ")");
+            }
+        }
+    }
+}
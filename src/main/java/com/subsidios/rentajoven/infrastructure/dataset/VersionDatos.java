@@ -0,0 +1,176 @@
+package com.subsidios.rentajoven.infrastructure.dataset;
+
+import com.subsidios.rentajoven.domain.model.SNIESResponse;
+import com.subsidios.rentajoven.infrastructure.index.IndiceCedulas;
+import com.subsidios.rentajoven.infrastructure.index.IndiceMatriculas;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenMEN;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSISBEN;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSNIES;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSNIESConDelta;
+import com.subsidios.rentajoven.infrastructure.store.CapaDelta;
+import com.subsidios.rentajoven.infrastructure.store.FiltroBloom;
+
+import com.subsidios.rentajoven.infrastructure.snapshot.DatosReferencia;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Versión inmutable de los datos de referencia (SISBEN, SNIES, MEN y sus
+ * índices). Se construye completa fuera de línea y se publica de una sola
+ * vez en {@link DatosReferenciaActivos}; quien la obtiene ve siempre las tres
+ * fuentes de la misma carga, aunque entretanto se publique otra.
+ *
+ * Los índices ordenados de depuración se construyen al primer uso, para que
+ * publicar una versión (p. ej. tras aplicar un delta) no recorra todos los datos.
+ * El filtro de Bloom de cédulas SNIES sí se construye al publicar, porque lo
+ * usa cada decisión; si SNIES no cambió respecto de la versión anterior se
+ * reutiliza, y si solo cambió su capa delta se le agregan las claves nuevas.
+ */
+public final class VersionDatos {
+
+    public static final VersionDatos VACIA = new VersionDatos(0, 0, "vacía", LocalDateTime.MIN,
+        AlmacenSISBEN.VACIO, AlmacenSNIES.VACIO, AlmacenMEN.VACIO, List.of(), null);
+
+    private final long secuencia;
+    private final long huella;
+    private final String origen;
+    private final LocalDateTime publicadaEn;
+    private final AlmacenSISBEN sisben;
+    private final AlmacenSNIES snies;
+    private final AlmacenMEN men;
+    private final List<String> deltas;
+    private final FiltroBloom filtroSnies;
+    private volatile IndiceCedulas indiceCedulas;
+    private volatile IndiceMatriculas indiceMatriculas;
+
+    VersionDatos(long secuencia, long huella, String origen, LocalDateTime publicadaEn,
+                 AlmacenSISBEN sisben, AlmacenSNIES snies, AlmacenMEN men, List<String> deltas,
+                 VersionDatos anterior) {
+        this.secuencia = secuencia;
+        this.huella = huella;
+        this.origen = origen;
+        this.publicadaEn = publicadaEn;
+        this.sisben = sisben;
+        this.snies = snies;
+        this.men = men;
+        this.deltas = List.copyOf(deltas);
+        this.filtroSnies = filtroSnies(snies, anterior);
+    }
+
+    private static FiltroBloom filtroSnies(AlmacenSNIES snies, VersionDatos anterior) {
+        if (anterior == null) {
+            return FiltroBloom.construir(snies.claves());
+        }
+        AlmacenSNIES previo = anterior.snies;
+        if (previo == snies) {
+            return anterior.filtroSnies;
+        }
+        // Misma base: solo pueden faltar claves de la capa delta
+        if (snies instanceof AlmacenSNIESConDelta
+                && base(previo) == ((AlmacenSNIESConDelta) snies).getBase()) {
+            CapaDelta<SNIESResponse> capa = ((AlmacenSNIESConDelta) snies).getDelta();
+            Set<String> nuevas = new HashSet<>();
+            capa.clavesCambiadas(capa(previo), cedula -> {
+                if (snies.contiene(cedula)) {
+                    nuevas.add(cedula);
+                }
+            });
+            FiltroBloom filtro = anterior.filtroSnies.agregando(nuevas);
+            if (filtro != null) {
+                return filtro;
+            }
+        }
+        return FiltroBloom.construir(snies.claves());
+    }
+
+    private static AlmacenSNIES base(AlmacenSNIES snies) {
+        return snies instanceof AlmacenSNIESConDelta ? ((AlmacenSNIESConDelta) snies).getBase() : snies;
+    }
+
+    private static CapaDelta<SNIESResponse> capa(AlmacenSNIES snies) {
+        return snies instanceof AlmacenSNIESConDelta ? ((AlmacenSNIESConDelta) snies).getDelta() : CapaDelta.vacia();
+    }
+
+    /**
+     * Identificador con el que se etiquetan las decisiones: secuencia de
+     * publicación en este proceso + huella de los archivos de origen.
+     */
+    public String getId() {
+        return String.format("v%d-%08x", secuencia, (int) (huella ^ (huella >>> 32)));
+    }
+
+    public long getSecuencia() {
+        return secuencia;
+    }
+
+    public long getHuella() {
+        return huella;
+    }
+
+    public String getOrigen() {
+        return origen;
+    }
+
+    public LocalDateTime getPublicadaEn() {
+        return publicadaEn;
+    }
+
+    public AlmacenSISBEN getSisben() {
+        return sisben;
+    }
+
+    public AlmacenSNIES getSnies() {
+        return snies;
+    }
+
+    public AlmacenMEN getMen() {
+        return men;
+    }
+
+    /**
+     * Archivos delta aplicados sobre la carga base, en orden.
+     */
+    public List<String> getDeltas() {
+        return deltas;
+    }
+
+    /**
+     * Filtro de cédulas con título en SNIES: false = seguro sin título.
+     */
+    public FiltroBloom getFiltroSnies() {
+        return filtroSnies;
+    }
+
+    public DatosReferencia getDatos() {
+        return DatosReferencia.builder().sisben(sisben).snies(snies).men(men).build();
+    }
+
+    public IndiceCedulas getIndiceCedulas() {
+        IndiceCedulas indice = indiceCedulas;
+        if (indice == null) {
+            synchronized (this) {
+                if (indiceCedulas == null) {
+                    indiceCedulas = IndiceCedulas.construir(sisben.claves());
+                }
+                indice = indiceCedulas;
+            }
+        }
+        return indice;
+    }
+
+    public IndiceMatriculas getIndiceMatriculas() {
+        IndiceMatriculas indice = indiceMatriculas;
+        if (indice == null) {
+            synchronized (this) {
+                if (indiceMatriculas == null) {
+                    indiceMatriculas = IndiceMatriculas.construir(men.claves());
+                }
+                indice = indiceMatriculas;
+            }
+        }
+        return indice;
+    }
+}
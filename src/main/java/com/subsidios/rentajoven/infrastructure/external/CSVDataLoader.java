@@ -4,285 +4,446 @@ import com.subsidios.rentajoven.domain.enums.NivelSISBEN;
 import com.subsidios.rentajoven.domain.model.MENResponse;
 import com.subsidios.rentajoven.domain.model.SISBENResponse;
 import com.subsidios.rentajoven.domain.model.SNIESResponse;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
+import com.subsidios.rentajoven.infrastructure.dataset.DatosReferenciaActivos;
+import com.subsidios.rentajoven.infrastructure.dataset.VersionDatos;
+import com.subsidios.rentajoven.infrastructure.snapshot.DatosReferencia;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenMEN;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSISBEN;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSNIES;
+import com.subsidios.rentajoven.infrastructure.store.FabricaAlmacenes;
+import com.subsidios.rentajoven.infrastructure.snapshot.SnapshotDatos;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Cargador de datos CSV al iniciar la aplicación.
+ *
+ * Las tres fuentes (SISBEN, SNIES, MEN) se cargan en paralelo y cada una se
+ * parsea por bloques en un pool compartido. {@link #run} bloquea hasta que las
+ * tres terminan; como Spring solo marca la aplicación lista para recibir
+ * tráfico después de ejecutar los runners, no se atienden solicitudes con los
+ * simuladores a medio cargar.
+ *
+ * Tras una carga exitosa desde CSV se escribe un snapshot binario
+ * ({@link SnapshotDatos}); en el siguiente arranque, si los CSV no cambiaron,
+ * se carga el snapshot directamente sin volver a parsear.
+ *
+ * Las recargas posteriores ({@link #recargar}, vía administración o
+ * {@link VigilanteFuentesCSV}) arman una versión nueva aparte y la publican
+ * de forma atómica en {@link DatosReferenciaActivos}.
  */
 @Component
 public class CSVDataLoader implements CommandLineRunner {
-    
+
     @Autowired
-    private SISBENSimulator sisbenSimulator;
-    
+    private MENSimulator menSimulator;
+
     @Autowired
-    private SNIESSimulator sniesSimulator;
-    
+    private DatosReferenciaActivos datosActivos;
+
+    @Value("${datos.directorio:}")
+    private String datosDirectorio;
+
+    @Value("${carga.hilos:0}")
+    private int hilosConfigurados;
+
+    @Value("${carga.bloque.filas:8192}")
+    private int filasPorBloque;
+
+    @Value("${snapshot.habilitado:true}")
+    private boolean snapshotHabilitado;
+
+    @Value("${snapshot.ruta:./data-snapshot/referencia.snap}")
+    private String snapshotRuta;
+
     @Autowired
-    private MENSimulator menSimulator;
-    
+    private FabricaAlmacenes fabrica;
+
+    @Autowired
+    private IngestorDeltas ingestorDeltas;
+
+    // Capacidad inicial de los almacenes; crecen si el archivo es mayor
+    private static final int CAPACIDAD_INICIAL = 1 << 16;
+
+    private static final String CSV_SISBEN = "data/sisben_simulator.csv";
+    private static final String CSV_SNIES = "data/snies_simulator.csv";
+    private static final String CSV_MEN = "data/men_simulator.csv";
+
+    // Un solo escritor de snapshot: dos recargas seguidas no escriben el mismo temporal a la vez
+    private final ExecutorService escritorSnapshot = Executors.newSingleThreadExecutor(hilosDaemon("snapshot-escritor"));
+    // Última escritura pedida; las que se reemplazan antes de empezar se descartan
+    private final AtomicReference<Runnable> snapshotPendiente = new AtomicReference<>();
+
     @Override
     public void run(String... args) throws Exception {
         System.out.println("\n" + "=".repeat(70));
         System.out.println("🔄 INICIANDO CARGA DE DATOS DESDE CSVs");
         System.out.println("=".repeat(70) + "\n");
-        
+
         long inicio = System.currentTimeMillis();
-        
-        cargarSISBEN();
-        cargarSNIES();
-        cargarMEN();
-        
+
+        System.out.println("🗄️  Backend de almacenamiento: " + fabrica.getBackend());
+
+        recargar("arranque");
+        verificarMEN();
+
         long fin = System.currentTimeMillis();
-        
+
         System.out.println("\n" + "=".repeat(70));
         System.out.println("✅ CARGA COMPLETADA EN " + (fin - inicio) + "ms");
         System.out.println("=".repeat(70) + "\n");
     }
-    
+
     /**
-     * Carga datos del SISBEN desde CSV.
+     * Carga una nueva versión de los datos de referencia (snapshot si sigue
+     * vigente, si no los CSV) y la publica con un único cambio de referencia.
+     * Mientras tanto las solicitudes siguen usando la versión anterior.
+     *
+     * Si una fuente no se puede leer se conserva la de la versión actual, así
+     * que una recarga fallida nunca deja datos vacíos.
+     *
+     * @param origen motivo de la carga (arranque, admin, archivo...)
+     * @return la versión publicada
+     */
+    public synchronized VersionDatos recargar(String origen) {
+        long huella = calcularHuellaFuentes();
+
+        DatosReferencia datos = snapshotHabilitado ? cargarDesdeSnapshot(huella) : null;
+        if (datos == null) {
+            datos = cargarDesdeCSV(huella);
+        }
+        return ingestorDeltas.publicarCarga(datos, huella, origen);
+    }
+
+    /**
+     * Ruta del directorio de CSVs configurado, o null si se leen del classpath.
      */
-    private void cargarSISBEN() {
+    public Path getDirectorioDatos() {
+        return datosDirectorio.isBlank() ? null : Paths.get(datosDirectorio);
+    }
+
+    private DatosReferencia cargarDesdeCSV(long huella) {
+        VersionDatos actual = datosActivos.actual();
+        int hilos = hilosConfigurados > 0 ? hilosConfigurados : Runtime.getRuntime().availableProcessors();
+        ExecutorService parseo = Executors.newFixedThreadPool(hilos, hilosDaemon("csv-parseo"));
+        ExecutorService fuentes = Executors.newFixedThreadPool(3, hilosDaemon("csv-fuente"));
+
         try {
-            System.out.println("📊 Cargando SISBEN...");
-            
-            Map<String, SISBENResponse> datos = new HashMap<>();
-            
-            ClassPathResource resource = new ClassPathResource("data/sisben_simulator.csv");
-            BufferedReader reader = new BufferedReader(
-                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)
-            );
-            
-            CSVParser parser = CSVFormat.DEFAULT
-                    .withFirstRecordAsHeader()
-                    .withTrim()
-                    .withIgnoreEmptyLines()
-                    .parse(reader);
-            
-            int count = 0;
-            for (CSVRecord record : parser) {
-                String cedula = record.get("cedula").trim();
-                String nivelStr = record.get("sisben_nivel").trim();
-                String puntajeStr = record.get("sisben_puntaje").trim();
-                String departamento = record.get("departamento").trim();
-                String municipio = record.get("municipio").trim();
-                
-                NivelSISBEN nivel = convertirNivelSISBEN(nivelStr);
-                Double puntaje = Double.parseDouble(puntajeStr);
-                
-                SISBENResponse response = SISBENResponse.builder()
-                        .nivel(nivel)
-                        .puntaje(puntaje)
-                        .departamento(departamento)
-                        .municipio(municipio)
-                        .encontrado(true)
-                        .build();
-                
-                datos.put(cedula, response);
-                count++;
+            LectorCSVPorBloques lector = new LectorCSVPorBloques(parseo, filasPorBloque, hilos);
+
+            CompletableFuture<Carga<AlmacenSISBEN>> sisben =
+                CompletableFuture.supplyAsync(() -> cargarSISBEN(lector), fuentes);
+            CompletableFuture<Carga<AlmacenSNIES>> snies =
+                CompletableFuture.supplyAsync(() -> cargarSNIES(lector), fuentes);
+            CompletableFuture<Carga<AlmacenMEN>> men =
+                CompletableFuture.supplyAsync(() -> cargarMEN(lector), fuentes);
+
+            CompletableFuture.allOf(sisben, snies, men).join();
+
+            for (Carga<?> carga : List.of(sisben.join(), snies.join(), men.join())) {
+                if (carga != null) {
+                    imprimirThroughput(carga.resultado);
+                }
             }
-            
-            sisbenSimulator.cargarDatos(datos);
-            System.out.println("   ✅ " + count + " registros cargados\n");
-            
-            parser.close();
-            reader.close();
-            
+
+            boolean completa = sisben.join() != null && snies.join() != null && men.join() != null;
+            DatosReferencia datos = DatosReferencia.builder()
+                    .sisben(sisben.join() != null ? sisben.join().datos : actual.getSisben())
+                    .snies(snies.join() != null ? snies.join().datos : actual.getSnies())
+                    .men(men.join() != null ? men.join().datos : actual.getMen())
+                    .build();
+
+            if (snapshotHabilitado && completa) {
+                escribirSnapshotEnSegundoPlano(huella, datos);
+            }
+            return datos;
+        } finally {
+            fuentes.shutdown();
+            parseo.shutdown();
+        }
+    }
+
+    /**
+     * Carga datos del SISBEN desde CSV.
+     */
+    private Carga<AlmacenSISBEN> cargarSISBEN(LectorCSVPorBloques lector) {
+        try (BufferedReader reader = abrir(CSV_SISBEN)) {
+            System.out.println("📊 Cargando SISBEN...");
+
+            EncabezadoCSV encabezado = EncabezadoCSV.desdeLinea(reader.readLine());
+            AlmacenSISBEN.Constructor constructor = fabrica.sisben(CAPACIDAD_INICIAL);
+
+            ResultadoCarga resultado = lector.leer("SISBEN", reader, parserSISBEN(encabezado),
+                entrada -> constructor.agregar(entrada.getKey(), entrada.getValue()));
+
+            AlmacenSISBEN datos = constructor.construir();
+            System.out.println("   ✅ SISBEN: " + resultado.getRegistros() + " registros cargados");
+            return new Carga<>(resultado, datos);
+
         } catch (Exception e) {
             System.err.println("   ❌ Error cargando SISBEN: " + e.getMessage());
             e.printStackTrace();
+            return null;
         }
     }
-    
+
     /**
      * Carga datos del SNIES desde CSV.
      */
-    private void cargarSNIES() {
-        try {
+    private Carga<AlmacenSNIES> cargarSNIES(LectorCSVPorBloques lector) {
+        try (BufferedReader reader = abrir(CSV_SNIES)) {
             System.out.println("🎓 Cargando SNIES...");
-            
-            Map<String, SNIESResponse> datos = new HashMap<>();
-            
-            ClassPathResource resource = new ClassPathResource("data/snies_simulator.csv");
-            BufferedReader reader = new BufferedReader(
-                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)
-            );
-            
-            CSVParser parser = CSVFormat.DEFAULT
-                    .withFirstRecordAsHeader()
-                    .withTrim()
-                    .withIgnoreEmptyLines()
-                    .parse(reader);
-            
-            int count = 0;
-            for (CSVRecord record : parser) {
-                String cedula = record.get("cedula").trim();
-                String programa = record.get("programa").trim();
-                String institucion = record.get("institucion").trim();
-                String tipoTitulo = record.get("tipo_titulo").trim();
-                
-                SNIESResponse response = SNIESResponse.builder()
-                        .tieneTitulo(true)
-                        .programa(programa)
-                        .institucion(institucion)
-                        .tipoTitulo(tipoTitulo)
-                        .build();
-                
-                datos.put(cedula, response);
-                count++;
-            }
-            
-            sniesSimulator.cargarDatos(datos);
-            System.out.println("   ✅ " + count + " registros cargados\n");
-            
-            parser.close();
-            reader.close();
-            
+
+            EncabezadoCSV encabezado = EncabezadoCSV.desdeLinea(reader.readLine());
+            AlmacenSNIES.Constructor constructor = fabrica.snies(CAPACIDAD_INICIAL);
+
+            ResultadoCarga resultado = lector.leer("SNIES", reader, parserSNIES(encabezado),
+                entrada -> constructor.agregar(entrada.getKey(), entrada.getValue()));
+
+            AlmacenSNIES datos = constructor.construir();
+            System.out.println("   ✅ SNIES: " + resultado.getRegistros() + " registros cargados");
+            return new Carga<>(resultado, datos);
+
         } catch (Exception e) {
             System.err.println("   ❌ Error cargando SNIES: " + e.getMessage());
             e.printStackTrace();
+            return null;
         }
     }
-    
+
     /**
- * Carga datos del MEN desde CSV - CON MANEJO DE BOM.
- */
-private void cargarMEN() {
-    try {
-        System.out.println("📚 Cargando MEN...");
-        
-        Map<String, MENResponse> datos = new HashMap<>();
-        
-        ClassPathResource resource = new ClassPathResource("data/men_simulator.csv");
-        
-        // ⭐ CAMBIO CLAVE: Usar InputStreamReader con BOM handling
-        BufferedReader reader = new BufferedReader(
-            new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)
-        );
-        
-        // Leer y descartar BOM si existe
-        reader.mark(1);
-        int firstChar = reader.read();
-        if (firstChar != 0xFEFF) { // BOM character
-            reader.reset();
+     * Carga datos del MEN desde CSV. El BOM del encabezado se resuelve una sola vez.
+     */
+    private Carga<AlmacenMEN> cargarMEN(LectorCSVPorBloques lector) {
+        try (BufferedReader reader = abrir(CSV_MEN)) {
+            System.out.println("📚 Cargando MEN...");
+
+            EncabezadoCSV encabezado = EncabezadoCSV.desdeLinea(reader.readLine());
+            AlmacenMEN.Constructor constructor = fabrica.men(CAPACIDAD_INICIAL);
+
+            ResultadoCarga resultado = lector.leer("MEN", reader, parserMEN(encabezado),
+                response -> constructor.agregar(response.getMatriculaId(), response));
+
+            AlmacenMEN datos = constructor.construir();
+            System.out.println("   ✅ MEN: " + resultado.getRegistros() + " registros procesados ("
+                + resultado.getErrores() + " errores)");
+            return new Carga<>(resultado, datos);
+
+        } catch (Exception e) {
+            System.err.println("   ❌ Error cargando MEN: " + e.getMessage());
+            e.printStackTrace();
+            return null;
         }
-        
-        CSVParser parser = CSVFormat.DEFAULT
-                .builder()
-                .setHeader()
-                .setSkipHeaderRecord(true)
-                .setTrim(true)
-                .setIgnoreEmptyLines(true)
-                .setIgnoreSurroundingSpaces(true)
-                .build()
-                .parse(reader);
-        
-        int count = 0;
-        int errores = 0;
-        System.out.println("   📋 Procesando registros...");
-        
-        for (CSVRecord record : parser) {
+    }
+
+    // ===================================================================
+    // PARSERS DE FILA (compartidos con los benchmarks de carga)
+    // ===================================================================
+
+    static LectorCSVPorBloques.ParserFila<Map.Entry<String, SISBENResponse>> parserSISBEN(EncabezadoCSV encabezado) {
+        int colCedula = encabezado.indice("cedula");
+        int colNivel = encabezado.indice("sisben_nivel");
+        int colPuntaje = encabezado.indice("sisben_puntaje");
+        int colDepartamento = encabezado.indice("departamento");
+        int colMunicipio = encabezado.indice("municipio");
+
+        return campos -> Map.entry(campos[colCedula].trim(), SISBENResponse.builder()
+                .nivel(convertirNivelSISBEN(campos[colNivel]))
+                .puntaje(Double.parseDouble(campos[colPuntaje].trim()))
+                .departamento(campos[colDepartamento].trim())
+                .municipio(campos[colMunicipio].trim())
+                .encontrado(true)
+                .build());
+    }
+
+    static LectorCSVPorBloques.ParserFila<Map.Entry<String, SNIESResponse>> parserSNIES(EncabezadoCSV encabezado) {
+        int colCedula = encabezado.indice("cedula");
+        int colPrograma = encabezado.indice("programa");
+        int colInstitucion = encabezado.indice("institucion");
+        int colTipoTitulo = encabezado.indice("tipo_titulo");
+
+        return campos -> Map.entry(campos[colCedula].trim(), SNIESResponse.builder()
+                .tieneTitulo(true)
+                .programa(campos[colPrograma].trim())
+                .institucion(campos[colInstitucion].trim())
+                .tipoTitulo(campos[colTipoTitulo].trim())
+                .build());
+    }
+
+    static LectorCSVPorBloques.ParserFila<MENResponse> parserMEN(EncabezadoCSV encabezado) {
+        int colMatricula = encabezado.indice("matricula_id");
+        int colCedula = encabezado.indice("cedula");
+        int colInstitucion = encabezado.indice("institucion");
+        int colPrograma = encabezado.indice("programa");
+        int colEstado = encabezado.indice("estado");
+        int colIntensidad = encabezado.indice("intensidad_horaria");
+
+        return campos -> MENResponse.builder()
+                .matriculaId(campos[colMatricula].trim())
+                .cedula(campos[colCedula].trim())
+                .institucion(campos[colInstitucion].trim())
+                .programa(campos[colPrograma].trim())
+                .estado(campos[colEstado].trim())
+                .intensidadHoraria(Integer.parseInt(campos[colIntensidad].trim()))
+                .encontrada(true)
+                .build();
+    }
+
+    // ===================================================================
+    // SNAPSHOT BINARIO
+    // ===================================================================
+
+    /**
+     * Intenta cargar las tres fuentes desde el snapshot.
+     *
+     * @return los datos, o null si el snapshot no existe o no es válido
+     */
+    private DatosReferencia cargarDesdeSnapshot(long huella) {
+        long inicio = System.currentTimeMillis();
+        try {
+            DatosReferencia datos = SnapshotDatos.leer(Paths.get(snapshotRuta), huella, fabrica);
+            if (datos == null) {
+                System.out.println("ℹ️  Snapshot ausente o desactualizado, se cargan los CSVs");
+                return null;
+            }
+
+            long tiempo = System.currentTimeMillis() - inicio;
+            System.out.println(String.format("⚡ Snapshot %s cargado en %d ms (%d + %d + %d registros)",
+                snapshotRuta, tiempo, datos.getSisben().tamanio(), datos.getSnies().tamanio(), datos.getMen().tamanio()));
+            return datos;
+
+        } catch (Exception e) {
+            System.err.println("   ⚠️  No se pudo leer el snapshot: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Escribe el snapshot sin retrasar el arranque. La escritura es atómica,
+     * así que un proceso que termina a mitad no deja un snapshot corrupto.
+     * Las escrituras van de a una; si llega otra mientras una espera, solo
+     * se escribe la más reciente.
+     */
+    private void escribirSnapshotEnSegundoPlano(long huella, DatosReferencia datos) {
+        snapshotPendiente.set(() -> {
+            long inicio = System.currentTimeMillis();
             try {
-                // Obtener headers disponibles
-                Map<String, Integer> headerMap = parser.getHeaderMap();
-                
-                // Buscar el header correcto (con o sin BOM)
-                String matriculaHeader = null;
-                for (String key : headerMap.keySet()) {
-                    if (key.endsWith("matricula_id")) {
-                        matriculaHeader = key;
-                        break;
-                    }
-                }
-                
-                if (matriculaHeader == null) {
-                    if (errores == 0) {
-                        System.err.println("      ⚠️  No se encontró columna 'matricula_id'");
-                        System.err.println("      📋 Headers disponibles: " + headerMap.keySet());
-                    }
-                    errores++;
-                    continue;
-                }
-                
-                String matriculaId = record.get(matriculaHeader).trim();
-                String cedula = record.get("cedula").trim();
-                String institucion = record.get("institucion").trim();
-                String programa = record.get("programa").trim();
-                String estado = record.get("estado").trim();
-                String intensidadStr = record.get("intensidad_horaria").trim();
-                
-                Integer intensidad = Integer.parseInt(intensidadStr);
-                
-                MENResponse response = MENResponse.builder()
-                        .matriculaId(matriculaId)
-                        .cedula(cedula)
-                        .institucion(institucion)
-                        .programa(programa)
-                        .estado(estado)
-                        .intensidadHoraria(intensidad)
-                        .encontrada(true)
-                        .build();
-                
-                datos.put(matriculaId, response);
-                count++;
-                
-                // Mostrar primeras 5 para debug
-                if (count <= 5) {
-                    System.out.println(String.format(
-                        "      %d. ID: [%s] | Cédula: %s | Estado: %s | %dh",
-                        count, matriculaId, cedula, estado, intensidad
-                    ));
-                }
-                
+                Path destino = Paths.get(snapshotRuta);
+                SnapshotDatos.escribir(destino, huella, datos);
+                System.out.println("💾 Snapshot escrito en " + destino + " ("
+                    + (System.currentTimeMillis() - inicio) + " ms)");
             } catch (Exception e) {
-                errores++;
-                if (errores <= 3) {
-                    System.err.println("      ⚠️  Error en registro " + (count + 1) + ": " + e.getMessage());
-                }
+                System.err.println("   ⚠️  No se pudo escribir el snapshot: " + e.getMessage());
+            }
+        });
+        escritorSnapshot.submit(() -> {
+            Runnable escritura = snapshotPendiente.getAndSet(null);
+            if (escritura != null) {
+                escritura.run();
+            }
+        });
+    }
+
+    /**
+     * Huella de los CSV de origen a partir de su tamaño y fecha de modificación.
+     * Evita releer los archivos completos solo para decidir si el snapshot sirve.
+     */
+    private long calcularHuellaFuentes() {
+        long huella = 17;
+        for (String ruta : List.of(CSV_SISBEN, CSV_SNIES, CSV_MEN)) {
+            Resource resource = recurso(ruta);
+            huella = huella * 31 + ruta.hashCode();
+            try {
+                huella = huella * 31 + resource.contentLength();
+                huella = huella * 31 + resource.lastModified();
+            } catch (IOException e) {
+                huella = huella * 31 - 1;
             }
         }
-        
-        System.out.println("   💾 Cargando " + datos.size() + " matrículas en memoria...");
-        menSimulator.cargarDatos(datos);
-        System.out.println("   ✅ " + count + " registros procesados (" + errores + " errores)");
-        System.out.println("   ✅ " + menSimulator.getTamanioBaseDatos() + " matrículas disponibles en simulador\n");
-        
-        // VERIFICACIÓN CRÍTICA
+        return huella;
+    }
+
+    private void imprimirThroughput(ResultadoCarga resultado) {
+        System.out.println(String.format(
+            "   📈 %-7s %,10d registros | %,6d errores | %,6d ms | %,12.0f registros/s",
+            resultado.getFuente(), resultado.getRegistros(), resultado.getErrores(),
+            resultado.getTiempoMs(), resultado.getRegistrosPorSegundo()));
+    }
+
+    /**
+     * Verificación crítica del MEN tras la carga.
+     */
+    private void verificarMEN() {
         if (menSimulator.getTamanioBaseDatos() == 0) {
             System.err.println("   ❌❌❌ PROBLEMA CRÍTICO: MENSimulator está vacío!");
+        } else if (menSimulator.obtenerRegistro("MAT-00000001") != null) {
+            System.out.println("   ✅ Verificación OK: MAT-00000001 encontrada");
         } else {
-            // Verificar que MAT-00000001 existe
-            var test = menSimulator.consultar("MAT-00000001");
-            if (test.isEncontrada()) {
-                System.out.println("   ✅ Verificación OK: MAT-00000001 encontrada");
-            } else {
-                System.err.println("   ⚠️  Verificación FALLA: MAT-00000001 NO encontrada");
-            }
+            System.err.println("   ⚠️  Verificación FALLA: MAT-00000001 NO encontrada");
         }
-        
-        parser.close();
-        reader.close();
-        
-    } catch (Exception e) {
-        System.err.println("   ❌ Error cargando MEN: " + e.getMessage());
-        e.printStackTrace();
     }
-}
-    
-    private NivelSISBEN convertirNivelSISBEN(String nivel) {
+
+    /**
+     * Resultado de leer una fuente: estadísticas y almacén cargado.
+     */
+    private static final class Carga<T> {
+        private final ResultadoCarga resultado;
+        private final T datos;
+
+        Carga(ResultadoCarga resultado, T datos) {
+            this.resultado = resultado;
+            this.datos = datos;
+        }
+    }
+
+    /**
+     * CSV de origen: del directorio configurado en {@code datos.directorio}
+     * o, si no hay, del classpath.
+     */
+    private Resource recurso(String ruta) {
+        Path directorio = getDirectorioDatos();
+        return directorio == null
+            ? new ClassPathResource(ruta)
+            : new FileSystemResource(directorio.resolve(Paths.get(ruta).getFileName()));
+    }
+
+    private BufferedReader abrir(String ruta) throws IOException {
+        Resource resource = recurso(ruta);
+        return new BufferedReader(
+            new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8), 1 << 16
+        );
+    }
+
+    private static ThreadFactory hilosDaemon(String prefijo) {
+        AtomicInteger contador = new AtomicInteger();
+        return tarea -> {
+            Thread hilo = new Thread(tarea, prefijo + "-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        };
+    }
+
+    static NivelSISBEN convertirNivelSISBEN(String nivel) {
         switch (nivel.toUpperCase().trim()) {
             case "A": return NivelSISBEN.A;
             case "B": return NivelSISBEN.B;
@@ -291,4 +452,4 @@ private void cargarMEN() {
             default: return NivelSISBEN.D;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,21 @@
+package com.subsidios.rentajoven.infrastructure.external;
+
+import com.subsidios.rentajoven.infrastructure.store.FabricaAlmacenes;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Backend de almacenamiento de los datos de referencia, compartido por la
+ * carga completa y la compactación de deltas.
+ */
+@Configuration
+public class ConfiguracionAlmacenes {
+
+    @Bean
+    public FabricaAlmacenes fabricaAlmacenes(
+            @Value("${almacen.backend:memoria}") String backend,
+            @Value("${almacen.mapeado.directorio:./data-store}") String directorio) {
+        return FabricaAlmacenes.desdeConfiguracion(backend, directorio);
+    }
+}
@@ -0,0 +1,52 @@
+package com.subsidios.rentajoven.infrastructure.external;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Encabezado de un CSV resuelto una sola vez: nombre de columna -> posición.
+ * Elimina el BOM UTF-8 del primer nombre si existe.
+ */
+public final class EncabezadoCSV {
+
+    private static final char BOM = '\uFEFF';
+
+    private final Map<String, Integer> columnas;
+
+    private EncabezadoCSV(Map<String, Integer> columnas) {
+        this.columnas = columnas;
+    }
+
+    public static EncabezadoCSV desdeLinea(String linea) {
+        if (linea == null) {
+            throw new IllegalStateException("CSV vacío: no hay encabezado");
+        }
+        if (!linea.isEmpty() && linea.charAt(0) == BOM) {
+            linea = linea.substring(1);
+        }
+        String[] nombres = LectorCSVPorBloques.dividir(linea);
+        Map<String, Integer> columnas = new HashMap<>();
+        for (int i = 0; i < nombres.length; i++) {
+            columnas.put(nombres[i].trim(), i);
+        }
+        return new EncabezadoCSV(columnas);
+    }
+
+    public boolean contiene(String nombre) {
+        return columnas.containsKey(nombre);
+    }
+
+    /**
+     * Posición de una columna obligatoria.
+     *
+     * @throws IllegalStateException si la columna no existe
+     */
+    public int indice(String nombre) {
+        Integer indice = columnas.get(nombre);
+        if (indice == null) {
+            throw new IllegalStateException(
+                "No se encontró columna '" + nombre + "'. Headers disponibles: " + columnas.keySet());
+        }
+        return indice;
+    }
+}
@@ -0,0 +1,27 @@
+package com.subsidios.rentajoven.infrastructure.external;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Efecto del filtro de Bloom en las consultas SNIES desde el arranque.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticasFiltroSNIES {
+    private boolean habilitado;
+    private long consultas;
+    private long consultasEvitadas;
+    private long falsosPositivos;
+    /** Falsos positivos / consultas de cédulas sin título. */
+    private double tasaFalsosPositivos;
+    private double tasaFalsosPositivosTeorica;
+    private int cedulasEnFiltro;
+    private long bitsFiltro;
+    private int hashesFiltro;
+    private long bytesFiltro;
+}
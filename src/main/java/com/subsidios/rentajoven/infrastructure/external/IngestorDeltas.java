@@ -0,0 +1,345 @@
+package com.subsidios.rentajoven.infrastructure.external;
+
+import com.subsidios.rentajoven.domain.model.MENResponse;
+import com.subsidios.rentajoven.domain.model.SISBENResponse;
+import com.subsidios.rentajoven.domain.model.SNIESResponse;
+import com.subsidios.rentajoven.infrastructure.dataset.DatosReferenciaActivos;
+import com.subsidios.rentajoven.infrastructure.dataset.VersionDatos;
+import com.subsidios.rentajoven.infrastructure.snapshot.DatosReferencia;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenMEN;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenMENConDelta;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSISBEN;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSISBENConDelta;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSNIES;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSNIESConDelta;
+import com.subsidios.rentajoven.infrastructure.store.FabricaAlmacenes;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Ingesta incremental de deltas diarios de SISBEN, SNIES y MEN.
+ *
+ * Los archivos {@code sisben_delta*.csv}, {@code snies_delta*.csv} y
+ * {@code men_delta*.csv} de {@code delta.directorio} tienen las mismas
+ * columnas que el CSV completo más una columna opcional {@code operacion}
+ * (UPSERT por defecto, o DELETE, que solo requiere la clave). Se aplican en
+ * orden de nombre de archivo.
+ *
+ * Los cambios van a una capa delta sobre la base ({@link AlmacenSISBENConDelta}
+ * y equivalentes) que se publica como versión nueva sin reconstruir la base;
+ * las consultas solo suman una búsqueda en un HashMap pequeño. Cuando una
+ * capa supera {@code delta.compactacion.umbral} entradas se compacta en
+ * segundo plano en una base nueva, sin bloquear consultas ni ingestas.
+ *
+ * Los deltas no se mueven ni se borran: una recarga completa vuelve a aplicar
+ * todos los del directorio sobre la base recién cargada.
+ */
+@Component
+public class IngestorDeltas {
+
+    private static final Pattern ARCHIVO_DELTA = Pattern.compile("(sisben|snies|men)_delta.*\\.csv");
+
+    @Autowired
+    private DatosReferenciaActivos datosActivos;
+
+    @Autowired
+    private FabricaAlmacenes fabrica;
+
+    @Value("${delta.directorio:./data-delta}")
+    private String directorio;
+
+    @Value("${delta.compactacion.umbral:100000}")
+    private int umbralCompactacion;
+
+    private final Object compactacion = new Object();
+    private final AtomicBoolean compactacionProgramada = new AtomicBoolean();
+    private final ExecutorService compactador = Executors.newSingleThreadExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "delta-compactador");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    /**
+     * Publica una carga completa con todos los deltas del directorio encima.
+     */
+    public synchronized VersionDatos publicarCarga(DatosReferencia base, long huella, String origen) {
+        LoteDelta lote = leer(List.of());
+        if (!lote.archivos.isEmpty()) {
+            imprimir(lote);
+        }
+        return datosActivos.publicar(lote.aplicarSobre(base), huella, lote.archivos, origen);
+    }
+
+    /**
+     * Aplica los archivos delta que la versión actual todavía no tiene.
+     */
+    public synchronized ResultadoDeltas aplicarPendientes() {
+        long inicio = System.currentTimeMillis();
+        LoteDelta lote = leer(datosActivos.actual().getDeltas());
+
+        VersionDatos version = lote.archivos.isEmpty()
+            ? datosActivos.actual()
+            : datosActivos.derivar(lote::aplicarSobre, lote.archivos, "delta");
+        if (!lote.archivos.isEmpty()) {
+            imprimir(lote);
+            programarCompactacionSiHaceFalta(version);
+        }
+
+        return ResultadoDeltas.builder()
+                .archivos(lote.archivos)
+                .upserts(lote.upserts)
+                .borrados(lote.borrados)
+                .errores(lote.errores)
+                .tiempoMs(System.currentTimeMillis() - inicio)
+                .version(version.getId())
+                .capaSisben(tamanioCapa(version.getSisben()))
+                .capaSnies(tamanioCapa(version.getSnies()))
+                .capaMen(tamanioCapa(version.getMen()))
+                .build();
+    }
+
+    /**
+     * Incorpora las capas delta actuales a bases nuevas y las publica. Los
+     * deltas que lleguen mientras tanto quedan en la capa de la nueva base.
+     */
+    public List<ResultadoCompactacion> compactar() {
+        synchronized (compactacion) {
+            VersionDatos version = datosActivos.actual();
+            List<ResultadoCompactacion> resultados = new ArrayList<>();
+
+            AlmacenSISBENConDelta sisben = version.getSisben() instanceof AlmacenSISBENConDelta
+                ? (AlmacenSISBENConDelta) version.getSisben() : null;
+            AlmacenSNIESConDelta snies = version.getSnies() instanceof AlmacenSNIESConDelta
+                ? (AlmacenSNIESConDelta) version.getSnies() : null;
+            AlmacenMENConDelta men = version.getMen() instanceof AlmacenMENConDelta
+                ? (AlmacenMENConDelta) version.getMen() : null;
+
+            long inicio = System.currentTimeMillis();
+            AlmacenSISBEN baseSisben = sisben == null ? null : sisben.compactar(fabrica.sisben(sisben.tamanio()));
+            if (sisben != null) {
+                resultados.add(resultado("SISBEN", sisben.getDelta().tamanio(), baseSisben.tamanio(), inicio));
+            }
+            inicio = System.currentTimeMillis();
+            AlmacenSNIES baseSnies = snies == null ? null : snies.compactar(fabrica.snies(snies.tamanio()));
+            if (snies != null) {
+                resultados.add(resultado("SNIES", snies.getDelta().tamanio(), baseSnies.tamanio(), inicio));
+            }
+            inicio = System.currentTimeMillis();
+            AlmacenMEN baseMen = men == null ? null : men.compactar(fabrica.men(men.tamanio()));
+            if (men != null) {
+                resultados.add(resultado("MEN", men.getDelta().tamanio(), baseMen.tamanio(), inicio));
+            }
+
+            if (resultados.isEmpty()) {
+                return resultados;
+            }
+
+            // Solo se rebasa si la base no cambió entretanto (p. ej. por una recarga completa)
+            datosActivos.derivar(datos -> {
+                if (sisben != null && datos.getSisben() instanceof AlmacenSISBENConDelta
+                        && ((AlmacenSISBENConDelta) datos.getSisben()).getBase() == sisben.getBase()) {
+                    datos.setSisben(((AlmacenSISBENConDelta) datos.getSisben()).rebasar(baseSisben, sisben.getDelta()));
+                }
+                if (snies != null && datos.getSnies() instanceof AlmacenSNIESConDelta
+                        && ((AlmacenSNIESConDelta) datos.getSnies()).getBase() == snies.getBase()) {
+                    datos.setSnies(((AlmacenSNIESConDelta) datos.getSnies()).rebasar(baseSnies, snies.getDelta()));
+                }
+                if (men != null && datos.getMen() instanceof AlmacenMENConDelta
+                        && ((AlmacenMENConDelta) datos.getMen()).getBase() == men.getBase()) {
+                    datos.setMen(((AlmacenMENConDelta) datos.getMen()).rebasar(baseMen, men.getDelta()));
+                }
+                return datos;
+            }, List.of(), "compactación");
+
+            for (ResultadoCompactacion r : resultados) {
+                System.out.println(String.format("   🧱 Compactación %-6s %,8d entradas de capa -> base de %,10d registros en %,6d ms",
+                    r.getFuente(), r.getEntradasCapa(), r.getRegistrosBase(), r.getTiempoMs()));
+            }
+            return resultados;
+        }
+    }
+
+    /**
+     * Entradas pendientes de compactar en la capa delta de cada fuente.
+     */
+    public Map<String, Integer> capasDelta(VersionDatos version) {
+        Map<String, Integer> capas = new LinkedHashMap<>();
+        capas.put("sisben", tamanioCapa(version.getSisben()));
+        capas.put("snies", tamanioCapa(version.getSnies()));
+        capas.put("men", tamanioCapa(version.getMen()));
+        return capas;
+    }
+
+    private void programarCompactacionSiHaceFalta(VersionDatos version) {
+        boolean superaUmbral = tamanioCapa(version.getSisben()) >= umbralCompactacion
+            || tamanioCapa(version.getSnies()) >= umbralCompactacion
+            || tamanioCapa(version.getMen()) >= umbralCompactacion;
+        if (superaUmbral && compactacionProgramada.compareAndSet(false, true)) {
+            compactador.submit(() -> {
+                compactacionProgramada.set(false);
+                try {
+                    compactar();
+                } catch (Exception e) {
+                    System.err.println("   ⚠️  Compactación de deltas falló: " + e.getMessage());
+                }
+            });
+        }
+    }
+
+    // ===================================================================
+    // LECTURA DE ARCHIVOS DELTA
+    // ===================================================================
+
+    private LoteDelta leer(Collection<String> yaAplicados) {
+        LoteDelta lote = new LoteDelta();
+        Path dir = Paths.get(directorio);
+        if (!Files.isDirectory(dir)) {
+            return lote;
+        }
+
+        Set<String> aplicados = new HashSet<>(yaAplicados);
+        List<Path> archivos;
+        try (Stream<Path> listado = Files.list(dir)) {
+            archivos = listado
+                .filter(p -> ARCHIVO_DELTA.matcher(p.getFileName().toString()).matches())
+                .filter(p -> !aplicados.contains(p.getFileName().toString()))
+                .sorted()
+                .collect(Collectors.toList());
+        } catch (IOException e) {
+            System.err.println("   ⚠️  No se pudo listar " + dir + ": " + e.getMessage());
+            return lote;
+        }
+
+        for (Path archivo : archivos) {
+            String nombre = archivo.getFileName().toString();
+            try {
+                if (nombre.startsWith("sisben")) {
+                    leerArchivo(archivo, "cedula", CSVDataLoader::parserSISBEN, lote.sisben, lote);
+                } else if (nombre.startsWith("snies")) {
+                    leerArchivo(archivo, "cedula", CSVDataLoader::parserSNIES, lote.snies, lote);
+                } else {
+                    leerArchivo(archivo, "matricula_id", encabezado -> {
+                        LectorCSVPorBloques.ParserFila<MENResponse> parser = CSVDataLoader.parserMEN(encabezado);
+                        return campos -> {
+                            MENResponse r = parser.parsear(campos);
+                            return r == null ? null : Map.entry(r.getMatriculaId(), r);
+                        };
+                    }, lote.men, lote);
+                }
+                lote.archivos.add(nombre);
+            } catch (Exception e) {
+                // Un archivo ilegible se reintenta en la siguiente ingesta
+                System.err.println("   ⚠️  Delta " + nombre + " no aplicado: " + e.getMessage());
+            }
+        }
+        return lote;
+    }
+
+    private <T> void leerArchivo(Path archivo, String columnaClave,
+                                 Function<EncabezadoCSV, LectorCSVPorBloques.ParserFila<Map.Entry<String, T>>> parsers,
+                                 Map<String, T> cambios, LoteDelta lote) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            EncabezadoCSV encabezado = EncabezadoCSV.desdeLinea(reader.readLine());
+            int colClave = encabezado.indice(columnaClave);
+            int colOperacion = encabezado.contiene("operacion") ? encabezado.indice("operacion") : -1;
+            LectorCSVPorBloques.ParserFila<Map.Entry<String, T>> parser = parsers.apply(encabezado);
+
+            String linea;
+            while ((linea = reader.readLine()) != null) {
+                if (linea.isBlank()) {
+                    continue;
+                }
+                try {
+                    String[] campos = LectorCSVPorBloques.dividir(linea);
+                    if (colOperacion >= 0 && esBorrado(campos[colOperacion])) {
+                        cambios.put(campos[colClave].trim(), null);
+                        lote.borrados++;
+                        continue;
+                    }
+                    Map.Entry<String, T> entrada = parser.parsear(campos);
+                    if (entrada != null) {
+                        cambios.put(entrada.getKey(), entrada.getValue());
+                        lote.upserts++;
+                    }
+                } catch (Exception e) {
+                    lote.errores++;
+                }
+            }
+        }
+    }
+
+    private static boolean esBorrado(String operacion) {
+        String op = operacion.trim();
+        return op.equalsIgnoreCase("DELETE") || op.equalsIgnoreCase("BORRAR");
+    }
+
+    private static int tamanioCapa(Object almacen) {
+        if (almacen instanceof AlmacenSISBENConDelta) {
+            return ((AlmacenSISBENConDelta) almacen).getDelta().tamanio();
+        }
+        if (almacen instanceof AlmacenSNIESConDelta) {
+            return ((AlmacenSNIESConDelta) almacen).getDelta().tamanio();
+        }
+        if (almacen instanceof AlmacenMENConDelta) {
+            return ((AlmacenMENConDelta) almacen).getDelta().tamanio();
+        }
+        return 0;
+    }
+
+    private static ResultadoCompactacion resultado(String fuente, int entradasCapa, int registrosBase, long inicio) {
+        return ResultadoCompactacion.builder()
+                .fuente(fuente)
+                .entradasCapa(entradasCapa)
+                .registrosBase(registrosBase)
+                .tiempoMs(System.currentTimeMillis() - inicio)
+                .build();
+    }
+
+    private static void imprimir(LoteDelta lote) {
+        System.out.println(String.format("   📥 Deltas %s: %,d upserts, %,d borrados, %,d errores",
+            lote.archivos, lote.upserts, lote.borrados, lote.errores));
+    }
+
+    /**
+     * Cambios leídos de uno o más archivos delta (valor null = borrado).
+     */
+    private static final class LoteDelta {
+        private final List<String> archivos = new ArrayList<>();
+        private final Map<String, SISBENResponse> sisben = new LinkedHashMap<>();
+        private final Map<String, SNIESResponse> snies = new LinkedHashMap<>();
+        private final Map<String, MENResponse> men = new LinkedHashMap<>();
+        private long upserts;
+        private long borrados;
+        private long errores;
+
+        DatosReferencia aplicarSobre(DatosReferencia datos) {
+            return DatosReferencia.builder()
+                    .sisben(AlmacenSISBENConDelta.aplicar(datos.getSisben(), sisben))
+                    .snies(AlmacenSNIESConDelta.aplicar(datos.getSnies(), snies))
+                    .men(AlmacenMENConDelta.aplicar(datos.getMen(), men))
+                    .build();
+        }
+    }
+}
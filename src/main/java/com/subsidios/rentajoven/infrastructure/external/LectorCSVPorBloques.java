@@ -0,0 +1,149 @@
+package com.subsidios.rentajoven.infrastructure.external;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Lector CSV por bloques con parseo multi-hilo.
+ *
+ * Un único hilo lee líneas y las agrupa en bloques; cada bloque se parsea en
+ * el pool compartido. Los resultados se entregan al consumidor en el orden del
+ * archivo y solo hay un número acotado de bloques en vuelo, así que la memoria
+ * usada no depende del tamaño del archivo.
+ *
+ * Soporta campos entre comillas dentro de una misma línea; los saltos de línea
+ * dentro de un campo no están soportados (los CSV de los simuladores no los usan).
+ */
+public class LectorCSVPorBloques {
+
+    /**
+     * Convierte una fila ya dividida en un registro. Retorna null para omitirla.
+     */
+    @FunctionalInterface
+    public interface ParserFila<T> {
+        T parsear(String[] campos);
+    }
+
+    private final ExecutorService pool;
+    private final int tamanioBloque;
+    private final int bloquesEnVuelo;
+
+    public LectorCSVPorBloques(ExecutorService pool, int tamanioBloque, int hilos) {
+        this.pool = pool;
+        this.tamanioBloque = tamanioBloque;
+        this.bloquesEnVuelo = Math.max(2, hilos * 2);
+    }
+
+    /**
+     * Lee todas las filas (sin encabezado) del reader y entrega cada registro
+     * parseado al consumidor, en orden y desde el hilo que llama.
+     */
+    public <T> ResultadoCarga leer(String fuente,
+                                   BufferedReader reader,
+                                   ParserFila<T> parser,
+                                   Consumer<T> destino) throws IOException {
+        long inicio = System.currentTimeMillis();
+        AtomicLong errores = new AtomicLong();
+        long registros = 0;
+
+        Deque<Future<List<T>>> pendientes = new ArrayDeque<>();
+        List<String> bloque = new ArrayList<>(tamanioBloque);
+        String linea;
+
+        while ((linea = reader.readLine()) != null) {
+            if (linea.isBlank()) {
+                continue;
+            }
+            bloque.add(linea);
+            if (bloque.size() == tamanioBloque) {
+                pendientes.addLast(enviar(bloque, parser, errores));
+                bloque = new ArrayList<>(tamanioBloque);
+                if (pendientes.size() >= bloquesEnVuelo) {
+                    registros += drenar(pendientes.removeFirst(), destino);
+                }
+            }
+        }
+        if (!bloque.isEmpty()) {
+            pendientes.addLast(enviar(bloque, parser, errores));
+        }
+        while (!pendientes.isEmpty()) {
+            registros += drenar(pendientes.removeFirst(), destino);
+        }
+
+        return ResultadoCarga.builder()
+                .fuente(fuente)
+                .registros(registros)
+                .errores(errores.get())
+                .tiempoMs(System.currentTimeMillis() - inicio)
+                .build();
+    }
+
+    private <T> Future<List<T>> enviar(List<String> lineas, ParserFila<T> parser, AtomicLong errores) {
+        return pool.submit(() -> {
+            List<T> resultado = new ArrayList<>(lineas.size());
+            for (String linea : lineas) {
+                try {
+                    T registro = parser.parsear(dividir(linea));
+                    if (registro != null) {
+                        resultado.add(registro);
+                    }
+                } catch (RuntimeException e) {
+                    errores.incrementAndGet();
+                }
+            }
+            return resultado;
+        });
+    }
+
+    private <T> int drenar(Future<List<T>> futuro, Consumer<T> destino) throws IOException {
+        try {
+            List<T> registros = futuro.get();
+            registros.forEach(destino);
+            return registros.size();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Carga interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Error parseando bloque CSV", e.getCause());
+        }
+    }
+
+    /**
+     * Divide una línea CSV respetando comillas dobles. Los campos se retornan sin recortar.
+     */
+    static String[] dividir(String linea) {
+        if (linea.indexOf('"') < 0) {
+            return linea.split(",", -1);
+        }
+        List<String> campos = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean enComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (c == '"') {
+                if (enComillas && i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    actual.append('"');
+                    i++;
+                } else {
+                    enComillas = !enComillas;
+                }
+            } else if (c == ',' && !enComillas) {
+                campos.add(actual.toString());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        campos.add(actual.toString());
+        return campos.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,228 @@
+package com.subsidios.rentajoven.infrastructure.external;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Lector de hojas XLSX por eventos (SAX), fila a fila.
+ *
+ * No arma el modelo de objetos del libro: la hoja se recorre como XML y cada
+ * fila se entrega al consumidor en cuanto termina, así que la memoria usada no
+ * depende del número de filas. Desde archivo el paquete se abre sin leerlo
+ * entero.
+ *
+ * Lo único que queda en memoria es la tabla de textos compartidos del libro
+ * (sharedStrings), que solo guarda cada texto distinto una vez; los libros con
+ * textos en línea (inlineStr) no la usan.
+ *
+ * Los valores llegan tal como están guardados, sin aplicar el formato de la
+ * celda: números como "1001" o "3.5", booleanos como TRUE/FALSE. Las fórmulas
+ * entregan su último resultado calculado.
+ */
+public class LectorExcelPorEventos {
+
+    /**
+     * Recibe cada fila con sus celdas formateadas por índice de columna; las
+     * vacías llegan como "". El arreglo se reutiliza entre filas: no se debe
+     * guardar.
+     */
+    @FunctionalInterface
+    public interface ConsumidorFila {
+        void fila(int numero, String[] celdas, int columnas);
+    }
+
+    private LectorExcelPorEventos() {
+    }
+
+    /**
+     * Lee la hoja indicada (o la primera si no existe) de un archivo.
+     *
+     * @return filas entregadas al consumidor
+     */
+    public static long leer(File archivo, String hoja, ConsumidorFila consumidor) throws IOException {
+        try (OPCPackage paquete = OPCPackage.open(archivo, PackageAccess.READ)) {
+            return leer(paquete, hoja, consumidor);
+        } catch (OpenXML4JException e) {
+            throw new IOException("Archivo XLSX inválido: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Igual que {@link #leer(File, String, ConsumidorFila)}, para libros ya
+     * leídos (p. ej. recursos del classpath).
+     */
+    public static long leer(byte[] contenido, String hoja, ConsumidorFila consumidor) throws IOException {
+        try (OPCPackage paquete = OPCPackage.open(new ByteArrayInputStream(contenido))) {
+            return leer(paquete, hoja, consumidor);
+        } catch (OpenXML4JException e) {
+            throw new IOException("Archivo XLSX inválido: " + e.getMessage(), e);
+        }
+    }
+
+    private static long leer(OPCPackage paquete, String hoja, ConsumidorFila consumidor)
+            throws IOException, OpenXML4JException {
+        try {
+            XSSFReader lector = new XSSFReader(paquete);
+            Filas filas = new Filas(consumidor, new ReadOnlySharedStringsTable(paquete, false));
+
+            XSSFReader.SheetIterator hojas = (XSSFReader.SheetIterator) lector.getSheetsData();
+            InputStream elegida = null;
+            while (hojas.hasNext()) {
+                InputStream datos = hojas.next();
+                if (hojas.getSheetName().equals(hoja)) {
+                    if (elegida != null) {
+                        elegida.close();
+                    }
+                    elegida = datos;
+                    break;
+                }
+                if (elegida == null) {
+                    elegida = datos;
+                } else {
+                    datos.close();
+                }
+            }
+            if (elegida == null) {
+                throw new IOException("El libro no tiene hojas");
+            }
+            try (InputStream datos = elegida) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(filas);
+                parser.parse(new InputSource(datos));
+            }
+            return filas.entregadas;
+        } catch (SAXException | ParserConfigurationException e) {
+            throw new IOException("Hoja XLSX inválida: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Columna (base 0) de una referencia como "C12"; -1 si no trae letras.
+     */
+    static int columna(String referencia) {
+        int columna = 0;
+        int i = 0;
+        while (i < referencia.length()) {
+            char c = referencia.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+            columna = columna * 26 + (c - 'A' + 1);
+            i++;
+        }
+        return columna - 1;
+    }
+
+    /**
+     * Recorre el XML de la hoja: row > c (atributos r y t) > v, o is > t para
+     * textos en línea.
+     */
+    private static final class Filas extends DefaultHandler {
+
+        private final ConsumidorFila consumidor;
+        private final ReadOnlySharedStringsTable textos;
+        private final StringBuilder valor = new StringBuilder();
+        private String[] celdas = new String[16];
+        private int columnas;
+        private int fila;
+        private int columna;
+        private String tipo;
+        private boolean capturando;
+        private long entregadas;
+
+        Filas(ConsumidorFila consumidor, ReadOnlySharedStringsTable textos) {
+            this.consumidor = consumidor;
+            this.textos = textos;
+        }
+
+        @Override
+        public void startElement(String uri, String local, String nombre, Attributes atributos) {
+            switch (local) {
+                case "row":
+                    String numero = atributos.getValue("r");
+                    fila = numero != null ? Integer.parseInt(numero) - 1 : fila + 1;
+                    columnas = 0;
+                    break;
+                case "c":
+                    String referencia = atributos.getValue("r");
+                    columna = referencia != null ? columna(referencia) : columnas;
+                    if (columna < 0) {
+                        columna = columnas;
+                    }
+                    tipo = atributos.getValue("t");
+                    valor.setLength(0);
+                    break;
+                case "v":
+                case "t":
+                    capturando = true;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int inicio, int largo) {
+            if (capturando) {
+                valor.append(ch, inicio, largo);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String local, String nombre) {
+            switch (local) {
+                case "v":
+                case "t":
+                    capturando = false;
+                    break;
+                case "c":
+                    agregar(texto());
+                    break;
+                case "row":
+                    consumidor.fila(fila, celdas, columnas);
+                    entregadas++;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private String texto() {
+            if ("s".equals(tipo)) {
+                return valor.length() > 0 ? textos.getItemAt(Integer.parseInt(valor.toString())).getString() : "";
+            }
+            if ("b".equals(tipo)) {
+                return valor.length() > 0 && valor.charAt(0) == '1' ? "TRUE" : "FALSE";
+            }
+            return valor.toString();
+        }
+
+        private void agregar(String texto) {
+            if (columna >= celdas.length) {
+                celdas = Arrays.copyOf(celdas, Math.max(columna + 1, celdas.length * 2));
+            }
+            // Las celdas vacías no vienen en el XML: se rellenan los huecos
+            for (int i = columnas; i < columna; i++) {
+                celdas[i] = "";
+            }
+            celdas[columna] = texto;
+            columnas = Math.max(columnas, columna + 1);
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package com.subsidios.rentajoven.infrastructure.external;
 
 import com.subsidios.rentajoven.domain.model.MENResponse;
+import com.subsidios.rentajoven.infrastructure.dataset.DatosReferenciaActivos;
+import com.subsidios.rentajoven.infrastructure.dataset.VersionDatos;
+import com.subsidios.rentajoven.infrastructure.index.IndiceMatriculas;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenMEN;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Random;
 
@@ -23,25 +27,33 @@ public class MENSimulator {
     
     private final Random random = new Random();
     
-    // Base de datos simulada
-    private final Map<String, MENResponse> baseDatos = new HashMap<>();
+    // Datos de referencia publicados (versión inmutable, se reemplaza de forma atómica)
+    @Autowired
+    private DatosReferenciaActivos datosActivos;
     
     /**
-     * Carga datos desde el CSV.
+     * Carga datos desde un mapa y los publica como nueva versión (las demás
+     * fuentes se conservan).
      */
     public void cargarDatos(Map<String, MENResponse> datos) {
-        baseDatos.clear();
-        baseDatos.putAll(datos);
-        System.out.println("✅ MEN Simulator cargado con " + baseDatos.size() + " matrículas");
+        datosActivos.publicarMEN(AlmacenMEN.desde(datos), "carga MEN");
     }
     
     /**
      * Consulta información completa de la matrícula.
      */
     public MENResponse consultar(String matriculaId) {
+        return consultar(datosActivos.actual(), matriculaId);
+    }
+    
+    /**
+     * Consulta contra una versión concreta de los datos, para que todas las
+     * validaciones de una decisión usen la misma carga.
+     */
+    public MENResponse consultar(VersionDatos version, String matriculaId) {
         simularLatencia();
         
-        MENResponse response = baseDatos.get(matriculaId);
+        MENResponse response = version.getMen().buscar(matriculaId);
         
         if (response == null) {
             return MENResponse.builder()
@@ -60,6 +72,20 @@ public class MENSimulator {
         return response.isEncontrada() && "VIGENTE".equalsIgnoreCase(response.getEstado());
     }
     
+    /**
+     * Obtiene el registro cargado en memoria sin simular latencia.
+     * Pensado para endpoints de depuración; no participa en el flujo de decisión.
+     *
+     * @return el registro, o null si no existe
+     */
+    public MENResponse obtenerRegistro(String matriculaId) {
+        return datosActivos.actual().getMen().buscar(matriculaId);
+    }
+    
+    public IndiceMatriculas getIndiceMatriculas() {
+        return datosActivos.actual().getIndiceMatriculas();
+    }
+    
     private void simularLatencia() {
         try {
             int latencia = latenciaMin + random.nextInt(latenciaMax - latenciaMin);
@@ -69,7 +95,11 @@ public class MENSimulator {
         }
     }
     
+    public AlmacenMEN getAlmacen() {
+        return datosActivos.actual().getMen();
+    }
+    
     public int getTamanioBaseDatos() {
-        return baseDatos.size();
+        return datosActivos.actual().getMen().tamanio();
     }
 }
\ No newline at end of file
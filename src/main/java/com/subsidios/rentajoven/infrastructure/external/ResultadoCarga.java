@@ -0,0 +1,27 @@
+package com.subsidios.rentajoven.infrastructure.external;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de la carga de una fuente de datos.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoCarga {
+    private String fuente;
+    private long registros;
+    private long errores;
+    private long tiempoMs;
+
+    /**
+     * Throughput de carga en registros por segundo.
+     */
+    public double getRegistrosPorSegundo() {
+        return tiempoMs > 0 ? registros * 1000.0 / tiempoMs : registros;
+    }
+}
@@ -0,0 +1,20 @@
+package com.subsidios.rentajoven.infrastructure.external;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Costo de compactar la capa delta de una fuente en una base nueva.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoCompactacion {
+    private String fuente;
+    private int entradasCapa;
+    private int registrosBase;
+    private long tiempoMs;
+}
@@ -0,0 +1,31 @@
+package com.subsidios.rentajoven.infrastructure.external;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Resultado de aplicar un lote de archivos delta.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoDeltas {
+    private List<String> archivos;
+    private long upserts;
+    private long borrados;
+    private long errores;
+    private long tiempoMs;
+    private String version;
+
+    /**
+     * Entradas pendientes de compactar en la capa delta de cada fuente.
+     */
+    private int capaSisben;
+    private int capaSnies;
+    private int capaMen;
+}
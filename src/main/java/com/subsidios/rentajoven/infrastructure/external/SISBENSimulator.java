@@ -2,10 +2,14 @@ package com.subsidios.rentajoven.infrastructure.external;
 
 import com.subsidios.rentajoven.domain.enums.NivelSISBEN;
 import com.subsidios.rentajoven.domain.model.SISBENResponse;
+import com.subsidios.rentajoven.infrastructure.dataset.DatosReferenciaActivos;
+import com.subsidios.rentajoven.infrastructure.dataset.VersionDatos;
+import com.subsidios.rentajoven.infrastructure.index.IndiceCedulas;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSISBEN;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Random;
 
@@ -24,25 +28,33 @@ public class SISBENSimulator {
     
     private final Random random = new Random();
     
-    // Base de datos simulada
-    private final Map<String, SISBENResponse> baseDatos = new HashMap<>();
+    // Datos de referencia publicados (versión inmutable, se reemplaza de forma atómica)
+    @Autowired
+    private DatosReferenciaActivos datosActivos;
     
     /**
-     * Carga datos desde el CSV.
+     * Carga datos desde un mapa y los publica como nueva versión (las demás
+     * fuentes se conservan).
      */
     public void cargarDatos(Map<String, SISBENResponse> datos) {
-        baseDatos.clear();
-        baseDatos.putAll(datos);
-        System.out.println("✅ SISBEN Simulator cargado con " + baseDatos.size() + " registros");
+        datosActivos.publicarSISBEN(AlmacenSISBEN.desde(datos), "carga SISBEN");
     }
     
     /**
      * Consulta información completa del SISBÉN.
      */
     public SISBENResponse consultar(String cedula) {
+        return consultar(datosActivos.actual(), cedula);
+    }
+    
+    /**
+     * Consulta contra una versión concreta de los datos, para que todas las
+     * validaciones de una decisión usen la misma carga.
+     */
+    public SISBENResponse consultar(VersionDatos version, String cedula) {
         simularLatencia();
         
-        SISBENResponse response = baseDatos.get(cedula);
+        SISBENResponse response = version.getSisben().buscar(cedula);
         
         if (response == null) {
             // No encontrado
@@ -62,6 +74,20 @@ public class SISBENSimulator {
         return response.isEncontrado() ? response.getNivel() : NivelSISBEN.D;
     }
     
+    /**
+     * Obtiene el registro cargado en memoria sin simular latencia.
+     * Pensado para endpoints de depuración; no participa en el flujo de decisión.
+     *
+     * @return el registro, o null si no existe
+     */
+    public SISBENResponse obtenerRegistro(String cedula) {
+        return datosActivos.actual().getSisben().buscar(cedula);
+    }
+    
+    public IndiceCedulas getIndiceCedulas() {
+        return datosActivos.actual().getIndiceCedulas();
+    }
+    
     private void simularLatencia() {
         try {
             int latencia = latenciaMin + random.nextInt(latenciaMax - latenciaMin);
@@ -71,7 +97,11 @@ public class SISBENSimulator {
         }
     }
     
+    public AlmacenSISBEN getAlmacen() {
+        return datosActivos.actual().getSisben();
+    }
+    
     public int getTamanioBaseDatos() {
-        return baseDatos.size();
+        return datosActivos.actual().getSisben().tamanio();
     }
 }
\ No newline at end of file
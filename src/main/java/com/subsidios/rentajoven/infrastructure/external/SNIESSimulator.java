@@ -1,16 +1,25 @@
 package com.subsidios.rentajoven.infrastructure.external;
 
 import com.subsidios.rentajoven.domain.model.SNIESResponse;
+import com.subsidios.rentajoven.infrastructure.dataset.DatosReferenciaActivos;
+import com.subsidios.rentajoven.infrastructure.dataset.VersionDatos;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSNIES;
+import com.subsidios.rentajoven.infrastructure.store.FiltroBloom;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Simulador de la API del SNIES.
  * Retorna información completa del título profesional.
+ *
+ * La mayoría de los solicitantes no tiene título: antes de la consulta remota
+ * se mira el filtro de Bloom de la versión y, si descarta la cédula, se
+ * responde "sin título" sin pagar la latencia de la fuente.
  */
 @Service
 public class SNIESSimulator {
@@ -21,37 +30,89 @@ public class SNIESSimulator {
     @Value("${simulador.snies.latencia.max:500}")
     private int latenciaMax;
     
+    @Value("${simulador.snies.filtro.habilitado:true}")
+    private boolean filtroHabilitado;
+    
     private final Random random = new Random();
     
-    // Base de datos simulada: cedula -> SNIESResponse
-    private final Map<String, SNIESResponse> baseDatos = new HashMap<>();
+    private final LongAdder consultas = new LongAdder();
+    private final LongAdder consultasEvitadas = new LongAdder();
+    private final LongAdder falsosPositivos = new LongAdder();
+    
+    // Datos de referencia publicados (versión inmutable, se reemplaza de forma atómica)
+    @Autowired
+    private DatosReferenciaActivos datosActivos;
     
     /**
-     * Carga datos desde el CSV.
+     * Carga datos desde un mapa y los publica como nueva versión (las demás
+     * fuentes se conservan).
      */
     public void cargarDatos(Map<String, SNIESResponse> datos) {
-        baseDatos.clear();
-        baseDatos.putAll(datos);
-        System.out.println("✅ SNIES Simulator cargado con " + baseDatos.size() + " títulos profesionales");
+        datosActivos.publicarSNIES(AlmacenSNIES.desde(datos), "carga SNIES");
     }
     
     /**
      * Consulta información completa del título.
      */
     public SNIESResponse consultar(String cedula) {
+        return consultar(datosActivos.actual(), cedula);
+    }
+    
+    /**
+     * Consulta contra una versión concreta de los datos, para que todas las
+     * validaciones de una decisión usen la misma carga.
+     */
+    public SNIESResponse consultar(VersionDatos version, String cedula) {
+        consultas.increment();
+        boolean filtrar = filtroHabilitado && cedula != null;
+        if (filtrar && !version.getFiltroSnies().podriaContener(cedula)) {
+            consultasEvitadas.increment();
+            return sinTitulo();
+        }
+        
         simularLatencia();
         
-        SNIESResponse response = baseDatos.get(cedula);
+        SNIESResponse response = version.getSnies().buscar(cedula);
         
         if (response == null) {
-            return SNIESResponse.builder()
-                    .tieneTitulo(false)
-                    .build();
+            if (filtrar) {
+                falsosPositivos.increment();
+            }
+            return sinTitulo();
         }
         
         return response;
     }
     
+    /**
+     * Consultas evitadas y tasa de falsos positivos observada (sobre las
+     * cédulas sin título, que son las únicas que pueden dar uno).
+     */
+    public EstadisticasFiltroSNIES getEstadisticasFiltro() {
+        FiltroBloom filtro = datosActivos.actual().getFiltroSnies();
+        long evitadas = consultasEvitadas.sum();
+        long fp = falsosPositivos.sum();
+        long sinTitulo = evitadas + fp;
+        return EstadisticasFiltroSNIES.builder()
+                .habilitado(filtroHabilitado)
+                .consultas(consultas.sum())
+                .consultasEvitadas(evitadas)
+                .falsosPositivos(fp)
+                .tasaFalsosPositivos(sinTitulo == 0 ? 0.0 : (double) fp / sinTitulo)
+                .tasaFalsosPositivosTeorica(filtro.tasaFalsosPositivosTeorica())
+                .cedulasEnFiltro(filtro.elementos())
+                .bitsFiltro(filtro.numBits())
+                .hashesFiltro(filtro.numHashes())
+                .bytesFiltro(filtro.bytesEstimados())
+                .build();
+    }
+    
+    private static SNIESResponse sinTitulo() {
+        return SNIESResponse.builder()
+                .tieneTitulo(false)
+                .build();
+    }
+    
     /**
      * Método legacy (mantener compatibilidad).
      */
@@ -60,6 +121,16 @@ public class SNIESSimulator {
         return response.isTieneTitulo();
     }
     
+    /**
+     * Obtiene el registro cargado en memoria sin simular latencia.
+     * Pensado para endpoints de depuración; no participa en el flujo de decisión.
+     *
+     * @return el registro, o null si la cédula no tiene título
+     */
+    public SNIESResponse obtenerRegistro(String cedula) {
+        return datosActivos.actual().getSnies().buscar(cedula);
+    }
+    
     private void simularLatencia() {
         try {
             int latencia = latenciaMin + random.nextInt(latenciaMax - latenciaMin);
@@ -69,7 +140,11 @@ public class SNIESSimulator {
         }
     }
     
+    public AlmacenSNIES getAlmacen() {
+        return datosActivos.actual().getSnies();
+    }
+    
     public int getTamanioBaseDatos() {
-        return baseDatos.size();
+        return datosActivos.actual().getSnies().tamanio();
     }
 }
\ No newline at end of file
@@ -0,0 +1,95 @@
+package com.subsidios.rentajoven.infrastructure.external;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recarga los datos de referencia cuando cambian los CSV del directorio
+ * configurado en {@code datos.directorio} ({@code recarga.vigilar=true}).
+ *
+ * Espera un intervalo sin cambios antes de recargar, para no leer un archivo
+ * que todavía se está copiando ni recargar una vez por cada archivo.
+ */
+@Component
+public class VigilanteFuentesCSV {
+
+    @Autowired
+    private CSVDataLoader csvDataLoader;
+
+    @Value("${recarga.vigilar:false}")
+    private boolean vigilar;
+
+    @Value("${recarga.vigilar.espera.ms:2000}")
+    private long esperaMs;
+
+    private volatile WatchService watchService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        Path directorio = csvDataLoader.getDirectorioDatos();
+        if (!vigilar || directorio == null) {
+            return;
+        }
+        try {
+            watchService = directorio.getFileSystem().newWatchService();
+            directorio.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            System.err.println("   ⚠️  No se pudo vigilar " + directorio + ": " + e.getMessage());
+            return;
+        }
+
+        Thread hilo = new Thread(this::vigilar, "vigilante-csv");
+        hilo.setDaemon(true);
+        hilo.start();
+        System.out.println("👀 Vigilando cambios de CSV en " + directorio);
+    }
+
+    private void vigilar() {
+        try {
+            while (true) {
+                WatchKey clave = watchService.take();
+                boolean cambioCSV = clave.pollEvents().stream()
+                    .anyMatch(evento -> evento.context().toString().endsWith(".csv"));
+                clave.reset();
+                if (!cambioCSV) {
+                    continue;
+                }
+
+                // Agrupa ráfagas de eventos: recarga tras esperaMs sin cambios
+                WatchKey siguiente;
+                while ((siguiente = watchService.poll(esperaMs, TimeUnit.MILLISECONDS)) != null) {
+                    siguiente.pollEvents();
+                    siguiente.reset();
+                }
+
+                try {
+                    csvDataLoader.recargar("archivo");
+                } catch (Exception e) {
+                    System.err.println("   ⚠️  Recarga por cambio de archivo falló: " + e.getMessage());
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @PreDestroy
+    public void detener() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+}
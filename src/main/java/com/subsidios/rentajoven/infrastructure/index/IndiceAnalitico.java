@@ -0,0 +1,212 @@
+package com.subsidios.rentajoven.infrastructure.index;
+
+import com.subsidios.rentajoven.domain.enums.MotivoRechazo;
+import com.subsidios.rentajoven.domain.model.FiltroAnalitica;
+import com.subsidios.rentajoven.domain.model.ResultadoAnalitica;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice analítico de las solicitudes decididas: un {@link MapaBits} de ids
+ * por resultado, por motivo de rechazo, por departamento, por municipio y
+ * por día de la decisión.
+ *
+ * Un filtro es la intersección de los mapas de cada condición (el rango de
+ * días y la lista de motivos son uniones), y los desgloses cuentan la
+ * intersección del resultado con cada mapa sin construirla. El costo depende
+ * del número de bloques de 2^16 ids, no del de solicitudes.
+ *
+ * Departamento y municipio se comparan sin tildes ni mayúsculas; se reporta
+ * el primer nombre visto. Escrituras y consultas se pueden hacer desde
+ * varios hilos.
+ */
+public final class IndiceAnalitico {
+
+    private static final MotivoRechazo[] MOTIVOS = MotivoRechazo.values();
+
+    private final ReadWriteLock candado = new ReentrantReadWriteLock();
+
+    private final MapaBits decididas = new MapaBits();
+    private final MapaBits aprobadas = new MapaBits();
+    private final MapaBits rechazadas = new MapaBits();
+    private final MapaBits[] porMotivo = new MapaBits[MOTIVOS.length];
+    private final Map<String, Dimension> departamentos = new HashMap<>();
+    // Clave: departamento + "/" + municipio normalizados
+    private final Map<String, Dimension> municipios = new HashMap<>();
+    private final TreeMap<LocalDate, MapaBits> porDia = new TreeMap<>();
+
+    public IndiceAnalitico() {
+        for (int m = 0; m < porMotivo.length; m++) {
+            porMotivo[m] = new MapaBits();
+        }
+    }
+
+    /**
+     * Registra una decisión. Registrar dos veces el mismo id no cambia nada.
+     *
+     * @param motivos     máscara de motivos ({@link MotivoRechazo#bit()}; 0 si fue aprobada)
+     * @param departamento null si no se conoce (sin registro SISBEN)
+     */
+    public void agregar(int id, boolean aprobada, int motivos, String departamento, String municipio, LocalDate dia) {
+        candado.writeLock().lock();
+        try {
+            decididas.agregar(id);
+            (aprobada ? aprobadas : rechazadas).agregar(id);
+            for (int m = 0; m < MOTIVOS.length; m++) {
+                if ((motivos & MOTIVOS[m].bit()) != 0) {
+                    porMotivo[m].agregar(id);
+                }
+            }
+            if (departamento != null) {
+                String clave = NombreInstitucion.normalizar(departamento);
+                departamentos.computeIfAbsent(clave, c -> new Dimension(departamento)).ids.agregar(id);
+                if (municipio != null) {
+                    municipios.computeIfAbsent(clave + "/" + NombreInstitucion.normalizar(municipio),
+                        c -> new Dimension(municipio)).ids.agregar(id);
+                }
+            }
+            if (dia != null) {
+                porDia.computeIfAbsent(dia, d -> new MapaBits()).agregar(id);
+            }
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    public ResultadoAnalitica consultar(FiltroAnalitica filtro) {
+        candado.readLock().lock();
+        try {
+            MapaBits seleccion = seleccionar(filtro);
+
+            Map<MotivoRechazo, Long> motivos = new EnumMap<>(MotivoRechazo.class);
+            for (int m = 0; m < MOTIVOS.length; m++) {
+                long total = MapaBits.cardinalidadInterseccion(seleccion, porMotivo[m]);
+                if (total > 0) {
+                    motivos.put(MOTIVOS[m], total);
+                }
+            }
+            Map<String, Long> deptos = new TreeMap<>();
+            for (Dimension departamento : departamentos.values()) {
+                long total = MapaBits.cardinalidadInterseccion(seleccion, departamento.ids);
+                if (total > 0) {
+                    deptos.put(departamento.nombre, total);
+                }
+            }
+            return ResultadoAnalitica.builder()
+                .total(seleccion.cardinalidad())
+                .aprobadas(MapaBits.cardinalidadInterseccion(seleccion, aprobadas))
+                .rechazadas(MapaBits.cardinalidadInterseccion(seleccion, rechazadas))
+                .porMotivo(motivos)
+                .porDepartamento(deptos)
+                .indexadas(decididas.cardinalidad())
+                .build();
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    public long tamanio() {
+        candado.readLock().lock();
+        try {
+            return decididas.cardinalidad();
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    public long bytesEstimados() {
+        candado.readLock().lock();
+        try {
+            long bytes = decididas.bytesEstimados() + aprobadas.bytesEstimados() + rechazadas.bytesEstimados();
+            for (MapaBits mapa : porMotivo) {
+                bytes += mapa.bytesEstimados();
+            }
+            for (Dimension d : departamentos.values()) {
+                bytes += d.ids.bytesEstimados();
+            }
+            for (Dimension d : municipios.values()) {
+                bytes += d.ids.bytesEstimados();
+            }
+            for (MapaBits mapa : porDia.values()) {
+                bytes += mapa.bytesEstimados();
+            }
+            return bytes;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Intersección de las condiciones presentes; sin condiciones, todas las decididas.
+     */
+    private MapaBits seleccionar(FiltroAnalitica filtro) {
+        List<MapaBits> condiciones = new ArrayList<>();
+        if (filtro.getAprobada() != null) {
+            condiciones.add(filtro.getAprobada() ? aprobadas : rechazadas);
+        }
+        if (filtro.getMotivos() != null && !filtro.getMotivos().isEmpty()) {
+            MapaBits motivos = new MapaBits();
+            for (MotivoRechazo motivo : filtro.getMotivos()) {
+                motivos.agregarTodos(porMotivo[motivo.ordinal()]);
+            }
+            condiciones.add(motivos);
+        }
+        if (filtro.getDepartamento() != null) {
+            Dimension departamento = departamentos.get(NombreInstitucion.normalizar(filtro.getDepartamento()));
+            condiciones.add(departamento != null ? departamento.ids : new MapaBits());
+        }
+        if (filtro.getMunicipio() != null) {
+            String depto = filtro.getDepartamento() != null ? NombreInstitucion.normalizar(filtro.getDepartamento()) : null;
+            String muni = NombreInstitucion.normalizar(filtro.getMunicipio());
+            // Sin departamento, el municipio puede repetirse en varios
+            MapaBits enMunicipio = new MapaBits();
+            for (Map.Entry<String, Dimension> entrada : municipios.entrySet()) {
+                int separador = entrada.getKey().indexOf('/');
+                if (entrada.getKey().substring(separador + 1).equals(muni)
+                        && (depto == null || entrada.getKey().substring(0, separador).equals(depto))) {
+                    enMunicipio.agregarTodos(entrada.getValue().ids);
+                }
+            }
+            condiciones.add(enMunicipio);
+        }
+        if (filtro.getDesde() != null || filtro.getHasta() != null) {
+            LocalDate desde = filtro.getDesde() != null ? filtro.getDesde() : LocalDate.MIN;
+            LocalDate hasta = filtro.getHasta() != null ? filtro.getHasta() : LocalDate.MAX;
+            MapaBits rango = new MapaBits();
+            if (!desde.isAfter(hasta)) {
+                for (MapaBits dia : porDia.subMap(desde, true, hasta, true).values()) {
+                    rango.agregarTodos(dia);
+                }
+            }
+            condiciones.add(rango);
+        }
+
+        if (condiciones.isEmpty()) {
+            return decididas;
+        }
+        // Se empieza por la condición más pequeña para que las intersecciones sean baratas
+        condiciones.sort((a, b) -> Long.compare(a.cardinalidad(), b.cardinalidad()));
+        MapaBits seleccion = condiciones.get(0);
+        for (int i = 1; i < condiciones.size() && !seleccion.vacio(); i++) {
+            seleccion = MapaBits.interseccion(seleccion, condiciones.get(i));
+        }
+        return seleccion;
+    }
+
+    private static final class Dimension {
+        final String nombre;
+        final MapaBits ids = new MapaBits();
+
+        Dimension(String nombre) {
+            this.nombre = nombre;
+        }
+    }
+}
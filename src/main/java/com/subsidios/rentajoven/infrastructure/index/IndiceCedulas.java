@@ -0,0 +1,203 @@
+package com.subsidios.rentajoven.infrastructure.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Índice inmutable de cédulas sobre un arreglo ordenado de long.
+ * Permite búsquedas por prefijo y por rango en O(log n) sin recorrer
+ * los mapas de los simuladores ni releer los CSVs.
+ *
+ * Las cédulas numéricas que no están en forma canónica (con ceros a la
+ * izquierda o de más de 18 dígitos) no caben en el long sin perder su
+ * texto: se guardan tal cual, en orden lexicográfico, y van después de
+ * las canónicas. Así toda clave devuelta sirve para buscar el registro.
+ * Los rangos numéricos solo cubren las canónicas.
+ */
+public final class IndiceCedulas {
+
+    // Máximo de dígitos de una cédula representable como long positivo
+    private static final int MAX_DIGITOS = 18;
+
+    public static final IndiceCedulas VACIO = new IndiceCedulas(new long[0], new String[0]);
+
+    private final long[] cedulas;
+    // Desbordamiento: cédulas numéricas no canónicas, con su texto original
+    private final String[] noCanonicas;
+
+    private IndiceCedulas(long[] cedulas, String[] noCanonicas) {
+        this.cedulas = cedulas;
+        this.noCanonicas = noCanonicas;
+    }
+
+    /**
+     * Construye el índice a partir de las claves cargadas.
+     * Las cédulas no numéricas se ignoran.
+     */
+    public static IndiceCedulas construir(Collection<String> claves) {
+        long[] valores = new long[claves.size()];
+        List<String> noCanonicas = new ArrayList<>();
+        int n = 0;
+        for (String clave : claves) {
+            long valor = parsear(clave);
+            if (valor >= 0 && !(clave.length() > 1 && clave.charAt(0) == '0')) {
+                valores[n++] = valor;
+            } else if (soloDigitos(clave)) {
+                noCanonicas.add(clave);
+            }
+        }
+        long[] ordenadas = Arrays.copyOf(valores, n);
+        Arrays.parallelSort(ordenadas);
+        String[] desbordamiento = noCanonicas.toArray(new String[0]);
+        Arrays.sort(desbordamiento);
+        return new IndiceCedulas(ordenadas, desbordamiento);
+    }
+
+    public int tamanio() {
+        return cedulas.length + noCanonicas.length;
+    }
+
+    /**
+     * Página de cédulas: las canónicas en orden numérico y luego las demás.
+     */
+    public PaginaClaves pagina(int offset, int limite) {
+        return paginar(new int[] { 0, tamanio() }, offset, limite);
+    }
+
+    /**
+     * Cédulas dentro del rango [desde, hasta] (ambos inclusive).
+     */
+    public PaginaClaves buscarRango(long desde, long hasta, int offset, int limite) {
+        if (desde > hasta) {
+            return paginar(new int[0], offset, limite);
+        }
+        return paginar(new int[] { cotaInferior(desde), cotaSuperior(hasta) }, offset, limite);
+    }
+
+    /**
+     * Cédulas cuya representación decimal empieza por el prefijo dado.
+     * Un prefijo p de k dígitos cubre, para cada longitud L >= k, el rango
+     * [p * 10^(L-k), (p + 1) * 10^(L-k) - 1]; los rangos quedan disjuntos
+     * y crecientes, por lo que el resultado sigue en orden numérico. Las no
+     * canónicas que empiezan por el prefijo forman un tramo contiguo al final.
+     */
+    public PaginaClaves buscarPrefijo(String prefijo, int offset, int limite) {
+        if (prefijo == null || prefijo.isEmpty()) {
+            return pagina(offset, limite);
+        }
+        if (!soloDigitos(prefijo)) {
+            return paginar(new int[0], offset, limite);
+        }
+        long base = parsear(prefijo);
+
+        int[] tramos = new int[(Math.max(MAX_DIGITOS - prefijo.length(), 0) + 2) * 2];
+        int n = 0;
+        // Las canónicas no tienen ceros a la izquierda
+        if (base > 0 && prefijo.charAt(0) != '0') {
+            long factor = 1;
+            for (int longitud = prefijo.length(); longitud <= MAX_DIGITOS; longitud++) {
+                int inicio = cotaInferior(base * factor);
+                int fin = cotaSuperior((base + 1) * factor - 1);
+                if (fin > inicio) {
+                    tramos[n++] = inicio;
+                    tramos[n++] = fin;
+                }
+                factor *= 10;
+            }
+        }
+        int inicio = Arrays.binarySearch(noCanonicas, prefijo);
+        inicio = inicio >= 0 ? inicio : -inicio - 1;
+        int fin = inicio;
+        while (fin < noCanonicas.length && noCanonicas[fin].startsWith(prefijo)) {
+            fin++;
+        }
+        if (fin > inicio) {
+            tramos[n++] = cedulas.length + inicio;
+            tramos[n++] = cedulas.length + fin;
+        }
+        return paginar(Arrays.copyOf(tramos, n), offset, limite);
+    }
+
+    /**
+     * Pagina sobre una secuencia de tramos [inicio, fin) de las posiciones:
+     * primero las del arreglo de long y a continuación las no canónicas.
+     */
+    private PaginaClaves paginar(int[] tramos, int offset, int limite) {
+        long total = 0;
+        for (int i = 0; i < tramos.length; i += 2) {
+            total += tramos[i + 1] - tramos[i];
+        }
+
+        List<String> claves = new ArrayList<>((int) Math.min(limite, total));
+        long saltar = offset;
+        for (int i = 0; i < tramos.length && claves.size() < limite; i += 2) {
+            int tamTramo = tramos[i + 1] - tramos[i];
+            if (saltar >= tamTramo) {
+                saltar -= tamTramo;
+                continue;
+            }
+            for (int j = tramos[i] + (int) saltar; j < tramos[i + 1] && claves.size() < limite; j++) {
+                claves.add(j < cedulas.length ? Long.toString(cedulas[j]) : noCanonicas[j - cedulas.length]);
+            }
+            saltar = 0;
+        }
+
+        return PaginaClaves.builder()
+                .claves(claves)
+                .total(total)
+                .offset(offset)
+                .limite(limite)
+                .build();
+    }
+
+    private int cotaInferior(long valor) {
+        int lo = 0, hi = cedulas.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cedulas[mid] < valor) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private int cotaSuperior(long valor) {
+        int lo = 0, hi = cedulas.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cedulas[mid] <= valor) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private static boolean soloDigitos(String texto) {
+        if (texto == null || texto.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Convierte una cédula a long sin lanzar excepciones; -1 si no es numérica.
+     */
+    static long parsear(String texto) {
+        if (texto == null || texto.length() > MAX_DIGITOS) {
+            return -1;
+        }
+        long valor = 0;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            valor = valor * 10 + (c - '0');
+        }
+        return valor;
+    }
+}
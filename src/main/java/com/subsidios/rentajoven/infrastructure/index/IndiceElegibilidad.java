@@ -0,0 +1,399 @@
+package com.subsidios.rentajoven.infrastructure.index;
+
+import com.subsidios.rentajoven.domain.enums.MotivoRechazo;
+import com.subsidios.rentajoven.domain.enums.NivelSISBEN;
+import com.subsidios.rentajoven.domain.model.MENResponse;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenMEN;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenMENConDelta;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSISBEN;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSISBENConDelta;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSNIES;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSNIESConDelta;
+import com.subsidios.rentajoven.infrastructure.store.CapaDelta;
+import com.subsidios.rentajoven.infrastructure.store.IndiceClaves;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Resultado precalculado de las reglas que dependen de los datos de
+ * referencia (SISBEN, SNIES, MEN) para cada par cédula/matrícula de la
+ * población: la matrícula y la cédula a la que pertenece en MEN.
+ *
+ * Se arma con un hash join paralelo (fork-join) de MEN contra SISBEN y SNIES
+ * por cédula, y guarda un byte por matrícula. Es inmutable: los cambios de
+ * una versión a la siguiente producen un índice nuevo que recalcula solo los
+ * pares afectados y los guarda en capas pequeñas sobre el arreglo base.
+ *
+ * Un código 0 significa "no precalculado" (p. ej. matrícula sin intensidad
+ * horaria, que la evaluación en vivo reporta como error).
+ */
+public final class IndiceElegibilidad {
+
+    /**
+     * Reglas de elegibilidad que dependen de los datos, provistas por el motor
+     * para que el índice y la evaluación en vivo decidan igual.
+     */
+    public interface Reglas {
+        boolean nivelElegible(NivelSISBEN nivel);
+
+        boolean matriculaVigente(String estado);
+
+        boolean intensidadSuficiente(int intensidad);
+
+        boolean institucionReconocida(String institucion);
+    }
+
+    // Bit 7: presente. Bits 0-1: SISBEN. Bit 2: título. Bits 3-4: matrícula.
+    private static final int PRESENTE = 0x80;
+    private static final int SISBEN_NO_ENCONTRADO = 1;
+    private static final int SISBEN_NO_ELEGIBLE = 2;
+    private static final int TIENE_TITULO = 1 << 2;
+    private static final int MATRICULA_NO_VIGENTE = 1 << 3;
+    private static final int INTENSIDAD_INSUFICIENTE = 2 << 3;
+    private static final int INSTITUCION_NO_RECONOCIDA = 3 << 3;
+
+    private static final int UMBRAL_TAREA = 4096;
+
+    private final long secuencia;
+    private final AlmacenSISBEN sisben;
+    private final AlmacenSNIES snies;
+    private final AlmacenMEN men;
+    private final Reglas reglas;
+
+    // Arreglo base por posición en la base de MEN + cadena cédula -> posiciones
+    private final AlmacenMEN baseMen;
+    private final byte[] resultados;
+    private final IndiceClaves porCedula;
+    private final int[] siguiente;
+
+    // Capas de recálculo incremental (copia en escritura)
+    private final Map<Integer, Byte> corregidos;
+    private final Map<String, Par> capaMatriculas;
+
+    private IndiceElegibilidad(long secuencia, AlmacenSISBEN sisben, AlmacenSNIES snies, AlmacenMEN men,
+                               Reglas reglas, AlmacenMEN baseMen, byte[] resultados, IndiceClaves porCedula,
+                               int[] siguiente, Map<Integer, Byte> corregidos, Map<String, Par> capaMatriculas) {
+        this.secuencia = secuencia;
+        this.sisben = sisben;
+        this.snies = snies;
+        this.men = men;
+        this.reglas = reglas;
+        this.baseMen = baseMen;
+        this.resultados = resultados;
+        this.porCedula = porCedula;
+        this.siguiente = siguiente;
+        this.corregidos = corregidos;
+        this.capaMatriculas = capaMatriculas;
+    }
+
+    /**
+     * Join completo de la población.
+     *
+     * @param secuencia versión de los datos para la que vale el índice
+     */
+    public static IndiceElegibilidad construir(long secuencia, AlmacenSISBEN sisben, AlmacenSNIES snies,
+                                               AlmacenMEN men, Reglas reglas, ForkJoinPool pool) {
+        AlmacenMEN baseMen = base(men);
+        List<String> matriculas = baseMen.claves();
+        int n = matriculas.size();
+        int[] posiciones = new int[n];
+        byte[] codigos = new byte[n];
+
+        pool.invoke(new Union(matriculas, posiciones, codigos, 0, n, sisben, snies, baseMen, reglas));
+
+        int maxPos = -1;
+        for (int pos : posiciones) {
+            maxPos = Math.max(maxPos, pos);
+        }
+        byte[] resultados = new byte[maxPos + 1];
+        int[] siguiente = new int[maxPos + 1];
+        IndiceClaves porCedula = new IndiceClaves(IndiceClaves.CEDULA, n);
+        for (int i = 0; i < n; i++) {
+            int pos = posiciones[i];
+            resultados[pos] = codigos[i];
+            siguiente[pos] = -1;
+            int cabeza = porCedula.registrar(baseMen.cedula(pos), pos);
+            if (cabeza >= 0) {
+                siguiente[pos] = siguiente[cabeza];
+                siguiente[cabeza] = pos;
+            }
+        }
+
+        Map<String, Par> capa = new HashMap<>();
+        capa(men).recorrer((matricula, r) -> capa.put(matricula, par(matricula, sisben, snies, men, reglas)));
+
+        return new IndiceElegibilidad(secuencia, sisben, snies, men, reglas, baseMen,
+            resultados, porCedula, siguiente, new HashMap<>(), capa);
+    }
+
+    /**
+     * Índice para una versión nueva recalculando solo los pares cuyas
+     * cédulas o matrículas cambiaron en las capas delta.
+     *
+     * @return el índice nuevo, o null si cambió alguna base y hay que
+     *         reconstruir completo
+     */
+    public IndiceElegibilidad actualizar(long secuenciaNueva, AlmacenSISBEN sisbenNuevo,
+                                         AlmacenSNIES sniesNuevo, AlmacenMEN menNuevo) {
+        if (base(menNuevo) != baseMen
+                || (sisbenNuevo != sisben && base(sisbenNuevo) != base(sisben))
+                || (sniesNuevo != snies && base(sniesNuevo) != base(snies))) {
+            return null;
+        }
+
+        Set<String> cedulas = new HashSet<>();
+        if (sisbenNuevo != sisben) {
+            capa(sisbenNuevo).clavesCambiadas(capa(sisben), cedulas::add);
+        }
+        if (sniesNuevo != snies) {
+            capa(sniesNuevo).clavesCambiadas(capa(snies), cedulas::add);
+        }
+        Set<String> matriculas = new HashSet<>();
+        if (menNuevo != men) {
+            capa(menNuevo).clavesCambiadas(capa(men), matriculas::add);
+        }
+        if (!cedulas.isEmpty()) {
+            capa(menNuevo).recorrer((matricula, r) -> {
+                if (r != null && cedulas.contains(r.getCedula())) {
+                    matriculas.add(matricula);
+                }
+            });
+        }
+
+        Map<Integer, Byte> nuevosCorregidos = new HashMap<>(corregidos);
+        for (String cedula : cedulas) {
+            for (int pos = porCedula.posicion(cedula); pos >= 0; pos = siguiente[pos]) {
+                nuevosCorregidos.put(pos, codigo(cedula, pos, sisbenNuevo, sniesNuevo, baseMen, reglas));
+            }
+        }
+        Map<String, Par> nuevaCapa = new HashMap<>(capaMatriculas);
+        for (String matricula : matriculas) {
+            if (capa(menNuevo).contiene(matricula)) {
+                nuevaCapa.put(matricula, par(matricula, sisbenNuevo, sniesNuevo, menNuevo, reglas));
+            } else {
+                nuevaCapa.remove(matricula);
+            }
+        }
+
+        return new IndiceElegibilidad(secuenciaNueva, sisbenNuevo, sniesNuevo, menNuevo, reglas, baseMen,
+            resultados, porCedula, siguiente, nuevosCorregidos, nuevaCapa);
+    }
+
+    /**
+     * @return el código precalculado del par, o 0 si la matrícula no está
+     *         precalculada o pertenece a otra cédula
+     */
+    public int consultar(String cedula, String matriculaId) {
+        if (cedula == null || matriculaId == null) {
+            return 0;
+        }
+        if (!capaMatriculas.isEmpty()) {
+            Par par = capaMatriculas.get(matriculaId);
+            if (par != null) {
+                return cedula.equals(par.cedula) ? par.codigo : 0;
+            }
+        }
+        int pos = baseMen.posicion(matriculaId);
+        if (pos < 0 || pos >= resultados.length || !cedula.equals(baseMen.cedula(pos))) {
+            return 0;
+        }
+        Byte corregido = corregidos.isEmpty() ? null : corregidos.get(pos);
+        return (corregido != null ? corregido : resultados[pos]) & 0xff;
+    }
+
+    /**
+     * Versión de los datos para la que vale el índice.
+     */
+    public long getSecuencia() {
+        return secuencia;
+    }
+
+    /**
+     * Reglas con las que se calcularon los códigos.
+     */
+    public Reglas getReglas() {
+        return reglas;
+    }
+
+    public int tamanio() {
+        return baseMen.tamanio() + capaMatriculas.size();
+    }
+
+    /**
+     * Pares recalculados incrementalmente desde el último join completo.
+     */
+    public int recalculados() {
+        return corregidos.size() + capaMatriculas.size();
+    }
+
+    public long bytesEstimados() {
+        return resultados.length + siguiente.length * 4L + porCedula.bytesEstimados()
+            + (corregidos.size() + capaMatriculas.size()) * 64L;
+    }
+
+    // ===================================================================
+    // INTERPRETACIÓN DE CÓDIGOS
+    // ===================================================================
+
+    /**
+     * @return null si el nivel SISBEN es elegible
+     */
+    public static MotivoRechazo motivoSISBEN(int codigo) {
+        switch (codigo & 3) {
+            case SISBEN_NO_ENCONTRADO: return MotivoRechazo.SISBEN_NO_ENCONTRADO;
+            case SISBEN_NO_ELEGIBLE: return MotivoRechazo.NIVEL_SISBEN_NO_ELEGIBLE;
+            default: return null;
+        }
+    }
+
+    public static MotivoRechazo motivoTitulo(int codigo) {
+        return (codigo & TIENE_TITULO) != 0 ? MotivoRechazo.TIENE_TITULO_PROFESIONAL : null;
+    }
+
+    public static MotivoRechazo motivoMatricula(int codigo) {
+        switch (codigo & (3 << 3)) {
+            case MATRICULA_NO_VIGENTE: return MotivoRechazo.MATRICULA_NO_VIGENTE;
+            case INTENSIDAD_INSUFICIENTE: return MotivoRechazo.INTENSIDAD_HORARIA_INSUFICIENTE;
+            case INSTITUCION_NO_RECONOCIDA: return MotivoRechazo.INSTITUCION_NO_RECONOCIDA;
+            default: return null;
+        }
+    }
+
+    // ===================================================================
+    // JOIN
+    // ===================================================================
+
+    private static byte codigo(String cedula, int posMen, AlmacenSISBEN sisben, AlmacenSNIES snies,
+                               AlmacenMEN men, Reglas reglas) {
+        int intensidad = men.intensidad(posMen);
+        if (intensidad == Integer.MIN_VALUE) {
+            return 0;
+        }
+        int codigo = PRESENTE;
+
+        int posSisben = sisben.posicion(cedula);
+        if (posSisben < 0) {
+            codigo |= SISBEN_NO_ENCONTRADO;
+        } else if (!reglas.nivelElegible(sisben.nivel(posSisben))) {
+            codigo |= SISBEN_NO_ELEGIBLE;
+        }
+        if (snies.contiene(cedula)) {
+            codigo |= TIENE_TITULO;
+        }
+
+        // Mismo orden que la validación en vivo: la primera falla es el motivo
+        if (!reglas.matriculaVigente(men.estado(posMen))) {
+            codigo |= MATRICULA_NO_VIGENTE;
+        } else if (!reglas.intensidadSuficiente(intensidad)) {
+            codigo |= INTENSIDAD_INSUFICIENTE;
+        } else if (!reglas.institucionReconocida(men.institucion(posMen))) {
+            codigo |= INSTITUCION_NO_RECONOCIDA;
+        }
+        return (byte) codigo;
+    }
+
+    private static Par par(String matricula, AlmacenSISBEN sisben, AlmacenSNIES snies,
+                           AlmacenMEN men, Reglas reglas) {
+        int pos = men.posicion(matricula);
+        if (pos < 0) {
+            return Par.AUSENTE;
+        }
+        String cedula = men.cedula(pos);
+        return new Par(cedula, codigo(cedula, pos, sisben, snies, men, reglas) & 0xff);
+    }
+
+    private static AlmacenMEN base(AlmacenMEN men) {
+        return men instanceof AlmacenMENConDelta ? ((AlmacenMENConDelta) men).getBase() : men;
+    }
+
+    private static AlmacenSISBEN base(AlmacenSISBEN sisben) {
+        return sisben instanceof AlmacenSISBENConDelta ? ((AlmacenSISBENConDelta) sisben).getBase() : sisben;
+    }
+
+    private static AlmacenSNIES base(AlmacenSNIES snies) {
+        return snies instanceof AlmacenSNIESConDelta ? ((AlmacenSNIESConDelta) snies).getBase() : snies;
+    }
+
+    private static CapaDelta<?> capa(Object almacen) {
+        if (almacen instanceof AlmacenSISBENConDelta) {
+            return ((AlmacenSISBENConDelta) almacen).getDelta();
+        }
+        if (almacen instanceof AlmacenSNIESConDelta) {
+            return ((AlmacenSNIESConDelta) almacen).getDelta();
+        }
+        if (almacen instanceof AlmacenMENConDelta) {
+            return ((AlmacenMENConDelta) almacen).getDelta();
+        }
+        return CapaDelta.vacia();
+    }
+
+    private static CapaDelta<MENResponse> capa(AlmacenMEN men) {
+        return men instanceof AlmacenMENConDelta ? ((AlmacenMENConDelta) men).getDelta() : CapaDelta.vacia();
+    }
+
+    /**
+     * Par recalculado de una matrícula de la capa delta de MEN.
+     */
+    private static final class Par {
+        static final Par AUSENTE = new Par(null, 0);
+
+        final String cedula;
+        final int codigo;
+
+        Par(String cedula, int codigo) {
+            this.cedula = cedula;
+            this.codigo = codigo;
+        }
+    }
+
+    /**
+     * Tramo del join: busca cada matrícula de la base de MEN en SISBEN y
+     * SNIES por su cédula. Los tramos escriben en rangos disjuntos.
+     */
+    private static final class Union extends RecursiveAction {
+        private final List<String> matriculas;
+        private final int[] posiciones;
+        private final byte[] codigos;
+        private final int desde;
+        private final int hasta;
+        private final AlmacenSISBEN sisben;
+        private final AlmacenSNIES snies;
+        private final AlmacenMEN men;
+        private final Reglas reglas;
+
+        Union(List<String> matriculas, int[] posiciones, byte[] codigos, int desde, int hasta,
+              AlmacenSISBEN sisben, AlmacenSNIES snies, AlmacenMEN men, Reglas reglas) {
+            this.matriculas = matriculas;
+            this.posiciones = posiciones;
+            this.codigos = codigos;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.sisben = sisben;
+            this.snies = snies;
+            this.men = men;
+            this.reglas = reglas;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde <= UMBRAL_TAREA) {
+                for (int i = desde; i < hasta; i++) {
+                    int pos = men.posicion(matriculas.get(i));
+                    posiciones[i] = pos;
+                    codigos[i] = codigo(men.cedula(pos), pos, sisben, snies, men, reglas);
+                }
+                return;
+            }
+            int medio = (desde + hasta) >>> 1;
+            invokeAll(
+                new Union(matriculas, posiciones, codigos, desde, medio, sisben, snies, men, reglas),
+                new Union(matriculas, posiciones, codigos, medio, hasta, sisben, snies, men, reglas));
+        }
+    }
+}
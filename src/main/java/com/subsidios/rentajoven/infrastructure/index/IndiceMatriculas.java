@@ -0,0 +1,96 @@
+package com.subsidios.rentajoven.infrastructure.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Índice inmutable de IDs de matrícula sobre un arreglo ordenado
+ * lexicográficamente. Búsquedas por prefijo y rango en O(log n).
+ */
+public final class IndiceMatriculas {
+
+    public static final IndiceMatriculas VACIO = new IndiceMatriculas(new String[0]);
+
+    private final String[] matriculas;
+
+    private IndiceMatriculas(String[] matriculas) {
+        this.matriculas = matriculas;
+    }
+
+    public static IndiceMatriculas construir(Collection<String> claves) {
+        String[] ordenadas = claves.toArray(new String[0]);
+        Arrays.parallelSort(ordenadas);
+        return new IndiceMatriculas(ordenadas);
+    }
+
+    public int tamanio() {
+        return matriculas.length;
+    }
+
+    /**
+     * Página de matrículas en orden lexicográfico.
+     */
+    public PaginaClaves pagina(int offset, int limite) {
+        return paginar(0, matriculas.length, offset, limite);
+    }
+
+    /**
+     * Matrículas que empiezan por el prefijo dado.
+     */
+    public PaginaClaves buscarPrefijo(String prefijo, int offset, int limite) {
+        if (prefijo == null || prefijo.isEmpty()) {
+            return pagina(offset, limite);
+        }
+        int inicio = cotaInferior(prefijo);
+        // El sucesor del prefijo (último carácter + 1) acota todas las claves que lo comparten
+        char ultimo = prefijo.charAt(prefijo.length() - 1);
+        int fin = ultimo == Character.MAX_VALUE
+                ? matriculas.length
+                : cotaInferior(prefijo.substring(0, prefijo.length() - 1) + (char) (ultimo + 1));
+        return paginar(inicio, fin, offset, limite);
+    }
+
+    /**
+     * Matrículas dentro del rango [desde, hasta] (ambos inclusive).
+     */
+    public PaginaClaves buscarRango(String desde, String hasta, int offset, int limite) {
+        int inicio = desde == null ? 0 : cotaInferior(desde);
+        int fin = hasta == null ? matriculas.length : cotaSuperior(hasta);
+        return paginar(inicio, Math.max(inicio, fin), offset, limite);
+    }
+
+    private PaginaClaves paginar(int inicio, int fin, int offset, int limite) {
+        int total = fin - inicio;
+        int desde = (int) Math.min((long) inicio + Math.max(0, offset), fin);
+        int hasta = (int) Math.min((long) desde + Math.max(0, limite), fin);
+
+        List<String> claves = new ArrayList<>(Arrays.asList(matriculas).subList(desde, hasta));
+
+        return PaginaClaves.builder()
+                .claves(claves)
+                .total(total)
+                .offset(offset)
+                .limite(limite)
+                .build();
+    }
+
+    private int cotaInferior(String valor) {
+        int lo = 0, hi = matriculas.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (matriculas[mid].compareTo(valor) < 0) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private int cotaSuperior(String valor) {
+        int lo = 0, hi = matriculas.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (matriculas[mid].compareTo(valor) <= 0) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+}
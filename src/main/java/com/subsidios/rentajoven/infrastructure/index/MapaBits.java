@@ -0,0 +1,382 @@
+package com.subsidios.rentajoven.infrastructure.index;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Conjunto comprimido de enteros no negativos (ids de solicitud).
+ *
+ * Los valores se agrupan en bloques de 2^16 por sus 16 bits altos. Un bloque
+ * con pocos valores guarda los 16 bits bajos en un arreglo ordenado de char
+ * (2 bytes por valor); al pasar de {@value #MAXIMO_ARREGLO} valores se vuelve
+ * un mapa de 1024 longs (8 KB fijos). Así un conjunto disperso ocupa poco y
+ * uno denso no ocupa más que un BitSet.
+ *
+ * Las intersecciones y uniones operan bloque a bloque, y
+ * {@link #cardinalidadInterseccion} cuenta sin construir el resultado.
+ *
+ * No es seguro para hilos: quien lo comparte sincroniza.
+ */
+public final class MapaBits {
+
+    static final int MAXIMO_ARREGLO = 4096;
+    private static final int PALABRAS = 1 << 10;
+
+    private int[] claves = new int[4];
+    private Bloque[] bloques = new Bloque[4];
+    private int numBloques;
+
+    public void agregar(int valor) {
+        if (valor < 0) {
+            throw new IllegalArgumentException("Valor negativo: " + valor);
+        }
+        int clave = valor >>> 16;
+        int i;
+        // Los ids llegan casi siempre en orden creciente: el último bloque es el más probable
+        if (numBloques > 0 && claves[numBloques - 1] == clave) {
+            i = numBloques - 1;
+        } else {
+            i = Arrays.binarySearch(claves, 0, numBloques, clave);
+            if (i < 0) {
+                i = -i - 1;
+                insertarBloque(i, clave, new Bloque(new char[4], null, 0));
+            }
+        }
+        bloques[i] = bloques[i].agregar((char) valor);
+    }
+
+    public boolean contiene(int valor) {
+        int i = Arrays.binarySearch(claves, 0, numBloques, valor >>> 16);
+        return i >= 0 && bloques[i].contiene((char) valor);
+    }
+
+    public long cardinalidad() {
+        long total = 0;
+        for (int i = 0; i < numBloques; i++) {
+            total += bloques[i].cardinalidad;
+        }
+        return total;
+    }
+
+    public boolean vacio() {
+        return numBloques == 0;
+    }
+
+    /**
+     * Recorre los valores en orden creciente.
+     */
+    public void recorrer(IntConsumer consumidor) {
+        for (int i = 0; i < numBloques; i++) {
+            bloques[i].recorrer(claves[i] << 16, consumidor);
+        }
+    }
+
+    public long bytesEstimados() {
+        long bytes = 16 + claves.length * 4L + bloques.length * 4L;
+        for (int i = 0; i < numBloques; i++) {
+            Bloque b = bloques[i];
+            bytes += 24 + (b.palabras != null ? 16 + PALABRAS * 8L : 16 + b.valores.length * 2L);
+        }
+        return bytes;
+    }
+
+    /**
+     * Agrega todos los valores de otro mapa a este (unión en el lugar).
+     */
+    public void agregarTodos(MapaBits otro) {
+        for (int j = 0; j < otro.numBloques; j++) {
+            int clave = otro.claves[j];
+            int i = numBloques > 0 && claves[numBloques - 1] < clave
+                ? -numBloques - 1
+                : Arrays.binarySearch(claves, 0, numBloques, clave);
+            if (i < 0) {
+                insertarBloque(-i - 1, clave, otro.bloques[j].copia());
+            } else {
+                bloques[i] = bloques[i].union(otro.bloques[j]);
+            }
+        }
+    }
+
+    public static MapaBits interseccion(MapaBits a, MapaBits b) {
+        MapaBits resultado = new MapaBits();
+        int i = 0;
+        int j = 0;
+        while (i < a.numBloques && j < b.numBloques) {
+            if (a.claves[i] < b.claves[j]) {
+                i++;
+            } else if (a.claves[i] > b.claves[j]) {
+                j++;
+            } else {
+                Bloque bloque = a.bloques[i].interseccion(b.bloques[j]);
+                if (bloque != null) {
+                    resultado.insertarBloque(resultado.numBloques, a.claves[i], bloque);
+                }
+                i++;
+                j++;
+            }
+        }
+        return resultado;
+    }
+
+    public static MapaBits union(MapaBits a, MapaBits b) {
+        MapaBits resultado = new MapaBits();
+        int i = 0;
+        int j = 0;
+        while (i < a.numBloques || j < b.numBloques) {
+            if (j == b.numBloques || (i < a.numBloques && a.claves[i] < b.claves[j])) {
+                resultado.insertarBloque(resultado.numBloques, a.claves[i], a.bloques[i].copia());
+                i++;
+            } else if (i == a.numBloques || a.claves[i] > b.claves[j]) {
+                resultado.insertarBloque(resultado.numBloques, b.claves[j], b.bloques[j].copia());
+                j++;
+            } else {
+                resultado.insertarBloque(resultado.numBloques, a.claves[i], a.bloques[i].union(b.bloques[j]));
+                i++;
+                j++;
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Tamaño de la intersección sin construirla.
+     */
+    public static long cardinalidadInterseccion(MapaBits a, MapaBits b) {
+        long total = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.numBloques && j < b.numBloques) {
+            if (a.claves[i] < b.claves[j]) {
+                i++;
+            } else if (a.claves[i] > b.claves[j]) {
+                j++;
+            } else {
+                total += a.bloques[i].cardinalidadInterseccion(b.bloques[j]);
+                i++;
+                j++;
+            }
+        }
+        return total;
+    }
+
+    private void insertarBloque(int i, int clave, Bloque bloque) {
+        if (numBloques == claves.length) {
+            claves = Arrays.copyOf(claves, numBloques * 2);
+            bloques = Arrays.copyOf(bloques, numBloques * 2);
+        }
+        System.arraycopy(claves, i, claves, i + 1, numBloques - i);
+        System.arraycopy(bloques, i, bloques, i + 1, numBloques - i);
+        claves[i] = clave;
+        bloques[i] = bloque;
+        numBloques++;
+    }
+
+    /**
+     * Valores de un bloque: arreglo ordenado ({@code valores}, con
+     * {@code cardinalidad} posiciones usadas) o mapa ({@code palabras}).
+     */
+    private static final class Bloque {
+        char[] valores;
+        long[] palabras;
+        int cardinalidad;
+
+        Bloque(char[] valores, long[] palabras, int cardinalidad) {
+            this.valores = valores;
+            this.palabras = palabras;
+            this.cardinalidad = cardinalidad;
+        }
+
+        /**
+         * @return este bloque o su conversión a mapa
+         */
+        Bloque agregar(char bajo) {
+            if (palabras != null) {
+                long antes = palabras[bajo >>> 6];
+                palabras[bajo >>> 6] = antes | (1L << bajo);
+                if (antes != palabras[bajo >>> 6]) {
+                    cardinalidad++;
+                }
+                return this;
+            }
+            int pos = cardinalidad > 0 && valores[cardinalidad - 1] < bajo
+                ? -cardinalidad - 1
+                : Arrays.binarySearch(valores, 0, cardinalidad, bajo);
+            if (pos >= 0) {
+                return this;
+            }
+            if (cardinalidad == MAXIMO_ARREGLO) {
+                Bloque mapa = aMapa();
+                return mapa.agregar(bajo);
+            }
+            pos = -pos - 1;
+            if (cardinalidad == valores.length) {
+                valores = Arrays.copyOf(valores, Math.min(MAXIMO_ARREGLO, cardinalidad * 2));
+            }
+            System.arraycopy(valores, pos, valores, pos + 1, cardinalidad - pos);
+            valores[pos] = bajo;
+            cardinalidad++;
+            return this;
+        }
+
+        boolean contiene(char bajo) {
+            return palabras != null
+                ? (palabras[bajo >>> 6] & (1L << bajo)) != 0
+                : Arrays.binarySearch(valores, 0, cardinalidad, bajo) >= 0;
+        }
+
+        void recorrer(int base, IntConsumer consumidor) {
+            if (palabras == null) {
+                for (int k = 0; k < cardinalidad; k++) {
+                    consumidor.accept(base | valores[k]);
+                }
+                return;
+            }
+            for (int w = 0; w < PALABRAS; w++) {
+                long palabra = palabras[w];
+                while (palabra != 0) {
+                    consumidor.accept(base | (w << 6) | Long.numberOfTrailingZeros(palabra));
+                    palabra &= palabra - 1;
+                }
+            }
+        }
+
+        Bloque copia() {
+            return palabras != null
+                ? new Bloque(null, palabras.clone(), cardinalidad)
+                : new Bloque(Arrays.copyOf(valores, Math.max(1, cardinalidad)), null, cardinalidad);
+        }
+
+        /**
+         * @return la intersección, o null si es vacía
+         */
+        Bloque interseccion(Bloque otro) {
+            if (palabras != null && otro.palabras != null) {
+                long[] y = new long[PALABRAS];
+                int total = 0;
+                for (int w = 0; w < PALABRAS; w++) {
+                    y[w] = palabras[w] & otro.palabras[w];
+                    total += Long.bitCount(y[w]);
+                }
+                return total == 0 ? null : new Bloque(null, y, total).compactar();
+            }
+            if (palabras != null) {
+                return otro.interseccion(this);
+            }
+            char[] y = new char[cardinalidad];
+            int total = 0;
+            if (otro.palabras != null) {
+                for (int k = 0; k < cardinalidad; k++) {
+                    if (otro.contiene(valores[k])) {
+                        y[total++] = valores[k];
+                    }
+                }
+            } else {
+                int i = 0;
+                int j = 0;
+                while (i < cardinalidad && j < otro.cardinalidad) {
+                    if (valores[i] < otro.valores[j]) {
+                        i++;
+                    } else if (valores[i] > otro.valores[j]) {
+                        j++;
+                    } else {
+                        y[total++] = valores[i];
+                        i++;
+                        j++;
+                    }
+                }
+            }
+            return total == 0 ? null : new Bloque(y, null, total);
+        }
+
+        Bloque union(Bloque otro) {
+            if (palabras != null || otro.palabras != null) {
+                Bloque mapa = palabras != null ? copia() : otro.copia();
+                Bloque resto = palabras != null ? otro : this;
+                if (resto.palabras != null) {
+                    int total = 0;
+                    for (int w = 0; w < PALABRAS; w++) {
+                        mapa.palabras[w] |= resto.palabras[w];
+                        total += Long.bitCount(mapa.palabras[w]);
+                    }
+                    mapa.cardinalidad = total;
+                } else {
+                    for (int k = 0; k < resto.cardinalidad; k++) {
+                        mapa.agregar(resto.valores[k]);
+                    }
+                }
+                return mapa;
+            }
+            char[] o = new char[cardinalidad + otro.cardinalidad];
+            int total = 0;
+            int i = 0;
+            int j = 0;
+            while (i < cardinalidad || j < otro.cardinalidad) {
+                if (j == otro.cardinalidad || (i < cardinalidad && valores[i] < otro.valores[j])) {
+                    o[total++] = valores[i++];
+                } else if (i == cardinalidad || valores[i] > otro.valores[j]) {
+                    o[total++] = otro.valores[j++];
+                } else {
+                    o[total++] = valores[i++];
+                    j++;
+                }
+            }
+            Bloque arreglo = new Bloque(o, null, total);
+            return total > MAXIMO_ARREGLO ? arreglo.aMapa() : arreglo;
+        }
+
+        long cardinalidadInterseccion(Bloque otro) {
+            if (palabras != null && otro.palabras != null) {
+                long total = 0;
+                for (int w = 0; w < PALABRAS; w++) {
+                    total += Long.bitCount(palabras[w] & otro.palabras[w]);
+                }
+                return total;
+            }
+            if (palabras != null) {
+                return otro.cardinalidadInterseccion(this);
+            }
+            long total = 0;
+            if (otro.palabras != null) {
+                for (int k = 0; k < cardinalidad; k++) {
+                    if (otro.contiene(valores[k])) {
+                        total++;
+                    }
+                }
+                return total;
+            }
+            int i = 0;
+            int j = 0;
+            while (i < cardinalidad && j < otro.cardinalidad) {
+                if (valores[i] < otro.valores[j]) {
+                    i++;
+                } else if (valores[i] > otro.valores[j]) {
+                    j++;
+                } else {
+                    total++;
+                    i++;
+                    j++;
+                }
+            }
+            return total;
+        }
+
+        private Bloque aMapa() {
+            long[] mapa = new long[PALABRAS];
+            for (int k = 0; k < cardinalidad; k++) {
+                mapa[valores[k] >>> 6] |= 1L << valores[k];
+            }
+            return new Bloque(null, mapa, cardinalidad);
+        }
+
+        // Un mapa que quedó con pocos valores vuelve a arreglo
+        private Bloque compactar() {
+            if (palabras == null || cardinalidad > MAXIMO_ARREGLO) {
+                return this;
+            }
+            char[] arreglo = new char[cardinalidad];
+            int[] k = { 0 };
+            recorrer(0, v -> arreglo[k[0]++] = (char) v);
+            return new Bloque(arreglo, null, cardinalidad);
+        }
+    }
+}
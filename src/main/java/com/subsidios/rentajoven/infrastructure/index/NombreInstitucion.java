@@ -0,0 +1,126 @@
+package com.subsidios.rentajoven.infrastructure.index;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Forma canónica de los nombres de institución, para que "Instituto Digital
+ * Global", "INSTITUTO DIGITAL GLOBAL (IDG)" e "Instituto  Digital-Global"
+ * sean el mismo nombre.
+ *
+ * Se quitan tildes y mayúsculas, la puntuación se vuelve un solo espacio y
+ * se descarta lo que va entre paréntesis (siglas). La huella se calcula sin
+ * armar el texto normalizado, así que consultar no reserva memoria.
+ */
+public final class NombreInstitucion {
+
+    // Letra o dígito en mayúscula sin tilde para cada carácter latino, o 0 si es separador
+    private static final char[] PLEGADO = new char[0x250];
+
+    // Sigla al final tras un guion: "... - CEMIL", "...-CESA-", "... - IES CINOC"
+    private static final Pattern SIGLA_FINAL = Pattern.compile("^(.*?\\S)\\s*-\\s*([^-\\s]+(?:\\s[^-\\s]+)?)\\s*-?\\s*$");
+    private static final int LARGO_MAXIMO_SIGLA = 15;
+    private static final int PALABRAS_MINIMAS_BASE = 3;
+
+    private static final long FNV_BASE = 0xcbf29ce484222325L;
+    private static final long FNV_PRIMO = 0x100000001b3L;
+
+    static {
+        for (char c = 0; c < PLEGADO.length; c++) {
+            char base = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD).charAt(0);
+            PLEGADO[c] = Character.isLetterOrDigit(base) ? Character.toUpperCase(base) : 0;
+        }
+    }
+
+    private NombreInstitucion() {
+    }
+
+    /**
+     * Huella (>= 0) del nombre normalizado; dos nombres con la misma forma
+     * canónica tienen la misma huella.
+     */
+    public static long huella(String nombre) {
+        return recorrer(nombre, null);
+    }
+
+    /**
+     * Texto normalizado, p. ej. "INSTITUTO DIGITAL GLOBAL".
+     */
+    public static String normalizar(String nombre) {
+        StringBuilder salida = new StringBuilder(nombre.length());
+        recorrer(nombre, salida);
+        return salida.toString();
+    }
+
+    /**
+     * Formas con las que se registra un nombre: la completa y, si termina en
+     * una sigla tras un guion, también la que no la lleva.
+     */
+    public static List<String> variantes(String nombre) {
+        List<String> variantes = new ArrayList<>(2);
+        String completa = normalizar(nombre);
+        if (completa.isEmpty()) {
+            return variantes;
+        }
+        variantes.add(completa);
+        Matcher sigla = SIGLA_FINAL.matcher(nombre.trim());
+        if (sigla.matches() && sigla.group(2).length() <= LARGO_MAXIMO_SIGLA) {
+            String base = normalizar(sigla.group(1));
+            if (base.split(" ").length >= PALABRAS_MINIMAS_BASE && !base.equals(completa)) {
+                variantes.add(base);
+            }
+        }
+        return variantes;
+    }
+
+    private static long recorrer(String nombre, StringBuilder salida) {
+        long hash = FNV_BASE;
+        int parentesis = 0;
+        boolean escrito = false;
+        boolean separador = false;
+        for (int i = 0; i < nombre.length(); i++) {
+            char c = nombre.charAt(i);
+            if (c == '(') {
+                parentesis++;
+                separador = true;
+                continue;
+            }
+            if (c == ')') {
+                parentesis = Math.max(0, parentesis - 1);
+                separador = true;
+                continue;
+            }
+            if (parentesis > 0) {
+                continue;
+            }
+            char plegado = plegar(c);
+            if (plegado == 0) {
+                separador = true;
+                continue;
+            }
+            if (separador && escrito) {
+                hash = (hash ^ ' ') * FNV_PRIMO;
+                if (salida != null) {
+                    salida.append(' ');
+                }
+            }
+            hash = (hash ^ plegado) * FNV_PRIMO;
+            if (salida != null) {
+                salida.append(plegado);
+            }
+            escrito = true;
+            separador = false;
+        }
+        return hash & Long.MAX_VALUE;
+    }
+
+    private static char plegar(char c) {
+        if (c < PLEGADO.length) {
+            return PLEGADO[c];
+        }
+        return Character.isLetterOrDigit(c) ? Character.toUpperCase(c) : 0;
+    }
+}
@@ -0,0 +1,22 @@
+package com.subsidios.rentajoven.infrastructure.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de claves resultante de una búsqueda sobre un índice ordenado.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaClaves {
+    private List<String> claves;
+    private long total;      // Coincidencias totales (no solo las de esta página)
+    private int offset;
+    private int limite;
+}
@@ -0,0 +1,117 @@
+package com.subsidios.rentajoven.infrastructure.index;
+
+import com.subsidios.rentajoven.infrastructure.store.MapaLongInt;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conjunto inmutable de nombres de institución indexado por la huella de su
+ * forma normalizada ({@link NombreInstitucion}). Consultar es O(1) y no
+ * reserva memoria, sin importar cuántos miles de nombres tenga.
+ *
+ * Se usa para el registro de instituciones reconocidas (fuentes SNIES) y
+ * para las listas de exclusión de cada programa.
+ */
+public final class RegistroInstituciones {
+
+    public static final RegistroInstituciones VACIO = new Constructor(false).construir("vacío", 0);
+
+    private final MapaLongInt huellas;
+    private final List<String> nombres;
+    private final int claves;
+    private final String origen;
+    private final long huella;
+    private final LocalDateTime cargado;
+
+    private RegistroInstituciones(MapaLongInt huellas, List<String> nombres, int claves, String origen, long huella) {
+        this.huellas = huellas;
+        this.nombres = List.copyOf(nombres);
+        this.claves = claves;
+        this.origen = origen;
+        this.huella = huella;
+        this.cargado = LocalDateTime.now();
+    }
+
+    public boolean contiene(String nombre) {
+        return nombre != null && huellas.get(NombreInstitucion.huella(nombre)) >= 0;
+    }
+
+    /**
+     * Nombres tal como vinieron en las fuentes, sin repetidos.
+     */
+    public List<String> nombres() {
+        return nombres;
+    }
+
+    public int tamanio() {
+        return nombres.size();
+    }
+
+    /**
+     * Formas normalizadas indexadas (un nombre puede tener más de una).
+     */
+    public int claves() {
+        return claves;
+    }
+
+    public String getOrigen() {
+        return origen;
+    }
+
+    public long getHuella() {
+        return huella;
+    }
+
+    public LocalDateTime getCargado() {
+        return cargado;
+    }
+
+    public static final class Constructor {
+        private final boolean conVariantes;
+        private final Map<Long, String> normalizados = new HashMap<>();
+        private final List<String> nombres = new ArrayList<>();
+
+        /**
+         * @param conVariantes si además del nombre completo se registra el
+         *                     nombre sin la sigla final (ver {@link NombreInstitucion#variantes})
+         */
+        public Constructor(boolean conVariantes) {
+            this.conVariantes = conVariantes;
+        }
+
+        public Constructor agregar(String nombre) {
+            if (nombre == null) {
+                return this;
+            }
+            List<String> formas = conVariantes ? NombreInstitucion.variantes(nombre) : List.of(NombreInstitucion.normalizar(nombre));
+            boolean nuevo = false;
+            for (String forma : formas) {
+                if (forma.isEmpty()) {
+                    continue;
+                }
+                String anterior = normalizados.putIfAbsent(NombreInstitucion.huella(forma), forma);
+                if (anterior == null) {
+                    nuevo = true;
+                } else if (!anterior.equals(forma)) {
+                    throw new IllegalStateException("Colisión de huellas entre '" + anterior + "' y '" + forma + "'");
+                }
+            }
+            if (nuevo) {
+                nombres.add(nombre.trim());
+            }
+            return this;
+        }
+
+        public RegistroInstituciones construir(String origen, long huella) {
+            MapaLongInt huellas = new MapaLongInt(normalizados.size());
+            for (long clave : normalizados.keySet()) {
+                huellas.put(clave, 0);
+            }
+            return new RegistroInstituciones(huellas, nombres, normalizados.size(), origen, huella);
+        }
+    }
+}
@@ -2,10 +2,12 @@ package com.subsidios.rentajoven.infrastructure.persistence;
 
 import com.subsidios.rentajoven.shared.audit.AuditLog;
 import com.subsidios.rentajoven.domain.enums.TipoValidacion;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -20,15 +22,12 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
     // Obtener logs por tipo de validación
     List<AuditLog> findByTipoValidacion(TipoValidacion tipo);
     
-    // Calcular tiempo promedio por tipo de validación
-    @Query("SELECT AVG(a.tiempoEjecucionMs) FROM AuditLog a WHERE a.tipoValidacion = :tipo")
-    Double calcularTiempoPromedioMs(TipoValidacion tipo);
+    // Lote de registros anteriores al plazo de retención, en orden de id
+    List<AuditLog> findByTimestampBeforeOrderByIdAsc(LocalDateTime limite, Limit limit);
     
-    // Contar validaciones exitosas por tipo
-    @Query("SELECT COUNT(a) FROM AuditLog a WHERE a.tipoValidacion = :tipo AND a.exitosa = true")
-    Long contarExitosasPorTipo(TipoValidacion tipo);
-    
-    // Contar validaciones fallidas por tipo
-    @Query("SELECT COUNT(a) FROM AuditLog a WHERE a.tipoValidacion = :tipo AND a.exitosa = false")
-    Long contarFalladasPorTipo(TipoValidacion tipo);
+    // Conteos y tiempos por tipo y resultado en una sola pasada (índice tipo, exitosa, tiempo)
+    @Query("SELECT a.tipoValidacion AS tipo, a.exitosa AS exitosa, COUNT(a) AS total,"
+         + " SUM(a.tiempoEjecucionMs) AS tiempoTotalMs"
+         + " FROM AuditLog a GROUP BY a.tipoValidacion, a.exitosa")
+    List<ResumenValidaciones> resumirPorTipo();
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.subsidios.rentajoven.infrastructure.persistence;
+
+import com.subsidios.rentajoven.shared.audit.InstanciaAuditoria;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositorio de la identidad de la base de auditoría.
+ */
+@Repository
+public interface InstanciaAuditoriaRepository extends JpaRepository<InstanciaAuditoria, String> {
+}
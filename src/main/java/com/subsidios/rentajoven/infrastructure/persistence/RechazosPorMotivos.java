@@ -0,0 +1,12 @@
+package com.subsidios.rentajoven.infrastructure.persistence;
+
+/**
+ * Proyección con el número de solicitudes rechazadas por cada combinación
+ * de motivos (máscara de MotivoRechazo#bit()).
+ */
+public interface RechazosPorMotivos {
+
+    Integer getMotivos();
+
+    long getTotal();
+}
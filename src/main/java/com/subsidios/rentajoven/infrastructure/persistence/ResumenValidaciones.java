@@ -0,0 +1,18 @@
+package com.subsidios.rentajoven.infrastructure.persistence;
+
+import com.subsidios.rentajoven.domain.enums.TipoValidacion;
+
+/**
+ * Proyección con los totales de auditoría por tipo de validación y
+ * resultado: no carga entidades.
+ */
+public interface ResumenValidaciones {
+
+    TipoValidacion getTipo();
+
+    Boolean getExitosa();
+
+    long getTotal();
+
+    Long getTiempoTotalMs();
+}
@@ -1,19 +1,30 @@
 package com.subsidios.rentajoven.infrastructure.persistence;
 
+import com.subsidios.rentajoven.domain.model.FiltroSolicitudes;
 import com.subsidios.rentajoven.domain.model.Solicitud;
 import com.subsidios.rentajoven.domain.enums.EstadoSolicitud;
+import jakarta.persistence.QueryHint;
+import jakarta.persistence.criteria.Predicate;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repositorio para gestionar solicitudes de subsidio.
  */
 @Repository
-public interface SolicitudRepository extends JpaRepository<Solicitud, Long> {
+public interface SolicitudRepository extends JpaRepository<Solicitud, Long>, JpaSpecificationExecutor<Solicitud> {
     
     // Buscar solicitudes por estado
     List<Solicitud> findByEstado(EstadoSolicitud estado);
@@ -21,24 +32,70 @@ public interface SolicitudRepository extends JpaRepository<Solicitud, Long> {
     // Buscar por cédula
     List<Solicitud> findByCedula(String cedula);
     
-    // Solicitudes aprobadas
-    List<Solicitud> findByAprobadaTrue();
-    
-    // Solicitudes rechazadas
-    List<Solicitud> findByAprobadaFalse();
+    String FILTROS = " (:aprobada IS NULL OR s.aprobada = :aprobada)"
+        + " AND (:estado IS NULL OR s.estado = :estado)"
+        + " AND (:desde IS NULL OR s.fechaSolicitud >= :desde)"
+        + " AND (:hasta IS NULL OR s.fechaSolicitud < :hasta)"
+        + " AND (:cedula IS NULL OR s.cedula = :cedula)";
+
+    // Página por keyset: las siguientes al id dado, sin OFFSET ni conteo
+    default List<Solicitud> buscarDespuesDe(long despues, FiltroSolicitudes filtro, int limite) {
+        return findBy(despuesDe(despues, filtro),
+            consulta -> consulta.sortBy(Sort.by("id")).limit(limite).all());
+    }
+
+    /**
+     * Solo incluye las condiciones de los filtros presentes, para que la base
+     * pueda usar el índice del filtro (que termina en id).
+     */
+    static Specification<Solicitud> despuesDe(long despues, FiltroSolicitudes filtro) {
+        return (raiz, consulta, cb) -> {
+            List<Predicate> condiciones = new ArrayList<>();
+            condiciones.add(cb.greaterThan(raiz.get("id"), despues));
+            if (filtro.getAprobada() != null) {
+                condiciones.add(cb.equal(raiz.get("aprobada"), filtro.getAprobada()));
+            }
+            if (filtro.getEstado() != null) {
+                condiciones.add(cb.equal(raiz.get("estado"), filtro.getEstado()));
+            }
+            if (filtro.getDesde() != null) {
+                condiciones.add(cb.greaterThanOrEqualTo(raiz.get("fechaSolicitud"), filtro.getDesde()));
+            }
+            if (filtro.getHasta() != null) {
+                condiciones.add(cb.lessThan(raiz.get("fechaSolicitud"), filtro.getHasta()));
+            }
+            if (filtro.getCedula() != null) {
+                condiciones.add(cb.equal(raiz.get("cedula"), filtro.getCedula()));
+            }
+            return cb.and(condiciones.toArray(new Predicate[0]));
+        };
+    }
+
+    // Recorrido con cursor para exportar; se debe consumir dentro de una transacción y cerrar
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s FROM Solicitud s WHERE" + FILTROS + " ORDER BY s.id")
+    Stream<Solicitud> recorrer(@Param("aprobada") Boolean aprobada,
+                               @Param("estado") EstadoSolicitud estado,
+                               @Param("desde") LocalDateTime desde,
+                               @Param("hasta") LocalDateTime hasta,
+                               @Param("cedula") String cedula);
     
     // Solicitudes en un rango de fechas
     List<Solicitud> findByFechaSolicitudBetween(LocalDateTime inicio, LocalDateTime fin);
     
-    // Contar solicitudes aprobadas
-    @Query("SELECT COUNT(s) FROM Solicitud s WHERE s.aprobada = true")
-    Long contarAprobadas();
-    
-    // Contar solicitudes rechazadas
-    @Query("SELECT COUNT(s) FROM Solicitud s WHERE s.aprobada = false")
-    Long contarRechazadas();
+    // Totales y tiempos por resultado en una sola pasada (índice aprobada, tiempo)
+    @Query("SELECT s.aprobada AS aprobada, COUNT(s) AS total, COUNT(s.tiempoProcesamientoMs) AS conTiempo,"
+         + " SUM(s.tiempoProcesamientoMs) AS tiempoTotalMs, MIN(s.tiempoProcesamientoMs) AS tiempoMinimoMs,"
+         + " MAX(s.tiempoProcesamientoMs) AS tiempoMaximoMs"
+         + " FROM Solicitud s GROUP BY s.aprobada")
+    List<TiemposSolicitudes> resumirPorResultado();
     
-    // Calcular tiempo promedio de procesamiento
-    @Query("SELECT AVG(s.tiempoProcesamientoMs) FROM Solicitud s WHERE s.tiempoProcesamientoMs IS NOT NULL")
-    Double calcularTiempoPromedioMs();
+    // Rechazadas por combinación de motivos (índice motivos, aprobada); hay pocas
+    // combinaciones distintas, así que el desglose por motivo se hace sobre este resultado
+    @Query("SELECT s.motivosRechazo AS motivos, COUNT(s) AS total FROM Solicitud s"
+         + " WHERE s.aprobada = false GROUP BY s.motivosRechazo")
+    List<RechazosPorMotivos> contarRechazosPorMotivos();
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.subsidios.rentajoven.infrastructure.persistence;
+
+import com.subsidios.rentajoven.shared.audit.TextoAuditoria;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repositorio del diccionario de textos de auditoría.
+ */
+@Repository
+public interface TextoAuditoriaRepository extends JpaRepository<TextoAuditoria, Integer> {
+
+    Optional<TextoAuditoria> findByTexto(String texto);
+}
@@ -0,0 +1,21 @@
+package com.subsidios.rentajoven.infrastructure.persistence;
+
+/**
+ * Proyección con los totales de solicitudes de un mismo resultado
+ * (aprobada true/false/null): no carga entidades.
+ */
+public interface TiemposSolicitudes {
+
+    Boolean getAprobada();
+
+    long getTotal();
+
+    // Solicitudes con tiempo de procesamiento registrado
+    long getConTiempo();
+
+    Long getTiempoTotalMs();
+
+    Long getTiempoMinimoMs();
+
+    Long getTiempoMaximoMs();
+}
@@ -0,0 +1,23 @@
+package com.subsidios.rentajoven.infrastructure.snapshot;
+
+import com.subsidios.rentajoven.infrastructure.store.AlmacenMEN;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSISBEN;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSNIES;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Conjunto de datos de referencia de las tres fuentes, tal como se entrega
+ * a los simuladores.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DatosReferencia {
+    private AlmacenSISBEN sisben;
+    private AlmacenSNIES snies;
+    private AlmacenMEN men;
+}
@@ -0,0 +1,365 @@
+package com.subsidios.rentajoven.infrastructure.snapshot;
+
+import com.subsidios.rentajoven.domain.enums.NivelSISBEN;
+import com.subsidios.rentajoven.domain.model.MENResponse;
+import com.subsidios.rentajoven.domain.model.SISBENResponse;
+import com.subsidios.rentajoven.domain.model.SNIESResponse;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenMEN;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSISBEN;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSNIES;
+import com.subsidios.rentajoven.infrastructure.store.DiccionarioCadenas;
+import com.subsidios.rentajoven.infrastructure.store.FabricaAlmacenes;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Snapshot binario de los datos de referencia (SISBEN, SNIES, MEN).
+ *
+ * Formato (big-endian):
+ * <pre>
+ * CABECERA (64 bytes)
+ *   int   magic         'RJSN'
+ *   int   version
+ *   long  huella        huella de los CSV de origen
+ *   long  crc32         CRC32 del cuerpo
+ *   long  longitud      bytes del cuerpo
+ *   long  offDiccionario, offSisben, offSnies, offMen   (relativos al cuerpo)
+ * CUERPO
+ *   diccionario: int n, n x cadena
+ *   sisben:      int n, n x (cadena cedula, byte nivel, double puntaje, int depto, int municipio)
+ *   snies:       int n, n x (cadena cedula, int programa, int institucion, int tipoTitulo)
+ *   men:         int n, n x (cadena matricula, cadena cedula, int institucion, int programa,
+ *                            int estado, int intensidad)
+ * </pre>
+ * Las cadenas repetidas (departamento, municipio, institución, programa, estado,
+ * tipo de título) se codifican como ids del diccionario; las claves únicas se
+ * guardan en línea como UTF-8 con longitud. El archivo se lee mapeado en memoria
+ * por secciones y las tres fuentes se decodifican en paralelo.
+ */
+public final class SnapshotDatos {
+
+    public static final int MAGIC = 0x524A534E; // "RJSN"
+    public static final int VERSION = 1;
+
+    private static final int TAMANIO_CABECERA = 64;
+    private static final int SIN_VALOR = -1;
+
+    private SnapshotDatos() {
+    }
+
+    // ===================================================================
+    // ESCRITURA
+    // ===================================================================
+
+    /**
+     * Escribe el snapshot de forma atómica (archivo temporal + rename).
+     * Las secciones se escriben en streaming; la cabecera (offsets y CRC) se
+     * completa al final, sin materializar el archivo en memoria.
+     */
+    public static void escribir(Path destino, long huella, DatosReferencia datos) throws IOException {
+        DiccionarioCadenas diccionario = new DiccionarioCadenas();
+        datos.getSisben().recorrer((cedula, r) -> {
+            diccionario.id(r.getDepartamento());
+            diccionario.id(r.getMunicipio());
+        });
+        datos.getSnies().recorrer((cedula, r) -> {
+            diccionario.id(r.getPrograma());
+            diccionario.id(r.getInstitucion());
+            diccionario.id(r.getTipoTitulo());
+        });
+        datos.getMen().recorrer((matriculaId, r) -> {
+            diccionario.id(r.getInstitucion());
+            diccionario.id(r.getPrograma());
+            diccionario.id(r.getEstado());
+        });
+
+        Files.createDirectories(destino.toAbsolutePath().getParent());
+        Path temporal = destino.resolveSibling(destino.getFileName() + ".tmp");
+        long[] offsets = new long[4];
+        CRC32 crc = new CRC32();
+        long longitud;
+
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            canal.position(TAMANIO_CABECERA);
+            SalidaContada contador = new SalidaContada(
+                new CheckedOutputStream(Channels.newOutputStream(canal), crc));
+            DataOutputStream salida = new DataOutputStream(new BufferedOutputStream(contador, 1 << 16));
+
+            offsets[0] = 0;
+            salida.writeInt(diccionario.tamanio());
+            for (String valor : diccionario.valores()) {
+                escribirCadena(salida, valor);
+            }
+
+            salida.flush();
+            offsets[1] = contador.bytes;
+            salida.writeInt(datos.getSisben().tamanio());
+            recorrer(datos.getSisben()::recorrer, (cedula, r) -> {
+                escribirCadena(salida, cedula);
+                salida.writeByte(r.getNivel() != null ? r.getNivel().ordinal() : SIN_VALOR);
+                salida.writeDouble(r.getPuntaje() != null ? r.getPuntaje() : Double.NaN);
+                salida.writeInt(diccionario.id(r.getDepartamento()));
+                salida.writeInt(diccionario.id(r.getMunicipio()));
+            });
+
+            salida.flush();
+            offsets[2] = contador.bytes;
+            salida.writeInt(datos.getSnies().tamanio());
+            recorrer(datos.getSnies()::recorrer, (cedula, r) -> {
+                escribirCadena(salida, cedula);
+                salida.writeInt(diccionario.id(r.getPrograma()));
+                salida.writeInt(diccionario.id(r.getInstitucion()));
+                salida.writeInt(diccionario.id(r.getTipoTitulo()));
+            });
+
+            salida.flush();
+            offsets[3] = contador.bytes;
+            salida.writeInt(datos.getMen().tamanio());
+            recorrer(datos.getMen()::recorrer, (matriculaId, r) -> {
+                escribirCadena(salida, matriculaId);
+                escribirCadena(salida, r.getCedula());
+                salida.writeInt(diccionario.id(r.getInstitucion()));
+                salida.writeInt(diccionario.id(r.getPrograma()));
+                salida.writeInt(diccionario.id(r.getEstado()));
+                salida.writeInt(r.getIntensidadHoraria() != null ? r.getIntensidadHoraria() : SIN_VALOR);
+            });
+
+            salida.flush();
+            longitud = contador.bytes;
+
+            ByteBuffer cabecera = ByteBuffer.allocate(TAMANIO_CABECERA);
+            cabecera.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putLong(huella)
+                    .putLong(crc.getValue())
+                    .putLong(longitud)
+                    .putLong(offsets[0])
+                    .putLong(offsets[1])
+                    .putLong(offsets[2])
+                    .putLong(offsets[3])
+                    .flip();
+            canal.write(cabecera, 0);
+            canal.force(true);
+        }
+        Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // ===================================================================
+    // LECTURA
+    // ===================================================================
+
+    /**
+     * Lee el snapshot si existe, es de esta versión, corresponde a la huella
+     * de los CSV actuales y su checksum es válido. Los registros se cargan en
+     * almacenes del backend indicado por la fábrica.
+     *
+     * @return los datos, o null si el snapshot no es utilizable
+     */
+    public static DatosReferencia leer(Path origen, long huellaEsperada, FabricaAlmacenes fabrica)
+            throws IOException {
+        if (!Files.isRegularFile(origen) || Files.size(origen) < TAMANIO_CABECERA) {
+            return null;
+        }
+
+        try (FileChannel canal = FileChannel.open(origen, StandardOpenOption.READ)) {
+            ByteBuffer cabecera = canal.map(FileChannel.MapMode.READ_ONLY, 0, TAMANIO_CABECERA);
+
+            if (cabecera.getInt() != MAGIC || cabecera.getInt() != VERSION || cabecera.getLong() != huellaEsperada) {
+                return null;
+            }
+            long crcEsperado = cabecera.getLong();
+            long longitud = cabecera.getLong();
+            long[] offsets = { cabecera.getLong(), cabecera.getLong(), cabecera.getLong(), cabecera.getLong(), longitud };
+
+            if (TAMANIO_CABECERA + longitud != canal.size()) {
+                return null;
+            }
+
+            // Cada sección se mapea por separado (un MappedByteBuffer admite hasta 2 GB)
+            MappedByteBuffer[] secciones = new MappedByteBuffer[4];
+            CRC32 crc = new CRC32();
+            for (int i = 0; i < secciones.length; i++) {
+                secciones[i] = canal.map(FileChannel.MapMode.READ_ONLY,
+                    TAMANIO_CABECERA + offsets[i], offsets[i + 1] - offsets[i]);
+                crc.update(secciones[i].duplicate());
+            }
+            if (crc.getValue() != crcEsperado) {
+                return null;
+            }
+
+            String[] diccionario = leerDiccionario(secciones[0]);
+
+            CompletableFuture<AlmacenSISBEN> sisben =
+                CompletableFuture.supplyAsync(() -> leerSISBEN(secciones[1], diccionario, fabrica));
+            CompletableFuture<AlmacenSNIES> snies =
+                CompletableFuture.supplyAsync(() -> leerSNIES(secciones[2], diccionario, fabrica));
+            CompletableFuture<AlmacenMEN> men =
+                CompletableFuture.supplyAsync(() -> leerMEN(secciones[3], diccionario, fabrica));
+
+            return DatosReferencia.builder()
+                    .sisben(sisben.join())
+                    .snies(snies.join())
+                    .men(men.join())
+                    .build();
+        }
+    }
+
+    private static String[] leerDiccionario(ByteBuffer buffer) {
+        String[] valores = new String[buffer.getInt()];
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = leerCadena(buffer);
+        }
+        return valores;
+    }
+
+    private static AlmacenSISBEN leerSISBEN(ByteBuffer buffer, String[] dic, FabricaAlmacenes fabrica) {
+        NivelSISBEN[] niveles = NivelSISBEN.values();
+        int n = buffer.getInt();
+        AlmacenSISBEN.Constructor datos = fabrica.sisben(n);
+        for (int i = 0; i < n; i++) {
+            String cedula = leerCadena(buffer);
+            byte nivel = buffer.get();
+            double puntaje = buffer.getDouble();
+            datos.agregar(cedula, SISBENResponse.builder()
+                    .nivel(nivel >= 0 ? niveles[nivel] : null)
+                    .puntaje(Double.isNaN(puntaje) ? null : puntaje)
+                    .departamento(valor(dic, buffer.getInt()))
+                    .municipio(valor(dic, buffer.getInt()))
+                    .encontrado(true)
+                    .build());
+        }
+        return datos.construir();
+    }
+
+    private static AlmacenSNIES leerSNIES(ByteBuffer buffer, String[] dic, FabricaAlmacenes fabrica) {
+        int n = buffer.getInt();
+        AlmacenSNIES.Constructor datos = fabrica.snies(n);
+        for (int i = 0; i < n; i++) {
+            String cedula = leerCadena(buffer);
+            datos.agregar(cedula, SNIESResponse.builder()
+                    .tieneTitulo(true)
+                    .programa(valor(dic, buffer.getInt()))
+                    .institucion(valor(dic, buffer.getInt()))
+                    .tipoTitulo(valor(dic, buffer.getInt()))
+                    .build());
+        }
+        return datos.construir();
+    }
+
+    private static AlmacenMEN leerMEN(ByteBuffer buffer, String[] dic, FabricaAlmacenes fabrica) {
+        int n = buffer.getInt();
+        AlmacenMEN.Constructor datos = fabrica.men(n);
+        for (int i = 0; i < n; i++) {
+            String matriculaId = leerCadena(buffer);
+            String cedula = leerCadena(buffer);
+            String institucion = valor(dic, buffer.getInt());
+            String programa = valor(dic, buffer.getInt());
+            String estado = valor(dic, buffer.getInt());
+            int intensidad = buffer.getInt();
+            datos.agregar(matriculaId, MENResponse.builder()
+                    .matriculaId(matriculaId)
+                    .cedula(cedula)
+                    .institucion(institucion)
+                    .programa(programa)
+                    .estado(estado)
+                    .intensidadHoraria(intensidad != SIN_VALOR ? intensidad : null)
+                    .encontrada(true)
+                    .build());
+        }
+        return datos.construir();
+    }
+
+    // ===================================================================
+    // UTILIDADES
+    // ===================================================================
+
+    private static void escribirCadena(DataOutputStream salida, String valor) throws IOException {
+        if (valor == null) {
+            salida.writeInt(SIN_VALOR);
+            return;
+        }
+        byte[] utf8 = valor.getBytes(StandardCharsets.UTF_8);
+        salida.writeInt(utf8.length);
+        salida.write(utf8);
+    }
+
+    private static String leerCadena(ByteBuffer buffer) {
+        int longitud = buffer.getInt();
+        if (longitud == SIN_VALOR) {
+            return null;
+        }
+        byte[] utf8 = new byte[longitud];
+        buffer.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static String valor(String[] diccionario, int id) {
+        return id == SIN_VALOR ? null : diccionario[id];
+    }
+
+    @FunctionalInterface
+    private interface Escritura<T> {
+        void escribir(String clave, T registro) throws IOException;
+    }
+
+    /**
+     * Adapta un recorrido de almacén a una escritura que puede lanzar IOException.
+     */
+    private static <T> void recorrer(Consumer<BiConsumer<String, T>> recorrido, Escritura<T> escritura)
+            throws IOException {
+        try {
+            recorrido.accept((clave, registro) -> {
+                try {
+                    escritura.escribir(clave, registro);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Cuenta los bytes escritos para calcular los offsets de cada sección.
+     */
+    private static final class SalidaContada extends FilterOutputStream {
+        private long bytes;
+
+        SalidaContada(OutputStream salida) {
+            super(salida);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            bytes += len;
+        }
+    }
+}
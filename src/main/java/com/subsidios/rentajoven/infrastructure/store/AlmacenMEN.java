@@ -0,0 +1,65 @@
+package com.subsidios.rentajoven.infrastructure.store;
+
+import com.subsidios.rentajoven.domain.model.MENResponse;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Matrículas MEN indexadas por ID de matrícula.
+ *
+ * Implementaciones: {@link AlmacenMENMemoria} y {@link AlmacenMENMapeado}.
+ */
+public interface AlmacenMEN {
+
+    AlmacenMEN VACIO = new AlmacenMENMemoria.Constructor(0).construir();
+
+    static AlmacenMEN desde(Map<String, MENResponse> datos) {
+        AlmacenMEN.Constructor constructor = new AlmacenMENMemoria.Constructor(datos.size());
+        datos.forEach(constructor::agregar);
+        return constructor.construir();
+    }
+
+    /**
+     * @return la matrícula materializada, o null si no existe
+     */
+    MENResponse buscar(String matriculaId);
+
+    boolean contiene(String matriculaId);
+
+    /**
+     * @return la posición del registro, o -1 si la matrícula no existe
+     */
+    int posicion(String matriculaId);
+
+    String cedula(int pos);
+
+    String estado(int pos);
+
+    String institucion(int pos);
+
+    String programa(int pos);
+
+    /**
+     * @return la intensidad horaria, o {@link Integer#MIN_VALUE} si no hay dato
+     */
+    int intensidad(int pos);
+
+    int tamanio();
+
+    List<String> claves();
+
+    void recorrer(BiConsumer<String, MENResponse> consumidor);
+
+    /**
+     * Bytes aproximados de heap ocupados por el almacén.
+     */
+    long bytesEstimados();
+
+    interface Constructor {
+        void agregar(String matriculaId, MENResponse registro);
+
+        AlmacenMEN construir();
+    }
+}
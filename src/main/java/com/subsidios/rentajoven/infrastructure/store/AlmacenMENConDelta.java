@@ -0,0 +1,166 @@
+package com.subsidios.rentajoven.infrastructure.store;
+
+import com.subsidios.rentajoven.domain.model.MENResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Almacén MEN base + {@link CapaDelta} de cambios incrementales. Las
+ * posiciones de la capa se desplazan en {@link AlmacenSISBENConDelta#BASE_DELTA}.
+ */
+public final class AlmacenMENConDelta implements AlmacenMEN {
+
+    private static final int BASE_DELTA = AlmacenSISBENConDelta.BASE_DELTA;
+    private static final int SIN_INTENSIDAD = Integer.MIN_VALUE;
+
+    private final AlmacenMEN base;
+    private final CapaDelta<MENResponse> delta;
+    private final int tamanio;
+
+    private AlmacenMENConDelta(AlmacenMEN base, CapaDelta<MENResponse> delta) {
+        this.base = base;
+        this.delta = delta;
+        int[] tamanio = { base.tamanio() };
+        delta.recorrer((matriculaId, r) -> {
+            boolean enBase = base.contiene(matriculaId);
+            if (r != null && !enBase) {
+                tamanio[0]++;
+            } else if (r == null && enBase) {
+                tamanio[0]--;
+            }
+        });
+        this.tamanio = tamanio[0];
+    }
+
+    private AlmacenMENConDelta(AlmacenMEN base, CapaDelta<MENResponse> delta, int tamanio) {
+        this.base = base;
+        this.delta = delta;
+        this.tamanio = tamanio;
+    }
+
+    /**
+     * @param cambios matrícula -> registro nuevo, o null para borrar
+     */
+    public static AlmacenMEN aplicar(AlmacenMEN actual, Map<String, MENResponse> cambios) {
+        if (cambios.isEmpty()) {
+            return actual;
+        }
+        if (actual instanceof AlmacenMENConDelta) {
+            AlmacenMENConDelta conDelta = (AlmacenMENConDelta) actual;
+            // El tamaño solo cambia por las claves del lote, no se recorre la capa
+            int tamanio = conDelta.tamanio;
+            for (Map.Entry<String, MENResponse> cambio : cambios.entrySet()) {
+                boolean antes = conDelta.contiene(cambio.getKey());
+                if (cambio.getValue() != null && !antes) {
+                    tamanio++;
+                } else if (cambio.getValue() == null && antes) {
+                    tamanio--;
+                }
+            }
+            return new AlmacenMENConDelta(conDelta.base, conDelta.delta.aplicar(cambios), tamanio);
+        }
+        return new AlmacenMENConDelta(actual, CapaDelta.<MENResponse>vacia().aplicar(cambios));
+    }
+
+    public AlmacenMEN compactar(AlmacenMEN.Constructor constructor) {
+        recorrer(constructor::agregar);
+        return constructor.construir();
+    }
+
+    public AlmacenMEN rebasar(AlmacenMEN nuevaBase, CapaDelta<MENResponse> compactada) {
+        CapaDelta<MENResponse> restante = delta.sinCompactadas(compactada);
+        return restante.estaVacia() ? nuevaBase : new AlmacenMENConDelta(nuevaBase, restante);
+    }
+
+    public AlmacenMEN getBase() {
+        return base;
+    }
+
+    public CapaDelta<MENResponse> getDelta() {
+        return delta;
+    }
+
+    @Override
+    public MENResponse buscar(String matriculaId) {
+        int i = delta.posicion(matriculaId);
+        return i >= 0 ? delta.valor(i) : base.buscar(matriculaId);
+    }
+
+    @Override
+    public boolean contiene(String matriculaId) {
+        int i = delta.posicion(matriculaId);
+        return i >= 0 ? delta.valor(i) != null : base.contiene(matriculaId);
+    }
+
+    @Override
+    public int posicion(String matriculaId) {
+        int i = delta.posicion(matriculaId);
+        if (i >= 0) {
+            return delta.valor(i) != null ? BASE_DELTA + i : -1;
+        }
+        return base.posicion(matriculaId);
+    }
+
+    @Override
+    public String cedula(int pos) {
+        return pos >= BASE_DELTA ? delta.valor(pos - BASE_DELTA).getCedula() : base.cedula(pos);
+    }
+
+    @Override
+    public String estado(int pos) {
+        return pos >= BASE_DELTA ? delta.valor(pos - BASE_DELTA).getEstado() : base.estado(pos);
+    }
+
+    @Override
+    public String institucion(int pos) {
+        return pos >= BASE_DELTA ? delta.valor(pos - BASE_DELTA).getInstitucion() : base.institucion(pos);
+    }
+
+    @Override
+    public String programa(int pos) {
+        return pos >= BASE_DELTA ? delta.valor(pos - BASE_DELTA).getPrograma() : base.programa(pos);
+    }
+
+    @Override
+    public int intensidad(int pos) {
+        if (pos >= BASE_DELTA) {
+            Integer intensidad = delta.valor(pos - BASE_DELTA).getIntensidadHoraria();
+            return intensidad != null ? intensidad : SIN_INTENSIDAD;
+        }
+        return base.intensidad(pos);
+    }
+
+    @Override
+    public int tamanio() {
+        return tamanio;
+    }
+
+    @Override
+    public List<String> claves() {
+        List<String> claves = new ArrayList<>(tamanio);
+        recorrer((matriculaId, r) -> claves.add(matriculaId));
+        return claves;
+    }
+
+    @Override
+    public void recorrer(BiConsumer<String, MENResponse> consumidor) {
+        base.recorrer((matriculaId, r) -> {
+            if (!delta.contiene(matriculaId)) {
+                consumidor.accept(matriculaId, r);
+            }
+        });
+        delta.recorrer((matriculaId, r) -> {
+            if (r != null) {
+                consumidor.accept(matriculaId, r);
+            }
+        });
+    }
+
+    @Override
+    public long bytesEstimados() {
+        return base.bytesEstimados() + delta.bytesEstimados();
+    }
+}
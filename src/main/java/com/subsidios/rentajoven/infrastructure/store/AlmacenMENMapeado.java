@@ -0,0 +1,144 @@
+package com.subsidios.rentajoven.infrastructure.store;
+
+import com.subsidios.rentajoven.domain.model.MENResponse;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Almacén MEN fuera del heap (ver {@link ArchivoRegistros}). Las cédulas no
+ * canónicas, que en los datos reales no aparecen, se guardan en heap.
+ */
+public final class AlmacenMENMapeado implements AlmacenMEN {
+
+    private static final int SIN_INTENSIDAD = Integer.MIN_VALUE;
+
+    private static final int CEDULA = 0;
+    private static final int INSTITUCION = 1;
+    private static final int PROGRAMA = 2;
+    private static final int ESTADO = 3;
+    private static final int INTENSIDAD = 4;
+
+    private final ArchivoRegistros archivo;
+    private final DiccionarioCadenas diccionario;
+    private final Map<Integer, String> cedulasNoCanonicas;
+
+    private AlmacenMENMapeado(ArchivoRegistros archivo, DiccionarioCadenas diccionario,
+                              Map<Integer, String> cedulasNoCanonicas) {
+        this.archivo = archivo;
+        this.diccionario = diccionario;
+        this.cedulasNoCanonicas = cedulasNoCanonicas;
+    }
+
+    @Override
+    public MENResponse buscar(String matriculaId) {
+        int pos = archivo.posicion(matriculaId);
+        return pos < 0 ? null : materializar(matriculaId, pos);
+    }
+
+    @Override
+    public boolean contiene(String matriculaId) {
+        return archivo.posicion(matriculaId) >= 0;
+    }
+
+    @Override
+    public int posicion(String matriculaId) {
+        return archivo.posicion(matriculaId);
+    }
+
+    @Override
+    public String cedula(int pos) {
+        long cedula = archivo.columnaLong(CEDULA, pos);
+        return cedula >= 0 ? IndiceClaves.CEDULA.decodificar(cedula) : cedulasNoCanonicas.get(pos);
+    }
+
+    @Override
+    public String estado(int pos) {
+        return diccionario.valor(archivo.columnaInt(ESTADO, pos));
+    }
+
+    @Override
+    public String institucion(int pos) {
+        return diccionario.valor(archivo.columnaInt(INSTITUCION, pos));
+    }
+
+    @Override
+    public String programa(int pos) {
+        return diccionario.valor(archivo.columnaInt(PROGRAMA, pos));
+    }
+
+    @Override
+    public int intensidad(int pos) {
+        return archivo.columnaInt(INTENSIDAD, pos);
+    }
+
+    @Override
+    public int tamanio() {
+        return archivo.tamanio();
+    }
+
+    @Override
+    public List<String> claves() {
+        return archivo.claves();
+    }
+
+    @Override
+    public void recorrer(BiConsumer<String, MENResponse> consumidor) {
+        archivo.recorrer((matriculaId, pos) -> consumidor.accept(matriculaId, materializar(matriculaId, pos)));
+    }
+
+    @Override
+    public long bytesEstimados() {
+        return archivo.bytesEstimados() + cedulasNoCanonicas.size() * 64L + diccionario.tamanio() * 64L;
+    }
+
+    public long bytesMapeados() {
+        return archivo.bytesMapeados();
+    }
+
+    private MENResponse materializar(String matriculaId, int pos) {
+        int intensidad = intensidad(pos);
+        return MENResponse.builder()
+                .matriculaId(matriculaId)
+                .cedula(cedula(pos))
+                .institucion(institucion(pos))
+                .programa(programa(pos))
+                .estado(estado(pos))
+                .intensidadHoraria(intensidad == SIN_INTENSIDAD ? null : intensidad)
+                .encontrada(true)
+                .build();
+    }
+
+    public static final class Constructor implements AlmacenMEN.Constructor {
+        private final ArchivoRegistros.Escritor escritor;
+        private final DiccionarioCadenas diccionario = new DiccionarioCadenas();
+        private final Map<Integer, String> cedulasNoCanonicas = new HashMap<>();
+
+        public Constructor(Path directorio) {
+            this.escritor = new ArchivoRegistros.Escritor(directorio, "men", IndiceClaves.MATRICULA,
+                Long.BYTES, Integer.BYTES, Integer.BYTES, Integer.BYTES, Integer.BYTES);
+        }
+
+        @Override
+        public void agregar(String matriculaId, MENResponse r) {
+            int pos = escritor.nuevoRegistro(matriculaId);
+            long cedula = IndiceClaves.CEDULA.codificar(r.getCedula());
+            if (cedula < 0 && r.getCedula() != null) {
+                cedulasNoCanonicas.put(pos, r.getCedula());
+            }
+            escritor.escribirLong(CEDULA, cedula);
+            escritor.escribirInt(INSTITUCION, diccionario.id(r.getInstitucion()));
+            escritor.escribirInt(PROGRAMA, diccionario.id(r.getPrograma()));
+            escritor.escribirInt(ESTADO, diccionario.id(r.getEstado()));
+            escritor.escribirInt(INTENSIDAD, r.getIntensidadHoraria() != null ? r.getIntensidadHoraria() : SIN_INTENSIDAD);
+        }
+
+        @Override
+        public AlmacenMEN construir() {
+            return new AlmacenMENMapeado(escritor.construir(), diccionario, cedulasNoCanonicas);
+        }
+    }
+}
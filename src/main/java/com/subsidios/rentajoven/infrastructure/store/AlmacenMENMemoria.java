@@ -0,0 +1,180 @@
+package com.subsidios.rentajoven.infrastructure.store;
+
+import com.subsidios.rentajoven.domain.model.MENResponse;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Almacén compacto en heap de matrículas MEN (matrícula -> registro).
+ *
+ * Los IDs MAT-NNNNNNNN y las cédulas se guardan como long; institución,
+ * programa y estado en diccionario; la intensidad horaria como int
+ * ({@link Integer#MIN_VALUE} = sin dato).
+ */
+public final class AlmacenMENMemoria implements AlmacenMEN {
+
+    private static final int SIN_INTENSIDAD = Integer.MIN_VALUE;
+
+    private final IndiceClaves claves;
+    private final DiccionarioCadenas diccionario;
+    private final long[] cedula;
+    private final Map<Integer, String> cedulasNoCanonicas;
+    private final int[] institucion;
+    private final int[] programa;
+    private final int[] estado;
+    private final int[] intensidad;
+    private final int tamanio;
+
+    private AlmacenMENMemoria(Constructor c) {
+        this.claves = c.claves;
+        this.diccionario = c.diccionario;
+        this.cedula = Arrays.copyOf(c.cedula, c.tamanio);
+        this.cedulasNoCanonicas = c.cedulasNoCanonicas;
+        this.institucion = Arrays.copyOf(c.institucion, c.tamanio);
+        this.programa = Arrays.copyOf(c.programa, c.tamanio);
+        this.estado = Arrays.copyOf(c.estado, c.tamanio);
+        this.intensidad = Arrays.copyOf(c.intensidad, c.tamanio);
+        this.tamanio = c.tamanio;
+    }
+
+    /**
+     * @return la matrícula materializada, o null si no existe
+     */
+    @Override
+    public MENResponse buscar(String matriculaId) {
+        int pos = claves.posicion(matriculaId);
+        return pos < 0 ? null : materializar(matriculaId, pos);
+    }
+
+    @Override
+    public boolean contiene(String matriculaId) {
+        return claves.posicion(matriculaId) >= 0;
+    }
+
+    @Override
+    public int posicion(String matriculaId) {
+        return claves.posicion(matriculaId);
+    }
+
+    @Override
+    public String cedula(int pos) {
+        return cedula[pos] >= 0 ? IndiceClaves.CEDULA.decodificar(cedula[pos]) : cedulasNoCanonicas.get(pos);
+    }
+
+    @Override
+    public String estado(int pos) {
+        return diccionario.valor(estado[pos]);
+    }
+
+    @Override
+    public String institucion(int pos) {
+        return diccionario.valor(institucion[pos]);
+    }
+
+    @Override
+    public String programa(int pos) {
+        return diccionario.valor(programa[pos]);
+    }
+
+    @Override
+    public int intensidad(int pos) {
+        return intensidad[pos];
+    }
+
+    @Override
+    public int tamanio() {
+        return tamanio;
+    }
+
+    @Override
+    public List<String> claves() {
+        return claves.claves();
+    }
+
+    @Override
+    public void recorrer(BiConsumer<String, MENResponse> consumidor) {
+        claves.recorrer((matriculaId, pos) -> consumidor.accept(matriculaId, materializar(matriculaId, pos)));
+    }
+
+    @Override
+    public long bytesEstimados() {
+        return claves.bytesEstimados()
+            + (long) tamanio * (Long.BYTES + 4 * Integer.BYTES)
+            + cedulasNoCanonicas.size() * 64L
+            + diccionario.tamanio() * 64L;
+    }
+
+    private MENResponse materializar(String matriculaId, int pos) {
+        return MENResponse.builder()
+                .matriculaId(matriculaId)
+                .cedula(cedula(pos))
+                .institucion(diccionario.valor(institucion[pos]))
+                .programa(programa(pos))
+                .estado(diccionario.valor(estado[pos]))
+                .intensidadHoraria(intensidad[pos] == SIN_INTENSIDAD ? null : intensidad[pos])
+                .encontrada(true)
+                .build();
+    }
+
+    public static final class Constructor implements AlmacenMEN.Constructor {
+        private final IndiceClaves claves;
+        private final DiccionarioCadenas diccionario = new DiccionarioCadenas();
+        private final Map<Integer, String> cedulasNoCanonicas = new HashMap<>();
+        private long[] cedula;
+        private int[] institucion;
+        private int[] programa;
+        private int[] estado;
+        private int[] intensidad;
+        private int tamanio;
+
+        public Constructor(int capacidadEsperada) {
+            int capacidad = Math.max(16, capacidadEsperada);
+            this.claves = new IndiceClaves(IndiceClaves.MATRICULA, capacidad);
+            this.cedula = new long[capacidad];
+            this.institucion = new int[capacidad];
+            this.programa = new int[capacidad];
+            this.estado = new int[capacidad];
+            this.intensidad = new int[capacidad];
+        }
+
+        @Override
+        public void agregar(String matriculaId, MENResponse r) {
+            int pos = claves.registrar(matriculaId, tamanio);
+            if (pos < 0) {
+                pos = tamanio++;
+                asegurarCapacidad();
+            }
+            long codigoCedula = IndiceClaves.CEDULA.codificar(r.getCedula());
+            cedula[pos] = codigoCedula;
+            if (codigoCedula < 0 && r.getCedula() != null) {
+                cedulasNoCanonicas.put(pos, r.getCedula());
+            } else {
+                cedulasNoCanonicas.remove(pos);
+            }
+            institucion[pos] = diccionario.id(r.getInstitucion());
+            programa[pos] = diccionario.id(r.getPrograma());
+            estado[pos] = diccionario.id(r.getEstado());
+            intensidad[pos] = r.getIntensidadHoraria() != null ? r.getIntensidadHoraria() : SIN_INTENSIDAD;
+        }
+
+        @Override
+        public AlmacenMEN construir() {
+            return new AlmacenMENMemoria(this);
+        }
+
+        private void asegurarCapacidad() {
+            if (tamanio > cedula.length) {
+                int nueva = cedula.length + (cedula.length >> 1);
+                cedula = Arrays.copyOf(cedula, nueva);
+                institucion = Arrays.copyOf(institucion, nueva);
+                programa = Arrays.copyOf(programa, nueva);
+                estado = Arrays.copyOf(estado, nueva);
+                intensidad = Arrays.copyOf(intensidad, nueva);
+            }
+        }
+    }
+}
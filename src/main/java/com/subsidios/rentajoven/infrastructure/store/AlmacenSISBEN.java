@@ -0,0 +1,71 @@
+package com.subsidios.rentajoven.infrastructure.store;
+
+import com.subsidios.rentajoven.domain.enums.NivelSISBEN;
+import com.subsidios.rentajoven.domain.model.SISBENResponse;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Registros SISBEN indexados por cédula.
+ *
+ * Implementaciones: {@link AlmacenSISBENMemoria} (arreglos en heap) y
+ * {@link AlmacenSISBENMapeado} (archivo mapeado fuera del heap). Las
+ * posiciones devueltas por {@link #posicion(String)} solo son válidas para
+ * los accesores de la misma instancia.
+ */
+public interface AlmacenSISBEN {
+
+    AlmacenSISBEN VACIO = new AlmacenSISBENMemoria.Constructor(0).construir();
+
+    static AlmacenSISBEN desde(Map<String, SISBENResponse> datos) {
+        AlmacenSISBEN.Constructor constructor = new AlmacenSISBENMemoria.Constructor(datos.size());
+        datos.forEach(constructor::agregar);
+        return constructor.construir();
+    }
+
+    /**
+     * @return el registro materializado, o null si la cédula no existe
+     */
+    SISBENResponse buscar(String cedula);
+
+    boolean contiene(String cedula);
+
+    /**
+     * @return la posición del registro, o -1 si la cédula no existe
+     */
+    int posicion(String cedula);
+
+    NivelSISBEN nivel(int pos);
+
+    double puntaje(int pos);
+
+    int departamentoId(int pos);
+
+    DiccionarioCadenas diccionario();
+
+    int tamanio();
+
+    List<String> claves();
+
+    /**
+     * Recorre todos los registros materializándolos (orden no definido).
+     */
+    void recorrer(BiConsumer<String, SISBENResponse> consumidor);
+
+    /**
+     * Bytes aproximados de heap ocupados por el almacén.
+     */
+    long bytesEstimados();
+
+    /**
+     * Construye el almacén registro a registro. Una cédula repetida
+     * reemplaza al registro anterior (igual que {@code Map.put}).
+     */
+    interface Constructor {
+        void agregar(String cedula, SISBENResponse registro);
+
+        AlmacenSISBEN construir();
+    }
+}
@@ -0,0 +1,185 @@
+package com.subsidios.rentajoven.infrastructure.store;
+
+import com.subsidios.rentajoven.domain.enums.NivelSISBEN;
+import com.subsidios.rentajoven.domain.model.SISBENResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Almacén SISBEN base + {@link CapaDelta} de cambios incrementales.
+ *
+ * Las posiciones de registros de la capa se devuelven desplazadas en
+ * {@link #BASE_DELTA} para distinguirlas de las de la base.
+ */
+public final class AlmacenSISBENConDelta implements AlmacenSISBEN {
+
+    static final int BASE_DELTA = 1 << 30;
+
+    private final AlmacenSISBEN base;
+    private final CapaDelta<SISBENResponse> delta;
+    private final DiccionarioCadenas diccionario;
+    private final int tamanio;
+
+    private AlmacenSISBENConDelta(AlmacenSISBEN base, CapaDelta<SISBENResponse> delta) {
+        this.base = base;
+        this.delta = delta;
+        this.diccionario = base.diccionario().copia();
+        int[] tamanio = { base.tamanio() };
+        delta.recorrer((cedula, r) -> {
+            boolean enBase = base.contiene(cedula);
+            if (r != null) {
+                diccionario.id(r.getDepartamento());
+                if (!enBase) {
+                    tamanio[0]++;
+                }
+            } else if (enBase) {
+                tamanio[0]--;
+            }
+        });
+        this.tamanio = tamanio[0];
+    }
+
+    private AlmacenSISBENConDelta(AlmacenSISBEN base, CapaDelta<SISBENResponse> delta,
+                                  DiccionarioCadenas diccionario, int tamanio) {
+        this.base = base;
+        this.delta = delta;
+        this.diccionario = diccionario;
+        this.tamanio = tamanio;
+    }
+
+    /**
+     * Aplica cambios sobre un almacén (con o sin capa previa) sin modificarlo.
+     *
+     * @param cambios cédula -> registro nuevo, o null para borrar
+     */
+    public static AlmacenSISBEN aplicar(AlmacenSISBEN actual, Map<String, SISBENResponse> cambios) {
+        if (cambios.isEmpty()) {
+            return actual;
+        }
+        if (actual instanceof AlmacenSISBENConDelta) {
+            AlmacenSISBENConDelta conDelta = (AlmacenSISBENConDelta) actual;
+            // Tamaño y diccionario solo cambian por las claves del lote, no se recorre la capa
+            DiccionarioCadenas diccionario = conDelta.diccionario.copia();
+            int tamanio = conDelta.tamanio;
+            for (Map.Entry<String, SISBENResponse> cambio : cambios.entrySet()) {
+                boolean antes = conDelta.contiene(cambio.getKey());
+                if (cambio.getValue() != null) {
+                    diccionario.id(cambio.getValue().getDepartamento());
+                    if (!antes) {
+                        tamanio++;
+                    }
+                } else if (antes) {
+                    tamanio--;
+                }
+            }
+            return new AlmacenSISBENConDelta(conDelta.base, conDelta.delta.aplicar(cambios), diccionario, tamanio);
+        }
+        return new AlmacenSISBENConDelta(actual, CapaDelta.<SISBENResponse>vacia().aplicar(cambios));
+    }
+
+    /**
+     * Reconstruye una base nueva con la capa incorporada.
+     */
+    public AlmacenSISBEN compactar(AlmacenSISBEN.Constructor constructor) {
+        recorrer(constructor::agregar);
+        return constructor.construir();
+    }
+
+    /**
+     * Vuelve a poner sobre {@code nuevaBase} los cambios llegados después de
+     * que empezara la compactación de {@code compactada}.
+     */
+    public AlmacenSISBEN rebasar(AlmacenSISBEN nuevaBase, CapaDelta<SISBENResponse> compactada) {
+        CapaDelta<SISBENResponse> restante = delta.sinCompactadas(compactada);
+        return restante.estaVacia() ? nuevaBase : new AlmacenSISBENConDelta(nuevaBase, restante);
+    }
+
+    public AlmacenSISBEN getBase() {
+        return base;
+    }
+
+    public CapaDelta<SISBENResponse> getDelta() {
+        return delta;
+    }
+
+    @Override
+    public SISBENResponse buscar(String cedula) {
+        int i = delta.posicion(cedula);
+        return i >= 0 ? delta.valor(i) : base.buscar(cedula);
+    }
+
+    @Override
+    public boolean contiene(String cedula) {
+        int i = delta.posicion(cedula);
+        return i >= 0 ? delta.valor(i) != null : base.contiene(cedula);
+    }
+
+    @Override
+    public int posicion(String cedula) {
+        int i = delta.posicion(cedula);
+        if (i >= 0) {
+            return delta.valor(i) != null ? BASE_DELTA + i : -1;
+        }
+        return base.posicion(cedula);
+    }
+
+    @Override
+    public NivelSISBEN nivel(int pos) {
+        return pos >= BASE_DELTA ? delta.valor(pos - BASE_DELTA).getNivel() : base.nivel(pos);
+    }
+
+    @Override
+    public double puntaje(int pos) {
+        if (pos >= BASE_DELTA) {
+            Double puntaje = delta.valor(pos - BASE_DELTA).getPuntaje();
+            return puntaje != null ? puntaje : Double.NaN;
+        }
+        return base.puntaje(pos);
+    }
+
+    @Override
+    public int departamentoId(int pos) {
+        return pos >= BASE_DELTA
+            ? diccionario.id(delta.valor(pos - BASE_DELTA).getDepartamento())
+            : base.departamentoId(pos);
+    }
+
+    @Override
+    public DiccionarioCadenas diccionario() {
+        return diccionario;
+    }
+
+    @Override
+    public int tamanio() {
+        return tamanio;
+    }
+
+    @Override
+    public List<String> claves() {
+        List<String> claves = new ArrayList<>(tamanio);
+        recorrer((cedula, r) -> claves.add(cedula));
+        return claves;
+    }
+
+    @Override
+    public void recorrer(BiConsumer<String, SISBENResponse> consumidor) {
+        base.recorrer((cedula, r) -> {
+            if (!delta.contiene(cedula)) {
+                consumidor.accept(cedula, r);
+            }
+        });
+        delta.recorrer((cedula, r) -> {
+            if (r != null) {
+                consumidor.accept(cedula, r);
+            }
+        });
+    }
+
+    @Override
+    public long bytesEstimados() {
+        return base.bytesEstimados() + delta.bytesEstimados();
+    }
+}
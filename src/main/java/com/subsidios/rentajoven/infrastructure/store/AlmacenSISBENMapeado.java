@@ -0,0 +1,126 @@
+package com.subsidios.rentajoven.infrastructure.store;
+
+import com.subsidios.rentajoven.domain.enums.NivelSISBEN;
+import com.subsidios.rentajoven.domain.model.SISBENResponse;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Almacén SISBEN fuera del heap: los campos viven en un {@link ArchivoRegistros}
+ * mapeado en memoria; en heap solo quedan el diccionario y el desbordamiento.
+ */
+public final class AlmacenSISBENMapeado implements AlmacenSISBEN {
+
+    private static final NivelSISBEN[] NIVELES = NivelSISBEN.values();
+
+    private static final int NIVEL = 0;
+    private static final int PUNTAJE = 1;
+    private static final int DEPARTAMENTO = 2;
+    private static final int MUNICIPIO = 3;
+
+    private final ArchivoRegistros archivo;
+    private final DiccionarioCadenas diccionario;
+
+    private AlmacenSISBENMapeado(ArchivoRegistros archivo, DiccionarioCadenas diccionario) {
+        this.archivo = archivo;
+        this.diccionario = diccionario;
+    }
+
+    @Override
+    public SISBENResponse buscar(String cedula) {
+        int pos = archivo.posicion(cedula);
+        return pos < 0 ? null : materializar(pos);
+    }
+
+    @Override
+    public boolean contiene(String cedula) {
+        return archivo.posicion(cedula) >= 0;
+    }
+
+    @Override
+    public int posicion(String cedula) {
+        return archivo.posicion(cedula);
+    }
+
+    @Override
+    public NivelSISBEN nivel(int pos) {
+        byte nivel = archivo.columnaByte(NIVEL, pos);
+        return nivel < 0 ? null : NIVELES[nivel];
+    }
+
+    @Override
+    public double puntaje(int pos) {
+        return archivo.columnaDouble(PUNTAJE, pos);
+    }
+
+    @Override
+    public int departamentoId(int pos) {
+        return archivo.columnaInt(DEPARTAMENTO, pos);
+    }
+
+    @Override
+    public DiccionarioCadenas diccionario() {
+        return diccionario;
+    }
+
+    @Override
+    public int tamanio() {
+        return archivo.tamanio();
+    }
+
+    @Override
+    public List<String> claves() {
+        return archivo.claves();
+    }
+
+    @Override
+    public void recorrer(BiConsumer<String, SISBENResponse> consumidor) {
+        archivo.recorrer((cedula, pos) -> consumidor.accept(cedula, materializar(pos)));
+    }
+
+    @Override
+    public long bytesEstimados() {
+        return archivo.bytesEstimados() + diccionario.tamanio() * 64L;
+    }
+
+    public long bytesMapeados() {
+        return archivo.bytesMapeados();
+    }
+
+    private SISBENResponse materializar(int pos) {
+        double p = puntaje(pos);
+        return SISBENResponse.builder()
+                .nivel(nivel(pos))
+                .puntaje(Double.isNaN(p) ? null : p)
+                .departamento(diccionario.valor(archivo.columnaInt(DEPARTAMENTO, pos)))
+                .municipio(diccionario.valor(archivo.columnaInt(MUNICIPIO, pos)))
+                .encontrado(true)
+                .build();
+    }
+
+    public static final class Constructor implements AlmacenSISBEN.Constructor {
+        private final ArchivoRegistros.Escritor escritor;
+        private final DiccionarioCadenas diccionario = new DiccionarioCadenas();
+
+        public Constructor(Path directorio) {
+            this.escritor = new ArchivoRegistros.Escritor(directorio, "sisben", IndiceClaves.CEDULA,
+                Byte.BYTES, Double.BYTES, Integer.BYTES, Integer.BYTES);
+        }
+
+        @Override
+        public void agregar(String cedula, SISBENResponse r) {
+            escritor.nuevoRegistro(cedula);
+            escritor.escribirByte(NIVEL, r.getNivel() != null ? r.getNivel().ordinal() : -1);
+            escritor.escribirDouble(PUNTAJE, r.getPuntaje() != null ? r.getPuntaje() : Double.NaN);
+            escritor.escribirInt(DEPARTAMENTO, diccionario.id(r.getDepartamento()));
+            escritor.escribirInt(MUNICIPIO, diccionario.id(r.getMunicipio()));
+        }
+
+        @Override
+        public AlmacenSISBEN construir() {
+            return new AlmacenSISBENMapeado(escritor.construir(), diccionario);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.subsidios.rentajoven.infrastructure.store;
+
+import com.subsidios.rentajoven.domain.enums.NivelSISBEN;
+import com.subsidios.rentajoven.domain.model.SISBENResponse;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Almacén compacto en heap de registros SISBEN.
+ *
+ * Cédula -> posición en un mapa long/int; campos en arreglos paralelos
+ * primitivos; departamento y municipio codificados en diccionario. Los
+ * {@link SISBENResponse} se materializan solo al consultarlos.
+ */
+public final class AlmacenSISBENMemoria implements AlmacenSISBEN {
+
+    private static final NivelSISBEN[] NIVELES = NivelSISBEN.values();
+
+    private final IndiceClaves claves;
+    private final DiccionarioCadenas diccionario;
+    private final byte[] nivel;
+    private final double[] puntaje;
+    private final int[] departamento;
+    private final int[] municipio;
+    private final int tamanio;
+
+    private AlmacenSISBENMemoria(Constructor c) {
+        this.claves = c.claves;
+        this.diccionario = c.diccionario;
+        this.nivel = Arrays.copyOf(c.nivel, c.tamanio);
+        this.puntaje = Arrays.copyOf(c.puntaje, c.tamanio);
+        this.departamento = Arrays.copyOf(c.departamento, c.tamanio);
+        this.municipio = Arrays.copyOf(c.municipio, c.tamanio);
+        this.tamanio = c.tamanio;
+    }
+
+    /**
+     * @return el registro materializado, o null si la cédula no existe
+     */
+    @Override
+    public SISBENResponse buscar(String cedula) {
+        int pos = claves.posicion(cedula);
+        return pos < 0 ? null : materializar(pos);
+    }
+
+    @Override
+    public boolean contiene(String cedula) {
+        return claves.posicion(cedula) >= 0;
+    }
+
+    @Override
+    public int posicion(String cedula) {
+        return claves.posicion(cedula);
+    }
+
+    @Override
+    public NivelSISBEN nivel(int pos) {
+        return nivel[pos] < 0 ? null : NIVELES[nivel[pos]];
+    }
+
+    @Override
+    public double puntaje(int pos) {
+        return puntaje[pos];
+    }
+
+    @Override
+    public int departamentoId(int pos) {
+        return departamento[pos];
+    }
+
+    @Override
+    public DiccionarioCadenas diccionario() {
+        return diccionario;
+    }
+
+    @Override
+    public int tamanio() {
+        return tamanio;
+    }
+
+    @Override
+    public List<String> claves() {
+        return claves.claves();
+    }
+
+    /**
+     * Recorre todos los registros materializándolos (orden no definido).
+     */
+    @Override
+    public void recorrer(BiConsumer<String, SISBENResponse> consumidor) {
+        claves.recorrer((cedula, pos) -> consumidor.accept(cedula, materializar(pos)));
+    }
+
+    /**
+     * Bytes aproximados de heap ocupados por el almacén.
+     */
+    @Override
+    public long bytesEstimados() {
+        return claves.bytesEstimados()
+            + (long) tamanio * (Byte.BYTES + Double.BYTES + 2 * Integer.BYTES)
+            + diccionario.tamanio() * 64L;
+    }
+
+    private SISBENResponse materializar(int pos) {
+        double p = puntaje[pos];
+        return SISBENResponse.builder()
+                .nivel(nivel(pos))
+                .puntaje(Double.isNaN(p) ? null : p)
+                .departamento(diccionario.valor(departamento[pos]))
+                .municipio(diccionario.valor(municipio[pos]))
+                .encontrado(true)
+                .build();
+    }
+
+    /**
+     * Construye el almacén registro a registro. Una cédula repetida
+     * reemplaza al registro anterior (igual que {@code Map.put}).
+     */
+    public static final class Constructor implements AlmacenSISBEN.Constructor {
+        private final IndiceClaves claves;
+        private final DiccionarioCadenas diccionario = new DiccionarioCadenas();
+        private byte[] nivel;
+        private double[] puntaje;
+        private int[] departamento;
+        private int[] municipio;
+        private int tamanio;
+
+        public Constructor(int capacidadEsperada) {
+            int capacidad = Math.max(16, capacidadEsperada);
+            this.claves = new IndiceClaves(IndiceClaves.CEDULA, capacidad);
+            this.nivel = new byte[capacidad];
+            this.puntaje = new double[capacidad];
+            this.departamento = new int[capacidad];
+            this.municipio = new int[capacidad];
+        }
+
+        @Override
+        public void agregar(String cedula, SISBENResponse r) {
+            int pos = claves.registrar(cedula, tamanio);
+            if (pos < 0) {
+                pos = tamanio++;
+                asegurarCapacidad();
+            }
+            nivel[pos] = (byte) (r.getNivel() != null ? r.getNivel().ordinal() : -1);
+            puntaje[pos] = r.getPuntaje() != null ? r.getPuntaje() : Double.NaN;
+            departamento[pos] = diccionario.id(r.getDepartamento());
+            municipio[pos] = diccionario.id(r.getMunicipio());
+        }
+
+        @Override
+        public AlmacenSISBEN construir() {
+            return new AlmacenSISBENMemoria(this);
+        }
+
+        private void asegurarCapacidad() {
+            if (tamanio > nivel.length) {
+                int nueva = nivel.length + (nivel.length >> 1);
+                nivel = Arrays.copyOf(nivel, nueva);
+                puntaje = Arrays.copyOf(puntaje, nueva);
+                departamento = Arrays.copyOf(departamento, nueva);
+                municipio = Arrays.copyOf(municipio, nueva);
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.subsidios.rentajoven.infrastructure.store;
+
+import com.subsidios.rentajoven.domain.model.SNIESResponse;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Títulos SNIES indexados por cédula.
+ *
+ * Implementaciones: {@link AlmacenSNIESMemoria} y {@link AlmacenSNIESMapeado}.
+ */
+public interface AlmacenSNIES {
+
+    AlmacenSNIES VACIO = new AlmacenSNIESMemoria.Constructor(0).construir();
+
+    static AlmacenSNIES desde(Map<String, SNIESResponse> datos) {
+        AlmacenSNIES.Constructor constructor = new AlmacenSNIESMemoria.Constructor(datos.size());
+        datos.forEach(constructor::agregar);
+        return constructor.construir();
+    }
+
+    /**
+     * @return el título materializado, o null si la cédula no tiene título
+     */
+    SNIESResponse buscar(String cedula);
+
+    boolean contiene(String cedula);
+
+    int tamanio();
+
+    List<String> claves();
+
+    void recorrer(BiConsumer<String, SNIESResponse> consumidor);
+
+    /**
+     * Bytes aproximados de heap ocupados por el almacén.
+     */
+    long bytesEstimados();
+
+    interface Constructor {
+        void agregar(String cedula, SNIESResponse registro);
+
+        AlmacenSNIES construir();
+    }
+}
@@ -0,0 +1,124 @@
+package com.subsidios.rentajoven.infrastructure.store;
+
+import com.subsidios.rentajoven.domain.model.SNIESResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Almacén SNIES base + {@link CapaDelta} de cambios incrementales.
+ */
+public final class AlmacenSNIESConDelta implements AlmacenSNIES {
+
+    private final AlmacenSNIES base;
+    private final CapaDelta<SNIESResponse> delta;
+    private final int tamanio;
+
+    private AlmacenSNIESConDelta(AlmacenSNIES base, CapaDelta<SNIESResponse> delta) {
+        this.base = base;
+        this.delta = delta;
+        int[] tamanio = { base.tamanio() };
+        delta.recorrer((cedula, r) -> {
+            boolean enBase = base.contiene(cedula);
+            if (r != null && !enBase) {
+                tamanio[0]++;
+            } else if (r == null && enBase) {
+                tamanio[0]--;
+            }
+        });
+        this.tamanio = tamanio[0];
+    }
+
+    private AlmacenSNIESConDelta(AlmacenSNIES base, CapaDelta<SNIESResponse> delta, int tamanio) {
+        this.base = base;
+        this.delta = delta;
+        this.tamanio = tamanio;
+    }
+
+    /**
+     * @param cambios cédula -> título nuevo, o null para borrar
+     */
+    public static AlmacenSNIES aplicar(AlmacenSNIES actual, Map<String, SNIESResponse> cambios) {
+        if (cambios.isEmpty()) {
+            return actual;
+        }
+        if (actual instanceof AlmacenSNIESConDelta) {
+            AlmacenSNIESConDelta conDelta = (AlmacenSNIESConDelta) actual;
+            // El tamaño solo cambia por las claves del lote, no se recorre la capa
+            int tamanio = conDelta.tamanio;
+            for (Map.Entry<String, SNIESResponse> cambio : cambios.entrySet()) {
+                boolean antes = conDelta.contiene(cambio.getKey());
+                if (cambio.getValue() != null && !antes) {
+                    tamanio++;
+                } else if (cambio.getValue() == null && antes) {
+                    tamanio--;
+                }
+            }
+            return new AlmacenSNIESConDelta(conDelta.base, conDelta.delta.aplicar(cambios), tamanio);
+        }
+        return new AlmacenSNIESConDelta(actual, CapaDelta.<SNIESResponse>vacia().aplicar(cambios));
+    }
+
+    public AlmacenSNIES compactar(AlmacenSNIES.Constructor constructor) {
+        recorrer(constructor::agregar);
+        return constructor.construir();
+    }
+
+    public AlmacenSNIES rebasar(AlmacenSNIES nuevaBase, CapaDelta<SNIESResponse> compactada) {
+        CapaDelta<SNIESResponse> restante = delta.sinCompactadas(compactada);
+        return restante.estaVacia() ? nuevaBase : new AlmacenSNIESConDelta(nuevaBase, restante);
+    }
+
+    public AlmacenSNIES getBase() {
+        return base;
+    }
+
+    public CapaDelta<SNIESResponse> getDelta() {
+        return delta;
+    }
+
+    @Override
+    public SNIESResponse buscar(String cedula) {
+        int i = delta.posicion(cedula);
+        return i >= 0 ? delta.valor(i) : base.buscar(cedula);
+    }
+
+    @Override
+    public boolean contiene(String cedula) {
+        int i = delta.posicion(cedula);
+        return i >= 0 ? delta.valor(i) != null : base.contiene(cedula);
+    }
+
+    @Override
+    public int tamanio() {
+        return tamanio;
+    }
+
+    @Override
+    public List<String> claves() {
+        List<String> claves = new ArrayList<>(tamanio);
+        recorrer((cedula, r) -> claves.add(cedula));
+        return claves;
+    }
+
+    @Override
+    public void recorrer(BiConsumer<String, SNIESResponse> consumidor) {
+        base.recorrer((cedula, r) -> {
+            if (!delta.contiene(cedula)) {
+                consumidor.accept(cedula, r);
+            }
+        });
+        delta.recorrer((cedula, r) -> {
+            if (r != null) {
+                consumidor.accept(cedula, r);
+            }
+        });
+    }
+
+    @Override
+    public long bytesEstimados() {
+        return base.bytesEstimados() + delta.bytesEstimados();
+    }
+}
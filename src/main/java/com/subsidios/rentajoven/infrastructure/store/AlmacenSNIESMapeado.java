@@ -0,0 +1,92 @@
+package com.subsidios.rentajoven.infrastructure.store;
+
+import com.subsidios.rentajoven.domain.model.SNIESResponse;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Almacén SNIES fuera del heap (ver {@link ArchivoRegistros}).
+ */
+public final class AlmacenSNIESMapeado implements AlmacenSNIES {
+
+    private static final int PROGRAMA = 0;
+    private static final int INSTITUCION = 1;
+    private static final int TIPO_TITULO = 2;
+
+    private final ArchivoRegistros archivo;
+    private final DiccionarioCadenas diccionario;
+
+    private AlmacenSNIESMapeado(ArchivoRegistros archivo, DiccionarioCadenas diccionario) {
+        this.archivo = archivo;
+        this.diccionario = diccionario;
+    }
+
+    @Override
+    public SNIESResponse buscar(String cedula) {
+        int pos = archivo.posicion(cedula);
+        return pos < 0 ? null : materializar(pos);
+    }
+
+    @Override
+    public boolean contiene(String cedula) {
+        return archivo.posicion(cedula) >= 0;
+    }
+
+    @Override
+    public int tamanio() {
+        return archivo.tamanio();
+    }
+
+    @Override
+    public List<String> claves() {
+        return archivo.claves();
+    }
+
+    @Override
+    public void recorrer(BiConsumer<String, SNIESResponse> consumidor) {
+        archivo.recorrer((cedula, pos) -> consumidor.accept(cedula, materializar(pos)));
+    }
+
+    @Override
+    public long bytesEstimados() {
+        return archivo.bytesEstimados() + diccionario.tamanio() * 64L;
+    }
+
+    public long bytesMapeados() {
+        return archivo.bytesMapeados();
+    }
+
+    private SNIESResponse materializar(int pos) {
+        return SNIESResponse.builder()
+                .tieneTitulo(true)
+                .programa(diccionario.valor(archivo.columnaInt(PROGRAMA, pos)))
+                .institucion(diccionario.valor(archivo.columnaInt(INSTITUCION, pos)))
+                .tipoTitulo(diccionario.valor(archivo.columnaInt(TIPO_TITULO, pos)))
+                .build();
+    }
+
+    public static final class Constructor implements AlmacenSNIES.Constructor {
+        private final ArchivoRegistros.Escritor escritor;
+        private final DiccionarioCadenas diccionario = new DiccionarioCadenas();
+
+        public Constructor(Path directorio) {
+            this.escritor = new ArchivoRegistros.Escritor(directorio, "snies", IndiceClaves.CEDULA,
+                Integer.BYTES, Integer.BYTES, Integer.BYTES);
+        }
+
+        @Override
+        public void agregar(String cedula, SNIESResponse r) {
+            escritor.nuevoRegistro(cedula);
+            escritor.escribirInt(PROGRAMA, diccionario.id(r.getPrograma()));
+            escritor.escribirInt(INSTITUCION, diccionario.id(r.getInstitucion()));
+            escritor.escribirInt(TIPO_TITULO, diccionario.id(r.getTipoTitulo()));
+        }
+
+        @Override
+        public AlmacenSNIES construir() {
+            return new AlmacenSNIESMapeado(escritor.construir(), diccionario);
+        }
+    }
+}
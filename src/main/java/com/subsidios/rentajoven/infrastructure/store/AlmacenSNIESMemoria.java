@@ -0,0 +1,114 @@
+package com.subsidios.rentajoven.infrastructure.store;
+
+import com.subsidios.rentajoven.domain.model.SNIESResponse;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Almacén compacto en heap de títulos SNIES (cédula -> título). Programa,
+ * institución y tipo de título se codifican en diccionario.
+ */
+public final class AlmacenSNIESMemoria implements AlmacenSNIES {
+
+    private final IndiceClaves claves;
+    private final DiccionarioCadenas diccionario;
+    private final int[] programa;
+    private final int[] institucion;
+    private final int[] tipoTitulo;
+    private final int tamanio;
+
+    private AlmacenSNIESMemoria(Constructor c) {
+        this.claves = c.claves;
+        this.diccionario = c.diccionario;
+        this.programa = Arrays.copyOf(c.programa, c.tamanio);
+        this.institucion = Arrays.copyOf(c.institucion, c.tamanio);
+        this.tipoTitulo = Arrays.copyOf(c.tipoTitulo, c.tamanio);
+        this.tamanio = c.tamanio;
+    }
+
+    /**
+     * @return el título materializado, o null si la cédula no tiene título
+     */
+    @Override
+    public SNIESResponse buscar(String cedula) {
+        int pos = claves.posicion(cedula);
+        return pos < 0 ? null : materializar(pos);
+    }
+
+    @Override
+    public boolean contiene(String cedula) {
+        return claves.posicion(cedula) >= 0;
+    }
+
+    @Override
+    public int tamanio() {
+        return tamanio;
+    }
+
+    @Override
+    public List<String> claves() {
+        return claves.claves();
+    }
+
+    @Override
+    public void recorrer(BiConsumer<String, SNIESResponse> consumidor) {
+        claves.recorrer((cedula, pos) -> consumidor.accept(cedula, materializar(pos)));
+    }
+
+    @Override
+    public long bytesEstimados() {
+        return claves.bytesEstimados()
+            + (long) tamanio * 3 * Integer.BYTES
+            + diccionario.tamanio() * 64L;
+    }
+
+    private SNIESResponse materializar(int pos) {
+        return SNIESResponse.builder()
+                .tieneTitulo(true)
+                .programa(diccionario.valor(programa[pos]))
+                .institucion(diccionario.valor(institucion[pos]))
+                .tipoTitulo(diccionario.valor(tipoTitulo[pos]))
+                .build();
+    }
+
+    public static final class Constructor implements AlmacenSNIES.Constructor {
+        private final IndiceClaves claves;
+        private final DiccionarioCadenas diccionario = new DiccionarioCadenas();
+        private int[] programa;
+        private int[] institucion;
+        private int[] tipoTitulo;
+        private int tamanio;
+
+        public Constructor(int capacidadEsperada) {
+            int capacidad = Math.max(16, capacidadEsperada);
+            this.claves = new IndiceClaves(IndiceClaves.CEDULA, capacidad);
+            this.programa = new int[capacidad];
+            this.institucion = new int[capacidad];
+            this.tipoTitulo = new int[capacidad];
+        }
+
+        @Override
+        public void agregar(String cedula, SNIESResponse r) {
+            int pos = claves.registrar(cedula, tamanio);
+            if (pos < 0) {
+                pos = tamanio++;
+                if (tamanio > programa.length) {
+                    int nueva = programa.length + (programa.length >> 1);
+                    programa = Arrays.copyOf(programa, nueva);
+                    institucion = Arrays.copyOf(institucion, nueva);
+                    tipoTitulo = Arrays.copyOf(tipoTitulo, nueva);
+                }
+            }
+            programa[pos] = diccionario.id(r.getPrograma());
+            institucion[pos] = diccionario.id(r.getInstitucion());
+            tipoTitulo[pos] = diccionario.id(r.getTipoTitulo());
+        }
+
+        @Override
+        public AlmacenSNIES construir() {
+            return new AlmacenSNIESMemoria(this);
+        }
+    }
+}
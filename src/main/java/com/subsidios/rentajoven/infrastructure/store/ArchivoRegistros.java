@@ -0,0 +1,344 @@
+package com.subsidios.rentajoven.infrastructure.store;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Registros de ancho fijo en un archivo mapeado en memoria (fuera del heap).
+ *
+ * Disposición por columnas, cada región alineada a 8 bytes:
+ * <pre>
+ * claves      long[capacidad]       tabla hash con sondeo lineal (clave codificada + 1; 0 = vacía)
+ * posiciones  int[capacidad]        registro de cada ranura
+ * columna i   ancho_i x registros   (1, 4 u 8 bytes)
+ * </pre>
+ * El archivo se mapea en segmentos de 1 GB; como las regiones están alineadas
+ * y los anchos son potencias de dos, ningún valor cruza un segmento y todas
+ * las lecturas son absolutas sobre el buffer, sin copias.
+ *
+ * Las claves no canónicas (ver {@link IndiceClaves}) quedan en un mapa de
+ * desbordamiento en heap. El archivo es de trabajo: se borra en cuanto queda
+ * mapeado y el sistema libera las páginas cuando el GC recoge los buffers.
+ */
+final class ArchivoRegistros {
+
+    private static final int BITS_SEGMENTO = 30;
+    private static final long MASCARA_SEGMENTO = (1L << BITS_SEGMENTO) - 1;
+    private static final float CARGA_MAXIMA = 0.6f;
+
+    private final MappedByteBuffer[] segmentos;
+    private final IndiceClaves.Codec codec;
+    private final Map<String, Integer> desbordamiento;
+    private final int capacidad;
+    private final long offsetPosiciones;
+    private final long[] offsetColumnas;
+    private final int[] anchos;
+    private final int tamanio;
+    private final long bytesMapeados;
+
+    private ArchivoRegistros(Escritor e, MappedByteBuffer[] segmentos, int capacidad,
+                             long offsetPosiciones, long[] offsetColumnas, long bytesMapeados) {
+        this.segmentos = segmentos;
+        this.codec = e.codec;
+        this.desbordamiento = e.desbordamiento;
+        this.capacidad = capacidad;
+        this.offsetPosiciones = offsetPosiciones;
+        this.offsetColumnas = offsetColumnas;
+        this.anchos = e.anchos;
+        this.bytesMapeados = bytesMapeados;
+        this.tamanio = llenarTabla(e) + desbordamiento.size();
+    }
+
+    /**
+     * @return la posición del registro, o -1 si la clave no existe
+     */
+    int posicion(String clave) {
+        long codigo = codec.codificar(clave);
+        if (codigo < 0) {
+            Integer posicion = clave == null ? null : desbordamiento.get(clave);
+            return posicion != null ? posicion : -1;
+        }
+        int mascara = capacidad - 1;
+        int i = (int) MapaLongInt.dispersar(codigo) & mascara;
+        long actual;
+        while ((actual = leerLong((long) i * Long.BYTES)) != 0) {
+            if (actual == codigo + 1) {
+                return leerInt(offsetPosiciones + (long) i * Integer.BYTES);
+            }
+            i = (i + 1) & mascara;
+        }
+        return -1;
+    }
+
+    byte columnaByte(int columna, int pos) {
+        long offset = offsetColumnas[columna] + pos;
+        return segmentos[(int) (offset >>> BITS_SEGMENTO)].get((int) (offset & MASCARA_SEGMENTO));
+    }
+
+    int columnaInt(int columna, int pos) {
+        return leerInt(offsetColumnas[columna] + (long) pos * Integer.BYTES);
+    }
+
+    long columnaLong(int columna, int pos) {
+        return leerLong(offsetColumnas[columna] + (long) pos * Long.BYTES);
+    }
+
+    double columnaDouble(int columna, int pos) {
+        return Double.longBitsToDouble(columnaLong(columna, pos));
+    }
+
+    int tamanio() {
+        return tamanio;
+    }
+
+    /**
+     * Recorre las claves vigentes con su posición (orden no definido).
+     */
+    void recorrer(ObjIntConsumer<String> consumidor) {
+        for (int i = 0; i < capacidad; i++) {
+            long actual = leerLong((long) i * Long.BYTES);
+            if (actual != 0) {
+                consumidor.accept(codec.decodificar(actual - 1), leerInt(offsetPosiciones + (long) i * Integer.BYTES));
+            }
+        }
+        desbordamiento.forEach((clave, posicion) -> consumidor.accept(clave, posicion));
+    }
+
+    List<String> claves() {
+        List<String> claves = new ArrayList<>(tamanio);
+        recorrer((clave, posicion) -> claves.add(clave));
+        return claves;
+    }
+
+    /**
+     * Bytes de heap: solo el desbordamiento y los descriptores de los buffers.
+     */
+    long bytesEstimados() {
+        return desbordamiento.size() * 64L + segmentos.length * 64L + offsetColumnas.length * 16L;
+    }
+
+    long bytesMapeados() {
+        return bytesMapeados;
+    }
+
+    private long leerLong(long offset) {
+        return segmentos[(int) (offset >>> BITS_SEGMENTO)].getLong((int) (offset & MASCARA_SEGMENTO));
+    }
+
+    private int leerInt(long offset) {
+        return segmentos[(int) (offset >>> BITS_SEGMENTO)].getInt((int) (offset & MASCARA_SEGMENTO));
+    }
+
+    /**
+     * Inserta las claves canónicas en la tabla hash; una clave repetida
+     * apunta al último registro escrito.
+     *
+     * @return número de claves canónicas distintas
+     */
+    private int llenarTabla(Escritor e) {
+        int mascara = capacidad - 1;
+        int distintas = 0;
+        try (DataInputStream claves = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(e.archivoClaves), 1 << 16))) {
+            for (int pos = 0; pos < e.registros; pos++) {
+                long codigo = claves.readLong();
+                if (codigo < 0) {
+                    continue;
+                }
+                int i = (int) MapaLongInt.dispersar(codigo) & mascara;
+                long actual;
+                while ((actual = leerLong((long) i * Long.BYTES)) != 0 && actual != codigo + 1) {
+                    i = (i + 1) & mascara;
+                }
+                if (actual == 0) {
+                    escribirLong((long) i * Long.BYTES, codigo + 1);
+                    distintas++;
+                }
+                escribirInt(offsetPosiciones + (long) i * Integer.BYTES, pos);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return distintas;
+    }
+
+    private void escribirLong(long offset, long valor) {
+        segmentos[(int) (offset >>> BITS_SEGMENTO)].putLong((int) (offset & MASCARA_SEGMENTO), valor);
+    }
+
+    private void escribirInt(long offset, int valor) {
+        segmentos[(int) (offset >>> BITS_SEGMENTO)].putInt((int) (offset & MASCARA_SEGMENTO), valor);
+    }
+
+    private static long alinear(long offset) {
+        return (offset + 7) & ~7L;
+    }
+
+    /**
+     * Escribe los registros en streaming a archivos temporales por columna y
+     * arma el archivo final al construir, sin acumular los datos en heap.
+     * Cada registro debe escribir todas sus columnas, en cualquier orden.
+     */
+    static final class Escritor {
+        private final Path directorio;
+        private final String nombre;
+        private final IndiceClaves.Codec codec;
+        private final int[] anchos;
+        private final Map<String, Integer> desbordamiento = new HashMap<>();
+        private final Path archivoClaves;
+        private final Path[] archivosColumnas;
+        private final DataOutputStream claves;
+        private final DataOutputStream[] columnas;
+        private int registros;
+
+        Escritor(Path directorio, String nombre, IndiceClaves.Codec codec, int... anchos) {
+            this.directorio = directorio;
+            this.nombre = nombre;
+            this.codec = codec;
+            this.anchos = anchos;
+            try {
+                Files.createDirectories(directorio);
+                this.archivoClaves = Files.createTempFile(directorio, nombre + "-claves-", ".tmp");
+                this.claves = abrir(archivoClaves);
+                this.archivosColumnas = new Path[anchos.length];
+                this.columnas = new DataOutputStream[anchos.length];
+                for (int i = 0; i < anchos.length; i++) {
+                    archivosColumnas[i] = Files.createTempFile(directorio, nombre + "-col" + i + "-", ".tmp");
+                    columnas[i] = abrir(archivosColumnas[i]);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * @return la posición del nuevo registro
+         */
+        int nuevoRegistro(String clave) {
+            long codigo = codec.codificar(clave);
+            if (codigo < 0) {
+                desbordamiento.put(clave, registros);
+            }
+            try {
+                claves.writeLong(codigo);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return registros++;
+        }
+
+        void escribirByte(int columna, int valor) {
+            try {
+                columnas[columna].writeByte(valor);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void escribirInt(int columna, int valor) {
+            try {
+                columnas[columna].writeInt(valor);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void escribirLong(int columna, long valor) {
+            try {
+                columnas[columna].writeLong(valor);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void escribirDouble(int columna, double valor) {
+            escribirLong(columna, Double.doubleToRawLongBits(valor));
+        }
+
+        ArchivoRegistros construir() {
+            Path archivo = null;
+            try {
+                claves.close();
+                for (DataOutputStream columna : columnas) {
+                    columna.close();
+                }
+
+                int capacidad = Integer.highestOneBit(Math.max(4, (int) (registros / CARGA_MAXIMA)) - 1) << 1;
+                long offsetPosiciones = (long) capacidad * Long.BYTES;
+                long offset = alinear(offsetPosiciones + (long) capacidad * Integer.BYTES);
+                long[] offsetColumnas = new long[anchos.length];
+                for (int i = 0; i < anchos.length; i++) {
+                    offsetColumnas[i] = offset;
+                    offset = alinear(offset + (long) registros * anchos[i]);
+                }
+                long total = offset;
+
+                archivo = Files.createTempFile(directorio, nombre + "-", ".dat");
+                MappedByteBuffer[] segmentos;
+                try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    // Extiende el archivo (disperso: la tabla hash queda en ceros)
+                    canal.write(ByteBuffer.allocate(1), total - 1);
+                    for (int i = 0; i < anchos.length; i++) {
+                        copiar(archivosColumnas[i], canal, offsetColumnas[i]);
+                    }
+                    segmentos = new MappedByteBuffer[(int) ((total + MASCARA_SEGMENTO) >>> BITS_SEGMENTO)];
+                    for (int s = 0; s < segmentos.length; s++) {
+                        long inicio = (long) s << BITS_SEGMENTO;
+                        segmentos[s] = canal.map(FileChannel.MapMode.READ_WRITE, inicio,
+                            Math.min(1L << BITS_SEGMENTO, total - inicio));
+                    }
+                }
+                return new ArchivoRegistros(this, segmentos, capacidad, offsetPosiciones, offsetColumnas, total);
+
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                borrar(archivoClaves);
+                for (Path columna : archivosColumnas) {
+                    borrar(columna);
+                }
+                // El mapeo sigue vigente aunque se borre el archivo (en Windows se borra al salir)
+                if (archivo != null) {
+                    borrar(archivo);
+                }
+            }
+        }
+
+        private static DataOutputStream abrir(Path archivo) throws IOException {
+            return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(archivo), 1 << 16));
+        }
+
+        private static void copiar(Path origen, FileChannel destino, long posicion) throws IOException {
+            try (FileChannel canal = FileChannel.open(origen, StandardOpenOption.READ)) {
+                long tamanio = canal.size();
+                long copiados = 0;
+                while (copiados < tamanio) {
+                    copiados += destino.transferFrom(canal, posicion + copiados, tamanio - copiados);
+                }
+            }
+        }
+
+        private static void borrar(Path archivo) {
+            try {
+                Files.deleteIfExists(archivo);
+            } catch (IOException e) {
+                archivo.toFile().deleteOnExit();
+            }
+        }
+    }
+}
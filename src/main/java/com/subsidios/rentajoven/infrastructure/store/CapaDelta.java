@@ -0,0 +1,220 @@
+package com.subsidios.rentajoven.infrastructure.store;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Capa inmutable de cambios incrementales (upserts y borrados) sobre un
+ * almacén base, al estilo de un LSM: las consultas miran primero la capa y
+ * luego la base. Una versión ya publicada nunca se modifica.
+ *
+ * La capa es una pila de niveles inmutables, del más nuevo al más viejo.
+ * Aplicar un lote crea un nivel nuevo y lo fusiona con los de abajo solo
+ * mientras no sean más del doble de grandes, así que las versiones comparten
+ * los niveles viejos, hay O(log n) niveles y cada entrada se copia O(log n)
+ * veces en total en vez de una vez por lote.
+ *
+ * Un valor null en la capa es una lápida: la clave está borrada aunque
+ * exista en la base.
+ */
+public final class CapaDelta<T> {
+
+    private static final CapaDelta<?> VACIA =
+        new CapaDelta<>(Map.of(), List.of(), List.of(), null, 0, List.of(), null);
+
+    // Nivel propio
+    private final Map<String, Integer> indice;
+    private final List<String> claves;
+    private final List<T> valores;
+
+    // Niveles más viejos; las posiciones de este nivel empiezan en desplazamiento
+    private final CapaDelta<T> inferior;
+    private final int desplazamiento;
+
+    // Claves distintas en todos los niveles (lápidas incluidas)
+    private final int tamanio;
+
+    // Versión sobre la que se aplicó el último lote y sus claves, para que
+    // los índices derivados recorran solo lo que cambió
+    private final List<String> ultimoLote;
+    private final WeakReference<CapaDelta<T>> origen;
+
+    private CapaDelta(Map<String, Integer> indice, List<String> claves, List<T> valores,
+                      CapaDelta<T> inferior, int tamanio, List<String> ultimoLote, CapaDelta<T> origen) {
+        this.indice = indice;
+        this.claves = claves;
+        this.valores = valores;
+        this.inferior = inferior;
+        this.desplazamiento = inferior != null ? inferior.posiciones() : 0;
+        this.tamanio = tamanio;
+        this.ultimoLote = ultimoLote;
+        this.origen = origen != null ? new WeakReference<>(origen) : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> CapaDelta<T> vacia() {
+        return (CapaDelta<T>) VACIA;
+    }
+
+    /**
+     * @param cambios clave -> nuevo valor, o null para borrar (en orden de aplicación)
+     * @return una capa nueva con los cambios encima de esta
+     */
+    public CapaDelta<T> aplicar(Map<String, T> cambios) {
+        if (cambios.isEmpty()) {
+            return this;
+        }
+        int nuevoTamanio = tamanio;
+        for (String clave : cambios.keySet()) {
+            if (!contiene(clave)) {
+                nuevoTamanio++;
+            }
+        }
+
+        Map<String, Integer> nuevoIndice = new HashMap<>();
+        List<String> nuevasClaves = new ArrayList<>(cambios.size());
+        List<T> nuevosValores = new ArrayList<>(cambios.size());
+        for (Map.Entry<String, T> cambio : cambios.entrySet()) {
+            agregar(cambio.getKey(), cambio.getValue(), nuevoIndice, nuevasClaves, nuevosValores);
+        }
+
+        // Fusiona hacia abajo los niveles que no doblan al nuevo
+        CapaDelta<T> debajo = estaVacia() ? null : this;
+        while (debajo != null && debajo.claves.size() <= 2 * nuevasClaves.size()) {
+            // El nivel de abajo es más viejo: va primero y el nuevo encima
+            Map<String, Integer> indiceFusionado = new HashMap<>();
+            List<String> clavesFusionadas = new ArrayList<>(debajo.claves.size() + nuevasClaves.size());
+            List<T> valoresFusionados = new ArrayList<>(debajo.claves.size() + nuevasClaves.size());
+            for (int i = 0; i < debajo.claves.size(); i++) {
+                agregar(debajo.claves.get(i), debajo.valores.get(i), indiceFusionado, clavesFusionadas, valoresFusionados);
+            }
+            for (int i = 0; i < nuevasClaves.size(); i++) {
+                agregar(nuevasClaves.get(i), nuevosValores.get(i), indiceFusionado, clavesFusionadas, valoresFusionados);
+            }
+            nuevoIndice = indiceFusionado;
+            nuevasClaves = clavesFusionadas;
+            nuevosValores = valoresFusionados;
+            debajo = debajo.inferior;
+        }
+        return new CapaDelta<>(nuevoIndice, nuevasClaves, nuevosValores, debajo, nuevoTamanio,
+            new ArrayList<>(cambios.keySet()), this);
+    }
+
+    private static <T> void agregar(String clave, T valor, Map<String, Integer> indice,
+                                    List<String> claves, List<T> valores) {
+        Integer i = indice.get(clave);
+        if (i != null) {
+            valores.set(i, valor);
+        } else {
+            indice.put(clave, claves.size());
+            claves.add(clave);
+            valores.add(valor);
+        }
+    }
+
+    /**
+     * Quita las entradas que siguen siendo exactamente las de {@code compactada}
+     * (ya incorporadas a una base nueva); conserva las que cambiaron después.
+     */
+    public CapaDelta<T> sinCompactadas(CapaDelta<T> compactada) {
+        Map<String, T> restantes = new LinkedHashMap<>();
+        recorrer((clave, valor) -> {
+            int j = compactada.posicion(clave);
+            if (j < 0 || compactada.valor(j) != valor) {
+                restantes.put(clave, valor);
+            }
+        });
+        return CapaDelta.<T>vacia().aplicar(restantes);
+    }
+
+    /**
+     * @return la posición de la clave en la capa, o -1 si la capa no la toca
+     */
+    public int posicion(String clave) {
+        for (CapaDelta<T> nivel = this; nivel != null; nivel = nivel.inferior) {
+            Integer i = nivel.indice.get(clave);
+            if (i != null) {
+                return nivel.desplazamiento + i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return el valor en la posición, o null si es un borrado
+     */
+    public T valor(int posicion) {
+        CapaDelta<T> nivel = this;
+        while (posicion < nivel.desplazamiento) {
+            nivel = nivel.inferior;
+        }
+        return nivel.valores.get(posicion - nivel.desplazamiento);
+    }
+
+    public boolean contiene(String clave) {
+        return posicion(clave) >= 0;
+    }
+
+    public int tamanio() {
+        return tamanio;
+    }
+
+    public boolean estaVacia() {
+        return tamanio == 0;
+    }
+
+    /**
+     * Recorre las entradas de la capa (valor null = borrado), en orden de
+     * llegada y con el último valor de cada clave.
+     */
+    public void recorrer(BiConsumer<String, T> consumidor) {
+        recorrer(this, consumidor);
+    }
+
+    private void recorrer(CapaDelta<T> tope, BiConsumer<String, T> consumidor) {
+        if (inferior != null) {
+            inferior.recorrer(tope, consumidor);
+        }
+        for (int i = 0; i < claves.size(); i++) {
+            // Solo la copia vigente: un nivel más nuevo puede haberla reemplazado
+            if (tope.posicion(claves.get(i)) == desplazamiento + i) {
+                consumidor.accept(claves.get(i), valores.get(i));
+            }
+        }
+    }
+
+    /**
+     * Claves cuyo valor puede diferir entre {@code anterior} y esta capa. Si
+     * esta capa es {@code anterior} más un lote, son solo las del lote; si no,
+     * todas las de ambas (con posibles repetidos).
+     */
+    public void clavesCambiadas(CapaDelta<?> anterior, Consumer<String> consumidor) {
+        if (anterior == this) {
+            return;
+        }
+        if (origen != null && origen.get() == anterior) {
+            ultimoLote.forEach(consumidor);
+            return;
+        }
+        anterior.recorrer((clave, valor) -> consumidor.accept(clave));
+        recorrer((clave, valor) -> consumidor.accept(clave));
+    }
+
+    /**
+     * Bytes aproximados de heap (clave, entrada de índice y registro materializado).
+     */
+    public long bytesEstimados() {
+        return posiciones() * 200L;
+    }
+
+    // Entradas en todos los niveles, incluidas las ya reemplazadas por niveles más nuevos
+    private int posiciones() {
+        return desplazamiento + claves.size();
+    }
+}
@@ -0,0 +1,55 @@
+package com.subsidios.rentajoven.infrastructure.store;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Diccionario de cadenas repetidas (departamento, municipio, institución,
+ * programa...) codificadas como ids densos. El id -1 representa null.
+ */
+public final class DiccionarioCadenas {
+
+    public static final int NULO = -1;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> valores = new ArrayList<>();
+
+    public int id(String valor) {
+        if (valor == null) {
+            return NULO;
+        }
+        Integer id = ids.get(valor);
+        if (id == null) {
+            id = valores.size();
+            ids.put(valor, id);
+            valores.add(valor);
+        }
+        return id;
+    }
+
+    public String valor(int id) {
+        return id == NULO ? null : valores.get(id);
+    }
+
+    public int tamanio() {
+        return valores.size();
+    }
+
+    /**
+     * Copia independiente: los ids existentes se conservan y los nuevos
+     * valores no afectan al original.
+     */
+    public DiccionarioCadenas copia() {
+        DiccionarioCadenas copia = new DiccionarioCadenas();
+        for (String valor : valores) {
+            copia.id(valor);
+        }
+        return copia;
+    }
+
+    public List<String> valores() {
+        return valores;
+    }
+}
@@ -0,0 +1,60 @@
+package com.subsidios.rentajoven.infrastructure.store;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * Crea los constructores de almacenes según el backend configurado
+ * ({@code almacen.backend}).
+ *
+ * MEMORIA: arreglos primitivos en heap, la opción más rápida para los
+ * tamaños actuales. MAPEADO: archivos mapeados fuera del heap, para
+ * poblaciones donde el heap y las pausas de GC crecerían con los datos.
+ */
+public final class FabricaAlmacenes {
+
+    public enum Backend { MEMORIA, MAPEADO }
+
+    public static final FabricaAlmacenes MEMORIA = new FabricaAlmacenes(Backend.MEMORIA, null);
+
+    private final Backend backend;
+    private final Path directorio;
+
+    public FabricaAlmacenes(Backend backend, Path directorio) {
+        if (backend == Backend.MAPEADO && directorio == null) {
+            throw new IllegalArgumentException("El backend MAPEADO requiere un directorio de trabajo");
+        }
+        this.backend = backend;
+        this.directorio = directorio;
+    }
+
+    /**
+     * @param backend nombre del backend, sin distinguir mayúsculas ("memoria" / "mapeado")
+     */
+    public static FabricaAlmacenes desdeConfiguracion(String backend, String directorio) {
+        return new FabricaAlmacenes(Backend.valueOf(backend.trim().toUpperCase(Locale.ROOT)), Paths.get(directorio));
+    }
+
+    public AlmacenSISBEN.Constructor sisben(int capacidadEsperada) {
+        return backend == Backend.MAPEADO
+            ? new AlmacenSISBENMapeado.Constructor(directorio)
+            : new AlmacenSISBENMemoria.Constructor(capacidadEsperada);
+    }
+
+    public AlmacenSNIES.Constructor snies(int capacidadEsperada) {
+        return backend == Backend.MAPEADO
+            ? new AlmacenSNIESMapeado.Constructor(directorio)
+            : new AlmacenSNIESMemoria.Constructor(capacidadEsperada);
+    }
+
+    public AlmacenMEN.Constructor men(int capacidadEsperada) {
+        return backend == Backend.MAPEADO
+            ? new AlmacenMENMapeado.Constructor(directorio)
+            : new AlmacenMENMemoria.Constructor(capacidadEsperada);
+    }
+
+    public Backend getBackend() {
+        return backend;
+    }
+}
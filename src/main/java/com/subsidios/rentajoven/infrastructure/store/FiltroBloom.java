@@ -0,0 +1,132 @@
+package com.subsidios.rentajoven.infrastructure.store;
+
+import java.util.Collection;
+
+/**
+ * Filtro de Bloom inmutable sobre claves de texto (cédulas).
+ *
+ * {@link #podriaContener} nunca da falsos negativos: si responde false la
+ * clave seguro no está, y la consulta a la fuente se puede omitir. Si responde
+ * true la clave está o es un falso positivo (tasa cercana a la configurada).
+ *
+ * Usa doble dispersión (h1 + i·h2) sobre una huella de 64 bits, así que cada
+ * consulta cuesta una pasada por la cadena y k lecturas de bits.
+ */
+public final class FiltroBloom {
+
+    public static final double TASA_FALSOS_POSITIVOS = 0.01;
+
+    private final long[] bits;
+    private final long numBits;
+    private final int numHashes;
+    private final int elementos;
+    private final int capacidad;
+
+    private FiltroBloom(long[] bits, int numHashes, int elementos, int capacidad) {
+        this.bits = bits;
+        this.numBits = (long) bits.length * 64;
+        this.numHashes = numHashes;
+        this.elementos = elementos;
+        this.capacidad = capacidad;
+    }
+
+    public static FiltroBloom construir(Collection<String> claves) {
+        return construir(claves, TASA_FALSOS_POSITIVOS);
+    }
+
+    /**
+     * @param tasaObjetivo tasa de falsos positivos buscada, en (0, 1)
+     */
+    public static FiltroBloom construir(Collection<String> claves, double tasaObjetivo) {
+        int n = Math.max(1, claves.size());
+        long m = (long) Math.ceil(-n * Math.log(tasaObjetivo) / (Math.log(2) * Math.log(2)));
+        int palabras = (int) Math.max(1, (m + 63) / 64);
+        int k = Math.max(1, (int) Math.round((double) palabras * 64 / n * Math.log(2)));
+
+        FiltroBloom filtro = new FiltroBloom(new long[palabras], k, claves.size(), n);
+        for (String clave : claves) {
+            filtro.agregar(clave);
+        }
+        return filtro;
+    }
+
+    /**
+     * Copia del filtro con claves adicionales, sin volver a dispersar las
+     * que ya tenía. Las claves borradas no se pueden quitar: siguen como
+     * posibles falsos positivos hasta la próxima reconstrucción.
+     *
+     * @return el filtro nuevo, o null si con las claves nuevas superaría el
+     *         doble de la capacidad para la que se dimensionó (la tasa de
+     *         falsos positivos se degradaría; conviene reconstruir)
+     */
+    public FiltroBloom agregando(Collection<String> claves) {
+        if (claves.isEmpty()) {
+            return this;
+        }
+        if ((long) elementos + claves.size() > 2L * capacidad) {
+            return null;
+        }
+        FiltroBloom filtro = new FiltroBloom(bits.clone(), numHashes, elementos + claves.size(), capacidad);
+        for (String clave : claves) {
+            filtro.agregar(clave);
+        }
+        return filtro;
+    }
+
+    private void agregar(String clave) {
+        long h = huella(clave);
+        long h1 = h & 0xffffffffL;
+        long h2 = h >>> 32;
+        for (int i = 0; i < numHashes; i++) {
+            long bit = (h1 + i * h2) % numBits;
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    public boolean podriaContener(String clave) {
+        long h = huella(clave);
+        long h1 = h & 0xffffffffL;
+        long h2 = h >>> 32;
+        for (int i = 0; i < numHashes; i++) {
+            long bit = (h1 + i * h2) % numBits;
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tasa de falsos positivos esperada para los elementos cargados:
+     * (1 - e^(-k·n/m))^k.
+     */
+    public double tasaFalsosPositivosTeorica() {
+        return Math.pow(1 - Math.exp(-(double) numHashes * elementos / numBits), numHashes);
+    }
+
+    public int elementos() {
+        return elementos;
+    }
+
+    public long numBits() {
+        return numBits;
+    }
+
+    public int numHashes() {
+        return numHashes;
+    }
+
+    public long bytesEstimados() {
+        return 16L + bits.length * 8L;
+    }
+
+    // FNV-1a de 64 bits + finalizador de Murmur para repartir bien ambas mitades
+    private static long huella(String clave) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < clave.length(); i++) {
+            h ^= clave.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return MapaLongInt.dispersar(h);
+    }
+}
@@ -0,0 +1,160 @@
+package com.subsidios.rentajoven.infrastructure.store;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Índice clave -> posición de registro para los almacenes compactos.
+ *
+ * Las claves en forma canónica se codifican a long y van a un
+ * {@link MapaLongInt}; las que no (p. ej. cédulas con ceros a la izquierda)
+ * caen a un HashMap de desbordamiento, que en los datos reales queda vacío.
+ */
+public final class IndiceClaves {
+
+    /**
+     * Codificación reversible de una clave de texto a long.
+     */
+    public interface Codec {
+        /**
+         * @return la clave codificada (>= 0), o -1 si no está en forma canónica
+         */
+        long codificar(String clave);
+
+        String decodificar(long codigo);
+    }
+
+    /**
+     * Cédulas numéricas sin ceros a la izquierda (hasta 18 dígitos).
+     */
+    public static final Codec CEDULA = new Codec() {
+        @Override
+        public long codificar(String clave) {
+            return digitos(clave, 0, 18, false);
+        }
+
+        @Override
+        public String decodificar(long codigo) {
+            return Long.toString(codigo);
+        }
+    };
+
+    /**
+     * IDs de matrícula con el formato MAT-NNNNNNNN (8 dígitos).
+     */
+    public static final Codec MATRICULA = new Codec() {
+        private static final String PREFIJO = "MAT-";
+        private static final int ANCHO = 8;
+
+        @Override
+        public long codificar(String clave) {
+            if (clave == null || clave.length() != PREFIJO.length() + ANCHO || !clave.startsWith(PREFIJO)) {
+                return -1;
+            }
+            return digitos(clave, PREFIJO.length(), ANCHO, true);
+        }
+
+        @Override
+        public String decodificar(long codigo) {
+            String numero = Long.toString(codigo);
+            return PREFIJO + "0".repeat(ANCHO - numero.length()) + numero;
+        }
+    };
+
+    private final Codec codec;
+    private final MapaLongInt numericas;
+    private final Map<String, Integer> desbordamiento = new HashMap<>();
+
+    public IndiceClaves(Codec codec, int capacidadEsperada) {
+        this.codec = codec;
+        this.numericas = new MapaLongInt(capacidadEsperada);
+    }
+
+    /**
+     * @return la posición del registro, o -1 si la clave no existe
+     */
+    public int posicion(String clave) {
+        long codigo = codec.codificar(clave);
+        if (codigo >= 0) {
+            return numericas.get(codigo);
+        }
+        Integer posicion = clave == null ? null : desbordamiento.get(clave);
+        return posicion != null ? posicion : -1;
+    }
+
+    /**
+     * Registra la clave en la posición indicada si es nueva.
+     *
+     * @return la posición ya existente de la clave, o -1 si se registró
+     */
+    public int registrar(String clave, int posicion) {
+        long codigo = codec.codificar(clave);
+        if (codigo >= 0) {
+            int existente = numericas.get(codigo);
+            if (existente >= 0) {
+                return existente;
+            }
+            numericas.put(codigo, posicion);
+            return -1;
+        }
+        Integer existente = desbordamiento.putIfAbsent(clave, posicion);
+        return existente != null ? existente : -1;
+    }
+
+    public int tamanio() {
+        return numericas.tamanio() + desbordamiento.size();
+    }
+
+    /**
+     * Recorre todas las claves con su posición (orden no definido).
+     */
+    public void recorrer(ObjIntConsumer<String> consumidor) {
+        numericas.recorrer((codigo, posicion) -> consumidor.accept(codec.decodificar(codigo), posicion));
+        desbordamiento.forEach((clave, posicion) -> consumidor.accept(clave, posicion));
+    }
+
+    /**
+     * Todas las claves como texto (materializa una cadena por registro).
+     */
+    public List<String> claves() {
+        List<String> claves = new ArrayList<>(tamanio());
+        recorrer((clave, posicion) -> claves.add(clave));
+        return claves;
+    }
+
+    public long bytesEstimados() {
+        return numericas.bytesEstimados() + desbordamiento.size() * 64L;
+    }
+
+    /**
+     * Parsea una secuencia de dígitos sin excepciones.
+     *
+     * @param anchoFijo si es true, exige exactamente {@code maxDigitos} dígitos
+     *                  (se permiten ceros a la izquierda)
+     * @return el valor, o -1 si el texto no es canónico
+     */
+    static long digitos(String texto, int desde, int maxDigitos, boolean anchoFijo) {
+        if (texto == null) {
+            return -1;
+        }
+        int longitud = texto.length() - desde;
+        if (longitud <= 0 || longitud > maxDigitos || (anchoFijo && longitud != maxDigitos)) {
+            return -1;
+        }
+        if (!anchoFijo && longitud > 1 && texto.charAt(desde) == '0') {
+            return -1;
+        }
+        long valor = 0;
+        for (int i = desde; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            valor = valor * 10 + (c - '0');
+        }
+        return valor;
+    }
+}
@@ -0,0 +1,129 @@
+package com.subsidios.rentajoven.infrastructure.store;
+
+import java.util.Arrays;
+
+/**
+ * Mapa long -> int de direccionamiento abierto (sondeo lineal) sin boxing.
+ * Las claves deben ser >= 0; los valores, >= 0 (se usa -1 como "no existe").
+ * No es thread-safe para escritura; tras construirlo se publica y solo se lee.
+ */
+public final class MapaLongInt {
+
+    private static final long VACIO = -1L;
+    private static final float CARGA_MAXIMA = 0.6f;
+
+    private long[] claves;
+    private int[] valores;
+    private int mascara;
+    private int tamanio;
+
+    public MapaLongInt(int capacidadEsperada) {
+        int capacidad = Integer.highestOneBit(Math.max(4, (int) (capacidadEsperada / CARGA_MAXIMA)) - 1) << 1;
+        inicializar(capacidad);
+    }
+
+    private void inicializar(int capacidad) {
+        claves = new long[capacidad];
+        Arrays.fill(claves, VACIO);
+        valores = new int[capacidad];
+        mascara = capacidad - 1;
+    }
+
+    /**
+     * @return el valor asociado, o -1 si la clave no existe
+     */
+    public int get(long clave) {
+        int i = posicion(clave);
+        long actual;
+        while ((actual = claves[i]) != VACIO) {
+            if (actual == clave) {
+                return valores[i];
+            }
+            i = (i + 1) & mascara;
+        }
+        return -1;
+    }
+
+    /**
+     * Asocia el valor a la clave.
+     *
+     * @return el valor anterior, o -1 si la clave era nueva
+     */
+    public int put(long clave, int valor) {
+        if (clave < 0) {
+            throw new IllegalArgumentException("Clave negativa: " + clave);
+        }
+        int i = posicion(clave);
+        long actual;
+        while ((actual = claves[i]) != VACIO) {
+            if (actual == clave) {
+                int anterior = valores[i];
+                valores[i] = valor;
+                return anterior;
+            }
+            i = (i + 1) & mascara;
+        }
+        claves[i] = clave;
+        valores[i] = valor;
+        if (++tamanio > claves.length * CARGA_MAXIMA) {
+            redimensionar();
+        }
+        return -1;
+    }
+
+    public int tamanio() {
+        return tamanio;
+    }
+
+    /**
+     * Recorre todas las entradas (orden no definido).
+     */
+    public void recorrer(Consumidor consumidor) {
+        for (int i = 0; i < claves.length; i++) {
+            if (claves[i] != VACIO) {
+                consumidor.aceptar(claves[i], valores[i]);
+            }
+        }
+    }
+
+    /**
+     * Bytes aproximados ocupados por los arreglos internos.
+     */
+    public long bytesEstimados() {
+        return (long) claves.length * (Long.BYTES + Integer.BYTES);
+    }
+
+    @FunctionalInterface
+    public interface Consumidor {
+        void aceptar(long clave, int valor);
+    }
+
+    private void redimensionar() {
+        long[] clavesAnteriores = claves;
+        int[] valoresAnteriores = valores;
+        inicializar(clavesAnteriores.length << 1);
+        tamanio = 0;
+        for (int i = 0; i < clavesAnteriores.length; i++) {
+            if (clavesAnteriores[i] != VACIO) {
+                put(clavesAnteriores[i], valoresAnteriores[i]);
+            }
+        }
+    }
+
+    private int posicion(long clave) {
+        return (int) dispersar(clave) & mascara;
+    }
+
+    /**
+     * Finalizador de MurmurHash3 para dispersar cédulas consecutivas.
+     */
+    static long dispersar(long clave) {
+        long h = clave;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -1,5 +1,6 @@
 package com.subsidios.rentajoven.shared.audit;
 
+import com.subsidios.rentajoven.domain.enums.CodigoValidacion;
 import com.subsidios.rentajoven.domain.enums.TipoValidacion;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -12,38 +13,68 @@ import java.time.LocalDateTime;
 /**
  * Registro de auditoría para trazabilidad completa.
  * Cada paso del proceso genera un log inmutable.
+ *
+ * Se guarda estructurado: código de resultado, valores numéricos e ids del
+ * diccionario de textos. Mensaje y detalles no se persisten; se arman al
+ * leer el registro.
  */
 @Entity
-@Table(name = "audit_logs")
+@Table(name = "audit_logs", indexes = {
+    @Index(name = "idx_audit_solicitud", columnList = "solicitudId, timestamp"),
+    // Cubre los conteos y promedios por tipo sin leer la tabla
+    @Index(name = "idx_audit_tipo", columnList = "tipoValidacion, exitosa, tiempoEjecucionMs")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class AuditLog {
-    
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
-    
+
     @Column(nullable = false)
     private Long solicitudId;
-    
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private TipoValidacion tipoValidacion;
-    
+
     @Column(nullable = false)
     private Boolean exitosa;
-    
-    @Column(columnDefinition = "TEXT")
-    private String mensaje;
-    
-    @Column(columnDefinition = "TEXT")
-    private String detalles;
-    
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private CodigoValidacion codigo;
+
+    // Valores numéricos; su significado depende del código
+    private Long valor1;
+
+    private Long valor2;
+
+    private Long valor3;
+
+    // Ids en el diccionario de textos (audit_textos)
+    private Integer institucionId;
+
+    private Integer programaId;
+
+    private Integer textoId;
+
+    // Solo para errores inesperados: no se repiten, no van al diccionario
+    @Column(length = 1000)
+    private String excepcion;
+
     @Column(nullable = false)
     private Long tiempoEjecucionMs;
-    
+
     @Column(nullable = false)
     private LocalDateTime timestamp;
-}
\ No newline at end of file
+
+    @Transient
+    private String mensaje;
+
+    @Transient
+    private String detalles;
+}
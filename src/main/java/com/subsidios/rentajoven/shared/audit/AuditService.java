@@ -1,70 +1,269 @@
 package com.subsidios.rentajoven.shared.audit;
 
+import com.subsidios.rentajoven.domain.enums.CodigoValidacion;
 import com.subsidios.rentajoven.domain.enums.TipoValidacion;
+import com.subsidios.rentajoven.domain.model.EventoValidacion;
+import com.subsidios.rentajoven.domain.model.MensajesValidacion;
 import com.subsidios.rentajoven.infrastructure.persistence.AuditLogRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Servicio de auditoría para registrar cada paso del proceso.
  * Garantiza trazabilidad completa e inmutable.
+ *
+ * Al registrar no se arma ningún texto: el evento se guarda con sus valores
+ * y los ids del diccionario. Los mensajes legibles se generan al consultar.
+ *
+ * Además de la fila en la base, cada evento va al {@link DiarioAuditoria}
+ * encadenado en disco, que es la copia a prueba de alteraciones. Los eventos
+ * de una transacción se juntan y, al confirmar, se agregan con una sola
+ * llamada y se espera su fsync antes de devolver la decisión; como el
+ * diario agrupa lo que llega mientras escribe, las decisiones concurrentes
+ * comparten ese fsync. El diario nunca tiene un evento que la base revirtió.
+ *
+ * Con el diario caído no se registra nada: la decisión falla y su
+ * transacción se revierte. Si cae entre el commit y el fsync, la decisión
+ * queda en la base y el llamador recibe el error. El estado se consulta con
+ * {@link #diarioOperativo()}.
  */
 @Service
 public class AuditService {
     
+    private static final int LARGO_EXCEPCION = 1000;
+    
     @Autowired
     private AuditLogRepository auditLogRepository;
     
+    @Autowired
+    private DiccionarioAuditoria diccionario;
+    
+    @Autowired
+    private RetencionAuditoria retencion;
+    
+    @Value("${auditoria.diario.habilitado:true}")
+    private boolean diarioHabilitado;
+    
+    @Value("${auditoria.diario.ruta:./data-audit/diario.log}")
+    private String rutaDiario;
+    
+    private DiarioAuditoria diario;
+    
+    @PostConstruct
+    public void abrirDiario() throws IOException {
+        if (diarioHabilitado) {
+            diario = new DiarioAuditoria(Path.of(rutaDiario));
+            System.out.println(String.format("🔗 Diario de auditoría: %s (%,d registros)",
+                rutaDiario, diario.registros()));
+        }
+    }
+    
+    @PreDestroy
+    public void cerrarDiario() throws IOException {
+        if (diario != null) {
+            diario.close();
+        }
+    }
+    
     /**
      * Registra un evento de auditoría.
      * 
      * @param solicitudId ID de la solicitud
      * @param tipo Tipo de validación
      * @param exitosa Si fue exitosa o no
-     * @param mensaje Mensaje descriptivo
-     * @param detalles Detalles adicionales (JSON, texto, etc.)
+     * @param evento Código y valores del resultado
      * @param tiempoMs Tiempo de ejecución en milisegundos
      */
     public void registrar(Long solicitudId, 
                          TipoValidacion tipo, 
                          boolean exitosa, 
-                         String mensaje,
-                         String detalles,
+                         EventoValidacion evento,
                          long tiempoMs) {
         
+        if (diario != null && !diario.operativo()) {
+            throw new IllegalStateException("Diario de auditoría sin operar: " + diario.motivoFalla());
+        }
+        boolean error = evento.getCodigo() == CodigoValidacion.ERROR_VALIDACION;
         AuditLog log = AuditLog.builder()
                 .solicitudId(solicitudId)
                 .tipoValidacion(tipo)
                 .exitosa(exitosa)
-                .mensaje(mensaje)
-                .detalles(detalles)
+                .codigo(evento.getCodigo())
+                .valor1(evento.getValor1())
+                .valor2(evento.getValor2())
+                .valor3(evento.getValor3())
+                .institucionId(diccionario.id(evento.getInstitucion()))
+                .programaId(diccionario.id(evento.getPrograma()))
+                .textoId(error ? null : diccionario.id(evento.getTexto()))
+                .excepcion(error ? recortar(evento.getTexto()) : null)
                 .tiempoEjecucionMs(tiempoMs)
                 .timestamp(LocalDateTime.now())
                 .build();
         
         auditLogRepository.save(log);
+        if (diario != null) {
+            DiarioAuditoria.Entrada entrada = new DiarioAuditoria.Entrada(log, evento);
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                pendientesDiario().add(entrada);
+            } else {
+                agregarAlDiario(List.of(entrada));
+            }
+        }
+    }
+    
+    /**
+     * Eventos de la transacción actual; van al diario cuando confirma.
+     */
+    @SuppressWarnings("unchecked")
+    private List<DiarioAuditoria.Entrada> pendientesDiario() {
+        List<DiarioAuditoria.Entrada> pendientes =
+            (List<DiarioAuditoria.Entrada>) TransactionSynchronizationManager.getResource(this);
+        if (pendientes == null) {
+            List<DiarioAuditoria.Entrada> nuevas = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, nuevas);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    agregarAlDiario(nuevas);
+                }
+                
+                @Override
+                public void afterCompletion(int estado) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AuditService.this);
+                }
+            });
+            pendientes = nuevas;
+        }
+        return pendientes;
+    }
+    
+    // Espera el fsync del lote: con otros llamadores esperando, es uno solo para todos
+    private void agregarAlDiario(List<DiarioAuditoria.Entrada> entradas) {
+        try {
+            diario.agregar(entradas).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Escritura en el diario de auditoría interrumpida", e);
+        } catch (ExecutionException e) {
+            System.err.println(String.format("⚠️  %,d eventos de auditoría no llegaron al diario: %s",
+                entradas.size(), e.getCause().getMessage()));
+            throw new IllegalStateException("Decisión confirmada sin registro en el diario de auditoría",
+                e.getCause());
+        }
+    }
+    
+    /**
+     * Estado del diario: null si está deshabilitado, false si dejó de escribir.
+     */
+    public Boolean diarioOperativo() {
+        return diario != null ? diario.operativo() : null;
+    }
+    
+    /**
+     * Motivo por el que el diario dejó de escribir; null si opera o está deshabilitado.
+     */
+    public String fallaDiario() {
+        return diario != null ? diario.motivoFalla() : null;
+    }
+    
+    /**
+     * Registra en el diccionario, fuera de la ruta de las decisiones, textos
+     * que se sabe que van a aparecer en los eventos.
+     */
+    public void precargarTextos(Collection<String> textos) {
+        diccionario.precargar(textos);
     }
     
     /**
      * Obtiene todos los logs de una solicitud específica.
      * 
      * @param solicitudId ID de la solicitud
-     * @return Lista de logs ordenados cronológicamente
+     * @return Lista de logs ordenados cronológicamente, con sus mensajes
+     *         (incluye los ya archivados)
      */
     public List<AuditLog> obtenerLogsSolicitud(Long solicitudId) {
-        return auditLogRepository.findBySolicitudIdOrderByTimestampAsc(solicitudId);
+        List<AuditLog> archivados = retencion.buscar(solicitudId);
+        List<AuditLog> recientes = auditLogRepository.findBySolicitudIdOrderByTimestampAsc(solicitudId);
+        if (archivados.isEmpty()) {
+            return renderizar(recientes);
+        }
+        // Un registro puede estar en las dos fuentes mientras se archiva
+        Map<Long, AuditLog> porId = new LinkedHashMap<>();
+        for (AuditLog log : archivados) {
+            porId.put(log.getId(), log);
+        }
+        for (AuditLog log : recientes) {
+            porId.putIfAbsent(log.getId(), log);
+        }
+        List<AuditLog> logs = new ArrayList<>(porId.values());
+        logs.sort(Comparator.comparing(AuditLog::getTimestamp).thenComparing(AuditLog::getId));
+        return renderizar(logs);
     }
     
     /**
      * Obtiene todos los logs de un tipo de validación.
      * 
      * @param tipo Tipo de validación
-     * @return Lista de logs
+     * @return Lista de logs, con sus mensajes
      */
     public List<AuditLog> obtenerLogsPorTipo(TipoValidacion tipo) {
-        return auditLogRepository.findByTipoValidacion(tipo);
+        return renderizar(auditLogRepository.findByTipoValidacion(tipo));
+    }
+    
+    /**
+     * Recorre el diario de auditoría recalculando la cadena de hashes.
+     * 
+     * @return null si el diario está deshabilitado
+     */
+    public DiarioAuditoria.Verificacion verificarDiario() throws IOException {
+        return diario != null ? DiarioAuditoria.verificar(diario.ruta()) : null;
+    }
+    
+    /**
+     * Reconstruye el evento de un registro resolviendo los ids del diccionario.
+     */
+    public EventoValidacion evento(AuditLog log) {
+        return EventoValidacion.builder()
+                .codigo(log.getCodigo())
+                .valor1(valor(log.getValor1()))
+                .valor2(valor(log.getValor2()))
+                .valor3(valor(log.getValor3()))
+                .institucion(diccionario.texto(log.getInstitucionId()))
+                .programa(diccionario.texto(log.getProgramaId()))
+                .texto(log.getExcepcion() != null ? log.getExcepcion() : diccionario.texto(log.getTextoId()))
+                .build();
+    }
+    
+    private List<AuditLog> renderizar(List<AuditLog> logs) {
+        for (AuditLog log : logs) {
+            EventoValidacion evento = evento(log);
+            log.setMensaje(MensajesValidacion.mensaje(evento));
+            log.setDetalles(MensajesValidacion.detalle(evento));
+        }
+        return logs;
+    }
+    
+    private static String recortar(String texto) {
+        return texto != null && texto.length() > LARGO_EXCEPCION ? texto.substring(0, LARGO_EXCEPCION) : texto;
+    }
+    
+    private static long valor(Long valor) {
+        return valor != null ? valor : 0;
     }
-}
\ No newline at end of file
+}
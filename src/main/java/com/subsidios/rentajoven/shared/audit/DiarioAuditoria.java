@@ -0,0 +1,554 @@
+package com.subsidios.rentajoven.shared.audit;
+
+import com.subsidios.rentajoven.domain.model.EventoValidacion;
+import com.subsidios.rentajoven.domain.model.MensajesValidacion;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * Diario de auditoría: archivo de solo agregado donde cada registro queda
+ * encadenado al anterior por SHA-256, así que cambiar, quitar o reordenar
+ * un registro rompe la cadena desde ese punto.
+ *
+ * <pre>
+ * Cabecera (big-endian): int magic 'RJAD', int version, long creado (epoch ms)
+ * Registro:              int largo, byte[largo] registro, byte[32] hash
+ *                        hash = SHA-256(hash anterior || registro)
+ * </pre>
+ * El hash anterior del primer registro es el SHA-256 de la cabecera. El
+ * registro es el de {@link SegmentosAuditoria} seguido de los textos ya
+ * resueltos (institución, programa, texto): la cadena cubre lo que dice el
+ * evento y no solo ids de un diccionario que vive en la base.
+ *
+ * Escritura con commit agrupado: {@link #agregar} encola, y un único hilo
+ * escribe todo lo encolado con una sola escritura y un solo fsync antes de
+ * completar los futuros. Con muchos hilos agregando, un fsync cubre a todos
+ * los que llegaron mientras se hacía el anterior; las entradas de una misma
+ * llamada quedan seguidas.
+ *
+ * Al abrir un diario existente se descarta un último registro incompleto
+ * (escritura interrumpida); cualquier otro daño es un error y el archivo no
+ * se toca. {@link #verificar} y {@link #reproducir} recorren el archivo
+ * recalculando la cadena.
+ */
+public final class DiarioAuditoria implements Closeable {
+
+    public static final int MAGIC = 0x524A4144; // "RJAD"
+    public static final int VERSION = 1;
+
+    private static final int LARGO_CABECERA = 16;
+    private static final int LARGO_HASH = 32;
+    private static final int LARGO_MAXIMO = 1 << 20;
+    private static final int LOTE_MAXIMO = 4096;
+
+    private final Path ruta;
+    private final FileChannel canal;
+    private final LinkedBlockingQueue<Pendiente> cola = new LinkedBlockingQueue<>();
+    private final Thread escritor;
+    private final MessageDigest sha = sha256();
+
+    // Solo los toca el hilo escritor (y el constructor antes de arrancarlo)
+    private byte[] ultimoHash;
+    private volatile long registros;
+    private volatile long commits;
+
+    private volatile IOException falla;
+    private volatile boolean cerrado;
+
+    // Marca de fin que encola close()
+    private static final Pendiente FIN = new Pendiente(List.of());
+
+    private static final class Pendiente {
+        final List<byte[]> registros;
+        final CompletableFuture<Long> hecho = new CompletableFuture<>();
+
+        Pendiente(List<byte[]> registros) {
+            this.registros = registros;
+        }
+    }
+
+    /**
+     * Un registro de auditoría con el evento del que salió, que aporta los
+     * textos resueltos.
+     */
+    public static final class Entrada {
+        private final AuditLog log;
+        private final EventoValidacion evento;
+
+        public Entrada(AuditLog log, EventoValidacion evento) {
+            this.log = log;
+            this.evento = evento;
+        }
+    }
+
+    /**
+     * Resultado de recorrer un diario recalculando la cadena.
+     */
+    public static final class Verificacion {
+        private final long registros;
+        private final boolean valido;
+        private final long posicionFalla;
+        private final String ultimoHash;
+        private final String mensaje;
+
+        Verificacion(long registros, boolean valido, long posicionFalla, String ultimoHash, String mensaje) {
+            this.registros = registros;
+            this.valido = valido;
+            this.posicionFalla = posicionFalla;
+            this.ultimoHash = ultimoHash;
+            this.mensaje = mensaje;
+        }
+
+        /** Registros válidos antes de la falla (todos si es válido). */
+        public long getRegistros() {
+            return registros;
+        }
+
+        public boolean isValido() {
+            return valido;
+        }
+
+        /** Byte donde empieza el primer registro inválido; -1 si es válido. */
+        public long getPosicionFalla() {
+            return posicionFalla;
+        }
+
+        /** Hash del último registro válido, en hexadecimal. */
+        public String getUltimoHash() {
+            return ultimoHash;
+        }
+
+        public String getMensaje() {
+            return mensaje;
+        }
+    }
+
+    /**
+     * Abre el diario, creándolo si no existe, y arranca el hilo escritor.
+     */
+    public DiarioAuditoria(Path ruta) throws IOException {
+        this.ruta = ruta;
+        if (ruta.getParent() != null) {
+            Files.createDirectories(ruta.getParent());
+        }
+        this.canal = FileChannel.open(ruta, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        try {
+            if (canal.size() == 0) {
+                ByteBuffer cabecera = ByteBuffer.allocate(LARGO_CABECERA);
+                cabecera.putInt(MAGIC).putInt(VERSION).putLong(System.currentTimeMillis()).flip();
+                escribirCompleto(canal, cabecera, 0);
+                canal.force(true);
+                ultimoHash = sha.digest(cabecera.array());
+            } else {
+                recuperarFinal();
+            }
+            canal.position(canal.size());
+        } catch (IOException e) {
+            canal.close();
+            throw e;
+        }
+        escritor = new Thread(this::escribir, "diario-auditoria");
+        escritor.setDaemon(true);
+        escritor.start();
+    }
+
+    /**
+     * Agrega un registro y espera a que esté en disco.
+     *
+     * @return número de registro (desde 1)
+     */
+    public long registrar(Entrada entrada) {
+        try {
+            return agregar(List.of(entrada)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Registro en el diario interrumpido", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException io
+                ? new UncheckedIOException("No se pudo escribir el diario de auditoría", io)
+                : new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Agrega los registros, seguidos y en orden, sin esperar; el futuro se
+     * completa cuando están en disco.
+     *
+     * @return futuro con el número del último registro
+     */
+    public CompletableFuture<Long> agregar(List<Entrada> entradas) {
+        if (entradas.isEmpty()) {
+            return CompletableFuture.completedFuture(registros);
+        }
+        Pendiente pendiente;
+        try {
+            List<byte[]> serializados = new ArrayList<>(entradas.size());
+            for (Entrada entrada : entradas) {
+                serializados.add(serializar(entrada));
+            }
+            pendiente = new Pendiente(serializados);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (cerrado) {
+            return CompletableFuture.failedFuture(new IOException("Diario de auditoría cerrado"));
+        }
+        if (falla != null) {
+            return CompletableFuture.failedFuture(falla);
+        }
+        cola.add(pendiente);
+        return pendiente.hecho;
+    }
+
+    /**
+     * false si está cerrado o si una escritura falló: tras una falla no se
+     * sigue escribiendo (la cadena quedaría con un hueco) y toda agregación
+     * falla hasta reabrirlo.
+     */
+    public boolean operativo() {
+        return falla == null && !cerrado;
+    }
+
+    /**
+     * Mensaje de la escritura que dejó el diario sin operar; null si no falló.
+     */
+    public String motivoFalla() {
+        IOException e = falla;
+        return e != null ? e.getMessage() : null;
+    }
+
+    /**
+     * Registros escritos en este diario (incluye los de antes de abrirlo).
+     */
+    public long registros() {
+        return registros;
+    }
+
+    /**
+     * fsync hechos desde que se abrió; con concurrencia, muchos menos que registros.
+     */
+    public long commits() {
+        return commits;
+    }
+
+    public Path ruta() {
+        return ruta;
+    }
+
+    /**
+     * Espera a que se escriba lo encolado y cierra el archivo.
+     */
+    @Override
+    public void close() throws IOException {
+        if (cerrado) {
+            return;
+        }
+        cerrado = true;
+        cola.add(FIN);
+        try {
+            escritor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Lo que alcanzó a encolarse después de la marca
+        for (Pendiente p = cola.poll(); p != null; p = cola.poll()) {
+            p.hecho.completeExceptionally(new IOException("Diario de auditoría cerrado"));
+        }
+        canal.close();
+    }
+
+    // ===================================================================
+    // ESCRITURA
+    // ===================================================================
+
+    // No se usa interrupt para detenerlo: interrumpir un FileChannel lo cierra
+    private void escribir() {
+        List<Pendiente> lote = new ArrayList<>();
+        boolean fin = false;
+        while (!fin) {
+            try {
+                lote.add(cola.take());
+            } catch (InterruptedException e) {
+                continue;
+            }
+            cola.drainTo(lote, LOTE_MAXIMO - 1);
+            fin = lote.remove(FIN);
+            if (!lote.isEmpty()) {
+                escribirLote(lote);
+            }
+            lote.clear();
+        }
+    }
+
+    private void escribirLote(List<Pendiente> lote) {
+        if (falla != null) {
+            lote.forEach(p -> p.hecho.completeExceptionally(falla));
+            return;
+        }
+        int bytes = 0;
+        for (Pendiente p : lote) {
+            for (byte[] registro : p.registros) {
+                bytes += 4 + registro.length + LARGO_HASH;
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(bytes);
+        byte[] hash = ultimoHash;
+        for (Pendiente p : lote) {
+            for (byte[] registro : p.registros) {
+                hash = encadenar(sha, hash, registro);
+                buffer.putInt(registro.length).put(registro).put(hash);
+            }
+        }
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            canal.force(false);
+        } catch (IOException e) {
+            // Lo que se haya escrito a medias se descarta al reabrir; no se sigue escribiendo
+            falla = e;
+            lote.forEach(p -> p.hecho.completeExceptionally(e));
+            return;
+        }
+        ultimoHash = hash;
+        commits++;
+        for (Pendiente p : lote) {
+            registros += p.registros.size();
+            p.hecho.complete(registros);
+        }
+    }
+
+    // Bits de presencia de los textos resueltos
+    private static final int INSTITUCION = 1, PROGRAMA = 2, TEXTO = 4;
+
+    private static byte[] serializar(Entrada entrada) throws IOException {
+        AuditLog log = entrada.log;
+        EventoValidacion evento = entrada.evento;
+        // En un error el texto es la excepción, que ya va en el registro
+        String texto = log.getExcepcion() == null ? evento.getTexto() : null;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(160);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            SegmentosAuditoria.escribirRegistro(out, log);
+            out.writeByte((evento.getInstitucion() != null ? INSTITUCION : 0)
+                | (evento.getPrograma() != null ? PROGRAMA : 0) | (texto != null ? TEXTO : 0));
+            if (evento.getInstitucion() != null) out.writeUTF(evento.getInstitucion());
+            if (evento.getPrograma() != null) out.writeUTF(evento.getPrograma());
+            if (texto != null) out.writeUTF(texto);
+        }
+        return bytes.toByteArray();
+    }
+
+    // El registro con mensaje y detalles armados con los textos del propio diario
+    private static AuditLog leer(byte[] registro) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(registro));
+        AuditLog log = SegmentosAuditoria.leerRegistro(in, -1);
+        int presentes = in.readByte();
+        EventoValidacion evento = EventoValidacion.builder()
+                .codigo(log.getCodigo())
+                .valor1(log.getValor1() != null ? log.getValor1() : 0)
+                .valor2(log.getValor2() != null ? log.getValor2() : 0)
+                .valor3(log.getValor3() != null ? log.getValor3() : 0)
+                .institucion((presentes & INSTITUCION) != 0 ? in.readUTF() : null)
+                .programa((presentes & PROGRAMA) != 0 ? in.readUTF() : null)
+                .texto((presentes & TEXTO) != 0 ? in.readUTF() : log.getExcepcion())
+                .build();
+        log.setMensaje(MensajesValidacion.mensaje(evento));
+        log.setDetalles(MensajesValidacion.detalle(evento));
+        return log;
+    }
+
+    // ===================================================================
+    // APERTURA, VERIFICACIÓN Y REPRODUCCIÓN
+    // ===================================================================
+
+    /**
+     * Ubica el final del último registro completo sin recalcular la cadena
+     * (para eso está {@link #verificar}) y trunca lo que sobre.
+     */
+    private void recuperarFinal() throws IOException {
+        long tamanio = canal.size();
+        ByteBuffer cabecera = ByteBuffer.allocate(LARGO_CABECERA);
+        if (tamanio < LARGO_CABECERA) {
+            throw new IOException("Diario de auditoría sin cabecera: " + ruta);
+        }
+        leerCompleto(canal, cabecera, 0);
+        validarCabecera(cabecera.flip());
+        byte[] hash = sha.digest(cabecera.array());
+
+        long posicion = LARGO_CABECERA;
+        long total = 0;
+        ByteBuffer largo = ByteBuffer.allocate(4);
+        ByteBuffer ultimo = ByteBuffer.allocate(LARGO_HASH);
+        while (posicion < tamanio) {
+            if (tamanio - posicion < 4) {
+                break;
+            }
+            largo.clear();
+            leerCompleto(canal, largo, posicion);
+            int n = largo.flip().getInt();
+            if (n <= 0 || n > LARGO_MAXIMO) {
+                throw new IOException("Diario de auditoría dañado en el byte " + posicion + ": " + ruta);
+            }
+            long fin = posicion + 4 + n + LARGO_HASH;
+            if (fin > tamanio) {
+                break;
+            }
+            ultimo.clear();
+            leerCompleto(canal, ultimo, fin - LARGO_HASH);
+            hash = ultimo.array().clone();
+            posicion = fin;
+            total++;
+        }
+        if (posicion < tamanio) {
+            System.err.println(String.format("⚠️  Diario de auditoría: se descartan %,d bytes de un registro incompleto",
+                tamanio - posicion));
+            canal.truncate(posicion);
+            canal.force(true);
+        }
+        ultimoHash = hash;
+        registros = total;
+    }
+
+    /**
+     * Recorre el diario recalculando la cadena. No lanza por registros
+     * inválidos: los informa en el resultado.
+     */
+    public static Verificacion verificar(Path ruta) throws IOException {
+        return recorrer(ruta, log -> { });
+    }
+
+    /**
+     * Entrega en orden cada registro del diario mientras la cadena sea
+     * válida, con mensaje y detalles armados con los textos del diario.
+     *
+     * @return registros entregados
+     * @throws IOException si la cadena se rompe o el archivo no es un diario
+     */
+    public static long reproducir(Path ruta, Consumer<AuditLog> consumidor) throws IOException {
+        Verificacion verificacion = recorrer(ruta, consumidor);
+        if (!verificacion.isValido()) {
+            throw new IOException(verificacion.getMensaje());
+        }
+        return verificacion.getRegistros();
+    }
+
+    static Verificacion recorrer(Path ruta, Consumer<AuditLog> consumidor) throws IOException {
+        MessageDigest sha = sha256();
+        try (InputStream archivo = new BufferedInputStream(Files.newInputStream(ruta), 256 * 1024)) {
+            DataInputStream in = new DataInputStream(archivo);
+            byte[] cabecera = new byte[LARGO_CABECERA];
+            in.readFully(cabecera);
+            validarCabecera(ByteBuffer.wrap(cabecera));
+            byte[] hash = sha.digest(cabecera);
+
+            long posicion = LARGO_CABECERA;
+            long total = 0;
+            byte[] guardado = new byte[LARGO_HASH];
+            while (true) {
+                int n;
+                try {
+                    n = in.readInt();
+                } catch (EOFException e) {
+                    return new Verificacion(total, true, -1, hex(hash), "Cadena íntegra");
+                }
+                if (n <= 0 || n > LARGO_MAXIMO) {
+                    return falla(total, posicion, hash, "largo inválido");
+                }
+                byte[] registro = new byte[n];
+                try {
+                    in.readFully(registro);
+                    in.readFully(guardado);
+                } catch (EOFException e) {
+                    return falla(total, posicion, hash, "registro incompleto");
+                }
+                byte[] calculado = encadenar(sha, hash, registro);
+                if (!Arrays.equals(calculado, guardado)) {
+                    return falla(total, posicion, hash, "el hash no coincide con la cadena");
+                }
+                AuditLog log;
+                try {
+                    log = leer(registro);
+                } catch (IOException | RuntimeException e) {
+                    return falla(total, posicion, hash, "registro ilegible (" + e.getMessage() + ")");
+                }
+                consumidor.accept(log);
+                hash = calculado;
+                posicion += 4 + n + LARGO_HASH;
+                total++;
+            }
+        }
+    }
+
+    private static Verificacion falla(long total, long posicion, byte[] hash, String motivo) {
+        return new Verificacion(total, false, posicion, hex(hash),
+            String.format("Registro %,d (byte %,d): %s", total + 1, posicion, motivo));
+    }
+
+    // ===================================================================
+    // UTILIDADES
+    // ===================================================================
+
+    private static void validarCabecera(ByteBuffer cabecera) throws IOException {
+        if (cabecera.getInt() != MAGIC || cabecera.getInt() != VERSION) {
+            throw new IOException("No es un diario de auditoría compatible");
+        }
+    }
+
+    private static byte[] encadenar(MessageDigest sha, byte[] anterior, byte[] registro) {
+        sha.update(anterior);
+        sha.update(registro);
+        return sha.digest();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] hash) {
+        return HexFormat.of().formatHex(hash);
+    }
+
+    private static void leerCompleto(FileChannel canal, ByteBuffer buffer, long posicion) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (canal.read(buffer, posicion + buffer.position()) < 0) {
+                throw new EOFException();
+            }
+        }
+    }
+
+    private static void escribirCompleto(FileChannel canal, ByteBuffer buffer, long posicion) throws IOException {
+        while (buffer.hasRemaining()) {
+            canal.write(buffer, posicion + buffer.position());
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.subsidios.rentajoven.shared.audit;
+
+import com.subsidios.rentajoven.infrastructure.persistence.TextoAuditoriaRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Diccionario texto <-> id para los registros de auditoría.
+ *
+ * Los textos se repiten mucho (unas cuantas instituciones, programas y
+ * estados), así que cada uno se guarda una vez y los registros llevan su id.
+ *
+ * Al arrancar se cargan los textos ya registrados y se precargan los
+ * conocidos (programas, versiones de reglas, instituciones, estados), así
+ * que en la ruta de una decisión casi siempre basta el mapa en memoria. Un
+ * texto nuevo se inserta en la transacción de quien lo trae, sin pedir otra
+ * conexión, y su id pasa al mapa compartido solo cuando esa transacción
+ * confirma: si se revierte, el id no queda en memoria.
+ */
+@Component
+public class DiccionarioAuditoria {
+
+    private static final String INSERTAR = "INSERT INTO audit_textos (texto) VALUES (?)";
+    private static final String BUSCAR = "SELECT id FROM audit_textos WHERE texto = ?";
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final Map<Integer, String> textos = new ConcurrentHashMap<>();
+
+    private final TextoAuditoriaRepository repositorio;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transaccion;
+
+    @Autowired
+    public DiccionarioAuditoria(TextoAuditoriaRepository repositorio, JdbcTemplate jdbc,
+                                PlatformTransactionManager transacciones) {
+        this.repositorio = repositorio;
+        this.jdbc = jdbc;
+        this.transaccion = new TransactionTemplate(transacciones);
+    }
+
+    @PostConstruct
+    public void cargar() {
+        for (TextoAuditoria texto : repositorio.findAll()) {
+            ids.put(texto.getTexto(), texto.getId());
+            textos.put(texto.getId(), texto.getTexto());
+        }
+    }
+
+    /**
+     * Registra de una vez, en una transacción propia, los textos que aún no
+     * tienen id. Se llama al arrancar, cuando nadie tiene una conexión tomada.
+     */
+    public void precargar(Collection<String> conocidos) {
+        int antes = ids.size();
+        Map<String, Integer> nuevos = transaccion.execute(estado -> {
+            Map<String, Integer> registrados = new HashMap<>();
+            for (String texto : conocidos) {
+                if (texto != null && !ids.containsKey(texto) && !registrados.containsKey(texto)) {
+                    registrados.put(texto, buscarOInsertar(texto));
+                }
+            }
+            return registrados;
+        });
+        publicar(nuevos);
+        System.out.println(String.format("📚 Diccionario de auditoría: %,d textos (%,d precargados)",
+            ids.size(), ids.size() - antes));
+    }
+
+    /**
+     * Id del texto, registrándolo si es la primera vez que aparece.
+     */
+    public Integer id(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        Integer id = ids.get(texto);
+        if (id != null) {
+            return id;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Sin transacción de quien llama: una propia y corta
+            id = transaccion.execute(estado -> buscarOInsertar(texto));
+            publicar(Map.of(texto, id));
+            return id;
+        }
+        Map<String, Integer> pendientes = pendientes();
+        id = pendientes.get(texto);
+        if (id == null) {
+            id = buscarOInsertar(texto);
+            pendientes.put(texto, id);
+        }
+        return id;
+    }
+
+    /**
+     * Texto de un id, o null si no hay id.
+     */
+    public String texto(Integer id) {
+        if (id == null) {
+            return null;
+        }
+        String texto = textos.get(id);
+        if (texto == null) {
+            texto = repositorio.findById(id).map(TextoAuditoria::getTexto).orElse(null);
+            if (texto != null) {
+                textos.put(id, texto);
+            }
+        }
+        return texto;
+    }
+
+    /**
+     * Textos insertados por la transacción actual; pasan al mapa compartido
+     * al confirmar.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Integer> pendientes() {
+        Map<String, Integer> pendientes = (Map<String, Integer>) TransactionSynchronizationManager.getResource(this);
+        if (pendientes == null) {
+            Map<String, Integer> nuevos = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, nuevos);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publicar(nuevos);
+                }
+
+                @Override
+                public void afterCompletion(int estado) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(DiccionarioAuditoria.this);
+                }
+            });
+            pendientes = nuevos;
+        }
+        return pendientes;
+    }
+
+    private void publicar(Map<String, Integer> nuevos) {
+        nuevos.forEach((texto, id) -> {
+            ids.putIfAbsent(texto, id);
+            textos.put(id, texto);
+        });
+    }
+
+    /**
+     * Busca el texto y, si no está, lo inserta con la conexión de la
+     * transacción actual. El insert va en un savepoint: si otra transacción
+     * confirmó el mismo texto entretanto, se vuelve a él y se lee el id ganador.
+     */
+    private Integer buscarOInsertar(String texto) {
+        return jdbc.execute((ConnectionCallback<Integer>) conexion -> {
+            Integer id = buscar(conexion, texto);
+            if (id != null) {
+                return id;
+            }
+            Savepoint savepoint = conexion.setSavepoint();
+            try (PreparedStatement insert = conexion.prepareStatement(INSERTAR, Statement.RETURN_GENERATED_KEYS)) {
+                insert.setString(1, texto);
+                insert.executeUpdate();
+                try (ResultSet claves = insert.getGeneratedKeys()) {
+                    claves.next();
+                    id = claves.getInt(1);
+                }
+                conexion.releaseSavepoint(savepoint);
+                return id;
+            } catch (SQLIntegrityConstraintViolationException e) {
+                conexion.rollback(savepoint);
+                return buscar(conexion, texto);
+            }
+        });
+    }
+
+    private static Integer buscar(Connection conexion, String texto) throws SQLException {
+        try (PreparedStatement consulta = conexion.prepareStatement(BUSCAR)) {
+            consulta.setString(1, texto);
+            try (ResultSet fila = consulta.executeQuery()) {
+                return fila.next() ? fila.getInt(1) : null;
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.subsidios.rentajoven.shared.audit;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Identidad de la base de auditoría: una sola fila, creada la primera vez
+ * que arranca la aplicación sobre esa base. El archivo de segmentos guarda
+ * el mismo id, así que no se mezcla con una base distinta (por ejemplo una
+ * en memoria recreada al reiniciar, donde los ids vuelven a empezar).
+ */
+@Entity
+@Table(name = "audit_instancia")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InstanciaAuditoria {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(nullable = false)
+    private LocalDateTime creada;
+}
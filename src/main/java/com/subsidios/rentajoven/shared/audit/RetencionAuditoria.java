@@ -0,0 +1,185 @@
+package com.subsidios.rentajoven.shared.audit;
+
+import com.subsidios.rentajoven.infrastructure.persistence.AuditLogRepository;
+import com.subsidios.rentajoven.infrastructure.persistence.InstanciaAuditoriaRepository;
+import com.subsidios.rentajoven.infrastructure.persistence.ResumenValidaciones;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retención de la auditoría: los registros más viejos que el plazo salen de
+ * la base y pasan a {@link SegmentosAuditoria} en disco.
+ *
+ * Cada corrida toma lotes en orden de id, escribe un segmento por lote y
+ * solo entonces borra esas filas. Si el proceso cae entre las dos cosas, al
+ * arrancar se borran las filas que ya están en el último segmento. Las
+ * consultas de una solicitud juntan las dos fuentes (sin repetir ids), así
+ * que un lector concurrente nunca ve un hueco. Los totales de un segmento
+ * solo se suman a los de la base cuando sus filas ya se borraron.
+ *
+ * El archivo queda atado a la base por {@link InstanciaAuditoria}: con una
+ * base nueva (la de memoria tras reiniciar) no se usan segmentos viejos
+ * cuyos ids de solicitud y de auditoría se repetirían.
+ */
+@Service
+public class RetencionAuditoria {
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private InstanciaAuditoriaRepository instancias;
+
+    @Autowired
+    private PlatformTransactionManager transacciones;
+
+    @Value("${auditoria.retencion.habilitada:true}")
+    private boolean habilitada;
+
+    @Value("${auditoria.retencion.horas:168}")
+    private long horas;
+
+    @Value("${auditoria.retencion.intervalo.ms:3600000}")
+    private long intervaloMs;
+
+    @Value("${auditoria.retencion.lote:50000}")
+    private int lote;
+
+    @Value("${auditoria.archivo.directorio:./data-audit}")
+    private String directorio;
+
+    private SegmentosAuditoria segmentos;
+    private boolean ultimoCompletado;
+    private final ScheduledExecutorService ejecutor = Executors.newSingleThreadScheduledExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "retencion-auditoria");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    @PostConstruct
+    public void abrir() {
+        if (!habilitada) {
+            return;
+        }
+        try {
+            segmentos = new SegmentosAuditoria(Path.of(directorio), instancia());
+        } catch (IOException e) {
+            System.err.println("⚠️  No se pudo abrir el archivo de auditoría: " + e.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        if (segmentos == null) {
+            return;
+        }
+        ejecutor.scheduleWithFixedDelay(() -> {
+            try {
+                archivar();
+            } catch (Exception e) {
+                System.err.println("⚠️  Retención de auditoría falló: " + e.getMessage());
+            }
+        }, 0, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    // Id de esta base, creándolo la primera vez
+    private String instancia() {
+        return new TransactionTemplate(transacciones).execute(estado -> instancias.findAll().stream()
+            .findFirst()
+            .orElseGet(() -> instancias.save(new InstanciaAuditoria(UUID.randomUUID().toString(), LocalDateTime.now())))
+            .getId());
+    }
+
+    /**
+     * Archiva todo lo anterior al plazo de retención.
+     *
+     * @return registros archivados
+     */
+    public long archivar() throws IOException {
+        return archivar(LocalDateTime.now().minusHours(horas));
+    }
+
+    /**
+     * Archiva los registros con timestamp anterior al límite.
+     *
+     * @return registros archivados
+     */
+    public synchronized long archivar(LocalDateTime limite) throws IOException {
+        if (segmentos == null) {
+            return 0;
+        }
+        TransactionTemplate escritura = new TransactionTemplate(transacciones);
+        if (!ultimoCompletado) {
+            completarUltimoSegmento(escritura);
+            ultimoCompletado = true;
+        }
+
+        long inicio = System.currentTimeMillis();
+        long archivados = 0;
+        while (true) {
+            List<AuditLog> viejos = escritura.execute(estado ->
+                auditLogRepository.findByTimestampBeforeOrderByIdAsc(limite, Limit.of(lote)));
+            if (viejos == null || viejos.isEmpty()) {
+                break;
+            }
+            segmentos.escribir(viejos);
+            List<Long> ids = new ArrayList<>(viejos.size());
+            for (AuditLog log : viejos) {
+                ids.add(log.getId());
+            }
+            escritura.executeWithoutResult(estado -> auditLogRepository.deleteAllByIdInBatch(ids));
+            segmentos.confirmarUltimo();
+            archivados += viejos.size();
+            if (viejos.size() < lote) {
+                break;
+            }
+        }
+        if (archivados > 0) {
+            System.out.println(String.format("🗄️  Auditoría archivada: %,d registros en %,d ms (%,d segmentos, %,d KB)",
+                archivados, System.currentTimeMillis() - inicio, segmentos.segmentos(), segmentos.bytesEnDisco() / 1024));
+        }
+        return archivados;
+    }
+
+    /**
+     * Registros archivados de una solicitud; vacío si el archivo está deshabilitado.
+     */
+    public List<AuditLog> buscar(long solicitudId) {
+        return segmentos != null ? segmentos.buscar(solicitudId) : List.of();
+    }
+
+    /**
+     * Conteos y tiempos por tipo de lo archivado que ya no está en la base,
+     * para sumar a los de la base.
+     */
+    public List<ResumenValidaciones> resumen() {
+        return segmentos != null ? segmentos.resumen() : List.of();
+    }
+
+    // Borra de la base lo que quedó en el último segmento si la corrida anterior no llegó a hacerlo
+    private void completarUltimoSegmento(TransactionTemplate escritura) throws IOException {
+        Set<Long> ids = segmentos.idsUltimoSegmento();
+        if (!ids.isEmpty()) {
+            escritura.executeWithoutResult(estado -> auditLogRepository.deleteAllByIdInBatch(ids));
+        }
+        segmentos.confirmarUltimo();
+    }
+}
@@ -0,0 +1,589 @@
+package com.subsidios.rentajoven.shared.audit;
+
+import com.subsidios.rentajoven.domain.enums.CodigoValidacion;
+import com.subsidios.rentajoven.domain.enums.TipoValidacion;
+import com.subsidios.rentajoven.infrastructure.persistence.ResumenValidaciones;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+/**
+ * Archivo de registros de auditoría en segmentos inmutables en disco.
+ *
+ * Cada segmento son dos archivos:
+ * <pre>
+ * segmento-NNNNNN.seg   bloques comprimidos (deflate), uno por solicitud:
+ *                         int n, n x registro
+ * segmento-NNNNNN.idx   (big-endian)
+ *   int   magic 'RJAI', int version
+ *   long  solicitudMinima, solicitudMaxima, registros
+ *   int   n resúmenes, n x (cadena tipo, boolean exitosa, long total, long tiempoMs)
+ *   int   n entradas, n x (long solicitudId, long offset, int largo)   ordenadas por id
+ * </pre>
+ * Un registro guarda los campos persistidos de {@link AuditLog}; mensaje y
+ * detalles se siguen armando al leer.
+ *
+ * Un segmento existe cuando existe su .idx: ambos se escriben como
+ * temporales y el .idx se renombra al final. En memoria solo queda, por
+ * segmento, el rango de solicitudes y los totales por tipo; buscar una
+ * solicitud lee el índice del segmento que la cubre y descomprime un bloque.
+ *
+ * Los totales de un segmento recién escrito no entran en {@link #resumen()}
+ * hasta que quien lo escribió confirma que sus filas ya salieron de la base
+ * ({@link #confirmarUltimo()}); al reabrir, el último segmento vuelve a
+ * quedar sin confirmar. Así la suma base + archivo no cuenta dos veces esas
+ * filas, ni siquiera tras una caída entre escribir y borrar.
+ *
+ * El directorio pertenece a una base: el archivo {@code instancia} guarda su
+ * id. Si se abre con otra (una base en memoria recreada al reiniciar, donde
+ * los ids de solicitud y de auditoría vuelven a empezar), los segmentos
+ * existentes se apartan a un subdirectorio y no se consultan ni se suman.
+ */
+public final class SegmentosAuditoria {
+
+    public static final int MAGIC = 0x524A4149; // "RJAI"
+    public static final int VERSION = 1;
+
+    private static final String PREFIJO = "segmento-";
+    private static final String INSTANCIA = "instancia";
+    private static final int LARGO_ENTRADA = 20;
+
+    private final Path directorio;
+    private final List<Segmento> segmentos = new CopyOnWriteArrayList<>();
+
+    /**
+     * Datos de un segmento que se mantienen en memoria.
+     */
+    private static final class Segmento {
+        final long numero;
+        final long solicitudMinima;
+        final long solicitudMaxima;
+        final long registros;
+        final List<ResumenArchivado> resumen;
+        final long offEntradas;
+        final int entradas;
+        // Sus filas ya no están en la base: sus totales cuentan en el resumen
+        volatile boolean confirmado;
+
+        Segmento(long numero, long solicitudMinima, long solicitudMaxima, long registros,
+                 List<ResumenArchivado> resumen, long offEntradas, int entradas) {
+            this.numero = numero;
+            this.solicitudMinima = solicitudMinima;
+            this.solicitudMaxima = solicitudMaxima;
+            this.registros = registros;
+            this.resumen = resumen;
+            this.offEntradas = offEntradas;
+            this.entradas = entradas;
+        }
+    }
+
+    /**
+     * Totales archivados de un tipo de validación y resultado.
+     */
+    public static final class ResumenArchivado implements ResumenValidaciones {
+        private final TipoValidacion tipo;
+        private final boolean exitosa;
+        private final long total;
+        private final long tiempoTotalMs;
+
+        ResumenArchivado(TipoValidacion tipo, boolean exitosa, long total, long tiempoTotalMs) {
+            this.tipo = tipo;
+            this.exitosa = exitosa;
+            this.total = total;
+            this.tiempoTotalMs = tiempoTotalMs;
+        }
+
+        @Override
+        public TipoValidacion getTipo() {
+            return tipo;
+        }
+
+        @Override
+        public Boolean getExitosa() {
+            return exitosa;
+        }
+
+        @Override
+        public long getTotal() {
+            return total;
+        }
+
+        @Override
+        public Long getTiempoTotalMs() {
+            return tiempoTotalMs;
+        }
+    }
+
+    /**
+     * Abre el directorio sin atarlo a una base.
+     */
+    public SegmentosAuditoria(Path directorio) throws IOException {
+        this(directorio, null);
+    }
+
+    /**
+     * Abre el directorio (creándolo si no existe). Descarta temporales y
+     * segmentos sin índice que hayan quedado de una escritura interrumpida.
+     *
+     * @param instancia id de la base dueña de los registros; si el directorio
+     *                  es de otra, sus segmentos se apartan. null no verifica
+     */
+    public SegmentosAuditoria(Path directorio, String instancia) throws IOException {
+        this.directorio = directorio;
+        Files.createDirectories(directorio);
+        if (instancia != null) {
+            apartarSiEsDeOtraBase(instancia);
+        }
+        List<Segmento> encontrados = new ArrayList<>();
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio, PREFIJO + "*")) {
+            for (Path archivo : archivos) {
+                String nombre = archivo.getFileName().toString();
+                if (nombre.endsWith(".tmp")) {
+                    Files.delete(archivo);
+                } else if (nombre.endsWith(".seg") && !Files.exists(indice(numero(nombre)))) {
+                    Files.delete(archivo);
+                } else if (nombre.endsWith(".idx")) {
+                    encontrados.add(leerCabecera(numero(nombre)));
+                }
+            }
+        }
+        encontrados.sort(Comparator.comparingLong(s -> s.numero));
+        // Solo el último puede tener filas sin borrar de la base
+        for (int i = 0; i < encontrados.size() - 1; i++) {
+            encontrados.get(i).confirmado = true;
+        }
+        segmentos.addAll(encontrados);
+    }
+
+    /**
+     * Escribe un segmento nuevo con los registros dados (en cualquier orden).
+     * Devuelve cuando los dos archivos están en disco; sus totales cuentan
+     * en el resumen después de {@link #confirmarUltimo()}.
+     */
+    public synchronized void escribir(List<AuditLog> registros) throws IOException {
+        if (registros.isEmpty()) {
+            return;
+        }
+        long numero = segmentos.isEmpty() ? 1 : segmentos.get(segmentos.size() - 1).numero + 1;
+
+        TreeMap<Long, List<AuditLog>> porSolicitud = new TreeMap<>();
+        Map<String, long[]> totales = new LinkedHashMap<>();
+        for (AuditLog log : registros) {
+            porSolicitud.computeIfAbsent(log.getSolicitudId(), id -> new ArrayList<>()).add(log);
+            long[] t = totales.computeIfAbsent(log.getTipoValidacion().name() + ":" + log.getExitosa(), k -> new long[2]);
+            t[0]++;
+            t[1] += log.getTiempoEjecucionMs();
+        }
+
+        Path datosTmp = temporal(datos(numero));
+        Path indiceTmp = temporal(indice(numero));
+        long[] ids = new long[porSolicitud.size()];
+        long[] offsets = new long[ids.length];
+        int[] largos = new int[ids.length];
+        try (FileChannel canal = FileChannel.open(datosTmp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            ByteArrayOutputStream bloque = new ByteArrayOutputStream(4096);
+            long offset = 0;
+            int i = 0;
+            for (Map.Entry<Long, List<AuditLog>> solicitud : porSolicitud.entrySet()) {
+                List<AuditLog> logs = solicitud.getValue();
+                logs.sort(Comparator.comparing(AuditLog::getTimestamp).thenComparing(AuditLog::getId));
+                bloque.reset();
+                deflater.reset();
+                try (DataOutputStream out = new DataOutputStream(
+                        new DeflaterOutputStream(noCerrar(bloque), deflater, 512))) {
+                    out.writeInt(logs.size());
+                    for (AuditLog log : logs) {
+                        escribirRegistro(out, log);
+                    }
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(bloque.toByteArray());
+                while (buffer.hasRemaining()) {
+                    canal.write(buffer);
+                }
+                ids[i] = solicitud.getKey();
+                offsets[i] = offset;
+                largos[i] = bloque.size();
+                offset += bloque.size();
+                i++;
+            }
+            deflater.end();
+            canal.force(true);
+        }
+
+        List<ResumenArchivado> resumen = new ArrayList<>();
+        ByteArrayOutputStream cabecera = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(cabecera);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(ids[0]);
+        out.writeLong(ids[ids.length - 1]);
+        out.writeLong(registros.size());
+        out.writeInt(totales.size());
+        for (Map.Entry<String, long[]> total : totales.entrySet()) {
+            String[] clave = total.getKey().split(":");
+            out.writeUTF(clave[0]);
+            out.writeBoolean(Boolean.parseBoolean(clave[1]));
+            out.writeLong(total.getValue()[0]);
+            out.writeLong(total.getValue()[1]);
+            resumen.add(new ResumenArchivado(TipoValidacion.valueOf(clave[0]), Boolean.parseBoolean(clave[1]),
+                total.getValue()[0], total.getValue()[1]));
+        }
+        out.writeInt(ids.length);
+        long offEntradas = cabecera.size();
+        try (FileChannel canal = FileChannel.open(indiceTmp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+             DataOutputStream idx = new DataOutputStream(new BufferedOutputStream(
+                 Channels.newOutputStream(canal), 64 * 1024))) {
+            cabecera.writeTo(idx);
+            for (int i = 0; i < ids.length; i++) {
+                idx.writeLong(ids[i]);
+                idx.writeLong(offsets[i]);
+                idx.writeInt(largos[i]);
+            }
+            idx.flush();
+            canal.force(true);
+        }
+
+        Files.move(datosTmp, datos(numero), StandardCopyOption.ATOMIC_MOVE);
+        Files.move(indiceTmp, indice(numero), StandardCopyOption.ATOMIC_MOVE);
+        segmentos.add(new Segmento(numero, ids[0], ids[ids.length - 1], registros.size(), resumen,
+            offEntradas, ids.length));
+    }
+
+    /**
+     * Registros archivados de una solicitud, en orden cronológico.
+     */
+    public List<AuditLog> buscar(long solicitudId) {
+        List<AuditLog> logs = new ArrayList<>();
+        for (Segmento segmento : segmentos) {
+            if (solicitudId < segmento.solicitudMinima || solicitudId > segmento.solicitudMaxima) {
+                continue;
+            }
+            try {
+                logs.addAll(leerBloque(segmento, solicitudId));
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo leer el segmento " + segmento.numero, e);
+            }
+        }
+        return logs;
+    }
+
+    /**
+     * Marca el último segmento como ya borrado de la base, para que sus
+     * totales entren en el resumen.
+     */
+    public void confirmarUltimo() {
+        if (!segmentos.isEmpty()) {
+            segmentos.get(segmentos.size() - 1).confirmado = true;
+        }
+    }
+
+    /**
+     * Totales por tipo y resultado de lo archivado y confirmado.
+     */
+    public List<ResumenValidaciones> resumen() {
+        Map<String, ResumenArchivado> totales = new LinkedHashMap<>();
+        for (Segmento segmento : segmentos) {
+            if (!segmento.confirmado) {
+                continue;
+            }
+            for (ResumenArchivado r : segmento.resumen) {
+                totales.merge(r.tipo + ":" + r.exitosa, r, (a, b) ->
+                    new ResumenArchivado(a.tipo, a.exitosa, a.total + b.total, a.tiempoTotalMs + b.tiempoTotalMs));
+            }
+        }
+        return new ArrayList<>(totales.values());
+    }
+
+    /**
+     * Ids de auditoría del último segmento escrito (vacío si no hay), para
+     * completar una retención interrumpida tras escribirlo.
+     */
+    public Set<Long> idsUltimoSegmento() throws IOException {
+        Set<Long> ids = new HashSet<>();
+        if (segmentos.isEmpty()) {
+            return ids;
+        }
+        Segmento ultimo = segmentos.get(segmentos.size() - 1);
+        try (FileChannel idx = FileChannel.open(indice(ultimo.numero), StandardOpenOption.READ);
+             FileChannel datos = FileChannel.open(datos(ultimo.numero), StandardOpenOption.READ)) {
+            ByteBuffer entradas = leer(idx, ultimo.offEntradas, ultimo.entradas * LARGO_ENTRADA);
+            for (int i = 0; i < ultimo.entradas; i++) {
+                entradas.getLong();
+                long offset = entradas.getLong();
+                int largo = entradas.getInt();
+                for (AuditLog log : descomprimir(leer(datos, offset, largo), -1)) {
+                    ids.add(log.getId());
+                }
+            }
+        }
+        return ids;
+    }
+
+    public int segmentos() {
+        return segmentos.size();
+    }
+
+    public long registros() {
+        long total = 0;
+        for (Segmento segmento : segmentos) {
+            total += segmento.registros;
+        }
+        return total;
+    }
+
+    public long bytesEnDisco() throws IOException {
+        long bytes = 0;
+        for (Segmento segmento : segmentos) {
+            bytes += Files.size(datos(segmento.numero)) + Files.size(indice(segmento.numero));
+        }
+        return bytes;
+    }
+
+    // Mueve los segmentos de otra base (o de un directorio sin dueño) a
+    // otra-base-<id anterior> y deja el directorio a nombre de esta
+    private void apartarSiEsDeOtraBase(String instancia) throws IOException {
+        Path marca = directorio.resolve(INSTANCIA);
+        String anterior = Files.exists(marca) ? Files.readString(marca, StandardCharsets.UTF_8).trim() : null;
+        if (instancia.equals(anterior)) {
+            return;
+        }
+        Path apartados = directorio.resolve("otra-base-" + (anterior != null ? anterior : "sin-instancia"));
+        int movidos = 0;
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio, PREFIJO + "*")) {
+            for (Path archivo : archivos) {
+                Files.createDirectories(apartados);
+                Files.move(archivo, apartados.resolve(archivo.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+                movidos++;
+            }
+        }
+        if (movidos > 0) {
+            System.err.println(String.format("⚠️  Archivo de auditoría de otra base: %,d archivos apartados en %s",
+                movidos, apartados));
+        }
+        Path temporal = temporal(marca);
+        Files.writeString(temporal, instancia, StandardCharsets.UTF_8);
+        Files.move(temporal, marca, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // ===================================================================
+    // LECTURA
+    // ===================================================================
+
+    private Segmento leerCabecera(long numero) throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(indice(numero)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Índice de auditoría inválido: " + indice(numero));
+            }
+            long minima = in.readLong();
+            long maxima = in.readLong();
+            long registros = in.readLong();
+            long offEntradas = 8 + 24 + 4;
+            int n = in.readInt();
+            List<ResumenArchivado> resumen = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                String tipo = in.readUTF();
+                resumen.add(new ResumenArchivado(TipoValidacion.valueOf(tipo), in.readBoolean(),
+                    in.readLong(), in.readLong()));
+                offEntradas += 2 + tipo.getBytes(StandardCharsets.UTF_8).length + 1 + 16;
+            }
+            int entradas = in.readInt();
+            offEntradas += 4;
+            return new Segmento(numero, minima, maxima, registros, resumen, offEntradas, entradas);
+        }
+    }
+
+    private List<AuditLog> leerBloque(Segmento segmento, long solicitudId) throws IOException {
+        try (FileChannel idx = FileChannel.open(indice(segmento.numero), StandardOpenOption.READ)) {
+            // Búsqueda binaria sobre las entradas de largo fijo
+            int bajo = 0;
+            int alto = segmento.entradas - 1;
+            ByteBuffer entrada = ByteBuffer.allocate(LARGO_ENTRADA);
+            while (bajo <= alto) {
+                int medio = (bajo + alto) >>> 1;
+                entrada.clear();
+                leerCompleto(idx, entrada, segmento.offEntradas + (long) medio * LARGO_ENTRADA);
+                entrada.flip();
+                long id = entrada.getLong();
+                if (id < solicitudId) {
+                    bajo = medio + 1;
+                } else if (id > solicitudId) {
+                    alto = medio - 1;
+                } else {
+                    long offset = entrada.getLong();
+                    int largo = entrada.getInt();
+                    try (FileChannel datos = FileChannel.open(datos(segmento.numero), StandardOpenOption.READ)) {
+                        return descomprimir(leer(datos, offset, largo), solicitudId);
+                    }
+                }
+            }
+            return List.of();
+        }
+    }
+
+    private static List<AuditLog> descomprimir(ByteBuffer comprimido, long solicitudId) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(comprimido);
+            ByteArrayOutputStream salida = new ByteArrayOutputStream(comprimido.remaining() * 4);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Bloque de auditoría truncado");
+                }
+                salida.write(buffer, 0, n);
+            }
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(salida.toByteArray()));
+            int n = in.readInt();
+            List<AuditLog> logs = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                logs.add(leerRegistro(in, solicitudId));
+            }
+            return logs;
+        } catch (DataFormatException e) {
+            throw new IOException("Bloque de auditoría corrupto", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static ByteBuffer leer(FileChannel canal, long posicion, int largo) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(largo);
+        leerCompleto(canal, buffer, posicion);
+        buffer.flip();
+        return buffer;
+    }
+
+    private static void leerCompleto(FileChannel canal, ByteBuffer buffer, long posicion) throws IOException {
+        while (buffer.hasRemaining()) {
+            int n = canal.read(buffer, posicion + buffer.position());
+            if (n < 0) {
+                throw new IOException("Segmento de auditoría truncado");
+            }
+        }
+    }
+
+    // ===================================================================
+    // FORMATO DE REGISTRO (compartido con DiarioAuditoria)
+    // ===================================================================
+
+    // Bits de presencia de los campos opcionales
+    private static final int V1 = 1, V2 = 2, V3 = 4, INSTITUCION = 8, PROGRAMA = 16, TEXTO = 32, EXCEPCION = 64;
+
+    static void escribirRegistro(DataOutputStream out, AuditLog log) throws IOException {
+        int presentes = (log.getValor1() != null ? V1 : 0) | (log.getValor2() != null ? V2 : 0)
+            | (log.getValor3() != null ? V3 : 0) | (log.getInstitucionId() != null ? INSTITUCION : 0)
+            | (log.getProgramaId() != null ? PROGRAMA : 0) | (log.getTextoId() != null ? TEXTO : 0)
+            | (log.getExcepcion() != null ? EXCEPCION : 0);
+        out.writeLong(log.getId());
+        out.writeLong(log.getSolicitudId());
+        out.writeUTF(log.getTipoValidacion().name());
+        out.writeBoolean(log.getExitosa());
+        out.writeUTF(log.getCodigo().name());
+        out.writeByte(presentes);
+        if (log.getValor1() != null) out.writeLong(log.getValor1());
+        if (log.getValor2() != null) out.writeLong(log.getValor2());
+        if (log.getValor3() != null) out.writeLong(log.getValor3());
+        if (log.getInstitucionId() != null) out.writeInt(log.getInstitucionId());
+        if (log.getProgramaId() != null) out.writeInt(log.getProgramaId());
+        if (log.getTextoId() != null) out.writeInt(log.getTextoId());
+        if (log.getExcepcion() != null) out.writeUTF(log.getExcepcion());
+        out.writeLong(log.getTiempoEjecucionMs());
+        out.writeLong(log.getTimestamp().toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(log.getTimestamp().getNano());
+    }
+
+    /**
+     * @param solicitudId id esperado, o -1 para aceptar cualquiera
+     */
+    static AuditLog leerRegistro(DataInputStream in, long solicitudId) throws IOException {
+        AuditLog log = new AuditLog();
+        log.setId(in.readLong());
+        log.setSolicitudId(in.readLong());
+        if (solicitudId >= 0 && log.getSolicitudId() != solicitudId) {
+            throw new IOException("El bloque no corresponde a la solicitud " + solicitudId);
+        }
+        log.setTipoValidacion(TipoValidacion.valueOf(in.readUTF()));
+        log.setExitosa(in.readBoolean());
+        log.setCodigo(CodigoValidacion.valueOf(in.readUTF()));
+        int presentes = in.readByte();
+        if ((presentes & V1) != 0) log.setValor1(in.readLong());
+        if ((presentes & V2) != 0) log.setValor2(in.readLong());
+        if ((presentes & V3) != 0) log.setValor3(in.readLong());
+        if ((presentes & INSTITUCION) != 0) log.setInstitucionId(in.readInt());
+        if ((presentes & PROGRAMA) != 0) log.setProgramaId(in.readInt());
+        if ((presentes & TEXTO) != 0) log.setTextoId(in.readInt());
+        if ((presentes & EXCEPCION) != 0) log.setExcepcion(in.readUTF());
+        log.setTiempoEjecucionMs(in.readLong());
+        long segundos = in.readLong();
+        log.setTimestamp(LocalDateTime.ofEpochSecond(segundos, in.readInt(), ZoneOffset.UTC));
+        return log;
+    }
+
+    // ===================================================================
+    // ARCHIVOS
+    // ===================================================================
+
+    private Path datos(long numero) {
+        return directorio.resolve(String.format("%s%06d.seg", PREFIJO, numero));
+    }
+
+    private Path indice(long numero) {
+        return directorio.resolve(String.format("%s%06d.idx", PREFIJO, numero));
+    }
+
+    private static Path temporal(Path archivo) {
+        return archivo.resolveSibling(archivo.getFileName() + ".tmp");
+    }
+
+    private static long numero(String nombre) {
+        return Long.parseLong(nombre.substring(PREFIJO.length(), PREFIJO.length() + 6));
+    }
+
+    // El bloque se reutiliza entre solicitudes: cerrar el deflater no debe cerrarlo
+    private static OutputStream noCerrar(OutputStream destino) {
+        return new FilterOutputStream(destino) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+    }
+}
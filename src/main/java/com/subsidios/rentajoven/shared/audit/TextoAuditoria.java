@@ -0,0 +1,27 @@
+package com.subsidios.rentajoven.shared.audit;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entrada del diccionario de textos de auditoría (instituciones, programas,
+ * estados, versiones). Cada registro de auditoría guarda el id, no el texto.
+ */
+@Entity
+@Table(name = "audit_textos")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TextoAuditoria {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false, unique = true, length = 500)
+    private String texto;
+}
@@ -0,0 +1,57 @@
+package com.subsidios.rentajoven.shared.audit;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Herramienta de línea de comandos para el {@link DiarioAuditoria}; no
+ * necesita la aplicación ni la base de datos.
+ *
+ * <pre>
+ * java -cp target/classes com.subsidios.rentajoven.shared.audit.VerificadorDiarioAuditoria \
+ *      ./data-audit/diario.log [--reproducir]
+ * </pre>
+ * Verifica la cadena de hashes y, con --reproducir, imprime cada registro
+ * con su mensaje, armado con los textos guardados en el propio diario.
+ * Sale con código 1 si la cadena está rota y 2 si el archivo no se puede leer.
+ */
+public final class VerificadorDiarioAuditoria {
+
+    private static final DateTimeFormatter FORMATO = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+    private VerificadorDiarioAuditoria() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Uso: VerificadorDiarioAuditoria <diario> [--reproducir]");
+            System.exit(2);
+        }
+        Path ruta = Path.of(args[0]);
+        boolean reproducir = args.length > 1 && args[1].equals("--reproducir");
+        try {
+            DiarioAuditoria.Verificacion verificacion = reproducir
+                ? verificarImprimiendo(ruta)
+                : DiarioAuditoria.verificar(ruta);
+            System.out.println(String.format("%s %s: %,d registros, último hash %s",
+                verificacion.isValido() ? "✅" : "❌", ruta, verificacion.getRegistros(),
+                verificacion.getUltimoHash()));
+            if (!verificacion.isValido()) {
+                System.out.println("   " + verificacion.getMensaje());
+                System.exit(1);
+            }
+        } catch (IOException e) {
+            System.err.println("⚠️  No se pudo leer " + ruta + ": " + e.getMessage());
+            System.exit(2);
+        }
+    }
+
+    // Imprime cada registro y devuelve la verificación del mismo recorrido
+    private static DiarioAuditoria.Verificacion verificarImprimiendo(Path ruta) throws IOException {
+        return DiarioAuditoria.recorrer(ruta, log -> System.out.println(String.format(
+            "%s  solicitud=%d  id=%d  %s  %s  %s  %d ms  %s",
+            log.getTimestamp().format(FORMATO), log.getSolicitudId(), log.getId(), log.getTipoValidacion(),
+            log.getExitosa() ? "OK" : "FALLA", log.getCodigo(), log.getTiempoEjecucionMs(), log.getMensaje())));
+    }
+}
@@ -1,20 +1,31 @@
 package com.subsidios.rentajoven.shared.metrics;
 
+import com.subsidios.rentajoven.domain.enums.MotivoRechazo;
 import com.subsidios.rentajoven.domain.enums.TipoValidacion;
-import com.subsidios.rentajoven.domain.model.Solicitud;
 import com.subsidios.rentajoven.infrastructure.persistence.AuditLogRepository;
+import com.subsidios.rentajoven.infrastructure.persistence.RechazosPorMotivos;
+import com.subsidios.rentajoven.infrastructure.persistence.ResumenValidaciones;
 import com.subsidios.rentajoven.infrastructure.persistence.SolicitudRepository;
-import com.subsidios.rentajoven.shared.audit.AuditLog;
+import com.subsidios.rentajoven.infrastructure.persistence.TiemposSolicitudes;
+import com.subsidios.rentajoven.shared.audit.AuditService;
+import com.subsidios.rentajoven.shared.audit.RetencionAuditoria;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Servicio para recolectar y calcular métricas del sistema.
  * Genera estadísticas para el análisis académico.
+ *
+ * Todo sale de tres consultas agregadas (solicitudes por resultado,
+ * rechazadas por máscara de motivos y auditoría por tipo); no se cargan
+ * entidades.
  */
 @Service
 public class MetricsCollector {
@@ -25,9 +36,24 @@ public class MetricsCollector {
     @Autowired
     private AuditLogRepository auditLogRepository;
     
+    @Autowired
+    private RetencionAuditoria retencionAuditoria;
+    
+    @Autowired
+    private AuditService auditService;
+    
     // Tiempo del sistema tradicional según el artículo (45 días)
     private static final int TIEMPO_SISTEMA_TRADICIONAL_DIAS = 45;
     
+    // Motivos agrupados en las categorías del reporte
+    private static final int MOTIVOS_SISBEN = MotivoRechazo.SISBEN_NO_ENCONTRADO.bit()
+            | MotivoRechazo.NIVEL_SISBEN_NO_ELEGIBLE.bit();
+    private static final int MOTIVOS_TITULO = MotivoRechazo.TIENE_TITULO_PROFESIONAL.bit();
+    private static final int MOTIVOS_MATRICULA = MotivoRechazo.MATRICULA_NO_ENCONTRADA.bit()
+            | MotivoRechazo.MATRICULA_NO_VIGENTE.bit()
+            | MotivoRechazo.INTENSIDAD_HORARIA_INSUFICIENTE.bit()
+            | MotivoRechazo.INSTITUCION_NO_RECONOCIDA.bit();
+    
     /**
      * Genera un resumen completo de métricas del sistema.
      * 
@@ -35,35 +61,53 @@ public class MetricsCollector {
      */
     public MetricsSummary generarResumen() {
         
-        // Obtener todas las solicitudes
-        List<Solicitud> todasLasSolicitudes = solicitudRepository.findAll();
+        // Totales y tiempos por resultado
+        long total = 0;
+        long aprobadas = 0;
+        long rechazadas = 0;
+        long conTiempo = 0;
+        long tiempoTotal = 0;
+        Long tiempoMinimo = null;
+        Long tiempoMaximo = null;
+        for (TiemposSolicitudes fila : solicitudRepository.resumirPorResultado()) {
+            total += fila.getTotal();
+            if (Boolean.TRUE.equals(fila.getAprobada())) {
+                aprobadas = fila.getTotal();
+            } else if (Boolean.FALSE.equals(fila.getAprobada())) {
+                rechazadas = fila.getTotal();
+            }
+            if (fila.getConTiempo() > 0) {
+                conTiempo += fila.getConTiempo();
+                tiempoTotal += fila.getTiempoTotalMs();
+                tiempoMinimo = tiempoMinimo == null ? fila.getTiempoMinimoMs() : Math.min(tiempoMinimo, fila.getTiempoMinimoMs());
+                tiempoMaximo = tiempoMaximo == null ? fila.getTiempoMaximoMs() : Math.max(tiempoMaximo, fila.getTiempoMaximoMs());
+            }
+        }
         
-        if (todasLasSolicitudes.isEmpty()) {
+        if (total == 0) {
             return generarResumenVacio();
         }
         
         // Calcular métricas generales
-        long total = todasLasSolicitudes.size();
-        long aprobadas = solicitudRepository.contarAprobadas();
-        long rechazadas = solicitudRepository.contarRechazadas();
-        
         double tasaAprobacion = total > 0 ? (double) aprobadas / total : 0.0;
         double tasaRechazo = total > 0 ? (double) rechazadas / total : 0.0;
         
         // Calcular métricas de rendimiento
-        Double tiempoPromedioMs = solicitudRepository.calcularTiempoPromedioMs();
-        if (tiempoPromedioMs == null) tiempoPromedioMs = 0.0;
-        
-        Long tiempoMinimo = calcularTiempoMinimo(todasLasSolicitudes);
-        Long tiempoMaximo = calcularTiempoMaximo(todasLasSolicitudes);
+        Double tiempoPromedioMs = conTiempo > 0 ? (double) tiempoTotal / conTiempo : 0.0;
+        if (tiempoMinimo == null) tiempoMinimo = 0L;
+        if (tiempoMaximo == null) tiempoMaximo = 0L;
         
-        // Calcular tiempos por validación
-        Double tiempoSISBEN = auditLogRepository.calcularTiempoPromedioMs(TipoValidacion.SISBEN);
-        Double tiempoSNIES = auditLogRepository.calcularTiempoPromedioMs(TipoValidacion.TITULO_PROFESIONAL);
-        Double tiempoMEN = auditLogRepository.calcularTiempoPromedioMs(TipoValidacion.MATRICULA);
+        // Calcular tiempos por validación (base más lo archivado)
+        List<ResumenValidaciones> validaciones = new ArrayList<>(auditLogRepository.resumirPorTipo());
+        validaciones.addAll(retencionAuditoria.resumen());
+        Double tiempoSISBEN = tiempoPromedio(validaciones, TipoValidacion.SISBEN);
+        Double tiempoSNIES = tiempoPromedio(validaciones, TipoValidacion.TITULO_PROFESIONAL);
+        Double tiempoMEN = tiempoPromedio(validaciones, TipoValidacion.MATRICULA);
         
         // Calcular razones de rechazo
-        Map<String, Long> rechazos = calcularRazonesRechazo();
+        List<RechazosPorMotivos> porMotivos = solicitudRepository.contarRechazosPorMotivos();
+        Map<String, Long> rechazos = calcularRazonesRechazo(porMotivos);
+        Map<String, Long> rechazosPorMotivo = contarPorMotivo(porMotivos);
         Map<String, Double> distribucion = calcularDistribucionRechazos(rechazos, rechazadas);
         
         // Calcular comparativa con sistema tradicional
@@ -92,51 +136,72 @@ public class MetricsCollector {
                 .rechazosPorSISBEN(rechazos.getOrDefault("SISBEN", 0L))
                 .rechazosPorTitulo(rechazos.getOrDefault("TITULO", 0L))
                 .rechazosPorMatricula(rechazos.getOrDefault("MATRICULA", 0L))
+                .rechazosPorMotivo(rechazosPorMotivo)
                 .distribucionRechazos(distribucion)
                 // Comparativa
                 .tiempoSistemaTradicionalDias(TIEMPO_SISTEMA_TRADICIONAL_DIAS)
                 .mejoraPorcentual(mejoraPorcentual)
                 .ahorroDiasPorSolicitud(ahorroDias)
+                // Auditoría
+                .diarioAuditoriaOperativo(auditService.diarioOperativo())
+                .diarioAuditoriaFalla(auditService.fallaDiario())
                 .build();
     }
     
     /**
-     * Calcula el tiempo mínimo de procesamiento.
+     * Tiempo promedio de un tipo de validación; null si no hay registros.
      */
-    private Long calcularTiempoMinimo(List<Solicitud> solicitudes) {
-        return solicitudes.stream()
-                .filter(s -> s.getTiempoProcesamientoMs() != null)
-                .mapToLong(Solicitud::getTiempoProcesamientoMs)
-                .min()
-                .orElse(0L);
+    private Double tiempoPromedio(List<ResumenValidaciones> validaciones, TipoValidacion tipo) {
+        long total = 0;
+        long tiempo = 0;
+        for (ResumenValidaciones fila : validaciones) {
+            if (fila.getTipo() == tipo) {
+                total += fila.getTotal();
+                tiempo += fila.getTiempoTotalMs() != null ? fila.getTiempoTotalMs() : 0;
+            }
+        }
+        return total > 0 ? (double) tiempo / total : null;
     }
     
     /**
-     * Calcula el tiempo máximo de procesamiento.
+     * Calcula las razones de rechazo por categoría. Cada solicitud cuenta una
+     * vez por categoría aunque tenga varios motivos de ella; edad y coherencia
+     * no entran en ninguna.
      */
-    private Long calcularTiempoMaximo(List<Solicitud> solicitudes) {
-        return solicitudes.stream()
-                .filter(s -> s.getTiempoProcesamientoMs() != null)
-                .mapToLong(Solicitud::getTiempoProcesamientoMs)
-                .max()
-                .orElse(0L);
+    private Map<String, Long> calcularRazonesRechazo(List<RechazosPorMotivos> porMotivos) {
+        long sisben = 0;
+        long titulo = 0;
+        long matricula = 0;
+        for (RechazosPorMotivos fila : porMotivos) {
+            int motivos = fila.getMotivos() != null ? fila.getMotivos() : 0;
+            if ((motivos & MOTIVOS_SISBEN) != 0) sisben += fila.getTotal();
+            if ((motivos & MOTIVOS_TITULO) != 0) titulo += fila.getTotal();
+            if ((motivos & MOTIVOS_MATRICULA) != 0) matricula += fila.getTotal();
+        }
+        
+        Map<String, Long> rechazos = new HashMap<>();
+        rechazos.put("SISBEN", sisben);
+        rechazos.put("TITULO", titulo);
+        rechazos.put("MATRICULA", matricula);
+        return rechazos;
     }
     
     /**
-     * Calcula las razones de rechazo analizando los logs de auditoría.
+     * Rechazadas por cada motivo individual, en el orden del enum.
      */
-    private Map<String, Long> calcularRazonesRechazo() {
-        Map<String, Long> rechazos = new HashMap<>();
-        
-        Long rechazosSISBEN = auditLogRepository.contarFalladasPorTipo(TipoValidacion.SISBEN);
-        Long rechazosTitulo = auditLogRepository.contarFalladasPorTipo(TipoValidacion.TITULO_PROFESIONAL);
-        Long rechazosMatricula = auditLogRepository.contarFalladasPorTipo(TipoValidacion.MATRICULA);
-        
-        rechazos.put("SISBEN", rechazosSISBEN != null ? rechazosSISBEN : 0L);
-        rechazos.put("TITULO", rechazosTitulo != null ? rechazosTitulo : 0L);
-        rechazos.put("MATRICULA", rechazosMatricula != null ? rechazosMatricula : 0L);
-        
-        return rechazos;
+    private Map<String, Long> contarPorMotivo(List<RechazosPorMotivos> porMotivos) {
+        Map<MotivoRechazo, Long> conteo = new EnumMap<>(MotivoRechazo.class);
+        for (RechazosPorMotivos fila : porMotivos) {
+            int motivos = fila.getMotivos() != null ? fila.getMotivos() : 0;
+            for (MotivoRechazo motivo : MotivoRechazo.values()) {
+                if ((motivos & motivo.bit()) != 0) {
+                    conteo.merge(motivo, fila.getTotal(), Long::sum);
+                }
+            }
+        }
+        Map<String, Long> resultado = new LinkedHashMap<>();
+        conteo.forEach((motivo, total) -> resultado.put(motivo.name(), total));
+        return resultado;
     }
     
     /**
@@ -182,10 +247,13 @@ public class MetricsCollector {
                 .rechazosPorSISBEN(0L)
                 .rechazosPorTitulo(0L)
                 .rechazosPorMatricula(0L)
+                .rechazosPorMotivo(new LinkedHashMap<>())
                 .distribucionRechazos(new HashMap<>())
                 .tiempoSistemaTradicionalDias(TIEMPO_SISTEMA_TRADICIONAL_DIAS)
                 .mejoraPorcentual(0.0)
                 .ahorroDiasPorSolicitud(0.0)
+                .diarioAuditoriaOperativo(auditService.diarioOperativo())
+                .diarioAuditoriaFalla(auditService.fallaDiario())
                 .build();
     }
 }
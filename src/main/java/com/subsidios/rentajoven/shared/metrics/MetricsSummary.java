@@ -108,6 +108,11 @@ public class MetricsSummary {
      */
     private Long rechazosPorMatricula;
     
+    /**
+     * Solicitudes rechazadas por cada motivo (una solicitud cuenta en todos sus motivos)
+     */
+    private Map<String, Long> rechazosPorMotivo;
+    
     /**
      * Distribución porcentual de razones de rechazo
      */
@@ -131,4 +136,18 @@ public class MetricsSummary {
      * Ahorro estimado en días por solicitud
      */
     private Double ahorroDiasPorSolicitud;
+    
+    // ===================================================================
+    // AUDITORÍA
+    // ===================================================================
+    
+    /**
+     * Si el diario de auditoría escribe (null si está deshabilitado)
+     */
+    private Boolean diarioAuditoriaOperativo;
+    
+    /**
+     * Motivo por el que el diario dejó de escribir
+     */
+    private String diarioAuditoriaFalla;
 }
\ No newline at end of file
@@ -0,0 +1,185 @@
+package com.subsidios.rentajoven.shared.metrics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reporte académico en caché.
+ *
+ * Cada decisión confirmada mueve un contador de versión. El reporte guardado
+ * lleva la versión con la que se calculó y su ETag sale de ella, así que
+ * mientras no haya decisiones nuevas los clientes reciben 304 sin tocar la
+ * base. Si hay decisiones nuevas se sigue sirviendo el reporte guardado y se
+ * recalcula en un hilo de fondo, a lo sumo una vez por intervalo.
+ */
+@Service
+public class ReporteAcademico {
+
+    private final MetricsCollector metricsCollector;
+    private final long intervaloMs;
+
+    // Distingue reportes de distintos arranques con la misma versión
+    private final String arranque = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicBoolean recalculando = new AtomicBoolean();
+    private final ExecutorService ejecutor = Executors.newSingleThreadExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "reporte-academico");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    private volatile Reporte actual;
+    private volatile long ultimoCalculo;
+
+    @Autowired
+    public ReporteAcademico(MetricsCollector metricsCollector,
+                            @Value("${reporte.academico.intervalo.ms:5000}") long intervaloMs) {
+        this.metricsCollector = metricsCollector;
+        this.intervaloMs = intervaloMs;
+    }
+
+    /**
+     * Reporte calculado con la versión y el ETag que lo identifican.
+     */
+    public static final class Reporte {
+        private final long version;
+        private final String etag;
+        private final Map<String, Object> contenido;
+
+        Reporte(long version, String etag, Map<String, Object> contenido) {
+            this.version = version;
+            this.etag = etag;
+            this.contenido = contenido;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public Map<String, Object> getContenido() {
+            return contenido;
+        }
+    }
+
+    /**
+     * Avisa que hay una decisión nueva; cuenta al confirmarse la transacción
+     * en curso (o de inmediato si no hay una).
+     */
+    public void registrarDecision() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    version.incrementAndGet();
+                }
+            });
+        } else {
+            version.incrementAndGet();
+        }
+    }
+
+    /**
+     * Reporte guardado, calculándolo solo la primera vez. Si quedó atrás de
+     * la versión actual programa un recálculo, sin esperarlo.
+     */
+    public Reporte obtener() {
+        Reporte reporte = actual;
+        if (reporte == null) {
+            synchronized (this) {
+                if (actual == null) {
+                    calcular();
+                }
+                return actual;
+            }
+        }
+        if (reporte.version != version.get()
+                && System.currentTimeMillis() - ultimoCalculo >= intervaloMs
+                && recalculando.compareAndSet(false, true)) {
+            ejecutor.submit(() -> {
+                try {
+                    calcular();
+                } catch (Exception e) {
+                    System.err.println("⚠️  Recálculo del reporte académico falló: " + e.getMessage());
+                } finally {
+                    recalculando.set(false);
+                }
+            });
+        }
+        return reporte;
+    }
+
+    private void calcular() {
+        // La versión se lee antes de consultar: una decisión que llegue durante el
+        // cálculo deja el reporte atrasado y provoca otro recálculo
+        long calculada = version.get();
+        ultimoCalculo = System.currentTimeMillis();
+        Map<String, Object> contenido = Collections.unmodifiableMap(construir(metricsCollector.generarResumen()));
+        actual = new Reporte(calculada, "\"" + arranque + "-" + calculada + "\"", contenido);
+    }
+
+    private static Map<String, Object> construir(MetricsSummary metrics) {
+        Map<String, Object> reporte = new HashMap<>();
+
+        // Metadatos
+        reporte.put("fechaGeneracion", LocalDateTime.now().format(
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
+        ));
+        reporte.put("sistema", "Renta Joven - Motor de Decisión Automatizado");
+        reporte.put("version", "1.0.0");
+
+        // Métricas de volumen
+        Map<String, Object> volumen = new HashMap<>();
+        volumen.put("totalSolicitudes", metrics.getTotalSolicitudes());
+        volumen.put("aprobadas", metrics.getSolicitudesAprobadas());
+        volumen.put("rechazadas", metrics.getSolicitudesRechazadas());
+        volumen.put("tasaAprobacionPorcentaje", String.format("%.2f%%", metrics.getTasaAprobacion() * 100));
+        volumen.put("tasaRechazoPorcentaje", String.format("%.2f%%", metrics.getTasaRechazo() * 100));
+        reporte.put("volumen", volumen);
+
+        // Métricas de rendimiento
+        Map<String, Object> rendimiento = new HashMap<>();
+        rendimiento.put("tiempoPromedioSegundos", String.format("%.3f", metrics.getTiempoPromedioSegundos()));
+        rendimiento.put("tiempoMinimoMs", metrics.getTiempoMinimoMs());
+        rendimiento.put("tiempoMaximoMs", metrics.getTiempoMaximoMs());
+        rendimiento.put("tiempoSISBENMs", String.format("%.2f", metrics.getTiempoPromedioSISBEN()));
+        rendimiento.put("tiempoSNIESMs", String.format("%.2f", metrics.getTiempoPromedioSNIES()));
+        rendimiento.put("tiempoMENMs", String.format("%.2f", metrics.getTiempoPromedioMEN()));
+        reporte.put("rendimiento", rendimiento);
+
+        // Comparativa con sistema tradicional
+        Map<String, Object> comparativa = new HashMap<>();
+        comparativa.put("sistemaTradicionalDias", metrics.getTiempoSistemaTradicionalDias());
+        comparativa.put("sistemaAutomatizadoSegundos", String.format("%.3f", metrics.getTiempoPromedioSegundos()));
+        comparativa.put("mejoraEnTiempoPorcentaje", String.format("%.4f%%", metrics.getMejoraPorcentual()));
+        comparativa.put("ahorroDiasPorSolicitud", String.format("%.2f", metrics.getAhorroDiasPorSolicitud()));
+        reporte.put("comparativaConSistemaTradicional", comparativa);
+
+        // Razones de rechazo
+        Map<String, Object> rechazos = new HashMap<>();
+        rechazos.put("porSISBEN", metrics.getRechazosPorSISBEN());
+        rechazos.put("porTituloProfesional", metrics.getRechazosPorTitulo());
+        rechazos.put("porMatricula", metrics.getRechazosPorMatricula());
+        rechazos.put("porMotivo", metrics.getRechazosPorMotivo());
+        rechazos.put("distribucionPorcentual", metrics.getDistribucionRechazos());
+        reporte.put("razonesDeRechazo", rechazos);
+
+        return reporte;
+    }
+}
@@ -0,0 +1,64 @@
+-- ===================================================================
+-- Esquema inicial de Renta Joven (perfil prod)
+-- Mismo esquema que generan las entidades; el perfil prod lo valida al
+-- arrancar (ddl-auto=validate). SQL estándar: los enums son varchar con
+-- CHECK y los ids usan "generated by default as identity", así que sirve
+-- en H2 y PostgreSQL; probado en H2
+-- ===================================================================
+
+create table audit_logs (
+    exitosa boolean not null,
+    institucion_id integer,
+    programa_id integer,
+    texto_id integer,
+    id bigint generated by default as identity,
+    solicitud_id bigint not null,
+    tiempo_ejecucion_ms bigint not null,
+    timestamp timestamp(6) not null,
+    valor1 bigint,
+    valor2 bigint,
+    valor3 bigint,
+    excepcion varchar(1000),
+    codigo varchar(30) not null,
+    tipo_validacion varchar(30) not null,
+    primary key (id),
+    constraint ck_audit_codigo check (codigo in ('CEDULA_COHERENTE','CEDULA_INCOHERENTE','CON_TITULO','EDAD_EN_RANGO','EDAD_FUERA_RANGO','ERROR_VALIDACION','INSTITUCION_NO_RECONOCIDA','INTENSIDAD_INSUFICIENTE','MATRICULA_NO_ENCONTRADA','MATRICULA_NO_VIGENTE','MATRICULA_VIGENTE','SIN_TITULO','SISBEN_ELEGIBLE','SISBEN_NO_ELEGIBLE','SISBEN_NO_ENCONTRADO','SOLICITUD_APROBADA','SOLICITUD_RECHAZADA')),
+    constraint ck_audit_tipo check (tipo_validacion in ('DECISION_FINAL','MATRICULA','SISBEN','TITULO_PROFESIONAL'))
+);
+
+create table audit_textos (
+    id integer generated by default as identity,
+    texto varchar(500) not null unique,
+    primary key (id)
+);
+
+create table solicitudes (
+    aprobada boolean,
+    motivos_rechazo integer,
+    fecha_procesamiento timestamp(6),
+    fecha_solicitud timestamp(6) not null,
+    id bigint generated by default as identity,
+    tiempo_procesamiento_ms bigint,
+    programa varchar(40),
+    version_datos varchar(40),
+    cedula varchar(255) not null,
+    matricula_id varchar(255) not null,
+    estado varchar(20) not null,
+    primary key (id),
+    constraint ck_solicitudes_estado check (estado in ('APROBADA','EN_REVISION_MANUAL','ERROR','PENDIENTE','RECHAZADA'))
+);
+
+create index idx_audit_solicitud
+   on audit_logs (solicitud_id, timestamp);
+
+create index idx_audit_tipo
+   on audit_logs (tipo_validacion, exitosa, tiempo_ejecucion_ms);
+
+create index idx_solicitudes_cedula
+   on solicitudes (cedula, id);
+
+create index idx_solicitudes_tiempo
+   on solicitudes (tiempo_procesamiento_ms, aprobada);
+
+create index idx_solicitudes_motivos
+   on solicitudes (motivos_rechazo, aprobada);
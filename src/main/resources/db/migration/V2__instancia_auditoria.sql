@@ -0,0 +1,10 @@
+-- ===================================================================
+-- Identidad de la base de auditoría: el archivo de segmentos solo se usa
+-- con la base cuyo id guarda
+-- ===================================================================
+
+create table audit_instancia (
+    id varchar(36) not null,
+    creada timestamp(6) not null,
+    primary key (id)
+);
@@ -0,0 +1,111 @@
+package com.subsidios.rentajoven.application.contract;
+
+import com.subsidios.rentajoven.RentaJovenApplication;
+import com.subsidios.rentajoven.application.service.PrecalculoElegibilidad;
+import com.subsidios.rentajoven.application.service.SolicitudService;
+import com.subsidios.rentajoven.domain.model.EventoValidacion;
+import com.subsidios.rentajoven.infrastructure.dataset.DatosReferenciaActivos;
+import com.subsidios.rentajoven.shared.audit.AuditLog;
+import com.subsidios.rentajoven.shared.audit.AuditService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Las mismas solicitudes evaluadas desde el índice precalculado y
+ * consultando las fuentes dejan los mismos eventos de auditoría.
+ */
+public class AuditoriaPrecalculoTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    public void testPrecalculoYFuentesAuditanIgual() throws Exception {
+        List<String[]> matriculas = matriculas(40);
+        List<List<EventoValidacion>> precalculados;
+        try (ConfigurableApplicationContext contexto = arrancar("precalculo", true)) {
+            esperarIndice(contexto, matriculas.get(0));
+            precalculados = procesar(contexto, matriculas);
+        }
+        List<List<EventoValidacion>> enVivo;
+        try (ConfigurableApplicationContext contexto = arrancar("vivo", false)) {
+            enVivo = procesar(contexto, matriculas);
+        }
+
+        assertEquals(enVivo, precalculados);
+        assertTrue(precalculados.stream().flatMap(List::stream).anyMatch(e -> e.getPrograma() != null),
+            "Los eventos de matrícula llevan el programa");
+    }
+
+    private static List<List<EventoValidacion>> procesar(ConfigurableApplicationContext contexto,
+                                                         List<String[]> matriculas) {
+        SolicitudService servicio = contexto.getBean(SolicitudService.class);
+        AuditService auditoria = contexto.getBean(AuditService.class);
+        List<List<EventoValidacion>> eventos = new ArrayList<>();
+        for (String[] matricula : matriculas) {
+            long id = servicio.procesarSolicitud(matricula[1], matricula[0], 22).getSolicitudId();
+            List<EventoValidacion> deLaSolicitud = new ArrayList<>();
+            for (AuditLog log : auditoria.obtenerLogsSolicitud(id)) {
+                deLaSolicitud.add(auditoria.evento(log));
+            }
+            eventos.add(deLaSolicitud);
+        }
+        return eventos;
+    }
+
+    // El índice se arma en segundo plano tras publicar los datos
+    private static void esperarIndice(ConfigurableApplicationContext contexto, String[] matricula)
+            throws InterruptedException {
+        PrecalculoElegibilidad precalculo = contexto.getBean(PrecalculoElegibilidad.class);
+        DatosReferenciaActivos datos = contexto.getBean(DatosReferenciaActivos.class);
+        ReglasActivas reglas = contexto.getBean(ReglasActivas.class);
+        long limite = System.currentTimeMillis() + 60_000;
+        while (precalculo.consultar(datos.actual(), reglas.actual(), matricula[1], matricula[0]) == 0) {
+            assertTrue(System.currentTimeMillis() < limite, "El índice precalculado no estuvo listo");
+            Thread.sleep(50);
+        }
+    }
+
+    private ConfigurableApplicationContext arrancar(String base, boolean precalculo) {
+        return new SpringApplicationBuilder(RentaJovenApplication.class)
+            .web(WebApplicationType.NONE)
+            .run("--spring.datasource.url=jdbc:h2:mem:" + base,
+                "--spring.jpa.show-sql=false",
+                "--elegibilidad.precalculo.habilitado=" + precalculo,
+                "--snapshot.habilitado=false",
+                "--delta.directorio=" + directorio.resolve("delta"),
+                "--auditoria.retencion.habilitada=false",
+                "--auditoria.diario.habilitado=false",
+                "--simulador.sisben.latencia.min=0", "--simulador.sisben.latencia.max=1",
+                "--simulador.snies.latencia.min=0", "--simulador.snies.latencia.max=1",
+                "--simulador.men.latencia.min=0", "--simulador.men.latencia.max=1");
+    }
+
+    // Pares (matrícula, cédula) reales del simulador MEN
+    private static List<String[]> matriculas(int total) throws Exception {
+        List<String[]> pares = new ArrayList<>();
+        try (BufferedReader lector = new BufferedReader(new InputStreamReader(
+                new ClassPathResource("data/men_simulator.csv").getInputStream(), StandardCharsets.UTF_8))) {
+            lector.readLine();
+            String linea;
+            while ((linea = lector.readLine()) != null && pares.size() < total) {
+                String[] campos = linea.split(",");
+                pares.add(new String[] {campos[0], campos[1]});
+            }
+        }
+        return pares;
+    }
+}
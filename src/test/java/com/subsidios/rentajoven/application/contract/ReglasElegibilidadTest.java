@@ -0,0 +1,126 @@
+package com.subsidios.rentajoven.application.contract;
+
+import com.subsidios.rentajoven.domain.enums.MotivoRechazo;
+import com.subsidios.rentajoven.domain.enums.NivelSISBEN;
+import com.subsidios.rentajoven.domain.model.MENResponse;
+import com.subsidios.rentajoven.domain.model.SISBENResponse;
+import com.subsidios.rentajoven.domain.model.SNIESResponse;
+import com.subsidios.rentajoven.domain.model.ValidacionIndividual;
+import com.subsidios.rentajoven.infrastructure.dataset.VersionDatos;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de la compilación de las reglas declaradas.
+ */
+public class ReglasElegibilidadTest {
+
+    @Test
+    public void testReglasPorDefectoCompiladasEnCadenaPorCosto() {
+        ReglasElegibilidad reglas = ReglasActivas.porDefecto();
+
+        assertTrue(reglas.edadEnRango(14));
+        assertTrue(reglas.edadEnRango(28));
+        assertFalse(reglas.edadEnRango(29));
+        assertEquals(17, reglas.edadEstimada(1_125_000_000L));
+        assertEquals(-1, reglas.edadEstimada(1_000_000_000L));
+        assertTrue(reglas.coherente(21, 17));
+        assertFalse(reglas.coherente(22, 17));
+        assertFalse(reglas.nivelElegible(NivelSISBEN.D));
+        assertTrue(reglas.matriculaVigente("vigente"));
+        assertFalse(reglas.intensidadSuficiente(19));
+        assertFalse(reglas.institucionReconocida("Instituto Digital Global"));
+
+        // Locales primero y luego por costo; las posiciones conservan el orden declarado
+        List<TipoRegla> orden = Arrays.stream(reglas.cadena()).map(ReglaCompilada::getTipo).toList();
+        assertEquals(List.of(TipoRegla.EDAD, TipoRegla.COHERENCIA_CEDULA_EDAD, TipoRegla.NIVEL_SISBEN,
+            TipoRegla.MATRICULA, TipoRegla.AUSENCIA_TITULO), orden);
+        assertEquals(3, reglas.posicion(TipoRegla.AUSENCIA_TITULO));
+        assertEquals(3, reglas.remotas());
+    }
+
+    @Test
+    public void testMotivosSobreHechosComoMascara() {
+        ReglasElegibilidad reglas = ReglasActivas.porDefecto();
+        HechosSolicitud hechos = new HechosSolicitud(null, "1125000000", "MAT-00000001", 30);
+        hechos.sisben = SISBENResponse.builder().encontrado(true).nivel(NivelSISBEN.D).build();
+        hechos.snies = SNIESResponse.builder().tieneTitulo(false).build();
+        hechos.men = MENResponse.builder().encontrada(true).estado("VIGENTE").intensidadHoraria(18)
+            .institucion("SENA Regional Cauca").build();
+
+        int esperado = MotivoRechazo.EDAD_FUERA_RANGO.bit()
+            | MotivoRechazo.COHERENCIA_CEDULA_EDAD.bit()
+            | MotivoRechazo.NIVEL_SISBEN_NO_ELEGIBLE.bit()
+            | MotivoRechazo.INTENSIDAD_HORARIA_INSUFICIENTE.bit();
+        assertEquals(esperado, reglas.motivos(hechos));
+    }
+
+    @Test
+    public void testCopiaDeHechosSeCompletaSinTocarLaOriginal() {
+        HechosSolicitud hechos = new HechosSolicitud(VersionDatos.VACIA, "1125000000", "MAT-00000001", 20);
+        hechos.sisben = SISBENResponse.builder().encontrado(true).nivel(NivelSISBEN.A).build();
+
+        HechosSolicitud copia = hechos.copia().completar();
+
+        assertSame(hechos.sisben, copia.getSisben());
+        assertFalse(copia.getMen().isEncontrada());
+        assertNull(hechos.men, "La original la sigue llenando solo la evaluación");
+        assertNull(hechos.snies);
+    }
+
+    @Test
+    public void testDefinicionInvalidaSeRechazaYReglaDeshabilitadaSeOmite() {
+        String sinParametro = "{\"programa\": \"prueba\", \"reglas\": [{\"id\": \"edad\", \"tipo\": \"EDAD\", \"ambito\": \"LOCAL\","
+            + " \"parametros\": {\"minima\": 16}}]}";
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+            () -> ReglasActivas.leer(sinParametro.getBytes(StandardCharsets.UTF_8), "prueba"));
+        assertTrue(error.getMessage().contains("maxima"));
+
+        String deshabilitada = "{\"programa\": \"prueba\", \"version\": \"v2\", \"reglas\": ["
+            + "{\"id\": \"edad\", \"tipo\": \"EDAD\", \"ambito\": \"LOCAL\", \"parametros\": {\"minima\": 16, \"maxima\": 30}},"
+            + "{\"id\": \"titulo\", \"tipo\": \"AUSENCIA_TITULO\", \"ambito\": \"REMOTA\", \"habilitada\": false}]}";
+        ReglasElegibilidad reglas = ReglasActivas.leer(deshabilitada.getBytes(StandardCharsets.UTF_8), "prueba");
+        assertEquals("v2", reglas.getVersion());
+        assertEquals(1, reglas.cadena().length);
+        assertEquals(-1, reglas.posicion(TipoRegla.AUSENCIA_TITULO));
+        assertTrue(reglas.edadEnRango(30));
+        assertTrue(reglas.nivelElegible(NivelSISBEN.D), "Sin regla de SISBEN todos los niveles pasan");
+    }
+
+    @Test
+    public void testTramosDeCohortesEquivalenABusquedaLinealYResultadosSeReutilizan() {
+        // Cohortes solapadas: en el solape gana la declarada primero
+        String json = "{\"programa\": \"prueba\", \"anioReferencia\": 2025, \"reglas\": ["
+            + "{\"id\": \"coherencia\", \"tipo\": \"COHERENCIA_CEDULA_EDAD\", \"ambito\": \"LOCAL\", \"parametros\": {"
+            + "\"margenAnios\": 2, \"cohortes\": ["
+            + "{\"desde\": 500, \"hasta\": 800, \"anioNacimiento\": 2005},"
+            + "{\"desde\": 100, \"hasta\": 600, \"anioNacimiento\": 2000},"
+            + "{\"desde\": 700, \"hasta\": 900, \"anioNacimiento\": 1995}]}}]}";
+        ReglasElegibilidad reglas = ReglasActivas.leer(json.getBytes(StandardCharsets.UTF_8), "prueba");
+
+        long[][] cohortes = { { 500, 800, 20 }, { 100, 600, 25 }, { 700, 900, 30 } };
+        for (long cedula = 0; cedula <= 1000; cedula++) {
+            int esperada = -1;
+            for (long[] cohorte : cohortes) {
+                if (cedula >= cohorte[0] && cedula <= cohorte[1]) {
+                    esperada = (int) cohorte[2];
+                    break;
+                }
+            }
+            assertEquals(esperada, reglas.edadEstimada(cedula), "cédula " + cedula);
+        }
+
+        ValidacionIndividual coherente = reglas.validacionCoherencia("650", 21);
+        assertTrue(coherente.getExitosa());
+        assertSame(coherente, reglas.validacionCoherencia("550", 21), "Mismo resultado para la misma cohorte y edad");
+        assertEquals(MotivoRechazo.COHERENCIA_CEDULA_EDAD, reglas.validacionCoherencia("850", 21).getMotivoRechazo());
+        assertEquals(MotivoRechazo.ERROR_SISTEMA, reglas.validacionCoherencia("12a4", 21).getMotivoRechazo());
+        assertSame(reglas.validacionEdad(21), reglas.validacionEdad(21));
+        assertFalse(reglas.validacionEdad(null).getExitosa());
+    }
+}
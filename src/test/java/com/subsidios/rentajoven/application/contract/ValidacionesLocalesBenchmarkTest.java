@@ -0,0 +1,123 @@
+package com.subsidios.rentajoven.application.contract;
+
+import com.subsidios.rentajoven.domain.enums.MotivoRechazo;
+import com.subsidios.rentajoven.domain.model.ValidacionIndividual;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark de memoria reservada por las reglas locales (edad y coherencia
+ * cédula-edad): el camino anterior (parseLong en try/catch, String.format y
+ * builders en cada llamada) contra los resultados precompilados en las reglas.
+ *
+ * Solo se ejecuta con -Dbenchmark=true; número de evaluaciones con
+ * -Dbenchmark.registros (por defecto 5.000.000).
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ValidacionesLocalesBenchmarkTest {
+
+    private static final ReglasElegibilidad REGLAS = ReglasActivas.porDefecto();
+
+    @Test
+    public void testReservasPorEvaluacion() {
+        int n = Integer.getInteger("benchmark.registros", 5_000_000);
+        Random random = new Random(42);
+        String[] cedulas = new String[4096];
+        int[] edades = new int[cedulas.length];
+        for (int i = 0; i < cedulas.length; i++) {
+            cedulas[i] = String.valueOf(1_080_000_000L + random.nextInt(80_000_000));
+            edades[i] = 12 + random.nextInt(20);
+        }
+
+        // Calentamiento de ambos caminos
+        medir("antes", cedulas, edades, n / 5, true);
+        medir("ahora", cedulas, edades, n / 5, false);
+
+        long[] antes = medir("antes", cedulas, edades, n, true);
+        long[] ahora = medir("ahora", cedulas, edades, n, false);
+
+        assertEquals(antes[2], ahora[2], "Ambos caminos deben rechazar lo mismo");
+        assertTrue(ahora[0] < antes[0] / 10, "El camino precompilado debe reservar mucho menos");
+    }
+
+    /**
+     * @return bytes reservados, nanosegundos y número de rechazos
+     */
+    private static long[] medir(String nombre, String[] cedulas, int[] edades, int n, boolean comoAntes) {
+        com.sun.management.ThreadMXBean hilos = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long id = Thread.currentThread().getId();
+        long rechazos = 0;
+
+        long bytesInicio = hilos.getThreadAllocatedBytes(id);
+        long inicio = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            int k = i & (cedulas.length - 1);
+            Integer edad = edades[k];
+            ValidacionIndividual validacionEdad = comoAntes ? edadComoAntes(edad) : REGLAS.validacionEdad(edad);
+            ValidacionIndividual coherencia = comoAntes ? coherenciaComoAntes(cedulas[k], edad)
+                : REGLAS.validacionCoherencia(cedulas[k], edad);
+            if (!validacionEdad.getExitosa() || !coherencia.getExitosa()) {
+                rechazos++;
+            }
+        }
+        long nanos = System.nanoTime() - inicio;
+        long bytes = hilos.getThreadAllocatedBytes(id) - bytesInicio;
+
+        System.out.println(String.format("⏱️ %-5s %,d evaluaciones: %,d ms, %.1f ns/op, %,.1f bytes/op, %,d rechazos",
+            nombre, n, nanos / 1_000_000, (double) nanos / n, (double) bytes / n, rechazos));
+        return new long[] { bytes, nanos, rechazos };
+    }
+
+    // Camino de referencia: lo que hacía el motor antes de precompilar los resultados
+
+    private static ValidacionIndividual edadComoAntes(Integer edad) {
+        boolean exitosa = edad != null && REGLAS.edadEnRango(edad);
+        String mensaje = exitosa
+            ? String.format("✓ Edad %d años - Dentro del rango permitido (%d-%d)", edad,
+                REGLAS.getEdadMinima(), REGLAS.getEdadMaxima())
+            : String.format("✗ Edad %d años - Fuera del rango permitido (%d-%d)", edad != null ? edad : 0,
+                REGLAS.getEdadMinima(), REGLAS.getEdadMaxima());
+        String detalle = String.format("Validación de edad. Edad declarada: %d. Rango permitido: %d-%d años. Resultado: %s",
+            edad != null ? edad : 0, REGLAS.getEdadMinima(), REGLAS.getEdadMaxima(), exitosa ? "VÁLIDO" : "INVÁLIDO");
+        return ValidacionIndividual.builder()
+                .exitosa(exitosa)
+                .mensaje(mensaje)
+                .tiempoMs(0L)
+                .detalle(detalle)
+                .motivoRechazo(exitosa ? null : MotivoRechazo.EDAD_FUERA_RANGO)
+                .build();
+    }
+
+    private static ValidacionIndividual coherenciaComoAntes(String cedula, Integer edad) {
+        try {
+            int edadEstimada = REGLAS.edadEstimada(Long.parseLong(cedula));
+            boolean coherente = REGLAS.coherente(edad, edadEstimada);
+            String mensaje = coherente
+                ? String.format("✓ Cédula y edad son coherentes (edad: %d, estimada: %d)", edad, edadEstimada)
+                : String.format("✗ ALERTA FRAUDE: Cédula no coherente con edad (edad: %d, estimada: %d, diferencia: %d)",
+                    edad, edadEstimada, Math.abs(edadEstimada - edad));
+            String detalle = String.format("Cédula: %s, Edad declarada: %d, Edad estimada por cédula: %d, Diferencia: %d años",
+                cedula, edad, edadEstimada, edadEstimada != -1 ? Math.abs(edadEstimada - edad) : 0);
+            return ValidacionIndividual.builder()
+                    .exitosa(coherente)
+                    .mensaje(mensaje)
+                    .tiempoMs(0L)
+                    .detalle(detalle)
+                    .motivoRechazo(coherente ? null : MotivoRechazo.COHERENCIA_CEDULA_EDAD)
+                    .build();
+        } catch (Exception e) {
+            return ValidacionIndividual.builder()
+                    .exitosa(false)
+                    .mensaje("✗ Error validando coherencia cédula-edad")
+                    .tiempoMs(0L)
+                    .detalle(e.getMessage())
+                    .motivoRechazo(MotivoRechazo.ERROR_SISTEMA)
+                    .build();
+        }
+    }
+}
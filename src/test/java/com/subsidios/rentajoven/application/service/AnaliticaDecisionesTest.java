@@ -0,0 +1,71 @@
+package com.subsidios.rentajoven.application.service;
+
+import com.subsidios.rentajoven.domain.enums.EstadoSolicitud;
+import com.subsidios.rentajoven.domain.model.FiltroAnalitica;
+import com.subsidios.rentajoven.domain.model.Solicitud;
+import com.subsidios.rentajoven.infrastructure.dataset.DatosReferenciaActivos;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * El índice analítico no puede tumbar una decisión: una solicitud cuyo id
+ * no cabe en el índice se omite y su transacción se confirma igual.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({AnaliticaDecisiones.class, DatosReferenciaActivos.class})
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:analitica;DB_CLOSE_DELAY=-1",
+    "analitica.habilitada=true"
+})
+public class AnaliticaDecisionesTest {
+
+    @Autowired
+    private AnaliticaDecisiones analitica;
+
+    @Autowired
+    private PlatformTransactionManager transacciones;
+
+    @Test
+    public void testIdFueraDeIntSeOmiteSinRevertirLaDecision() {
+        TransactionTemplate transaccion = new TransactionTemplate(transacciones);
+        long antes = analitica.consultar(new FiltroAnalitica()).getTotal();
+
+        Boolean confirmada = transaccion.execute(estado -> {
+            analitica.registrar(decidida(Integer.MAX_VALUE + 1L));
+            return !estado.isRollbackOnly();
+        });
+        assertTrue(confirmada);
+        assertEquals(antes, analitica.consultar(new FiltroAnalitica()).getTotal());
+
+        // Un id normal se indexa al confirmar
+        transaccion.executeWithoutResult(estado -> analitica.registrar(decidida(7L)));
+        assertEquals(antes + 1, analitica.consultar(new FiltroAnalitica()).getTotal());
+    }
+
+    private static Solicitud decidida(long id) {
+        return Solicitud.builder()
+                .id(id)
+                .cedula("1038106564")
+                .matriculaId("MAT-00000001")
+                .estado(EstadoSolicitud.APROBADA)
+                .aprobada(true)
+                .motivosRechazo(0)
+                .fechaSolicitud(LocalDateTime.now())
+                .fechaProcesamiento(LocalDateTime.now())
+                .build();
+    }
+}
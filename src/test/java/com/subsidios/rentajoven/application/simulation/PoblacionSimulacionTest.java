@@ -0,0 +1,87 @@
+package com.subsidios.rentajoven.application.simulation;
+
+import com.subsidios.rentajoven.application.contract.ReglasActivas;
+import com.subsidios.rentajoven.application.contract.ReglasElegibilidad;
+import com.subsidios.rentajoven.domain.enums.MotivoRechazo;
+import com.subsidios.rentajoven.domain.enums.NivelSISBEN;
+import com.subsidios.rentajoven.domain.model.MENResponse;
+import com.subsidios.rentajoven.domain.model.SISBENResponse;
+import com.subsidios.rentajoven.domain.model.SNIESResponse;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenMEN;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSISBEN;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSNIES;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de la simulación de escenarios sobre la población.
+ */
+public class PoblacionSimulacionTest {
+
+    private static final ReglasElegibilidad REGLAS = ReglasActivas.porDefecto();
+
+    @Test
+    public void testEscenarioCambiaAprobacionesYMotivosPorDepartamento() {
+        Map<String, SISBENResponse> sisben = new HashMap<>();
+        sisben.put("1100000001", sisben(NivelSISBEN.A, "Cauca"));
+        sisben.put("1100000002", sisben(NivelSISBEN.D, "Cauca"));
+        sisben.put("1100000003", sisben(NivelSISBEN.B, "Nariño"));
+        sisben.put("1100000004", sisben(NivelSISBEN.C, "Nariño"));
+
+        Map<String, MENResponse> men = new HashMap<>();
+        men.put("MAT-00000001", men("1100000001", "VIGENTE", 25));
+        men.put("MAT-00000002", men("1100000002", "VIGENTE", 25));   // nivel D
+        men.put("MAT-00000003", men("1100000003", "VIGENTE", 16));   // intensidad
+        men.put("MAT-00000004", men("1100000004", "VIGENTE", 30));   // título
+        men.put("MAT-00000005", men("1100000005", "INACTIVA", 30));  // sin SISBEN y no vigente
+
+        PoblacionSimulacion poblacion = PoblacionSimulacion.construir(
+            AlmacenSISBEN.desde(sisben),
+            AlmacenSNIES.desde(Map.of("1100000004", SNIESResponse.builder().tieneTitulo(true).build())),
+            AlmacenMEN.desde(men),
+            REGLAS, ForkJoinPool.commonPool());
+
+        ResultadoSimulacion vigentes = poblacion.simular(new EscenarioSimulacion().completo(REGLAS), ForkJoinPool.commonPool());
+        assertEquals(5, vigentes.getPoblacion());
+        assertEquals(1, vigentes.getAprobadas());
+        assertEquals(1L, vigentes.getMotivos().get(MotivoRechazo.INTENSIDAD_HORARIA_INSUFICIENTE));
+        assertEquals(1L, vigentes.getMotivos().get(MotivoRechazo.SISBEN_NO_ENCONTRADO));
+        assertEquals(2, vigentes.getPorDepartamento().get("Nariño").getPoblacion());
+        assertEquals(0, vigentes.getPorDepartamento().get("Nariño").getAprobadas());
+
+        EscenarioSimulacion flexible = EscenarioSimulacion.builder()
+                .intensidadMinima(15)
+                .permitirTitulo(true)
+                .build();
+        ResultadoSimulacion resultado = poblacion.simular(flexible.completo(REGLAS), ForkJoinPool.commonPool());
+        assertEquals(3, resultado.getAprobadas());
+        assertEquals(1.0, resultado.getPorDepartamento().get("Nariño").getTasaAprobacion());
+        assertEquals(0.5, resultado.getPorDepartamento().get("Cauca").getTasaAprobacion());
+    }
+
+    private static SISBENResponse sisben(NivelSISBEN nivel, String departamento) {
+        return SISBENResponse.builder()
+                .nivel(nivel)
+                .puntaje(30.0)
+                .departamento(departamento)
+                .municipio(departamento)
+                .encontrado(true)
+                .build();
+    }
+
+    private static MENResponse men(String cedula, String estado, int intensidad) {
+        return MENResponse.builder()
+                .cedula(cedula)
+                .institucion("SENA Regional Cauca")
+                .programa("Tecnología en Sistemas")
+                .estado(estado)
+                .intensidadHoraria(intensidad)
+                .encontrada(true)
+                .build();
+    }
+}
@@ -0,0 +1,112 @@
+package com.subsidios.rentajoven.application.simulation;
+
+import com.subsidios.rentajoven.application.contract.ReglasActivas;
+import com.subsidios.rentajoven.application.contract.ReglasElegibilidad;
+import com.subsidios.rentajoven.domain.enums.NivelSISBEN;
+import com.subsidios.rentajoven.domain.model.MENResponse;
+import com.subsidios.rentajoven.domain.model.SISBENResponse;
+import com.subsidios.rentajoven.domain.model.SNIESResponse;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenMEN;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenMENMemoria;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSISBEN;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSISBENMemoria;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSNIES;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSNIESMemoria;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark de la simulación de escenarios sobre una población sintética:
+ * tiempo de armar la tabla de población (una vez por versión) y tiempo de
+ * cada escenario.
+ *
+ * Solo se ejecuta con -Dbenchmark=true; tamaño con -Dbenchmark.registros
+ * (por defecto 10.000.000 personas, 10% con título; con ese tamaño los
+ * almacenes sintéticos necesitan -DargLine=-Xmx3g).
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class SimulacionPoblacionBenchmarkTest {
+
+    private static final ReglasElegibilidad REGLAS = ReglasActivas.porDefecto();
+
+    private static final String[] DEPARTAMENTOS = {
+        "Antioquia", "Atlántico", "Bogotá D.C.", "Bolívar", "Boyacá", "Caldas", "Cauca",
+        "Cesar", "Córdoba", "Cundinamarca", "La Guajira", "Nariño", "Santander", "Valle del Cauca"
+    };
+    private static final String[] INSTITUCIONES = {
+        "SENA Regional Bogotá", "Universidad Nacional", "Instituto Digital Global", "Colegio Nacional Loperena"
+    };
+
+    @Test
+    public void testEscenariosSobrePoblacionCompleta() {
+        int n = Integer.getInteger("benchmark.registros", 10_000_000);
+        Random random = new Random(42);
+
+        long inicio = System.currentTimeMillis();
+        AlmacenSISBEN.Constructor sisben = new AlmacenSISBENMemoria.Constructor(n);
+        AlmacenSNIES.Constructor snies = new AlmacenSNIESMemoria.Constructor(n / 10);
+        AlmacenMEN.Constructor men = new AlmacenMENMemoria.Constructor(n);
+        SNIESResponse titulo = SNIESResponse.builder().tieneTitulo(true).programa("Derecho").tipoTitulo("PROFESIONAL").build();
+        for (int i = 0; i < n; i++) {
+            String cedula = String.valueOf(1_080_000_000L + i * 7L);
+            if (i % 20 != 0) {
+                sisben.agregar(cedula, SISBENResponse.builder()
+                        .nivel(NivelSISBEN.values()[random.nextInt(4)])
+                        .puntaje(random.nextDouble() * 100)
+                        .departamento(DEPARTAMENTOS[random.nextInt(DEPARTAMENTOS.length)])
+                        .municipio("Municipio")
+                        .encontrado(true)
+                        .build());
+            }
+            if (i % 10 == 0) {
+                snies.agregar(cedula, titulo);
+            }
+            men.agregar(String.format("MAT-%08d", i), MENResponse.builder()
+                    .cedula(cedula)
+                    .institucion(INSTITUCIONES[random.nextInt(INSTITUCIONES.length)])
+                    .programa("Programa")
+                    .estado(random.nextInt(10) == 0 ? "INACTIVA" : "VIGENTE")
+                    .intensidadHoraria(10 + random.nextInt(30))
+                    .encontrada(true)
+                    .build());
+        }
+        AlmacenSISBEN almacenSisben = sisben.construir();
+        AlmacenSNIES almacenSnies = snies.construir();
+        AlmacenMEN almacenMen = men.construir();
+        System.out.println(String.format("Datos sintéticos: %,d personas en %,d ms", n, System.currentTimeMillis() - inicio));
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        inicio = System.currentTimeMillis();
+        PoblacionSimulacion poblacion = PoblacionSimulacion.construir(almacenSisben, almacenSnies, almacenMen, REGLAS, pool);
+        System.out.println(String.format("Tabla de población: %,d ms, %,d MB (paralelismo %d)",
+            System.currentTimeMillis() - inicio, poblacion.bytesEstimados() / (1024 * 1024), pool.getParallelism()));
+
+        EscenarioSimulacion[] escenarios = {
+            new EscenarioSimulacion(),
+            EscenarioSimulacion.builder().edadMaxima(30).build(),
+            EscenarioSimulacion.builder().intensidadMinima(15).build(),
+            EscenarioSimulacion.builder().permitirTitulo(true).intensidadMinima(15).build()
+        };
+        for (EscenarioSimulacion escenario : escenarios) {
+            inicio = System.currentTimeMillis();
+            ResultadoSimulacion resultado = poblacion.simular(escenario.completo(REGLAS), pool);
+            long ms = System.currentTimeMillis() - inicio;
+            System.out.println(String.format("Escenario %s: %,d aprobadas de %,d en %,d ms",
+                describir(escenario), resultado.getAprobadas(), resultado.getPoblacion(), ms));
+            assertEquals(n, resultado.getPoblacion());
+        }
+    }
+
+    private static String describir(EscenarioSimulacion e) {
+        StringBuilder sb = new StringBuilder();
+        if (e.getEdadMaxima() != null) sb.append("edadMaxima=").append(e.getEdadMaxima()).append(' ');
+        if (e.getIntensidadMinima() != null) sb.append("intensidadMinima=").append(e.getIntensidadMinima()).append(' ');
+        if (e.getPermitirTitulo() != null) sb.append("permitirTitulo=").append(e.getPermitirTitulo()).append(' ');
+        return sb.length() == 0 ? "reglas vigentes" : sb.toString().trim();
+    }
+}
@@ -0,0 +1,52 @@
+package com.subsidios.rentajoven.domain.model;
+
+import com.subsidios.rentajoven.domain.enums.CodigoValidacion;
+import com.subsidios.rentajoven.domain.enums.MotivoRechazo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de los textos armados a partir de eventos estructurados.
+ */
+public class MensajesValidacionTest {
+
+    @Test
+    public void testTodoCodigoTieneMensajeYDetalle() {
+        for (CodigoValidacion codigo : CodigoValidacion.values()) {
+            EventoValidacion evento = EventoValidacion.builder().codigo(codigo).texto("texto").build();
+            assertNotNull(MensajesValidacion.mensaje(evento), codigo.name());
+            assertNotNull(MensajesValidacion.detalle(evento), codigo.name());
+        }
+    }
+
+    @Test
+    public void testMensajeSeArmaAlLeer() {
+        ValidacionIndividual validacion = ValidacionIndividual.builder()
+                .exitosa(false)
+                .evento(EventoValidacion.builder()
+                    .codigo(CodigoValidacion.INTENSIDAD_INSUFICIENTE)
+                    .valor1(12)
+                    .valor2(20)
+                    .build())
+                .motivoRechazo(MotivoRechazo.INTENSIDAD_HORARIA_INSUFICIENTE)
+                .build();
+
+        List<String> razones = ValidacionIndividual.mensajes(new ValidacionIndividual[] { validacion });
+        assertEquals("✗ Intensidad horaria insuficiente: 12h (mínimo 20h)", razones.get(0));
+        assertEquals("Intensidad actual: 12 horas/semana", validacion.getDetalle());
+    }
+
+    @Test
+    public void testMotivosDesdeMascara() {
+        long mascara = MotivoRechazo.TIENE_TITULO_PROFESIONAL.bit() | MotivoRechazo.EDAD_FUERA_RANGO.bit();
+        assertEquals(List.of(MotivoRechazo.EDAD_FUERA_RANGO, MotivoRechazo.TIENE_TITULO_PROFESIONAL),
+            MotivoRechazo.deMascara(mascara));
+        assertEquals(mascara, MotivoRechazo.mascara(MotivoRechazo.deMascara(mascara)));
+        // Bits persistidos: no cambian aunque se reordene el enum
+        assertEquals(1 << 3, MotivoRechazo.TIENE_TITULO_PROFESIONAL.bit());
+        assertEquals(1 << 9, MotivoRechazo.ERROR_SISTEMA.bit());
+    }
+}
@@ -0,0 +1,159 @@
+package com.subsidios.rentajoven.infrastructure.dataset;
+
+import com.subsidios.rentajoven.infrastructure.external.LectorExcelPorEventos;
+import com.subsidios.rentajoven.infrastructure.index.RegistroInstituciones;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark de carga del Excel de instituciones: lector por eventos vs
+ * modelo de objetos de POI (XSSFWorkbook), tiempo y pico de heap.
+ *
+ * Solo se ejecuta con -Dbenchmark=true. Filas con -Dbenchmark.filas=1000000
+ * (por defecto). El modelo de objetos se mide solo con
+ * -Dbenchmark.excel.modelo=true: con 1M filas necesita varios GB de heap.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class CargaInstitucionesExcelBenchmarkTest {
+
+    private static final String[] ESTADOS = { "Activa", "Activa", "Activa", "Inactiva" };
+
+    @Test
+    public void testCargaPorEventosVsModeloDeObjetos() throws Exception {
+        int filas = Integer.parseInt(System.getProperty("benchmark.filas", "1000000"));
+        boolean modelo = Boolean.getBoolean("benchmark.excel.modelo");
+
+        System.out.println("\n" + "=".repeat(70));
+        System.out.println("⏱️  BENCHMARK DE CARGA: Instituciones.xlsx por eventos vs XSSFWorkbook");
+        System.out.println("=".repeat(70));
+
+        Path archivo = Files.createTempFile("rj-instituciones", ".xlsx");
+        try {
+            generarExcel(archivo, filas);
+            System.out.println(String.format("   Hoja sintética: %,d filas, %,d MB comprimido", filas, Files.size(archivo) >> 20));
+
+            // 1. Solo lectura por eventos: memoria del lector
+            AtomicLong activas = new AtomicLong();
+            Medicion lectura = medir(() -> LectorExcelPorEventos.leer(archivo.toFile(), "Instituciones",
+                (numero, celdas, columnas) -> {
+                    if (columnas > 3 && celdas[3].equals("Activa")) {
+                        activas.incrementAndGet();
+                    }
+                }));
+            imprimir("Lector por eventos (sin registro)", lectura);
+
+            // 2. Lectura por eventos armando el registro completo
+            RegistroInstituciones[] registro = new RegistroInstituciones[1];
+            Medicion carga = medir(() -> {
+                RegistroInstituciones.Constructor constructor = new RegistroInstituciones.Constructor(true);
+                InstitucionesActivas.leerExcel(archivo, archivo.toString(), constructor);
+                registro[0] = constructor.construir("benchmark", 0);
+            });
+            imprimir("Lector por eventos + registro", carga);
+            assertEquals(activas.get(), registro[0].tamanio());
+            registro[0] = null;
+
+            // 3. Modelo de objetos de POI
+            if (modelo) {
+                long[] leidas = new long[1];
+                Medicion objetos = medir(() -> {
+                    try (Workbook libro = new XSSFWorkbook(archivo.toFile())) {
+                        for (Row fila : libro.getSheet("Instituciones")) {
+                            leidas[0] += fila.getLastCellNum() > 0 ? 1 : 0;
+                        }
+                    }
+                });
+                imprimir("XSSFWorkbook (modelo de objetos)", objetos);
+                assertEquals(filas + 1, leidas[0]);
+            }
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+        System.out.println("=".repeat(70) + "\n");
+    }
+
+    private interface Carga {
+        void ejecutar() throws Exception;
+    }
+
+    private static final class Medicion {
+        long ms;
+        long picoMB;
+    }
+
+    /**
+     * Tiempo y pico de heap sobre la línea base, muestreado cada 10 ms.
+     */
+    private Medicion medir(Carga carga) throws Exception {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long base = runtime.totalMemory() - runtime.freeMemory();
+        AtomicLong pico = new AtomicLong(base);
+        Thread muestreo = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                pico.accumulateAndGet(runtime.totalMemory() - runtime.freeMemory(), Math::max);
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        muestreo.setDaemon(true);
+        muestreo.start();
+        long inicio = System.nanoTime();
+        try {
+            carga.ejecutar();
+        } finally {
+            muestreo.interrupt();
+            muestreo.join();
+        }
+        Medicion medicion = new Medicion();
+        medicion.ms = (System.nanoTime() - inicio) / 1_000_000;
+        medicion.picoMB = Math.max(0, pico.get() - base) >> 20;
+        return medicion;
+    }
+
+    private void imprimir(String nombre, Medicion medicion) {
+        System.out.println(String.format("   %-36s %,8d ms | pico heap %,6d MB", nombre, medicion.ms, medicion.picoMB));
+    }
+
+    /**
+     * Mismo encabezado que el Excel SNIES; SXSSF escribe en streaming con
+     * textos en línea, como el archivo real.
+     */
+    private void generarExcel(Path destino, int filas) throws Exception {
+        try (SXSSFWorkbook libro = new SXSSFWorkbook(1000)) {
+            Sheet hoja = libro.createSheet("Instituciones");
+            Row encabezado = hoja.createRow(0);
+            String[] titulos = { "CÓDIGO_IES_PADRE", "CÓDIGO_INSTITUCIÓN", "NOMBRE_INSTITUCIÓN", "ESTADO", "SECTOR" };
+            for (int c = 0; c < titulos.length; c++) {
+                encabezado.createCell(c).setCellValue(titulos[c]);
+            }
+            for (int i = 1; i <= filas; i++) {
+                Row fila = hoja.createRow(i);
+                fila.createCell(0).setCellValue(1000 + i / 10);
+                fila.createCell(1).setCellValue(1000 + i);
+                fila.createCell(2).setCellValue("CORPORACIÓN UNIVERSITARIA DE PRUEBA " + i + " - CUP" + (i % 1000));
+                fila.createCell(3).setCellValue(ESTADOS[i % ESTADOS.length]);
+                fila.createCell(4).setCellValue(i % 3 == 0 ? "Oficial" : "Privado");
+            }
+            try (OutputStream salida = Files.newOutputStream(destino)) {
+                libro.write(salida);
+            }
+            libro.dispose();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.subsidios.rentajoven.infrastructure.dataset;
+
+import com.subsidios.rentajoven.domain.enums.NivelSISBEN;
+import com.subsidios.rentajoven.domain.model.SISBENResponse;
+import com.subsidios.rentajoven.domain.model.SNIESResponse;
+import com.subsidios.rentajoven.infrastructure.snapshot.DatosReferencia;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenMEN;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSISBEN;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSNIES;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSNIESConDelta;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de la publicación atómica de versiones de datos de referencia.
+ */
+public class DatosReferenciaActivosTest {
+
+    @Test
+    public void testLectoresNuncaVenDatosVaciosDuranteRecargas() throws Exception {
+        DatosReferenciaActivos activos = new DatosReferenciaActivos();
+        activos.publicar(datos(NivelSISBEN.A), 1L, "arranque");
+
+        AtomicBoolean fin = new AtomicBoolean();
+        AtomicLong fallos = new AtomicLong();
+        AtomicLong lecturas = new AtomicLong();
+        Thread[] lectores = new Thread[4];
+        for (int i = 0; i < lectores.length; i++) {
+            lectores[i] = new Thread(() -> {
+                while (!fin.get()) {
+                    VersionDatos version = activos.actual();
+                    if (version.getSisben().buscar("1000000500") == null
+                            || version.getIndiceCedulas().tamanio() != 1_000) {
+                        fallos.incrementAndGet();
+                    }
+                    lecturas.incrementAndGet();
+                }
+            });
+            lectores[i].start();
+        }
+
+        for (int i = 0; i < 50; i++) {
+            activos.publicar(datos(i % 2 == 0 ? NivelSISBEN.B : NivelSISBEN.C), 2L, "admin");
+        }
+        fin.set(true);
+        for (Thread lector : lectores) {
+            lector.join();
+        }
+
+        assertTrue(lecturas.get() > 0);
+        assertEquals(0, fallos.get());
+        assertEquals(51, activos.actual().getSecuencia());
+        assertTrue(activos.actual().getId().startsWith("v51-"));
+    }
+
+    @Test
+    public void testPublicarUnaFuenteConservaLasDemas() {
+        DatosReferenciaActivos activos = new DatosReferenciaActivos();
+        VersionDatos inicial = activos.publicar(datos(NivelSISBEN.A), 7L, "arranque");
+
+        VersionDatos nueva = activos.publicarSISBEN(AlmacenSISBEN.VACIO, "carga SISBEN");
+
+        assertEquals(0, nueva.getSisben().tamanio());
+        assertSame(inicial.getMen(), nueva.getMen());
+        assertSame(inicial.getSnies(), nueva.getSnies());
+        assertEquals(1_000, inicial.getSisben().tamanio(), "La versión anterior no se modifica");
+    }
+
+    @Test
+    public void testFiltroSniesSeReutilizaYCreceConElDelta() {
+        DatosReferenciaActivos activos = new DatosReferenciaActivos();
+        Map<String, SNIESResponse> titulos = new HashMap<>();
+        for (int i = 0; i < 1_000; i++) {
+            titulos.put(String.valueOf(1_000_000_000L + i), titulo());
+        }
+        DatosReferencia datos = datos(NivelSISBEN.A);
+        datos.setSnies(AlmacenSNIES.desde(titulos));
+        VersionDatos inicial = activos.publicar(datos, 1L, "arranque");
+        assertEquals(1_000, inicial.getFiltroSnies().elementos());
+
+        VersionDatos sinCambioSnies = activos.publicarSISBEN(AlmacenSISBEN.VACIO, "carga SISBEN");
+        assertSame(inicial.getFiltroSnies(), sinCambioSnies.getFiltroSnies());
+
+        VersionDatos conDelta = activos.publicarSNIES(
+            AlmacenSNIESConDelta.aplicar(sinCambioSnies.getSnies(), Map.of("2000000001", titulo())), "delta");
+        VersionDatos otroDelta = activos.publicarSNIES(
+            AlmacenSNIESConDelta.aplicar(conDelta.getSnies(), Map.of("2000000002", titulo())), "delta");
+        assertEquals(1_001, conDelta.getFiltroSnies().elementos(), "Solo se agrega la clave del lote");
+        assertEquals(1_002, otroDelta.getFiltroSnies().elementos());
+        assertTrue(otroDelta.getFiltroSnies().podriaContener("2000000001"));
+        assertTrue(otroDelta.getFiltroSnies().podriaContener("2000000002"));
+        assertTrue(otroDelta.getFiltroSnies().podriaContener("1000000500"));
+        assertEquals(1_000, inicial.getFiltroSnies().elementos(), "El filtro anterior no se modifica");
+    }
+
+    private static SNIESResponse titulo() {
+        return SNIESResponse.builder().tieneTitulo(true).programa("Ingeniería").institucion("UNAL")
+                .tipoTitulo("PROFESIONAL").build();
+    }
+
+    private DatosReferencia datos(NivelSISBEN nivel) {
+        Map<String, SISBENResponse> sisben = new HashMap<>();
+        for (int i = 0; i < 1_000; i++) {
+            sisben.put(String.valueOf(1_000_000_000L + i), SISBENResponse.builder()
+                    .nivel(nivel).puntaje(10.0).departamento("Cauca").municipio("Popayán")
+                    .encontrado(true).build());
+        }
+        return DatosReferencia.builder()
+                .sisben(AlmacenSISBEN.desde(sisben))
+                .snies(AlmacenSNIES.VACIO)
+                .men(AlmacenMEN.VACIO)
+                .build();
+    }
+}
@@ -0,0 +1,121 @@
+package com.subsidios.rentajoven.infrastructure.external;
+
+import com.subsidios.rentajoven.infrastructure.snapshot.DatosReferencia;
+import com.subsidios.rentajoven.infrastructure.snapshot.SnapshotDatos;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenMEN;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSISBEN;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSISBENMemoria;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSNIES;
+import com.subsidios.rentajoven.infrastructure.store.FabricaAlmacenes;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark de arranque: carga CSV vs carga desde snapshot binario.
+ *
+ * Solo se ejecuta con -Dbenchmark=true. Los tamaños se configuran con
+ * -Dbenchmark.filas=1000000,10000000,50000000 (por defecto). Los escenarios
+ * grandes requieren heap acorde, p. ej. -DargLine=-Xmx24g para 50M filas.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class CargaSnapshotBenchmarkTest {
+
+    private static final String[] DEPARTAMENTOS = {
+        "Antioquia", "Atlántico", "Bogotá D.C.", "Bolívar", "Boyacá", "Caldas", "Cauca",
+        "Cesar", "Córdoba", "Cundinamarca", "La Guajira", "Nariño", "Santander", "Valle del Cauca"
+    };
+
+    @Test
+    public void testCargaCSVvsSnapshot() throws Exception {
+        String filas = System.getProperty("benchmark.filas", "1000000,10000000,50000000");
+        int hilos = Runtime.getRuntime().availableProcessors();
+
+        System.out.println("\n" + "=".repeat(70));
+        System.out.println("⏱️  BENCHMARK DE ARRANQUE: CSV vs SNAPSHOT");
+        System.out.println("=".repeat(70));
+
+        for (String valor : filas.split(",")) {
+            int n = Integer.parseInt(valor.trim());
+            Path directorio = Files.createTempDirectory("rj-bench");
+            Path csv = directorio.resolve("sisben.csv");
+            Path snapshot = directorio.resolve("referencia.snap");
+
+            try {
+                generarCSV(csv, n);
+
+                // 1. Carga desde CSV
+                ExecutorService pool = Executors.newFixedThreadPool(hilos);
+                AlmacenSISBEN.Constructor constructor = new AlmacenSISBENMemoria.Constructor(n);
+                long inicioCSV = System.nanoTime();
+                try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+                    EncabezadoCSV encabezado = EncabezadoCSV.desdeLinea(reader.readLine());
+                    new LectorCSVPorBloques(pool, 8192, hilos).leer("SISBEN", reader,
+                        CSVDataLoader.parserSISBEN(encabezado), e -> constructor.agregar(e.getKey(), e.getValue()));
+                } finally {
+                    pool.shutdown();
+                }
+                AlmacenSISBEN datos = constructor.construir();
+                long msCSV = (System.nanoTime() - inicioCSV) / 1_000_000;
+
+                // 2. Escritura del snapshot
+                long inicioEscritura = System.nanoTime();
+                SnapshotDatos.escribir(snapshot, 42L, DatosReferencia.builder()
+                        .sisben(datos).snies(AlmacenSNIES.VACIO).men(AlmacenMEN.VACIO).build());
+                long msEscritura = (System.nanoTime() - inicioEscritura) / 1_000_000;
+                datos = null;
+
+                // 3. Carga desde snapshot
+                long inicioSnapshot = System.nanoTime();
+                DatosReferencia leidos = SnapshotDatos.leer(snapshot, 42L, FabricaAlmacenes.MEMORIA);
+                long msSnapshot = (System.nanoTime() - inicioSnapshot) / 1_000_000;
+
+                assertNotNull(leidos);
+                assertEquals(n, leidos.getSisben().tamanio());
+
+                System.out.println(String.format(
+                    "   %,12d filas | CSV %,8d ms | snapshot %,8d ms (escritura %,8d ms) | %5.1fx | CSV %,6d MB / snap %,6d MB",
+                    n, msCSV, msSnapshot, msEscritura, (double) msCSV / Math.max(1, msSnapshot),
+                    Files.size(csv) >> 20, Files.size(snapshot) >> 20));
+            } finally {
+                Files.deleteIfExists(csv);
+                Files.deleteIfExists(snapshot);
+                Files.deleteIfExists(directorio);
+            }
+        }
+        System.out.println("=".repeat(70) + "\n");
+    }
+
+    private void generarCSV(Path destino, int filas) throws Exception {
+        Random random = new Random(42);
+        String[] niveles = { "A", "B", "C", "D" };
+        try (BufferedWriter writer = Files.newBufferedWriter(destino, StandardCharsets.UTF_8)) {
+            writer.write("sisben_id,cedula,sisben_nivel,sisben_puntaje,departamento,municipio,fecha_actualizacion\n");
+            for (int i = 0; i < filas; i++) {
+                String departamento = DEPARTAMENTOS[random.nextInt(DEPARTAMENTOS.length)];
+                writer.write(String.valueOf(i + 1));
+                writer.write(',');
+                writer.write(String.valueOf(1_000_000_000L + i));
+                writer.write(',');
+                writer.write(niveles[random.nextInt(4)]);
+                writer.write(',');
+                writer.write(String.valueOf(random.nextInt(10000) / 100.0));
+                writer.write(',');
+                writer.write(departamento);
+                writer.write(',');
+                writer.write(departamento);
+                writer.write(",2025-03-30 21:40:41.540111\n");
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.subsidios.rentajoven.infrastructure.external;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del lector CSV por bloques usado en la carga inicial.
+ */
+public class LectorCSVPorBloquesTest {
+
+    @Test
+    public void testEntregaEnOrdenYCuentaErrores() throws Exception {
+        StringBuilder csv = new StringBuilder("\uFEFFid,valor\n");
+        for (int i = 0; i < 1000; i++) {
+            csv.append(i).append(',').append(i % 97 == 0 ? "x" : String.valueOf(i * 2)).append('\n');
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try (BufferedReader reader = new BufferedReader(new StringReader(csv.toString()))) {
+            EncabezadoCSV encabezado = EncabezadoCSV.desdeLinea(reader.readLine());
+            int colId = encabezado.indice("id");
+            int colValor = encabezado.indice("valor");
+
+            List<Integer> ids = new ArrayList<>();
+            ResultadoCarga resultado = new LectorCSVPorBloques(pool, 64, 4).leer("TEST", reader,
+                campos -> {
+                    Integer.parseInt(campos[colValor]);
+                    return Integer.parseInt(campos[colId]);
+                },
+                ids::add);
+
+            assertEquals(11, resultado.getErrores());
+            assertEquals(989, resultado.getRegistros());
+            for (int i = 1; i < ids.size(); i++) {
+                assertTrue(ids.get(i - 1) < ids.get(i), "Los registros deben llegar en orden");
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testCamposEntreComillas() {
+        String[] campos = LectorCSVPorBloques.dividir("1,\"Bogotá, D.C.\",\"dice \"\"hola\"\"\",");
+        assertArrayEquals(new String[] { "1", "Bogotá, D.C.", "dice \"hola\"", "" }, campos);
+    }
+}
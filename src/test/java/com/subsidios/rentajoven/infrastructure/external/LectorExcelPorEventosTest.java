@@ -0,0 +1,51 @@
+package com.subsidios.rentajoven.infrastructure.external;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del lector XLSX por eventos con el Excel de instituciones SNIES.
+ */
+public class LectorExcelPorEventosTest {
+
+    @Test
+    public void testLeeLaHojaPedidaFilaAFila() throws Exception {
+        byte[] contenido;
+        try (InputStream entrada = new ClassPathResource("data/Instituciones.xlsx").getInputStream()) {
+            contenido = entrada.readAllBytes();
+        }
+        List<String> encabezado = new ArrayList<>();
+        long[] activas = new long[1];
+
+        long filas = LectorExcelPorEventos.leer(contenido, "Instituciones", (numero, celdas, columnas) -> {
+            if (numero == 0) {
+                encabezado.addAll(Arrays.asList(celdas).subList(0, columnas));
+            } else if (columnas > 3 && celdas[3].equals("Activa")) {
+                activas[0]++;
+            }
+        });
+
+        assertEquals(369, filas);
+        assertEquals("NOMBRE_INSTITUCIÓN", encabezado.get(2));
+        assertEquals("ESTADO", encabezado.get(3));
+        assertTrue(activas[0] > 0 && activas[0] < filas);
+
+        long[] otra = new long[1];
+        LectorExcelPorEventos.leer(contenido, "Directivos", (numero, celdas, columnas) -> otra[0]++);
+        assertNotEquals(filas, otra[0], "Se lee la hoja pedida, no la primera");
+    }
+
+    @Test
+    public void testColumnaDesdeReferencia() {
+        assertEquals(0, LectorExcelPorEventos.columna("A1"));
+        assertEquals(2, LectorExcelPorEventos.columna("C12"));
+        assertEquals(26, LectorExcelPorEventos.columna("AA3"));
+    }
+}
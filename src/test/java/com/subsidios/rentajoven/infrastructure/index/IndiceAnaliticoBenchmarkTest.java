@@ -0,0 +1,83 @@
+package com.subsidios.rentajoven.infrastructure.index;
+
+import com.subsidios.rentajoven.domain.enums.MotivoRechazo;
+import com.subsidios.rentajoven.domain.model.FiltroAnalitica;
+import com.subsidios.rentajoven.domain.model.ResultadoAnalitica;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark del {@link IndiceAnalitico}: tiempo de indexar y de responder
+ * combinaciones de filtros.
+ *
+ * Solo se ejecuta con -Dbenchmark=true; decisiones con -Dbenchmark.decisiones
+ * (por defecto 5.000.000, repartidas en un año).
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class IndiceAnaliticoBenchmarkTest {
+
+    private static final String[] DEPARTAMENTOS = {
+        "Antioquia", "Atlántico", "Bogotá D.C.", "Bolívar", "Boyacá", "Caldas", "Cauca",
+        "Cesar", "Córdoba", "Cundinamarca", "La Guajira", "Nariño", "Santander", "Valle del Cauca"
+    };
+
+    @Test
+    public void testConsultasSobreMillonesDeDecisiones() {
+        int n = Integer.getInteger("benchmark.decisiones", 5_000_000);
+        LocalDate inicio = LocalDate.of(2025, 1, 1);
+        MotivoRechazo[] motivos = MotivoRechazo.values();
+
+        System.out.println("\n" + "=".repeat(70));
+        System.out.println(String.format("⏱️  BENCHMARK ÍNDICE ANALÍTICO (%,d decisiones)", n));
+        System.out.println("=".repeat(70));
+
+        IndiceAnalitico indice = new IndiceAnalitico();
+        Random random = new Random(42);
+        long t0 = System.nanoTime();
+        for (int id = 1; id <= n; id++) {
+            boolean aprobada = random.nextInt(3) == 0;
+            int mascara = aprobada ? 0 : motivos[random.nextInt(motivos.length - 1)].bit();
+            if (!aprobada && random.nextInt(4) == 0) {
+                mascara |= MotivoRechazo.INTENSIDAD_HORARIA_INSUFICIENTE.bit();
+            }
+            String departamento = DEPARTAMENTOS[random.nextInt(DEPARTAMENTOS.length)];
+            indice.agregar(id, aprobada, mascara, departamento, departamento, inicio.plusDays((long) id * 365 / n));
+        }
+        System.out.println(String.format("   Indexar:   %,d ms, %,d KB",
+            (System.nanoTime() - t0) / 1_000_000, indice.bytesEstimados() / 1024));
+
+        LocalDate semana = inicio.plusDays(200);
+        medir("sin filtros", () -> indice.consultar(new FiltroAnalitica()));
+        medir("intensidad en Atlántico esta semana", () -> indice.consultar(FiltroAnalitica.builder()
+            .motivos(List.of(MotivoRechazo.INTENSIDAD_HORARIA_INSUFICIENTE))
+            .departamento("Atlántico").desde(semana).hasta(semana.plusDays(6)).build()));
+        medir("rechazadas en Nariño en el año", () -> indice.consultar(FiltroAnalitica.builder()
+            .aprobada(false).departamento("Nariño").desde(inicio).hasta(inicio.plusDays(364)).build()));
+        medir("SISBEN o título, todo el país", () -> indice.consultar(FiltroAnalitica.builder()
+            .motivos(List.of(MotivoRechazo.NIVEL_SISBEN_NO_ELEGIBLE, MotivoRechazo.TIENE_TITULO_PROFESIONAL))
+            .build()));
+        System.out.println("=".repeat(70) + "\n");
+    }
+
+    private static void medir(String nombre, Supplier<ResultadoAnalitica> consulta) {
+        for (int i = 0; i < 20; i++) {
+            consulta.get();
+        }
+        int veces = 50;
+        long inicio = System.nanoTime();
+        ResultadoAnalitica resultado = null;
+        for (int i = 0; i < veces; i++) {
+            resultado = consulta.get();
+        }
+        double ms = (System.nanoTime() - inicio) / 1e6 / veces;
+        assertTrue(resultado.getTotal() > 0);
+        System.out.println(String.format("   %-38s %8.3f ms  (%,d solicitudes)", nombre, ms, resultado.getTotal()));
+    }
+}
@@ -0,0 +1,107 @@
+package com.subsidios.rentajoven.infrastructure.index;
+
+import com.subsidios.rentajoven.domain.enums.MotivoRechazo;
+import com.subsidios.rentajoven.domain.model.FiltroAnalitica;
+import com.subsidios.rentajoven.domain.model.ResultadoAnalitica;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de {@link MapaBits} contra BitSet y de los filtros del {@link IndiceAnalitico}.
+ */
+public class IndiceAnaliticoTest {
+
+    @Test
+    public void testMapaBitsIgualQueBitSet() {
+        Random random = new Random(7);
+        // Mezcla bloques dispersos (arreglo) y densos (mapa de bits)
+        MapaBits a = new MapaBits();
+        MapaBits b = new MapaBits();
+        BitSet ra = new BitSet();
+        BitSet rb = new BitSet();
+        for (int i = 0; i < 60_000; i++) {
+            int denso = random.nextInt(70_000);
+            int disperso = 200_000 + random.nextInt(2_000_000);
+            a.agregar(denso);
+            ra.set(denso);
+            b.agregar(i % 2 == 0 ? denso / 2 : disperso);
+            rb.set(i % 2 == 0 ? denso / 2 : disperso);
+        }
+        a.agregar(5);
+        ra.set(5);
+
+        assertEquals(ra.cardinality(), a.cardinalidad());
+        assertEquals(rb.cardinality(), b.cardinalidad());
+        assertTrue(a.contiene(5));
+        assertFalse(b.contiene(150_000));
+
+        BitSet y = (BitSet) ra.clone();
+        y.and(rb);
+        BitSet o = (BitSet) ra.clone();
+        o.or(rb);
+        assertEquals(y, aBitSet(MapaBits.interseccion(a, b)));
+        assertEquals(y.cardinality(), MapaBits.cardinalidadInterseccion(a, b));
+        assertEquals(o, aBitSet(MapaBits.union(a, b)));
+
+        MapaBits acumulado = new MapaBits();
+        acumulado.agregarTodos(b);
+        acumulado.agregarTodos(a);
+        assertEquals(o, aBitSet(acumulado));
+        assertEquals(ra, aBitSet(a), "agregarTodos no modifica el argumento");
+    }
+
+    @Test
+    public void testFiltrosCombinados() {
+        IndiceAnalitico indice = new IndiceAnalitico();
+        LocalDate lunes = LocalDate.of(2025, 3, 24);
+        int intensidad = MotivoRechazo.INTENSIDAD_HORARIA_INSUFICIENTE.bit();
+        int titulo = MotivoRechazo.TIENE_TITULO_PROFESIONAL.bit();
+        List<Integer> esperadas = new ArrayList<>();
+        for (int id = 1; id <= 300; id++) {
+            boolean aprobada = id % 3 == 0;
+            int motivos = aprobada ? 0 : id % 2 == 0 ? intensidad : intensidad | titulo;
+            String departamento = id % 4 == 0 ? "Atlántico" : "Antioquia";
+            LocalDate dia = lunes.plusDays(id % 14);
+            indice.agregar(id, aprobada, motivos, departamento, id % 8 == 0 ? "Soledad" : "Barranquilla", dia);
+            if (!aprobada && id % 4 == 0 && id % 14 < 7) {
+                esperadas.add(id);
+            }
+        }
+        indice.agregar(1, false, intensidad | titulo, "Antioquia", "Barranquilla", lunes.plusDays(1));
+
+        ResultadoAnalitica semana = indice.consultar(FiltroAnalitica.builder()
+            .motivos(List.of(MotivoRechazo.INTENSIDAD_HORARIA_INSUFICIENTE))
+            .departamento("ATLANTICO")
+            .desde(lunes)
+            .hasta(lunes.plusDays(6))
+            .build());
+        assertEquals(esperadas.size(), semana.getTotal());
+        assertEquals(0, semana.getAprobadas());
+        assertEquals(Map.of("Atlántico", (long) esperadas.size()), semana.getPorDepartamento());
+        assertEquals(300, semana.getIndexadas(), "Registrar dos veces el mismo id no cuenta doble");
+
+        ResultadoAnalitica todas = indice.consultar(new FiltroAnalitica());
+        assertEquals(300, todas.getTotal());
+        assertEquals(100, todas.getAprobadas());
+        assertEquals(200L, todas.getPorMotivo().get(MotivoRechazo.INTENSIDAD_HORARIA_INSUFICIENTE));
+        assertEquals(100L, todas.getPorMotivo().get(MotivoRechazo.TIENE_TITULO_PROFESIONAL));
+
+        ResultadoAnalitica soledad = indice.consultar(FiltroAnalitica.builder().municipio("soledad").build());
+        assertEquals(300 / 8, soledad.getTotal());
+        assertEquals(0, indice.consultar(FiltroAnalitica.builder().departamento("Nariño").build()).getTotal());
+    }
+
+    private static BitSet aBitSet(MapaBits mapa) {
+        BitSet bits = new BitSet();
+        mapa.recorrer(bits::set);
+        return bits;
+    }
+}
@@ -0,0 +1,133 @@
+package com.subsidios.rentajoven.infrastructure.index;
+
+import com.subsidios.rentajoven.domain.enums.MotivoRechazo;
+import com.subsidios.rentajoven.domain.enums.NivelSISBEN;
+import com.subsidios.rentajoven.domain.model.MENResponse;
+import com.subsidios.rentajoven.domain.model.SISBENResponse;
+import com.subsidios.rentajoven.domain.model.SNIESResponse;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenMEN;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenMENConDelta;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSISBEN;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSISBENConDelta;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSNIES;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSNIESConDelta;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del índice precalculado de elegibilidad.
+ */
+public class IndiceElegibilidadTest {
+
+    private static final IndiceElegibilidad.Reglas REGLAS = new IndiceElegibilidad.Reglas() {
+        @Override
+        public boolean nivelElegible(NivelSISBEN nivel) {
+            return nivel.isElegible();
+        }
+
+        @Override
+        public boolean matriculaVigente(String estado) {
+            return "VIGENTE".equalsIgnoreCase(estado);
+        }
+
+        @Override
+        public boolean intensidadSuficiente(int intensidad) {
+            return intensidad >= 20;
+        }
+
+        @Override
+        public boolean institucionReconocida(String institucion) {
+            return !"Instituto Digital Global".equals(institucion);
+        }
+    };
+
+    @Test
+    public void testActualizacionIncrementalEquivaleAlJoinCompleto() {
+        Map<String, SISBENResponse> sisbenInicial = new HashMap<>();
+        Map<String, MENResponse> menInicial = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            String cedula = String.valueOf(1_100_000_000L + i);
+            sisbenInicial.put(cedula, sisben(NivelSISBEN.values()[i % 4]));
+            menInicial.put(matricula(i), men(cedula, i % 7 == 0 ? "INACTIVA" : "VIGENTE", 10 + i % 30));
+        }
+        AlmacenSISBEN sisben = AlmacenSISBEN.desde(sisbenInicial);
+        AlmacenSNIES snies = AlmacenSNIES.desde(Map.of("1100000003", titulo()));
+        AlmacenMEN men = AlmacenMEN.desde(menInicial);
+
+        IndiceElegibilidad indice = IndiceElegibilidad.construir(1, sisben, snies, men, REGLAS, ForkJoinPool.commonPool());
+        assertEquals(10_000, indice.tamanio());
+        int codigo = indice.consultar("1100000003", matricula(3));
+        assertEquals(MotivoRechazo.TIENE_TITULO_PROFESIONAL, IndiceElegibilidad.motivoTitulo(codigo));
+        assertEquals(MotivoRechazo.NIVEL_SISBEN_NO_ELEGIBLE, IndiceElegibilidad.motivoSISBEN(codigo));
+        assertEquals(0, indice.consultar("1100000004", matricula(3)), "La matrícula es de otra cédula");
+
+        // Deltas: baja en SISBEN, título nuevo, matrícula que cambia de dueño y matrícula borrada
+        Map<String, SISBENResponse> cambiosSisben = new HashMap<>();
+        cambiosSisben.put("1100000001", null);
+        cambiosSisben.put("1100000002", sisben(NivelSISBEN.D));
+        Map<String, MENResponse> cambiosMen = new HashMap<>();
+        cambiosMen.put(matricula(5), men("1100000006", "VIGENTE", 40));
+        cambiosMen.put(matricula(8), null);
+        AlmacenSISBEN sisben2 = AlmacenSISBENConDelta.aplicar(sisben, cambiosSisben);
+        AlmacenSNIES snies2 = AlmacenSNIESConDelta.aplicar(snies, Map.of("1100000009", titulo()));
+        AlmacenMEN men2 = AlmacenMENConDelta.aplicar(men, cambiosMen);
+
+        IndiceElegibilidad incremental = indice.actualizar(2, sisben2, snies2, men2);
+        IndiceElegibilidad completo = IndiceElegibilidad.construir(2, sisben2, snies2, men2, REGLAS, ForkJoinPool.commonPool());
+
+        assertNotNull(incremental);
+        assertTrue(incremental.recalculados() < 10);
+        for (int i = 0; i < 10_000; i++) {
+            for (int dueno = Math.max(0, i - 1); dueno <= i + 1; dueno++) {
+                String cedula = String.valueOf(1_100_000_000L + dueno);
+                assertEquals(completo.consultar(cedula, matricula(i)), incremental.consultar(cedula, matricula(i)),
+                    cedula + " / " + matricula(i));
+            }
+        }
+        assertEquals(MotivoRechazo.SISBEN_NO_ENCONTRADO,
+            IndiceElegibilidad.motivoSISBEN(incremental.consultar("1100000001", matricula(1))));
+        assertEquals(0, incremental.consultar("1100000008", matricula(8)));
+        assertNotEquals(0, incremental.consultar("1100000006", matricula(5)));
+
+        assertNull(incremental.actualizar(3, AlmacenSISBEN.desde(sisbenInicial), snies2, men2),
+            "Una base nueva exige join completo");
+    }
+
+    private static String matricula(int i) {
+        return String.format("MAT-%08d", i);
+    }
+
+    private static SISBENResponse sisben(NivelSISBEN nivel) {
+        return SISBENResponse.builder()
+                .nivel(nivel)
+                .puntaje(30.0)
+                .departamento("Cauca")
+                .municipio("Popayán")
+                .encontrado(true)
+                .build();
+    }
+
+    private static MENResponse men(String cedula, String estado, int intensidad) {
+        return MENResponse.builder()
+                .cedula(cedula)
+                .institucion("SENA Regional Cauca")
+                .programa("Tecnología en Sistemas")
+                .estado(estado)
+                .intensidadHoraria(intensidad)
+                .encontrada(true)
+                .build();
+    }
+
+    private static SNIESResponse titulo() {
+        return SNIESResponse.builder()
+                .tieneTitulo(true)
+                .programa("Derecho")
+                .tipoTitulo("PROFESIONAL")
+                .build();
+    }
+}
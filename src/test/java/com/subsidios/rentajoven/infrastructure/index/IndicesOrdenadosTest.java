@@ -0,0 +1,92 @@
+package com.subsidios.rentajoven.infrastructure.index;
+
+import com.subsidios.rentajoven.domain.enums.NivelSISBEN;
+import com.subsidios.rentajoven.domain.model.SISBENResponse;
+import com.subsidios.rentajoven.infrastructure.store.AlmacenSISBEN;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de los índices ordenados usados por el controlador de debugging.
+ */
+public class IndicesOrdenadosTest {
+
+    @Test
+    public void testPrefijoCedulasCubreVariasLongitudes() {
+        IndiceCedulas indice = IndiceCedulas.construir(Arrays.asList(
+            "1038106564", "1038", "10381", "1134483638", "20381", "abc"
+        ));
+
+        assertEquals(5, indice.tamanio(), "Las claves no numéricas se ignoran");
+
+        PaginaClaves pagina = indice.buscarPrefijo("1038", 0, 10);
+        assertEquals(3, pagina.getTotal());
+        assertEquals(List.of("1038", "10381", "1038106564"), pagina.getClaves());
+
+        PaginaClaves segunda = indice.buscarPrefijo("1038", 1, 1);
+        assertEquals(List.of("10381"), segunda.getClaves());
+        assertEquals(3, segunda.getTotal());
+    }
+
+    @Test
+    public void testCedulaConCerosALaIzquierdaConservaSuTexto() {
+        Map<String, SISBENResponse> registros = new HashMap<>();
+        registros.put("0012345", registro(NivelSISBEN.A));
+        registros.put("12345", registro(NivelSISBEN.D));
+        registros.put("1038106564", registro(NivelSISBEN.B));
+        AlmacenSISBEN sisben = AlmacenSISBEN.desde(registros);
+        IndiceCedulas indice = IndiceCedulas.construir(sisben.claves());
+
+        assertEquals(3, indice.tamanio());
+        PaginaClaves todas = indice.pagina(0, 10);
+        assertEquals(List.of("12345", "1038106564", "0012345"), todas.getClaves(),
+            "Las no canónicas van después, con su texto original");
+        for (String cedula : todas.getClaves()) {
+            assertNotNull(sisben.buscar(cedula), "Cada clave listada encuentra su registro: " + cedula);
+        }
+        assertEquals(NivelSISBEN.A, sisben.buscar(todas.getClaves().get(2)).getNivel());
+
+        assertEquals(List.of("0012345"), indice.buscarPrefijo("00", 0, 10).getClaves());
+        assertEquals(List.of("12345"), indice.buscarPrefijo("123", 0, 10).getClaves());
+        assertEquals(List.of("12345"), indice.buscarRango(12345L, 12345L, 0, 10).getClaves(),
+            "El rango numérico solo cubre las canónicas");
+        assertEquals(List.of("1038106564", "0012345"), indice.pagina(1, 10).getClaves());
+    }
+
+    @Test
+    public void testRangoCedulas() {
+        IndiceCedulas indice = IndiceCedulas.construir(Arrays.asList(
+            "1100000000", "1110000000", "1119999999", "1120000000"
+        ));
+
+        PaginaClaves pagina = indice.buscarRango(1100000000L, 1119999999L, 0, 10);
+        assertEquals(3, pagina.getTotal());
+        assertEquals("1119999999", pagina.getClaves().get(2));
+    }
+
+    @Test
+    public void testPrefijoYRangoMatriculas() {
+        IndiceMatriculas indice = IndiceMatriculas.construir(Arrays.asList(
+            "MAT-00000003", "MAT-00000001", "MAT-00000010", "OTRA-1"
+        ));
+
+        PaginaClaves prefijo = indice.buscarPrefijo("MAT-0000000", 0, 10);
+        assertEquals(List.of("MAT-00000001", "MAT-00000003"), prefijo.getClaves());
+
+        PaginaClaves rango = indice.buscarRango("MAT-00000002", "MAT-00000010", 0, 10);
+        assertEquals(List.of("MAT-00000003", "MAT-00000010"), rango.getClaves());
+
+        PaginaClaves vacio = indice.buscarPrefijo("XYZ", 0, 10);
+        assertEquals(0, vacio.getTotal());
+    }
+
+    private static SISBENResponse registro(NivelSISBEN nivel) {
+        return SISBENResponse.builder().nivel(nivel).puntaje(10.0).encontrado(true).build();
+    }
+}
@@ -0,0 +1,37 @@
+package com.subsidios.rentajoven.infrastructure.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de la normalización de nombres y del registro de instituciones.
+ */
+public class RegistroInstitucionesTest {
+
+    @Test
+    public void testNormalizacionIgnoraTildesMayusculasPuntuacionYSiglaEntreParentesis() {
+        assertEquals("ACADEMIA SUPERIOR DE GESTION", NombreInstitucion.normalizar("  Academia  Superior de Gestión."));
+        assertEquals("INSTITUTO DIGITAL GLOBAL", NombreInstitucion.normalizar("INSTITUTO DIGITAL GLOBAL (IDG)"));
+        assertEquals(NombreInstitucion.huella("Instituto Digital Global"),
+            NombreInstitucion.huella("instituto-digital, global"));
+        assertNotEquals(NombreInstitucion.huella("Instituto Digital Global"),
+            NombreInstitucion.huella("Instituto Digital"));
+    }
+
+    @Test
+    public void testRegistroReconoceVariantesSinSigla() {
+        RegistroInstituciones registro = new RegistroInstituciones.Constructor(true)
+            .agregar("CENTRO DE ESTUDIOS AERONÁUTICOS - CEA")
+            .agregar("Centro de Estudios Aeronauticos - CEA")
+            .agregar("UNIVERSIDAD NACIONAL DE COLOMBIA")
+            .construir("prueba", 1);
+
+        assertEquals(2, registro.tamanio(), "Los nombres repetidos cuentan una vez");
+        assertTrue(registro.contiene("Centro de Estudios Aeronáuticos - CEA"));
+        assertTrue(registro.contiene("centro de estudios aeronauticos"));
+        assertTrue(registro.contiene("Universidad Nacional de Colombia"));
+        assertFalse(registro.contiene("Universidad Nacional"));
+        assertFalse(RegistroInstituciones.VACIO.contiene("Universidad Nacional de Colombia"));
+    }
+}
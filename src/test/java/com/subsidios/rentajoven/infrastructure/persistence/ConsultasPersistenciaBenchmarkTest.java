@@ -0,0 +1,170 @@
+package com.subsidios.rentajoven.infrastructure.persistence;
+
+import com.subsidios.rentajoven.domain.enums.EstadoSolicitud;
+import com.subsidios.rentajoven.domain.model.FiltroSolicitudes;
+import com.subsidios.rentajoven.domain.model.Solicitud;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark de las consultas de solicitudes y auditoría con y sin índices.
+ *
+ * Solo se ejecuta con -Dbenchmark=true. Filas de auditoría con
+ * -Dbenchmark.filas=5000000 (por defecto; seis por solicitud). 5M filas en
+ * H2 en memoria necesitan -DargLine=-Xmx4g.
+ *
+ * Cada consulta corresponde a la de un endpoint; se mide en el repositorio,
+ * sin HTTP ni serialización, con el pool de conexiones de la aplicación.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ConsultasPersistenciaBenchmarkTest {
+
+    private static final String[] INDICES = {
+        "idx_audit_solicitud", "idx_audit_tipo", "idx_solicitudes_cedula", "idx_solicitudes_tiempo",
+        "idx_solicitudes_motivos"
+    };
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private SolicitudRepository solicitudes;
+
+    @Autowired
+    private AuditLogRepository auditoria;
+
+    @Test
+    public void testConsultasConYSinIndices() {
+        int filas = Integer.parseInt(System.getProperty("benchmark.filas", "5000000"));
+        int totalSolicitudes = filas / 6;
+
+        System.out.println("\n" + "=".repeat(70));
+        System.out.println(String.format("⏱️  BENCHMARK DE CONSULTAS: %,d solicitudes, %,d filas de auditoría",
+            totalSolicitudes, totalSolicitudes * 6L));
+        System.out.println("=".repeat(70));
+
+        long inicio = System.nanoTime();
+        generar(totalSolicitudes);
+        System.out.println(String.format("   Carga: %,d ms", (System.nanoTime() - inicio) / 1_000_000));
+
+        // Una pasada sin reportar, para que ambas fases corran con el JIT caliente
+        medirTodo(totalSolicitudes, false);
+        System.out.println("   Con índices:");
+        medirTodo(totalSolicitudes, true);
+
+        for (String indice : INDICES) {
+            jdbc.execute("DROP INDEX " + indice);
+        }
+        System.out.println("   Sin índices:");
+        medirTodo(totalSolicitudes, true);
+
+        // Forma anterior de /metrics/summary: todas las entidades más siete consultas
+        long inicioAnterior = System.nanoTime();
+        List<Solicitud> todas = solicitudes.findAll();
+        jdbc.queryForObject("SELECT COUNT(*) FROM solicitudes WHERE aprobada = TRUE", Long.class);
+        jdbc.queryForObject("SELECT COUNT(*) FROM solicitudes WHERE aprobada = FALSE", Long.class);
+        jdbc.queryForObject("SELECT AVG(tiempo_procesamiento_ms) FROM solicitudes", Double.class);
+        for (String tipo : new String[] { "SISBEN", "TITULO_PROFESIONAL", "MATRICULA" }) {
+            jdbc.queryForObject("SELECT AVG(tiempo_ejecucion_ms) FROM audit_logs WHERE tipo_validacion = ?", Double.class, tipo);
+            jdbc.queryForObject("SELECT COUNT(*) FROM audit_logs WHERE tipo_validacion = ? AND exitosa = FALSE", Long.class, tipo);
+        }
+        assertEquals(totalSolicitudes, todas.size());
+        System.out.println(String.format("   %-44s %,10.2f ms  (sin índices, findAll + 9 consultas)",
+            "/metrics/summary anterior", (System.nanoTime() - inicioAnterior) / 1e6));
+        System.out.println("=".repeat(70) + "\n");
+    }
+
+    /**
+     * Seis filas de auditoría por solicitud (edad, coherencia y SISBEN,
+     * título, matrícula y decisión final), generadas dentro de la base.
+     */
+    private void generar(int totalSolicitudes) {
+        jdbc.execute("INSERT INTO solicitudes (cedula, matricula_id, programa, estado, aprobada, fecha_solicitud,"
+            + " fecha_procesamiento, tiempo_procesamiento_ms, motivos_rechazo, version_datos)"
+            + " SELECT CAST(1000000000 + MOD(X * 7919, " + totalSolicitudes + ") AS VARCHAR),"
+            + " 'MAT-' || X, 'renta-joven',"
+            + " CASE WHEN MOD(X, 3) = 0 THEN 'APROBADA' ELSE 'RECHAZADA' END, MOD(X, 3) = 0,"
+            + " DATEADD(SECOND, X, TIMESTAMP '2025-01-01 00:00:00'), DATEADD(SECOND, X, TIMESTAMP '2025-01-01 00:00:00'),"
+            + " MOD(X, 200) + 5, CASE MOD(X, 3) WHEN 0 THEN 0 WHEN 1 THEN 2 ELSE BITOR(8, MOD(X, 5) * 16) END,"
+            + " 'v1' FROM SYSTEM_RANGE(1, " + totalSolicitudes + ")");
+        // Por solicitud, para que las filas de una misma solicitud queden contiguas como en producción
+        jdbc.execute("INSERT INTO audit_logs (solicitud_id, tipo_validacion, exitosa, codigo, valor1,"
+            + " tiempo_ejecucion_ms, timestamp)"
+            + " SELECT X, TIPO, CODIGO NOT IN ('SISBEN_NO_ELEGIBLE', 'SOLICITUD_RECHAZADA'), CODIGO, 20,"
+            + " MOD(X + N * 37, 300), DATEADD(MILLISECOND, N, DATEADD(SECOND, X, TIMESTAMP '2025-01-01 00:00:00'))"
+            + " FROM (SELECT S.X, P.N, P.TIPO, CASE"
+            + "   WHEN P.N = 2 THEN CASE WHEN MOD(S.X, 3) = 1 THEN 'SISBEN_NO_ELEGIBLE' ELSE 'SISBEN_ELEGIBLE' END"
+            + "   WHEN P.N = 5 THEN CASE WHEN MOD(S.X, 3) = 0 THEN 'SOLICITUD_APROBADA' ELSE 'SOLICITUD_RECHAZADA' END"
+            + "   ELSE P.CODIGO END AS CODIGO"
+            + "  FROM SYSTEM_RANGE(1, " + totalSolicitudes + ") S, (VALUES"
+            + "   (0, 'SISBEN', 'EDAD_EN_RANGO'), (1, 'SISBEN', 'CEDULA_COHERENTE'), (2, 'SISBEN', ''),"
+            + "   (3, 'TITULO_PROFESIONAL', 'SIN_TITULO'), (4, 'MATRICULA', 'MATRICULA_VIGENTE'),"
+            + "   (5, 'DECISION_FINAL', '')) P(N, TIPO, CODIGO)) ORDER BY X, N");
+    }
+
+    private void medirTodo(int totalSolicitudes, boolean reportar) {
+        Random random = new Random(42);
+        medir(reportar, "/solicitud/{id}/audit", () -> {
+            long id = 1 + random.nextInt(totalSolicitudes);
+            assertEquals(6, auditoria.findBySolicitudIdOrderByTimestampAsc(id).size());
+        });
+        medir(reportar, "/solicitudes?cedula=", () -> {
+            String cedula = String.valueOf(1_000_000_000L + random.nextInt(totalSolicitudes));
+            assertFalse(solicitudes.findByCedula(cedula).isEmpty());
+        });
+        medir(reportar, "/solicitudes/rechazadas?despues=<mitad>", () -> {
+            long despues = totalSolicitudes / 2 + random.nextInt(1000);
+            FiltroSolicitudes filtro = FiltroSolicitudes.builder().aprobada(false).build();
+            assertEquals(100, solicitudes.buscarDespuesDe(despues, filtro, 100).size());
+        });
+        medir(reportar, "/solicitudes/rechazadas?estado=&cedula=", () -> {
+            String cedula = String.valueOf(1_000_000_000L + random.nextInt(totalSolicitudes));
+            FiltroSolicitudes filtro = FiltroSolicitudes.builder()
+                .aprobada(false).estado(EstadoSolicitud.RECHAZADA).cedula(cedula).build();
+            solicitudes.buscarDespuesDe(0, filtro, 100);
+        });
+        medir(reportar, "/metrics/summary (3 consultas agregadas)", () -> {
+            // H2 reutiliza el último resultado de una consulta si las tablas no cambiaron
+            jdbc.update("UPDATE solicitudes SET version_datos = 'v1' WHERE id = 1");
+            assertFalse(solicitudes.resumirPorResultado().isEmpty());
+            assertFalse(solicitudes.contarRechazosPorMotivos().isEmpty());
+            assertFalse(auditoria.resumirPorTipo().isEmpty());
+        });
+    }
+
+    /**
+     * Repite la consulta hasta 200 veces o 3 s (tras un calentamiento) y
+     * reporta la latencia media.
+     */
+    private void medir(boolean reportar, String endpoint, Runnable consulta) {
+        long finCalentamiento = System.nanoTime() + 1_000_000_000L;
+        for (int i = 0; i < 50 && System.nanoTime() < finCalentamiento; i++) {
+            consulta.run();
+        }
+        int veces = 0;
+        long inicio = System.nanoTime();
+        long limite = inicio + 3_000_000_000L;
+        do {
+            consulta.run();
+            veces++;
+        } while (veces < 200 && System.nanoTime() < limite);
+        double ms = (System.nanoTime() - inicio) / 1e6 / veces;
+        if (reportar) {
+            System.out.println(String.format("   %-44s %,10.3f ms  (%d ejecuciones)", endpoint, ms, veces));
+        }
+    }
+}
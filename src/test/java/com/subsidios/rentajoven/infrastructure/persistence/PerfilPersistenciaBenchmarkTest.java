@@ -0,0 +1,119 @@
+package com.subsidios.rentajoven.infrastructure.persistence;
+
+import com.subsidios.rentajoven.RentaJovenApplication;
+import com.subsidios.rentajoven.application.service.SolicitudService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark del perfil prod (H2 en archivo, SQL sin registrar, pool y
+ * cachés ajustados) contra la configuración por defecto (H2 en memoria con
+ * show-sql).
+ *
+ * Solo se ejecuta con -Dbenchmark=true. Solicitudes con
+ * -Dbenchmark.solicitudes (por defecto 5000) repartidas en
+ * -Dbenchmark.hilos (por defecto 8, por debajo del pool de 10 conexiones
+ * de la configuración por defecto). Cada configuración arranca su propio
+ * contexto sin servidor web y con las latencias de los simuladores en 0-1 ms,
+ * así que se mide el camino completo de una decisión: reglas, solicitud y
+ * sus seis registros de auditoría. El diario de auditoría se deshabilita en
+ * ambas: no depende de la base.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class PerfilPersistenciaBenchmarkTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    public void testPerfilProdContraMemoria() throws Exception {
+        int solicitudes = Integer.parseInt(System.getProperty("benchmark.solicitudes", "5000"));
+        int hilos = Integer.parseInt(System.getProperty("benchmark.hilos", "8"));
+        List<String[]> matriculas = matriculas(solicitudes);
+
+        System.out.println("\n" + "=".repeat(70));
+        System.out.println(String.format("⏱️  BENCHMARK DE PERSISTENCIA: %,d solicitudes, %d hilos", solicitudes, hilos));
+        System.out.println("=".repeat(70));
+
+        double memoria = medir(null, matriculas, hilos);
+        double prod = medir("prod", matriculas, hilos);
+
+        System.out.println(String.format("   Memoria + show-sql: %,10.0f solicitudes/s", memoria));
+        System.out.println(String.format("   Perfil prod:        %,10.0f solicitudes/s (%.2fx)", prod, prod / memoria));
+        assertTrue(prod > 0 && memoria > 0);
+    }
+
+    private double medir(String perfil, List<String[]> matriculas, int hilos) throws Exception {
+        Path datos = directorio.resolve(perfil != null ? perfil : "memoria");
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(RentaJovenApplication.class)
+            .web(WebApplicationType.NONE);
+        if (perfil != null) {
+            builder.profiles(perfil);
+        }
+        // Como argumentos de línea de comandos: properties() solo pone valores por
+        // defecto, que application-prod.properties taparía
+        try (ConfigurableApplicationContext contexto = builder.run(
+                "--simulador.sisben.latencia.min=0", "--simulador.sisben.latencia.max=1",
+                "--simulador.snies.latencia.min=0", "--simulador.snies.latencia.max=1",
+                "--simulador.men.latencia.min=0", "--simulador.men.latencia.max=1",
+                "--snapshot.habilitado=false",
+                "--delta.directorio=" + datos.resolve("delta"),
+                "--auditoria.retencion.habilitada=false",
+                "--auditoria.diario.habilitado=false",
+                "--persistencia.directorio=" + datos.resolve("db"))) {
+            SolicitudService servicio = contexto.getBean(SolicitudService.class);
+
+            // Calentamiento: una décima parte, descartada
+            procesar(servicio, matriculas.subList(0, matriculas.size() / 10), hilos);
+            long inicio = System.nanoTime();
+            procesar(servicio, matriculas, hilos);
+            return matriculas.size() / ((System.nanoTime() - inicio) / 1e9);
+        }
+    }
+
+    private static void procesar(SolicitudService servicio, List<String[]> matriculas, int hilos)
+            throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(hilos);
+        for (String[] matricula : matriculas) {
+            pool.submit(() -> servicio.procesarSolicitud(matricula[1], matricula[0], 22));
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.MINUTES));
+    }
+
+    // Pares (matrícula, cédula) reales del simulador MEN, repetidos si hacen falta más
+    private static List<String[]> matriculas(int total) throws Exception {
+        List<String[]> pares = new ArrayList<>();
+        try (BufferedReader lector = new BufferedReader(new InputStreamReader(
+                new ClassPathResource("data/men_simulator.csv").getInputStream(), StandardCharsets.UTF_8))) {
+            lector.readLine();
+            String linea;
+            while ((linea = lector.readLine()) != null && pares.size() < total) {
+                String[] campos = linea.split(",");
+                pares.add(new String[] {campos[0], campos[1]});
+            }
+        }
+        List<String[]> resultado = new ArrayList<>(total);
+        for (int i = 0; i < total; i++) {
+            resultado.add(pares.get(i % pares.size()));
+        }
+        return resultado;
+    }
+}
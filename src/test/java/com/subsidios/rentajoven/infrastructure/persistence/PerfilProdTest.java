@@ -0,0 +1,65 @@
+package com.subsidios.rentajoven.infrastructure.persistence;
+
+import com.subsidios.rentajoven.RentaJovenApplication;
+import com.subsidios.rentajoven.application.service.SolicitudService;
+import com.subsidios.rentajoven.domain.model.Solicitud;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Arranque del perfil prod: Flyway crea el esquema en una base H2 en
+ * archivo, Hibernate lo valida (ddl-auto=validate) y lo confirmado sigue
+ * ahí al volver a arrancar sobre los mismos archivos.
+ */
+public class PerfilProdTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    public void testMigracionesValidanYLoConfirmadoPersiste() {
+        String cedula = "1038106564";
+        try (ConfigurableApplicationContext contexto = arrancar()) {
+            JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+            assertEquals(1, jdbc.queryForObject(
+                "select count(*) from \"flyway_schema_history\" where \"version\" = '1' and \"success\"",
+                Integer.class));
+
+            SolicitudService servicio = contexto.getBean(SolicitudService.class);
+            servicio.procesarSolicitud(cedula, "MAT-00000001", 22);
+        }
+
+        // Segundo arranque: Flyway no tiene nada que aplicar y la solicitud sigue
+        try (ConfigurableApplicationContext contexto = arrancar()) {
+            List<Solicitud> guardadas = contexto.getBean(SolicitudRepository.class).findAll();
+            assertEquals(1, guardadas.size());
+            assertEquals(cedula, guardadas.get(0).getCedula());
+            assertNotNull(guardadas.get(0).getEstado());
+        }
+    }
+
+    private ConfigurableApplicationContext arrancar() {
+        // Como argumentos de línea de comandos: ganan sobre application-prod.properties
+        return new SpringApplicationBuilder(RentaJovenApplication.class)
+            .web(WebApplicationType.NONE)
+            .profiles("prod")
+            .run("--persistencia.directorio=" + directorio.resolve("db"),
+                "--snapshot.habilitado=false",
+                "--delta.directorio=" + directorio.resolve("delta"),
+                "--auditoria.retencion.habilitada=false",
+                "--auditoria.archivo.directorio=" + directorio.resolve("audit"),
+                "--auditoria.diario.ruta=" + directorio.resolve("audit").resolve("diario.log"),
+                "--simulador.sisben.latencia.min=0", "--simulador.sisben.latencia.max=1",
+                "--simulador.snies.latencia.min=0", "--simulador.snies.latencia.max=1",
+                "--simulador.men.latencia.min=0", "--simulador.men.latencia.max=1");
+    }
+}
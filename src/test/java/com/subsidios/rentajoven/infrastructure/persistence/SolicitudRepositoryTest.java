@@ -0,0 +1,98 @@
+package com.subsidios.rentajoven.infrastructure.persistence;
+
+import com.subsidios.rentajoven.domain.enums.EstadoSolicitud;
+import com.subsidios.rentajoven.domain.enums.MotivoRechazo;
+import com.subsidios.rentajoven.domain.model.FiltroSolicitudes;
+import com.subsidios.rentajoven.domain.model.Solicitud;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de la paginación por keyset, del recorrido con cursor y del
+ * conteo de rechazos por motivos.
+ */
+@DataJpaTest
+public class SolicitudRepositoryTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 3, 1, 8, 0);
+
+    @Autowired
+    private SolicitudRepository repository;
+
+    @Test
+    public void testPaginasPorKeysetConFiltros() {
+        List<Long> rechazadas = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            boolean aprobada = i % 3 == 0;
+            Solicitud s = repository.save(Solicitud.builder()
+                .cedula(i % 5 == 0 ? "1000000005" : "10000000" + i)
+                .matriculaId("MAT-" + i)
+                .estado(aprobada ? EstadoSolicitud.APROBADA : EstadoSolicitud.RECHAZADA)
+                .aprobada(aprobada)
+                .fechaSolicitud(BASE.plusDays(i))
+                .build());
+            if (!aprobada) {
+                rechazadas.add(s.getId());
+            }
+        }
+
+        List<Long> recorridas = new ArrayList<>();
+        long despues = 0;
+        List<Solicitud> pagina;
+        do {
+            pagina = repository.buscarDespuesDe(despues, FiltroSolicitudes.builder().aprobada(false).build(), 4);
+            pagina.forEach(s -> recorridas.add(s.getId()));
+            despues = pagina.isEmpty() ? despues : pagina.get(pagina.size() - 1).getId();
+        } while (pagina.size() == 4);
+        assertEquals(rechazadas, recorridas, "Las páginas cubren todas las rechazadas, en orden y sin repetir");
+
+        List<Solicitud> rango = repository.buscarDespuesDe(0, FiltroSolicitudes.builder().estado(EstadoSolicitud.RECHAZADA)
+            .desde(BASE.plusDays(10)).hasta(BASE.plusDays(15)).build(), 100);
+        assertTrue(rango.stream().allMatch(s -> !s.getFechaSolicitud().isBefore(BASE.plusDays(10))
+            && s.getFechaSolicitud().isBefore(BASE.plusDays(15)) && !s.getAprobada()));
+        assertEquals(4, rango.size());
+
+        try (Stream<Solicitud> cursor = repository.recorrer(null, null, null, null, "1000000005")) {
+            assertEquals(List.of("MAT-0", "MAT-5", "MAT-10", "MAT-15", "MAT-20"),
+                cursor.map(Solicitud::getMatriculaId).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void testRechazosAgrupadosPorMascaraDeMotivos() {
+        int sisbenYTitulo = MotivoRechazo.mascara(
+            List.of(MotivoRechazo.NIVEL_SISBEN_NO_ELEGIBLE, MotivoRechazo.TIENE_TITULO_PROFESIONAL));
+        int edad = MotivoRechazo.mascara(List.of(MotivoRechazo.EDAD_FUERA_RANGO));
+        for (int i = 0; i < 6; i++) {
+            boolean aprobada = i == 0;
+            repository.save(Solicitud.builder()
+                .cedula("10000000" + i)
+                .matriculaId("MAT-" + i)
+                .estado(aprobada ? EstadoSolicitud.APROBADA : EstadoSolicitud.RECHAZADA)
+                .aprobada(aprobada)
+                .motivosRechazo(aprobada ? 0 : i % 2 == 0 ? sisbenYTitulo : edad)
+                .fechaSolicitud(BASE.plusDays(i))
+                .build());
+        }
+
+        Map<Integer, Long> porMascara = repository.contarRechazosPorMotivos().stream()
+            .collect(Collectors.toMap(RechazosPorMotivos::getMotivos, RechazosPorMotivos::getTotal));
+        assertEquals(Map.of(sisbenYTitulo, 2L, edad, 3L), porMascara);
+
+        Solicitud rechazada = repository.findByCedula("100000002").get(0);
+        assertEquals(List.of(MotivoRechazo.NIVEL_SISBEN_NO_ELEGIBLE, MotivoRechazo.TIENE_TITULO_PROFESIONAL),
+            rechazada.getMotivos());
+        assertEquals(MotivoRechazo.NIVEL_SISBEN_NO_ELEGIBLE.getDescripcion() + "; "
+            + MotivoRechazo.TIENE_TITULO_PROFESIONAL.getDescripcion(), rechazada.getRazonesRechazo());
+    }
+}
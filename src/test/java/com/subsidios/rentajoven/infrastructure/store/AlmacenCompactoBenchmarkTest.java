@@ -0,0 +1,107 @@
+package com.subsidios.rentajoven.infrastructure.store;
+
+import com.subsidios.rentajoven.domain.enums.NivelSISBEN;
+import com.subsidios.rentajoven.domain.model.SISBENResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark de memoria y throughput de búsqueda: HashMap&lt;String, SISBENResponse&gt;
+ * (implementación anterior) vs {@link AlmacenSISBEN}.
+ *
+ * Solo se ejecuta con -Dbenchmark=true; tamaño con -Dbenchmark.registros
+ * (por defecto 5.000.000).
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class AlmacenCompactoBenchmarkTest {
+
+    private static final String[] DEPARTAMENTOS = {
+        "Antioquia", "Atlántico", "Bogotá D.C.", "Bolívar", "Boyacá", "Caldas", "Cauca",
+        "Cesar", "Córdoba", "Cundinamarca", "La Guajira", "Nariño", "Santander", "Valle del Cauca"
+    };
+
+    private static final int BUSQUEDAS = 5_000_000;
+
+    @Test
+    public void testMemoriaYThroughput() {
+        int n = Integer.getInteger("benchmark.registros", 5_000_000);
+        NivelSISBEN[] niveles = NivelSISBEN.values();
+
+        System.out.println("\n" + "=".repeat(70));
+        System.out.println(String.format("⏱️  BENCHMARK ALMACÉN COMPACTO SISBEN (%,d registros)", n));
+        System.out.println("=".repeat(70));
+
+        // 1. Implementación anterior: HashMap con claves String y objetos por registro
+        long base = memoriaUsada();
+        Map<String, SISBENResponse> mapa = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < n; i++) {
+            String departamento = DEPARTAMENTOS[random.nextInt(DEPARTAMENTOS.length)];
+            mapa.put(String.valueOf(1_000_000_000L + i), SISBENResponse.builder()
+                    .nivel(niveles[random.nextInt(4)])
+                    .puntaje(random.nextInt(10000) / 100.0)
+                    // new String: el CSV produce una instancia por fila
+                    .departamento(new String(departamento))
+                    .municipio(new String(departamento))
+                    .encontrado(true)
+                    .build());
+        }
+        long bytesMapa = memoriaUsada() - base;
+        double nsMapa = medirBusquedas(n, mapa::get);
+
+        // 2. Almacén compacto construido desde el mapa
+        AlmacenSISBEN almacen = AlmacenSISBEN.desde(mapa);
+        mapa = null;
+        long bytesAlmacen = memoriaUsada() - base;
+        double nsAlmacen = medirBusquedas(n, almacen::buscar);
+        double nsPosicion = medirBusquedas(n, cedula -> almacen.posicion(cedula) >= 0 ? cedula : null);
+
+        assertEquals(n, almacen.tamanio());
+
+        System.out.println(String.format("   HashMap:  %,8d MB (%5.1f B/registro) | %6.1f ns/búsqueda",
+            bytesMapa >> 20, (double) bytesMapa / n, nsMapa));
+        System.out.println(String.format("   Compacto: %,8d MB (%5.1f B/registro) | %6.1f ns/búsqueda (%.1f ns sin materializar)",
+            bytesAlmacen >> 20, (double) bytesAlmacen / n, nsAlmacen, nsPosicion));
+        System.out.println(String.format("   Estimado interno del almacén: %,d MB", almacen.bytesEstimados() >> 20));
+        System.out.println("=".repeat(70) + "\n");
+    }
+
+    private double medirBusquedas(int n, java.util.function.Function<String, Object> busqueda) {
+        Random random = new Random(7);
+        String[] claves = new String[1 << 16];
+        for (int i = 0; i < claves.length; i++) {
+            claves[i] = String.valueOf(1_000_000_000L + random.nextInt(n));
+        }
+        // Calentamiento
+        long encontrados = 0;
+        for (int i = 0; i < BUSQUEDAS / 5; i++) {
+            if (busqueda.apply(claves[i & (claves.length - 1)]) != null) encontrados++;
+        }
+        long inicio = System.nanoTime();
+        for (int i = 0; i < BUSQUEDAS; i++) {
+            if (busqueda.apply(claves[i & (claves.length - 1)]) != null) encontrados++;
+        }
+        long total = System.nanoTime() - inicio;
+        assertTrue(encontrados > 0);
+        return (double) total / BUSQUEDAS;
+    }
+
+    private long memoriaUsada() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
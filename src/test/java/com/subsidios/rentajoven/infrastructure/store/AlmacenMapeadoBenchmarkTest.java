@@ -0,0 +1,144 @@
+package com.subsidios.rentajoven.infrastructure.store;
+
+import com.subsidios.rentajoven.domain.enums.NivelSISBEN;
+import com.subsidios.rentajoven.domain.model.SISBENResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark de los backends de almacenamiento SISBEN (memoria vs mapeado):
+ * heap retenido, latencia de búsqueda (p50/p99) y comportamiento del GC.
+ *
+ * Solo se ejecuta con -Dbenchmark=true; tamaño con -Dbenchmark.registros
+ * (por defecto 10.000.000) y backends con -Dbenchmark.backends=memoria,mapeado.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class AlmacenMapeadoBenchmarkTest {
+
+    private static final String[] DEPARTAMENTOS = {
+        "Antioquia", "Atlántico", "Bogotá D.C.", "Bolívar", "Boyacá", "Caldas", "Cauca",
+        "Cesar", "Córdoba", "Cundinamarca", "La Guajira", "Nariño", "Santander", "Valle del Cauca"
+    };
+
+    private static final int BUSQUEDAS = 2_000_000;
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    public void testBackends() {
+        int n = Integer.getInteger("benchmark.registros", 10_000_000);
+        String[] backends = System.getProperty("benchmark.backends", "memoria,mapeado").split(",");
+
+        System.out.println("\n" + "=".repeat(70));
+        System.out.println(String.format("⏱️  BENCHMARK BACKENDS DE ALMACÉN SISBEN (%,d registros)", n));
+        System.out.println("=".repeat(70));
+
+        for (String backend : backends) {
+            medir(FabricaAlmacenes.desdeConfiguracion(backend, directorio.toString()), n);
+        }
+        System.out.println("=".repeat(70) + "\n");
+    }
+
+    private void medir(FabricaAlmacenes fabrica, int n) {
+        long base = memoriaUsada();
+
+        long inicio = System.nanoTime();
+        AlmacenSISBEN.Constructor constructor = fabrica.sisben(n);
+        Random random = new Random(42);
+        NivelSISBEN[] niveles = NivelSISBEN.values();
+        for (int i = 0; i < n; i++) {
+            String departamento = DEPARTAMENTOS[random.nextInt(DEPARTAMENTOS.length)];
+            constructor.agregar(String.valueOf(1_000_000_000L + i), SISBENResponse.builder()
+                    .nivel(niveles[random.nextInt(4)])
+                    .puntaje(random.nextInt(10000) / 100.0)
+                    .departamento(departamento)
+                    .municipio(departamento)
+                    .encontrado(true)
+                    .build());
+        }
+        AlmacenSISBEN almacen = constructor.construir();
+        constructor = null;
+        long msConstruccion = (System.nanoTime() - inicio) / 1_000_000;
+        assertEquals(n, almacen.tamanio());
+
+        long heap = Math.max(0, memoriaUsada() - base);
+
+        // Pausa de un GC completo con el almacén vivo: escala con el heap retenido
+        long inicioGC = System.nanoTime();
+        System.gc();
+        double msGCCompleto = (System.nanoTime() - inicioGC) / 1e6;
+
+        String[] claves = new String[1 << 16];
+        Random aleatorio = new Random(7);
+        for (int i = 0; i < claves.length; i++) {
+            claves[i] = String.valueOf(1_000_000_000L + aleatorio.nextInt(n));
+        }
+        for (int i = 0; i < BUSQUEDAS / 4; i++) {
+            assertNotNull(almacen.buscar(claves[i & (claves.length - 1)]));
+        }
+
+        long[] latencias = new long[BUSQUEDAS];
+        long gcAntes = contarGC();
+        long msGCAntes = tiempoGC();
+        for (int i = 0; i < BUSQUEDAS; i++) {
+            long t = System.nanoTime();
+            SISBENResponse r = almacen.buscar(claves[(i * 31) & (claves.length - 1)]);
+            latencias[i] = System.nanoTime() - t;
+            if (r == null) {
+                fail("Cédula no encontrada");
+            }
+        }
+        long colecciones = contarGC() - gcAntes;
+        long msGC = tiempoGC() - msGCAntes;
+        Arrays.sort(latencias);
+
+        long mapeados = almacen instanceof AlmacenSISBENMapeado
+            ? ((AlmacenSISBENMapeado) almacen).bytesMapeados() : 0;
+
+        System.out.println(String.format("   %-8s construcción %,7d ms | heap %,6d MB | mapeado %,6d MB",
+            fabrica.getBackend(), msConstruccion, heap >> 20, mapeados >> 20));
+        System.out.println(String.format("            búsqueda p50 %,6d ns | p99 %,6d ns | p99.9 %,7d ns",
+            latencias[BUSQUEDAS / 2], latencias[BUSQUEDAS * 99 / 100], latencias[BUSQUEDAS * 999 / 1000]));
+        System.out.println(String.format("            GC durante búsquedas: %d colecciones, %d ms | GC completo: %.1f ms",
+            colecciones, msGC, msGCCompleto));
+    }
+
+    private long contarGC() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionCount());
+        }
+        return total;
+    }
+
+    private long tiempoGC() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+
+    private long memoriaUsada() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
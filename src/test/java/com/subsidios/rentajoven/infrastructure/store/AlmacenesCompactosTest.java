@@ -0,0 +1,237 @@
+package com.subsidios.rentajoven.infrastructure.store;
+
+import com.subsidios.rentajoven.domain.enums.NivelSISBEN;
+import com.subsidios.rentajoven.domain.model.MENResponse;
+import com.subsidios.rentajoven.domain.model.SISBENResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de los almacenes compactos de datos de referencia.
+ */
+public class AlmacenesCompactosTest {
+
+    @Test
+    public void testMapaLongIntCreceYConservaValores() {
+        MapaLongInt mapa = new MapaLongInt(4);
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(-1, mapa.put(1_100_000_000L + i, i));
+        }
+        assertEquals(10_000, mapa.tamanio());
+        assertEquals(1234, mapa.get(1_100_001_234L));
+        assertEquals(1234, mapa.put(1_100_001_234L, 7));
+        assertEquals(7, mapa.get(1_100_001_234L));
+        assertEquals(-1, mapa.get(42L));
+    }
+
+    @Test
+    public void testSISBENMaterializaIgualQueElMapa() {
+        Map<String, SISBENResponse> datos = new HashMap<>();
+        datos.put("1038106564", sisben(NivelSISBEN.C, 55.43, "Valle del Cauca"));
+        datos.put("0123", sisben(NivelSISBEN.A, 10.0, "Atlántico"));       // no canónica -> desbordamiento
+        datos.put("1134483638", sisben(NivelSISBEN.D, 70.1, "Atlántico"));
+
+        AlmacenSISBEN almacen = AlmacenSISBEN.desde(datos);
+
+        assertEquals(3, almacen.tamanio());
+        datos.forEach((cedula, esperado) -> assertEquals(esperado, almacen.buscar(cedula)));
+        assertNull(almacen.buscar("123"));
+        assertNull(almacen.buscar("no-existe"));
+        assertEquals(2, almacen.diccionario().tamanio(), "Los departamentos se codifican una sola vez");
+    }
+
+    @Test
+    public void testMENConClaveRepetidaReemplaza() {
+        AlmacenMEN.Constructor constructor = new AlmacenMENMemoria.Constructor(1);
+        constructor.agregar("MAT-00000001", men("MAT-00000001", "1038106564", "INACTIVA", 10));
+        constructor.agregar("MAT-00000001", men("MAT-00000001", "1038106564", "VIGENTE", 36));
+        constructor.agregar("MAT-X", men("MAT-X", "00789", "VIGENTE", null));
+
+        AlmacenMEN almacen = constructor.construir();
+
+        assertEquals(2, almacen.tamanio());
+        assertEquals("VIGENTE", almacen.buscar("MAT-00000001").getEstado());
+        assertEquals(36, almacen.buscar("MAT-00000001").getIntensidadHoraria());
+        assertEquals("00789", almacen.buscar("MAT-X").getCedula());
+        assertNull(almacen.buscar("MAT-X").getIntensidadHoraria());
+        assertEquals("Tecnología en Sistemas", almacen.programa(almacen.posicion("MAT-X")));
+        assertTrue(almacen.claves().contains("MAT-00000001"));
+    }
+
+    @Test
+    public void testBackendMapeadoEquivaleAlDeMemoria(@TempDir Path directorio) throws Exception {
+        FabricaAlmacenes fabrica = new FabricaAlmacenes(FabricaAlmacenes.Backend.MAPEADO, directorio);
+
+        AlmacenSISBEN.Constructor sisben = fabrica.sisben(0);
+        for (int i = 0; i < 5_000; i++) {
+            sisben.agregar(String.valueOf(1_000_000_000L + i),
+                sisben(NivelSISBEN.values()[i % 4], i / 100.0, i % 2 == 0 ? "Cauca" : "Nariño"));
+        }
+        sisben.agregar("0123", sisben(NivelSISBEN.A, 1.0, "Cauca"));
+        sisben.agregar("1000000007", sisben(NivelSISBEN.A, 99.0, "Cauca"));   // repetida: reemplaza
+        AlmacenSISBEN almacen = sisben.construir();
+
+        assertTrue(almacen instanceof AlmacenSISBENMapeado);
+        assertEquals(5_001, almacen.tamanio());
+        assertEquals(sisben(NivelSISBEN.A, 99.0, "Cauca"), almacen.buscar("1000000007"));
+        assertEquals(sisben(NivelSISBEN.C, 42.02, "Cauca"), almacen.buscar("1000004202"));
+        assertEquals(NivelSISBEN.A, almacen.buscar("0123").getNivel());
+        assertNull(almacen.buscar("1000005000"));
+        assertEquals(5_001, almacen.claves().size());
+
+        AlmacenMEN.Constructor men = fabrica.men(0);
+        men.agregar("MAT-00000001", men("MAT-00000001", "00789", "VIGENTE", null));
+        AlmacenMEN mapeado = men.construir();
+        MENResponse leida = mapeado.buscar("MAT-00000001");
+        assertEquals("00789", leida.getCedula());
+        assertEquals("Tecnología en Sistemas", mapeado.programa(mapeado.posicion("MAT-00000001")));
+        assertNull(leida.getIntensidadHoraria());
+
+        try (var archivos = Files.list(directorio)) {
+            assertEquals(0, archivos.count(), "Los archivos de trabajo se borran tras mapearlos");
+        }
+    }
+
+    @Test
+    public void testCapaDeltaSobreBaseYCompactacion() {
+        Map<String, SISBENResponse> inicial = new HashMap<>();
+        inicial.put("1000000001", sisben(NivelSISBEN.A, 10.0, "Cauca"));
+        inicial.put("1000000002", sisben(NivelSISBEN.B, 20.0, "Cauca"));
+        AlmacenSISBEN base = AlmacenSISBEN.desde(inicial);
+
+        Map<String, SISBENResponse> cambios = new HashMap<>();
+        cambios.put("1000000001", null);                                        // borrado
+        cambios.put("1000000002", sisben(NivelSISBEN.D, 80.0, "Chocó"));        // actualización con departamento nuevo
+        cambios.put("1000000003", sisben(NivelSISBEN.C, 50.0, "Cauca"));        // alta
+        AlmacenSISBEN conDelta = AlmacenSISBENConDelta.aplicar(base, cambios);
+
+        assertEquals(2, base.tamanio(), "La versión anterior no cambia");
+        assertEquals(NivelSISBEN.A, base.buscar("1000000001").getNivel());
+        assertEquals(2, conDelta.tamanio());
+        assertNull(conDelta.buscar("1000000001"));
+        assertEquals(sisben(NivelSISBEN.D, 80.0, "Chocó"), conDelta.buscar("1000000002"));
+        assertTrue(conDelta.contiene("1000000003"));
+
+        // Un delta que llega durante la compactación sobrevive al rebase
+        AlmacenSISBENConDelta capturada = (AlmacenSISBENConDelta) conDelta;
+        AlmacenSISBEN nuevaBase = capturada.compactar(new AlmacenSISBENMemoria.Constructor(2));
+        AlmacenSISBENConDelta posterior = (AlmacenSISBENConDelta) AlmacenSISBENConDelta.aplicar(conDelta,
+            Map.of("1000000004", sisben(NivelSISBEN.A, 5.0, "Nariño")));
+        AlmacenSISBEN rebasado = posterior.rebasar(nuevaBase, capturada.getDelta());
+
+        assertEquals(2, nuevaBase.tamanio());
+        assertEquals(3, rebasado.tamanio());
+        assertEquals(sisben(NivelSISBEN.D, 80.0, "Chocó"), rebasado.buscar("1000000002"));
+        assertEquals(NivelSISBEN.A, rebasado.buscar("1000000004").getNivel());
+        assertEquals(1, ((AlmacenSISBENConDelta) rebasado).getDelta().tamanio());
+        assertSame(nuevaBase, capturada.rebasar(nuevaBase, capturada.getDelta()), "Sin cambios pendientes queda solo la base");
+    }
+
+    @Test
+    public void testCapaDeltaPorLotesEquivaleAlMapa() {
+        // Muchos lotes pequeños con altas, actualizaciones y borrados que
+        // caen en niveles distintos de la capa
+        Map<String, Integer> esperado = new LinkedHashMap<>();
+        CapaDelta<Integer> capa = CapaDelta.vacia();
+        List<CapaDelta<Integer>> versiones = new ArrayList<>();
+        for (int lote = 0; lote < 500; lote++) {
+            Map<String, Integer> cambios = new LinkedHashMap<>();
+            for (int i = 0; i < 7; i++) {
+                String clave = "k" + ((lote * 7 + i) * 31 % 1200);
+                cambios.put(clave, (lote + i) % 5 == 0 ? null : lote * 10 + i);
+            }
+            CapaDelta<Integer> anterior = capa;
+            capa = capa.aplicar(cambios);
+            esperado.putAll(cambios);
+
+            List<String> cambiadas = new ArrayList<>();
+            capa.clavesCambiadas(anterior, cambiadas::add);
+            assertEquals(new ArrayList<>(cambios.keySet()), cambiadas, "Solo las claves del lote");
+            versiones.add(capa);
+        }
+
+        assertEquals(esperado.size(), capa.tamanio());
+        for (Map.Entry<String, Integer> e : esperado.entrySet()) {
+            int pos = capa.posicion(e.getKey());
+            assertTrue(pos >= 0);
+            assertEquals(e.getValue(), capa.valor(pos), e.getKey());
+        }
+        assertFalse(capa.contiene("no-existe"));
+        List<String> visitadas = new ArrayList<>();
+        Map<String, Integer> recorrido = new HashMap<>();
+        capa.recorrer((clave, valor) -> {
+            visitadas.add(clave);
+            recorrido.put(clave, valor);
+        });
+        assertEquals(esperado.size(), visitadas.size(), "Cada clave una sola vez");
+        assertEquals(esperado, recorrido);
+
+        // Una versión vieja no ve los lotes posteriores
+        CapaDelta<Integer> vieja = versiones.get(9);
+        Map<String, Integer> hastaDiez = new HashMap<>();
+        vieja.recorrer(hastaDiez::put);
+        assertEquals(vieja.tamanio(), hastaDiez.size());
+        assertTrue(hastaDiez.size() <= 70);
+
+        // Lo ya compactado se descarta; lo posterior se conserva
+        CapaDelta<Integer> siguiente = capa.aplicar(Map.of("k1", -1, "nueva", 1));
+        CapaDelta<Integer> restante = siguiente.sinCompactadas(capa);
+        assertEquals(2, restante.tamanio());
+        assertEquals(-1, restante.valor(restante.posicion("k1")));
+    }
+
+    @Test
+    public void testFiltroBloomSinFalsosNegativos() {
+        List<String> conTitulo = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            conTitulo.add(String.valueOf(1_000_000_000L + i * 7L));
+        }
+        FiltroBloom filtro = FiltroBloom.construir(conTitulo);
+
+        conTitulo.forEach(cedula -> assertTrue(filtro.podriaContener(cedula)));
+
+        int falsosPositivos = 0;
+        int ausentes = 200_000;
+        for (int i = 0; i < ausentes; i++) {
+            if (filtro.podriaContener(String.valueOf(2_000_000_000L + i))) {
+                falsosPositivos++;
+            }
+        }
+        double tasa = (double) falsosPositivos / ausentes;
+        assertTrue(tasa < 2 * FiltroBloom.TASA_FALSOS_POSITIVOS, "Tasa observada " + tasa);
+        assertEquals(FiltroBloom.TASA_FALSOS_POSITIVOS, filtro.tasaFalsosPositivosTeorica(), 0.005);
+        assertFalse(FiltroBloom.construir(List.of()).podriaContener("1038106564"));
+    }
+
+    private SISBENResponse sisben(NivelSISBEN nivel, double puntaje, String departamento) {
+        return SISBENResponse.builder()
+                .nivel(nivel)
+                .puntaje(puntaje)
+                .departamento(departamento)
+                .municipio(departamento)
+                .encontrado(true)
+                .build();
+    }
+
+    private MENResponse men(String matriculaId, String cedula, String estado, Integer intensidad) {
+        return MENResponse.builder()
+                .matriculaId(matriculaId)
+                .cedula(cedula)
+                .institucion("SENA Regional Bogotá")
+                .programa("Tecnología en Sistemas")
+                .estado(estado)
+                .intensidadHoraria(intensidad)
+                .encontrada(true)
+                .build();
+    }
+}
@@ -0,0 +1,101 @@
+package com.subsidios.rentajoven.shared.audit;
+
+import com.subsidios.rentajoven.domain.enums.CodigoValidacion;
+import com.subsidios.rentajoven.domain.enums.TipoValidacion;
+import com.subsidios.rentajoven.domain.model.EventoValidacion;
+import com.subsidios.rentajoven.infrastructure.persistence.AuditLogRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del paso de los eventos de auditoría al diario: solo los de
+ * transacciones confirmadas, juntos y con sus textos; sin diario no se
+ * registra nada.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({AuditService.class, DiccionarioAuditoria.class, RetencionAuditoria.class})
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:auditservice;DB_CLOSE_DELAY=-1",
+    "auditoria.retencion.habilitada=false"
+})
+public class AuditServiceTest {
+
+    @TempDir
+    static Path directorio;
+
+    @DynamicPropertySource
+    static void diario(DynamicPropertyRegistry registro) {
+        registro.add("auditoria.diario.ruta", () -> directorio.resolve("diario.log").toString());
+    }
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private PlatformTransactionManager transacciones;
+
+    @Test
+    public void testSoloLoConfirmadoLlegaAlDiarioYSinDiarioNoSeDecide() throws Exception {
+        TransactionTemplate transaccion = new TransactionTemplate(transacciones);
+        transaccion.executeWithoutResult(estado -> {
+            auditService.registrar(1L, TipoValidacion.MATRICULA, true, matricula("Institución Revertida"), 5);
+            estado.setRollbackOnly();
+        });
+        transaccion.executeWithoutResult(estado -> {
+            auditService.registrar(2L, TipoValidacion.MATRICULA, true, matricula("SENA Regional Cali"), 5);
+            auditService.registrar(2L, TipoValidacion.DECISION_FINAL, true,
+                EventoValidacion.builder().codigo(CodigoValidacion.SOLICITUD_APROBADA).build(), 9);
+        });
+
+        // Cerrar espera lo que se encoló al confirmar
+        auditService.cerrarDiario();
+        Path ruta = directorio.resolve("diario.log");
+        List<AuditLog> enDiario = new ArrayList<>();
+        DiarioAuditoria.reproducir(ruta, enDiario::add);
+
+        assertEquals(2, enDiario.size(), "Lo revertido no llega al diario");
+        assertEquals(2L, enDiario.get(0).getSolicitudId());
+        assertTrue(enDiario.get(0).getMensaje().contains("SENA Regional Cali"));
+        assertEquals(CodigoValidacion.SOLICITUD_APROBADA, enDiario.get(1).getCodigo());
+
+        // Sin diario la decisión falla y su transacción se revierte
+        assertEquals(Boolean.FALSE, auditService.diarioOperativo());
+        long filas = auditLogRepository.count();
+        assertThrows(IllegalStateException.class, () -> transaccion.executeWithoutResult(estado ->
+            auditService.registrar(3L, TipoValidacion.MATRICULA, true, matricula("SENA Regional Cali"), 5)));
+        assertEquals(filas, auditLogRepository.count());
+    }
+
+    private static EventoValidacion matricula(String institucion) {
+        return EventoValidacion.builder()
+                .codigo(CodigoValidacion.MATRICULA_VIGENTE)
+                .valor1(20)
+                .valor2(20)
+                .institucion(institucion)
+                .programa("Tecnología en Sistemas")
+                .texto("VIGENTE")
+                .build();
+    }
+}
@@ -0,0 +1,134 @@
+package com.subsidios.rentajoven.shared.audit;
+
+import com.subsidios.rentajoven.domain.enums.CodigoValidacion;
+import com.subsidios.rentajoven.domain.enums.TipoValidacion;
+import com.subsidios.rentajoven.domain.model.EventoValidacion;
+import com.subsidios.rentajoven.infrastructure.persistence.AuditLogRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark del diario de auditoría contra el guardado fila a fila por JPA
+ * que hace AuditService.registrar.
+ *
+ * Solo se ejecuta con -Dbenchmark=true. Registros con -Dbenchmark.registros
+ * (por defecto 200000) repartidos en -Dbenchmark.hilos (por defecto 16).
+ * Cada registro del diario espera su fsync; el guardado JPA es una
+ * transacción por fila, como en la aplicación.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class DiarioAuditoriaBenchmarkTest {
+
+    // Textos ya resueltos que acompañan a cada registro en el diario
+    private static final EventoValidacion EVENTO = EventoValidacion.builder()
+            .codigo(CodigoValidacion.MATRICULA_VIGENTE)
+            .valor1(20)
+            .valor2(20)
+            .institucion("SENA Regional Bogotá")
+            .programa("Tecnología en Sistemas")
+            .texto("VIGENTE")
+            .build();
+
+    @Autowired
+    private AuditLogRepository auditoria;
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    public void testDiarioContraGuardadoJpa() throws Exception {
+        int registros = Integer.parseInt(System.getProperty("benchmark.registros", "200000"));
+        int hilos = Integer.parseInt(System.getProperty("benchmark.hilos", "16"));
+
+        System.out.println("\n" + "=".repeat(70));
+        System.out.println(String.format("⏱️  BENCHMARK DEL DIARIO DE AUDITORÍA: %,d registros, %d hilos",
+            registros, hilos));
+        System.out.println("=".repeat(70));
+
+        // Calentamiento de ambos caminos
+        medir(registros / 10, hilos, log -> auditoria.save(copia(log)));
+        try (DiarioAuditoria diario = new DiarioAuditoria(directorio.resolve("calentamiento.log"))) {
+            medir(registros / 10, hilos, log -> diario.registrar(new DiarioAuditoria.Entrada(log, EVENTO)));
+        }
+        auditoria.deleteAllInBatch();
+
+        double jpa = medir(registros, hilos, log -> auditoria.save(copia(log)));
+        System.out.println(String.format("   JPA save por fila:  %,10.0f registros/s", jpa));
+
+        Path ruta = directorio.resolve("diario.log");
+        double porDiario;
+        long commits;
+        try (DiarioAuditoria diario = new DiarioAuditoria(ruta)) {
+            porDiario = medir(registros, hilos, log -> diario.registrar(new DiarioAuditoria.Entrada(log, EVENTO)));
+            commits = diario.commits();
+        }
+        System.out.println(String.format("   Diario encadenado:  %,10.0f registros/s (%,d fsync, %.1f registros por fsync)",
+            porDiario, commits, (double) registros / commits));
+
+        long inicio = System.nanoTime();
+        DiarioAuditoria.Verificacion verificacion = DiarioAuditoria.verificar(ruta);
+        System.out.println(String.format("   Verificación:       %,10d ms", (System.nanoTime() - inicio) / 1_000_000));
+
+        assertTrue(verificacion.isValido());
+        assertEquals(registros, verificacion.getRegistros());
+        assertTrue(porDiario > jpa, "El diario debe superar al guardado fila a fila");
+    }
+
+    private static double medir(int registros, int hilos, Consumer<AuditLog> registrar) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(hilos);
+        long inicio = System.nanoTime();
+        for (int h = 0; h < hilos; h++) {
+            int desde = h * (registros / hilos);
+            int hasta = h == hilos - 1 ? registros : desde + registros / hilos;
+            pool.submit(() -> {
+                for (int i = desde; i < hasta; i++) {
+                    registrar.accept(log(i + 1));
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.MINUTES));
+        return registros / ((System.nanoTime() - inicio) / 1e9);
+    }
+
+    private static AuditLog log(long id) {
+        return AuditLog.builder()
+                .id(id)
+                .solicitudId(id / 6 + 1)
+                .tipoValidacion(TipoValidacion.MATRICULA)
+                .exitosa(true)
+                .codigo(CodigoValidacion.MATRICULA_VIGENTE)
+                .valor1(20L)
+                .valor2(20L)
+                .institucionId(3)
+                .programaId(11)
+                .textoId(2)
+                .tiempoEjecucionMs(id % 450)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    // JPA asigna el id: se guarda sin él
+    private static AuditLog copia(AuditLog log) {
+        log.setId(null);
+        return log;
+    }
+}
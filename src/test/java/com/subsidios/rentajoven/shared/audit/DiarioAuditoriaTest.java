@@ -0,0 +1,203 @@
+package com.subsidios.rentajoven.shared.audit;
+
+import com.subsidios.rentajoven.domain.enums.CodigoValidacion;
+import com.subsidios.rentajoven.domain.enums.TipoValidacion;
+import com.subsidios.rentajoven.domain.model.EventoValidacion;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del diario de auditoría: commit agrupado con escritores
+ * concurrentes, detección de alteraciones y recuperación de una escritura
+ * interrumpida.
+ */
+public class DiarioAuditoriaTest {
+
+    @TempDir
+    Path directorio;
+
+    private static DiarioAuditoria.Entrada log(long id) {
+        AuditLog log = AuditLog.builder()
+                .id(id)
+                .solicitudId(id / 6 + 1)
+                .tipoValidacion(TipoValidacion.SISBEN)
+                .exitosa(id % 2 == 0)
+                .codigo(CodigoValidacion.SISBEN_ELEGIBLE)
+                .valor1(id % 4)
+                .tiempoEjecucionMs(id % 400)
+                .timestamp(LocalDateTime.of(2025, 1, 1, 0, 0).plusSeconds(id))
+                .build();
+        return new DiarioAuditoria.Entrada(log, EventoValidacion.builder()
+                .codigo(CodigoValidacion.SISBEN_ELEGIBLE)
+                .valor1(id % 4)
+                .build());
+    }
+
+    @Test
+    public void testEscritoresConcurrentesCompartenFsync() throws Exception {
+        Path ruta = directorio.resolve("diario.log");
+        int hilos = 8;
+        int porHilo = 250;
+        try (DiarioAuditoria diario = new DiarioAuditoria(ruta)) {
+            ExecutorService pool = Executors.newFixedThreadPool(hilos);
+            for (int h = 0; h < hilos; h++) {
+                long base = (long) h * porHilo;
+                pool.submit(() -> {
+                    for (long i = 1; i <= porHilo; i++) {
+                        diario.registrar(log(base + i));
+                    }
+                });
+            }
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+            assertEquals(hilos * porHilo, diario.registros());
+
+            // Encolados sin esperar: el escritor los toma en pocos lotes
+            List<CompletableFuture<Long>> futuros = new ArrayList<>();
+            for (long i = 1; i <= 1000; i++) {
+                futuros.add(diario.agregar(List.of(log(10_000 + i))));
+            }
+            long commitsAntes = diario.commits();
+            CompletableFuture.allOf(futuros.toArray(new CompletableFuture[0])).join();
+            assertTrue(diario.commits() - commitsAntes < 1000, "Un fsync por lote, no por registro");
+        }
+
+        Set<Long> ids = new HashSet<>();
+        long reproducidos = DiarioAuditoria.reproducir(ruta, log -> ids.add(log.getId()));
+        assertEquals(hilos * porHilo + 1000, reproducidos);
+        assertEquals(reproducidos, ids.size());
+        assertTrue(ids.contains(1L) && ids.contains(2000L) && ids.contains(11_000L));
+
+        // Reabrir continúa la misma cadena
+        try (DiarioAuditoria diario = new DiarioAuditoria(ruta)) {
+            assertEquals(reproducidos, diario.registros());
+            assertEquals(reproducidos + 1, diario.registrar(log(99_999)));
+        }
+        assertTrue(DiarioAuditoria.verificar(ruta).isValido());
+    }
+
+    @Test
+    public void testLaCadenaCubreLosTextosResueltos() throws IOException {
+        Path ruta = directorio.resolve("diario.log");
+        AuditLog log = AuditLog.builder()
+                .id(7L)
+                .solicitudId(3L)
+                .tipoValidacion(TipoValidacion.MATRICULA)
+                .exitosa(true)
+                .codigo(CodigoValidacion.MATRICULA_VIGENTE)
+                .valor1(20L)
+                .valor2(20L)
+                .institucionId(1)
+                .programaId(2)
+                .textoId(3)
+                .tiempoEjecucionMs(12L)
+                .timestamp(LocalDateTime.of(2025, 1, 1, 0, 0))
+                .build();
+        EventoValidacion evento = EventoValidacion.builder()
+                .codigo(CodigoValidacion.MATRICULA_VIGENTE)
+                .valor1(20)
+                .valor2(20)
+                .institucion("SENA Regional Bogotá")
+                .programa("Tecnología en Sistemas")
+                .texto("VIGENTE")
+                .build();
+        try (DiarioAuditoria diario = new DiarioAuditoria(ruta)) {
+            assertEquals(2, diario.agregar(List.of(new DiarioAuditoria.Entrada(log, evento), log(8))).join());
+        }
+
+        // Los textos se leen del propio diario, sin diccionario
+        List<AuditLog> leidos = new ArrayList<>();
+        DiarioAuditoria.reproducir(ruta, leidos::add);
+        assertEquals(2, leidos.size());
+        assertTrue(leidos.get(0).getMensaje().contains("SENA Regional Bogotá"));
+
+        // Cambiar un byte del nombre de la institución rompe la cadena
+        byte[] contenido = Files.readAllBytes(ruta);
+        int posicion = indice(contenido, "SENA".getBytes(StandardCharsets.UTF_8));
+        contenido[posicion] = 'Z';
+        Files.write(ruta, contenido);
+        DiarioAuditoria.Verificacion alterado = DiarioAuditoria.verificar(ruta);
+        assertFalse(alterado.isValido());
+        assertEquals(0, alterado.getRegistros());
+    }
+
+    private static int indice(byte[] contenido, byte[] buscado) {
+        for (int i = 0; i + buscado.length <= contenido.length; i++) {
+            if (Arrays.equals(contenido, i, i + buscado.length, buscado, 0, buscado.length)) {
+                return i;
+            }
+        }
+        throw new AssertionError("No está en el diario");
+    }
+
+    @Test
+    public void testDetectaRegistroAlterado() throws IOException {
+        Path ruta = directorio.resolve("diario.log");
+        try (DiarioAuditoria diario = new DiarioAuditoria(ruta)) {
+            for (long i = 1; i <= 100; i++) {
+                diario.registrar(log(i));
+            }
+        }
+        DiarioAuditoria.Verificacion intacto = DiarioAuditoria.verificar(ruta);
+        assertTrue(intacto.isValido());
+        assertEquals(100, intacto.getRegistros());
+
+        // Todos los registros miden lo mismo: se cambia un byte del registro 41
+        long largoRegistro = (Files.size(ruta) - 16) / 100;
+        long posicion = 16 + 40 * largoRegistro;
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer b = ByteBuffer.allocate(1);
+            canal.read(b, posicion + 20);
+            b.put(0, (byte) (b.get(0) ^ 0x01)).rewind();
+            canal.write(b, posicion + 20);
+        }
+
+        DiarioAuditoria.Verificacion alterado = DiarioAuditoria.verificar(ruta);
+        assertFalse(alterado.isValido());
+        assertEquals(40, alterado.getRegistros());
+        assertEquals(posicion, alterado.getPosicionFalla());
+        assertThrows(IOException.class, () -> DiarioAuditoria.reproducir(ruta, log -> { }));
+    }
+
+    @Test
+    public void testDescartaRegistroIncompletoAlReabrir() throws IOException {
+        Path ruta = directorio.resolve("diario.log");
+        try (DiarioAuditoria diario = new DiarioAuditoria(ruta)) {
+            diario.registrar(log(1));
+            diario.registrar(log(2));
+        }
+        long tamanio = Files.size(ruta);
+        // Un registro cortado a la mitad, como tras una caída
+        Files.write(ruta, new byte[] {0, 0, 0, 60, 1, 2, 3}, StandardOpenOption.APPEND);
+        assertFalse(DiarioAuditoria.verificar(ruta).isValido());
+
+        try (DiarioAuditoria diario = new DiarioAuditoria(ruta)) {
+            assertEquals(tamanio, Files.size(ruta));
+            assertEquals(2, diario.registros());
+            diario.registrar(log(3));
+        }
+        DiarioAuditoria.Verificacion verificacion = DiarioAuditoria.verificar(ruta);
+        assertTrue(verificacion.isValido());
+        assertEquals(3, verificacion.getRegistros());
+    }
+}
@@ -0,0 +1,76 @@
+package com.subsidios.rentajoven.shared.audit;
+
+import com.subsidios.rentajoven.infrastructure.persistence.TextoAuditoriaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del diccionario de textos de auditoría con un pool de una sola
+ * conexión: registrar un texto nuevo dentro de una transacción no puede
+ * pedir otra.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(DiccionarioAuditoria.class)
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:diccionario;DB_CLOSE_DELAY=-1",
+    "spring.datasource.hikari.maximum-pool-size=1",
+    "spring.datasource.hikari.connection-timeout=1000"
+})
+public class DiccionarioAuditoriaTest {
+
+    @Autowired
+    private DiccionarioAuditoria diccionario;
+
+    @Autowired
+    private TextoAuditoriaRepository repositorio;
+
+    @Autowired
+    private PlatformTransactionManager transacciones;
+
+    @Test
+    public void testTextoNuevoSeInsertaEnLaTransaccionYSePublicaAlConfirmar() {
+        TransactionTemplate transaccion = new TransactionTemplate(transacciones);
+
+        // Revertida: el id no queda ni en la base ni en memoria
+        transaccion.executeWithoutResult(estado -> {
+            Integer id = diccionario.id("Universidad Revertida");
+            assertEquals(id, diccionario.id("Universidad Revertida"), "Reutilizado dentro de la transacción");
+            estado.setRollbackOnly();
+        });
+        assertTrue(repositorio.findByTexto("Universidad Revertida").isEmpty());
+
+        Integer confirmado = transaccion.execute(estado -> diccionario.id("Universidad Revertida"));
+        assertEquals(confirmado, repositorio.findByTexto("Universidad Revertida").orElseThrow().getId());
+        long filas = repositorio.count();
+        assertEquals(confirmado, diccionario.id("Universidad Revertida"));
+        assertEquals("Universidad Revertida", diccionario.texto(confirmado));
+        assertEquals(filas, repositorio.count());
+    }
+
+    @Test
+    public void testPrecargaNoDuplicaTextos() {
+        diccionario.precargar(List.of("VIGENTE", "INACTIVA", "VIGENTE"));
+        Integer vigente = diccionario.id("VIGENTE");
+        long filas = repositorio.count();
+
+        diccionario.precargar(List.of("VIGENTE", "PROFESIONAL"));
+
+        assertEquals(filas + 1, repositorio.count());
+        assertEquals(vigente, diccionario.id("VIGENTE"));
+        assertNotEquals(vigente, diccionario.id("PROFESIONAL"));
+    }
+}
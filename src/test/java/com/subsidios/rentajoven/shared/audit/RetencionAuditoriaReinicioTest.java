@@ -0,0 +1,76 @@
+package com.subsidios.rentajoven.shared.audit;
+
+import com.subsidios.rentajoven.RentaJovenApplication;
+import com.subsidios.rentajoven.application.service.SolicitudService;
+import com.subsidios.rentajoven.infrastructure.persistence.AuditLogRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reinicio sobre el mismo directorio de archivo con una base en memoria
+ * nueva: los ids vuelven a empezar y los segmentos de la corrida anterior
+ * no deben aparecer en consultas ni en totales.
+ */
+public class RetencionAuditoriaReinicioTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    public void testBaseNuevaNoVeElArchivoDeLaAnterior() throws Exception {
+        long archivada;
+        try (ConfigurableApplicationContext contexto = arrancar("reinicio-a")) {
+            archivada = procesar(contexto);
+            RetencionAuditoria retencion = contexto.getBean(RetencionAuditoria.class);
+            assertTrue(retencion.archivar(LocalDateTime.now().plusDays(1)) > 0);
+            assertFalse(retencion.buscar(archivada).isEmpty());
+        }
+
+        try (ConfigurableApplicationContext contexto = arrancar("reinicio-b")) {
+            RetencionAuditoria retencion = contexto.getBean(RetencionAuditoria.class);
+            assertTrue(retencion.buscar(archivada).isEmpty(), "Segmentos de otra base");
+            assertTrue(retencion.resumen().isEmpty(), "Totales de otra base");
+
+            // La nueva solicitud reutiliza el id: solo se ven sus propios registros
+            long nueva = procesar(contexto);
+            assertEquals(archivada, nueva);
+            List<AuditLog> enBase = contexto.getBean(AuditLogRepository.class)
+                .findBySolicitudIdOrderByTimestampAsc(nueva);
+            List<AuditLog> consultados = contexto.getBean(AuditService.class).obtenerLogsSolicitud(nueva);
+            assertEquals(enBase.size(), consultados.size());
+            assertEquals(enBase.get(0).getId(), consultados.get(0).getId());
+        }
+        try (var apartados = Files.list(directorio.resolve("audit"))) {
+            assertTrue(apartados.anyMatch(p -> p.getFileName().toString().startsWith("otra-base-")));
+        }
+    }
+
+    private static long procesar(ConfigurableApplicationContext contexto) {
+        return contexto.getBean(SolicitudService.class)
+            .procesarSolicitud("1038106564", "MAT-00000001", 22).getSolicitudId();
+    }
+
+    private ConfigurableApplicationContext arrancar(String base) {
+        return new SpringApplicationBuilder(RentaJovenApplication.class)
+            .web(WebApplicationType.NONE)
+            .run("--spring.datasource.url=jdbc:h2:mem:" + base,
+                "--spring.jpa.show-sql=false",
+                "--snapshot.habilitado=false",
+                "--delta.directorio=" + directorio.resolve("delta"),
+                "--auditoria.archivo.directorio=" + directorio.resolve("audit"),
+                "--auditoria.diario.habilitado=false",
+                "--simulador.sisben.latencia.min=0", "--simulador.sisben.latencia.max=1",
+                "--simulador.snies.latencia.min=0", "--simulador.snies.latencia.max=1",
+                "--simulador.men.latencia.min=0", "--simulador.men.latencia.max=1");
+    }
+}
@@ -0,0 +1,134 @@
+package com.subsidios.rentajoven.shared.audit;
+
+import com.subsidios.rentajoven.domain.enums.CodigoValidacion;
+import com.subsidios.rentajoven.domain.enums.TipoValidacion;
+import com.subsidios.rentajoven.infrastructure.persistence.ResumenValidaciones;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del archivo de auditoría en segmentos: ida y vuelta de registros,
+ * búsqueda por solicitud entre segmentos, totales y recuperación al reabrir.
+ */
+public class SegmentosAuditoriaTest {
+
+    @TempDir
+    Path directorio;
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 3, 1, 8, 30, 15, 123_456_789);
+
+    private static AuditLog log(long id, long solicitudId, TipoValidacion tipo, boolean exitosa, int segundos) {
+        return AuditLog.builder()
+                .id(id)
+                .solicitudId(solicitudId)
+                .tipoValidacion(tipo)
+                .exitosa(exitosa)
+                .codigo(exitosa ? CodigoValidacion.SISBEN_ELEGIBLE : CodigoValidacion.SISBEN_NO_ENCONTRADO)
+                .valor1(id * 10)
+                .institucionId(id % 2 == 0 ? 7 : null)
+                .tiempoEjecucionMs(100 + id)
+                .timestamp(BASE.plusSeconds(segundos))
+                .build();
+    }
+
+    @Test
+    public void testIdaYVueltaEntreSegmentos() throws IOException {
+        SegmentosAuditoria segmentos = new SegmentosAuditoria(directorio);
+        List<AuditLog> primero = new ArrayList<>();
+        for (long s = 1; s <= 500; s++) {
+            primero.add(log(s * 2, s, TipoValidacion.SISBEN, s % 3 != 0, (int) s));
+        }
+        // Fuera de orden a propósito
+        primero.add(log(1, 42, TipoValidacion.DECISION_FINAL, true, 0));
+        segmentos.escribir(primero);
+        segmentos.escribir(List.of(log(5000, 42, TipoValidacion.MATRICULA, false, 900)));
+
+        List<AuditLog> logs = segmentos.buscar(42);
+        assertEquals(3, logs.size());
+        assertEquals(1L, logs.get(0).getId(), "Dentro del bloque quedan en orden cronológico");
+        assertEquals(84L, logs.get(1).getId());
+        assertEquals(5000L, logs.get(2).getId());
+
+        AuditLog leido = logs.get(1);
+        assertEquals(TipoValidacion.SISBEN, leido.getTipoValidacion());
+        assertEquals(BASE.plusSeconds(42), leido.getTimestamp());
+        assertEquals(840L, leido.getValor1());
+        assertNull(leido.getValor2());
+        assertEquals(7, leido.getInstitucionId());
+        assertEquals(184L, leido.getTiempoEjecucionMs());
+
+        assertTrue(segmentos.buscar(501).isEmpty());
+        assertTrue(segmentos.buscar(0).isEmpty());
+        assertEquals(502, segmentos.registros());
+    }
+
+    @Test
+    public void testResumenSobreviveAlReabrir() throws IOException {
+        SegmentosAuditoria segmentos = new SegmentosAuditoria(directorio);
+        segmentos.escribir(List.of(
+            log(1, 1, TipoValidacion.SISBEN, true, 0),
+            log(2, 2, TipoValidacion.SISBEN, true, 1),
+            log(3, 3, TipoValidacion.SISBEN, false, 2)));
+        segmentos.escribir(List.of(log(4, 4, TipoValidacion.SISBEN, true, 3)));
+
+        SegmentosAuditoria reabierto = new SegmentosAuditoria(directorio);
+        assertEquals(2, reabierto.segmentos());
+        // El último puede tener filas aún en la base: no cuenta hasta confirmarlo
+        assertArrayEquals(new long[] {2, 101 + 102}, exitosas(reabierto));
+        assertEquals(Set.of(4L), reabierto.idsUltimoSegmento());
+        reabierto.confirmarUltimo();
+        assertArrayEquals(new long[] {3, 101 + 102 + 104}, exitosas(reabierto));
+        assertEquals(1, reabierto.buscar(3).size());
+    }
+
+    @Test
+    public void testResumenEsperaAQueSeConfirmeElSegmento() throws IOException {
+        SegmentosAuditoria segmentos = new SegmentosAuditoria(directorio);
+        segmentos.escribir(List.of(log(1, 1, TipoValidacion.SISBEN, true, 0)));
+        assertTrue(segmentos.resumen().isEmpty(), "Escrito pero sin borrar de la base");
+        segmentos.confirmarUltimo();
+        segmentos.escribir(List.of(log(2, 2, TipoValidacion.SISBEN, true, 1)));
+        assertArrayEquals(new long[] {1, 101}, exitosas(segmentos));
+        segmentos.confirmarUltimo();
+        assertArrayEquals(new long[] {2, 101 + 102}, exitosas(segmentos));
+    }
+
+    // Total y tiempo de las validaciones exitosas del resumen
+    private static long[] exitosas(SegmentosAuditoria segmentos) {
+        long[] suma = new long[2];
+        for (ResumenValidaciones fila : segmentos.resumen()) {
+            if (fila.getExitosa()) {
+                suma[0] += fila.getTotal();
+                suma[1] += fila.getTiempoTotalMs();
+            }
+        }
+        return suma;
+    }
+
+    @Test
+    public void testDescartaEscriturasInterrumpidas() throws IOException {
+        SegmentosAuditoria segmentos = new SegmentosAuditoria(directorio);
+        segmentos.escribir(List.of(log(1, 1, TipoValidacion.SISBEN, true, 0)));
+        // Datos sin índice y temporales: una escritura que no llegó a publicarse
+        Files.write(directorio.resolve("segmento-000002.seg"), new byte[] {1, 2, 3});
+        Files.write(directorio.resolve("segmento-000003.idx.tmp"), new byte[] {1});
+
+        SegmentosAuditoria reabierto = new SegmentosAuditoria(directorio);
+        assertEquals(1, reabierto.segmentos());
+        assertFalse(Files.exists(directorio.resolve("segmento-000002.seg")));
+        assertFalse(Files.exists(directorio.resolve("segmento-000003.idx.tmp")));
+
+        reabierto.escribir(List.of(log(2, 1, TipoValidacion.MATRICULA, true, 5)));
+        assertEquals(2, reabierto.buscar(1).size());
+    }
+}
@@ -0,0 +1,49 @@
+package com.subsidios.rentajoven.shared.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de la caché del reporte académico: versión, ETag y recálculo en segundo plano.
+ */
+public class ReporteAcademicoTest {
+
+    @Test
+    public void testRecalculaSoloTrasDecisionesNuevas() throws InterruptedException {
+        AtomicInteger consultas = new AtomicInteger();
+        MetricsCollector collector = new MetricsCollector() {
+            @Override
+            public MetricsSummary generarResumen() {
+                return MetricsSummary.builder()
+                    .totalSolicitudes((long) consultas.incrementAndGet())
+                    .solicitudesAprobadas(0L).solicitudesRechazadas(0L)
+                    .tasaAprobacion(0.0).tasaRechazo(0.0)
+                    .tiempoPromedioSegundos(0.0).tiempoPromedioSISBEN(0.0).tiempoPromedioSNIES(0.0)
+                    .tiempoPromedioMEN(0.0).mejoraPorcentual(0.0).ahorroDiasPorSolicitud(0.0)
+                    .rechazosPorMotivo(new HashMap<>()).distribucionRechazos(new HashMap<>())
+                    .build();
+            }
+        };
+        ReporteAcademico cache = new ReporteAcademico(collector, 0);
+
+        ReporteAcademico.Reporte primero = cache.obtener();
+        assertSame(primero, cache.obtener(), "Sin decisiones nuevas no se recalcula");
+        assertEquals(1, consultas.get());
+
+        cache.registrarDecision();
+        // Se sirve el anterior mientras se recalcula en segundo plano
+        assertSame(primero, cache.obtener());
+        ReporteAcademico.Reporte segundo = primero;
+        for (int i = 0; i < 200 && segundo == primero; i++) {
+            Thread.sleep(10);
+            segundo = cache.obtener();
+        }
+        assertNotEquals(primero.getEtag(), segundo.getEtag());
+        assertEquals(1, segundo.getVersion());
+        assertEquals(2, consultas.get());
+    }
+}